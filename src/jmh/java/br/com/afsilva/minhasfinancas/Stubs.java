@@ -0,0 +1,82 @@
+package br.com.afsilva.minhasfinancas;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.function.Function;
+
+import org.mockito.Mockito;
+import org.springframework.beans.BeanUtils;
+
+/**
+ * Monta o bean pelo mesmo construtor que o Spring usaria, sem depender da ordem dos
+ * parâmetros: cada dependência recebe o stub informado do tipo correspondente ou um mock
+ * que não registra chamadas. Mudanças na assinatura não exigem ajustar os benchmarks.
+ * Os mocks servem só para dependências fora do caminho medido: cada chamada a um mock do
+ * Mockito captura a pilha e custa dezenas de microssegundos.
+ */
+public final class Stubs {
+
+	private Stubs() {
+	}
+
+	public static <T> T instanciar(Class<T> classe, Object... stubs) {
+
+		Constructor<T> construtor = construtor(classe);
+		Object[] argumentos = Arrays.stream(construtor.getParameterTypes())
+				.map(tipo -> dependencia(tipo, stubs))
+				.toArray();
+		return BeanUtils.instantiateClass(construtor, argumentos);
+	}
+
+	/**
+	 * Stub de uma interface no caminho medido: um proxy do JDK que responde ao método de
+	 * nome {@code metodo} com {@code resposta}, aplicada aos argumentos da chamada, sem o
+	 * registro de chamadas do Mockito. Qualquer outro método falha.
+	 */
+	public static <T> T responder(Class<T> tipo, String metodo, Function<Object[], Object> resposta) {
+		
+		Object stub = Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] { tipo }, (proxy, chamado, argumentos) -> {
+			if (chamado.getName().equals(metodo)) {
+				return resposta.apply(argumentos);
+			}
+			switch (chamado.getName()) {
+				case "equals":
+					return proxy == argumentos[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "stub de " + tipo.getSimpleName();
+				default:
+					throw new UnsupportedOperationException(tipo.getSimpleName() + "." + chamado.getName());
+			}
+		});
+		return tipo.cast(stub);
+	}
+	
+	/**
+	 * Como o Spring, aceita um construtor único mesmo que não seja público.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> Constructor<T> construtor(Class<T> classe) {
+
+		Constructor<?>[] construtores = classe.getDeclaredConstructors();
+		return construtores.length == 1 ? (Constructor<T>) construtores[0] : BeanUtils.getResolvableConstructor(classe);
+	}
+
+	private static Object dependencia(Class<?> tipo, Object[] stubs) {
+
+		for (Object stub : stubs) {
+			if (tipo.isInstance(stub)) {
+				return stub;
+			}
+		}
+
+		// Primitivos recebem o valor padrão do BeanUtils; valores finais (Duration, String) ficam nulos.
+		if (tipo.isPrimitive() || Modifier.isFinal(tipo.getModifiers())) {
+			return null;
+		}
+		return Mockito.mock(tipo, Mockito.withSettings().stubOnly());
+	}
+}
@@ -0,0 +1,86 @@
+package br.com.afsilva.minhasfinancas.api;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import br.com.afsilva.minhasfinancas.model.projection.LancamentoResumo;
+
+/**
+ * Serialização Jackson das listas de lançamentos, com o mesmo ObjectMapper que o Spring
+ * MVC monta: entidades com o usuário aninhado contra a projeção LancamentoResumo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SerializacaoLancamentoBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	public int tamanho;
+	
+	private ObjectMapper mapper;
+	private List<Lancamento> entidades;
+	private List<LancamentoResumo> resumos;
+	
+	@Setup
+	public void setUp() {
+		
+		mapper = Jackson2ObjectMapperBuilder.json().build();
+		Usuario usuario = new Usuario(1l, "usuario", "usuario@email.com", "senha");
+		
+		entidades = new ArrayList<>(tamanho);
+		resumos = new ArrayList<>(tamanho);
+		for (int i = 0; i < tamanho; i++) {
+			Lancamento lancamento = new Lancamento();
+			lancamento.setId((long) i);
+			lancamento.setDescricao("Lançamento " + i);
+			lancamento.setMes(i % 12 + 1);
+			lancamento.setAno(2020);
+			lancamento.setValor(BigDecimal.valueOf(100 + i, 2));
+			lancamento.setTipo(i % 2 == 0 ? TipoLancamento.RECEITA : TipoLancamento.DESPESA);
+			lancamento.setStatus(StatusLancamento.PENDENTE);
+			lancamento.setDataCadastro(LocalDate.of(2020, 1, 1));
+			lancamento.setUsuario(usuario);
+			entidades.add(lancamento);
+			
+			resumos.add(new LancamentoResumo(lancamento.getId(), lancamento.getDescricao(), lancamento.getMes(),
+					lancamento.getAno(), lancamento.getValor(), lancamento.getTipo(), lancamento.getStatus(),
+					lancamento.getDataCadastro(), usuario.getId()));
+		}
+	}
+	
+	@Benchmark
+	public byte[] serializarEntidades() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(entidades);
+	}
+	
+	@Benchmark
+	public byte[] serializarResumos() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(resumos);
+	}
+}
@@ -0,0 +1,81 @@
+package br.com.afsilva.minhasfinancas.controllers;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import br.com.afsilva.minhasfinancas.Stubs;
+import br.com.afsilva.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.afsilva.minhasfinancas.config.FiltroTokenAutenticacao;
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.service.GravacaoAgrupadaService;
+import br.com.afsilva.minhasfinancas.service.LancamentoService;
+import br.com.afsilva.minhasfinancas.service.UsuarioService;
+
+/**
+ * POST /api/lancamentos no controller (conversão do DTO e resolução do usuário) com o
+ * usuário vindo do token e vindo do UsuarioService. Os serviços são stubs em memória e o
+ * LancamentoService devolve o próprio lançamento, então a medida exclui o banco e isola o
+ * custo da conversão e da resolução do usuário. Os stubs são proxies do JDK em vez de mocks
+ * do Mockito, que registra a origem de cada chamada e dominaria a medida.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ConversaoLancamentoBenchmark {
+
+	private LancamentoController controller;
+	private LancamentoDTO dto;
+	private MockHttpServletRequest semToken;
+	private MockHttpServletRequest comToken;
+	
+	@Setup
+	public void setUp() {
+		
+		Usuario usuario = new Usuario(1l, "usuario", "usuario@email.com", null);
+		controller = Stubs.instanciar(LancamentoController.class,
+				Stubs.responder(LancamentoService.class, "salvar", argumentos -> argumentos[0]),
+				Stubs.responder(UsuarioService.class, "buscarPorId",
+						argumentos -> usuario.getId().equals(argumentos[0]) ? Optional.of(usuario) : Optional.empty()),
+				Stubs.responder(GravacaoAgrupadaService.class, "isAtiva", argumentos -> false));
+		
+		dto = new LancamentoDTO();
+		dto.setDescricao("Conta de luz");
+		dto.setMes(3);
+		dto.setAno(2020);
+		dto.setValor(BigDecimal.valueOf(150.75));
+		dto.setTipo("DESPESA");
+		dto.setStatus("PENDENTE");
+		dto.setUsuario(1l);
+		
+		semToken = new MockHttpServletRequest();
+		comToken = new MockHttpServletRequest();
+		comToken.setAttribute(FiltroTokenAutenticacao.ATRIBUTO_USUARIO, usuario);
+	}
+	
+	@Benchmark
+	public ResponseEntity<Object> salvarComUsuarioDoServico() {
+		return controller.salvar(dto, null, semToken);
+	}
+	
+	@Benchmark
+	public ResponseEntity<Object> salvarComUsuarioDoToken() {
+		return controller.salvar(dto, null, comToken);
+	}
+}
@@ -0,0 +1,81 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.service.imp.TokenServiceImp;
+
+/**
+ * Custo por requisição para identificar o usuário: validação local do token contra a
+ * consulta por id que cada endpoint fazia. A consulta é a select por chave primária do
+ * repositório em JDBC direto, com o statement já preparado, num H2 em memória: sem rede
+ * nem Hibernate, é um limite inferior do custo da consulta em produção.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AutenticacaoBenchmark {
+
+	private Connection conexao;
+	private PreparedStatement consultaPorId;
+	private TokenService tokenService;
+	private String token;
+
+	@Setup
+	public void setUp() throws SQLException {
+
+		conexao = DriverManager.getConnection("jdbc:h2:mem:autenticacao", "sa", "");
+		try (Statement ddl = conexao.createStatement()) {
+			ddl.execute("create table usuario (id bigint primary key, nome varchar(255), email varchar(255), senha varchar(255))");
+			ddl.execute("insert into usuario (id, nome, email, senha) values (1, 'usuario', 'benchmark@email.com', 'senha')");
+		}
+		consultaPorId = conexao.prepareStatement("select id, nome, email, senha from usuario where id = ?");
+
+		tokenService = new TokenServiceImp("segredo-do-benchmark-com-mais-de-32-bytes", Duration.ofMinutes(30));
+		token = tokenService.gerarToken(new Usuario(1l, "usuario", "benchmark@email.com", "senha"));
+	}
+
+	@TearDown
+	public void tearDown() throws SQLException {
+		// A última conexão fechada descarta o banco em memória.
+		conexao.close();
+	}
+
+	@Benchmark
+	public Usuario consultarPorId() throws SQLException {
+		
+		consultaPorId.setLong(1, 1l);
+		try (ResultSet linha = consultaPorId.executeQuery()) {
+			linha.next();
+			return new Usuario(linha.getLong("id"), linha.getString("nome"), linha.getString("email"), linha.getString("senha"));
+		}
+	}
+
+	@Benchmark
+	public Optional<Usuario> validarToken() {
+		return tokenService.validarToken(token);
+	}
+}
@@ -0,0 +1,73 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.enums.Recorrencia;
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+
+/**
+ * Expansão de recorrências em GeradorRecorrencia: 100 mil ocorrências por operação, em
+ * regras do tamanho máximo aceito pelo serviço (360) ou em uma única regra.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GeradorRecorrenciaBenchmark {
+
+	private static final int OCORRENCIAS = 100_000;
+	
+	@Param({ "360", "100000" })
+	public int ocorrenciasPorRegra;
+	
+	@Param({ "MENSAL", "PARCELADA" })
+	public Recorrencia recorrencia;
+	
+	private Lancamento modelo;
+	
+	@Setup
+	public void setUp() {
+		
+		modelo = new Lancamento();
+		modelo.setDescricao("Financiamento");
+		modelo.setMes(1);
+		modelo.setAno(2020);
+		modelo.setValor(new BigDecimal("123456.78"));
+		modelo.setTipo(TipoLancamento.DESPESA);
+		modelo.setStatus(StatusLancamento.PENDENTE);
+		modelo.setDataCadastro(LocalDate.now());
+		modelo.setUsuario(new Usuario(1l, "usuario", "usuario@email.com", null));
+	}
+	
+	@Benchmark
+	public int gerar() {
+		
+		int gerados = 0;
+		while (gerados < OCORRENCIAS) {
+			List<Lancamento> lancamentos = GeradorRecorrencia.gerar(modelo, recorrencia,
+					Math.min(ocorrenciasPorRegra, OCORRENCIAS - gerados));
+			gerados += lancamentos.size();
+		}
+		return gerados;
+	}
+}
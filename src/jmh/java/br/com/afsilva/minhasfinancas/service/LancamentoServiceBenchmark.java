@@ -0,0 +1,78 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.afsilva.minhasfinancas.Stubs;
+import br.com.afsilva.minhasfinancas.exception.RegraNegocioException;
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import br.com.afsilva.minhasfinancas.service.imp.LancamentoServiceImp;
+
+/**
+ * Custo de LancamentoServiceImp.validar para um lançamento válido e para um rejeitado
+ * (o caminho que lança RegraNegocioException).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LancamentoServiceBenchmark {
+
+	private LancamentoServiceImp service;
+	private Lancamento valido;
+	private Lancamento invalido;
+	
+	@Setup
+	public void setUp() {
+		
+		// validar não usa as dependências do serviço.
+		service = Stubs.instanciar(LancamentoServiceImp.class);
+		
+		valido = new Lancamento();
+		valido.setDescricao("Conta de luz");
+		valido.setMes(3);
+		valido.setAno(2020);
+		valido.setValor(BigDecimal.valueOf(150.75));
+		valido.setTipo(TipoLancamento.DESPESA);
+		valido.setStatus(StatusLancamento.PENDENTE);
+		valido.setDataCadastro(LocalDate.of(2020, 3, 1));
+		valido.setUsuario(new Usuario(1l, "usuario", "usuario@email.com", null));
+		
+		invalido = new Lancamento();
+		invalido.setDescricao("Conta de luz");
+		invalido.setMes(13);
+	}
+	
+	@Benchmark
+	public Lancamento validarLancamentoValido() {
+		service.validar(valido);
+		return valido;
+	}
+	
+	@Benchmark
+	public Object validarLancamentoInvalido() {
+		try {
+			service.validar(invalido);
+			return invalido;
+		} catch (RegraNegocioException e) {
+			return e;
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.entity.SaldoUsuario;
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+
+/**
+ * Aritmética de saldo: acumular as variações de um lote de lançamentos em
+ * MovimentacaoSaldo (como na importação) e calcular receitas - despesas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SaldoBenchmark {
+
+	private static final int USUARIOS = 10;
+	
+	@Param({ "10", "1000", "50000" })
+	public int tamanho;
+	
+	private List<Lancamento> lancamentos;
+	private SaldoUsuario saldo;
+	
+	@Setup
+	public void setUp() {
+		
+		lancamentos = new ArrayList<>(tamanho);
+		for (int i = 0; i < tamanho; i++) {
+			Lancamento lancamento = new Lancamento();
+			lancamento.setUsuario(new Usuario((long) (i % USUARIOS), "usuario", "usuario@email.com", null));
+			lancamento.setTipo(i % 3 == 0 ? TipoLancamento.RECEITA : TipoLancamento.DESPESA);
+			lancamento.setValor(BigDecimal.valueOf(100 + i % 1000, 2));
+			lancamentos.add(lancamento);
+		}
+		
+		saldo = new SaldoUsuario(1l, new BigDecimal("123456.78"), new BigDecimal("98765.43"));
+	}
+	
+	@Benchmark
+	public Map<Long, BigDecimal[]> acumularMovimentacao() {
+		
+		MovimentacaoSaldo movimentacao = new MovimentacaoSaldo();
+		for (Lancamento lancamento : lancamentos) {
+			movimentacao.adicionar(lancamento);
+		}
+		return movimentacao.getVariacoes();
+	}
+	
+	@Benchmark
+	public BigDecimal calcularSaldo() {
+		return saldo.getSaldo();
+	}
+}
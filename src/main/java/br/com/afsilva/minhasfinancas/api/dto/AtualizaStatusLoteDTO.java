@@ -0,0 +1,65 @@
+package br.com.afsilva.minhasfinancas.api.dto;
+
+import java.util.List;
+
+public class AtualizaStatusLoteDTO {
+
+	private String status;
+	private Long usuario;
+	private List<Long> ids;
+	private Integer mes;
+	private Integer ano;
+	private String statusAtual;
+	
+	public String getStatus() {
+		return status;
+	}
+	
+	public void setStatus(String status) {
+		this.status = status;
+	}
+	
+	public Long getUsuario() {
+		return usuario;
+	}
+	
+	public void setUsuario(Long usuario) {
+		this.usuario = usuario;
+	}
+	
+	public List<Long> getIds() {
+		return ids;
+	}
+	
+	public void setIds(List<Long> ids) {
+		this.ids = ids;
+	}
+	
+	public Integer getMes() {
+		return mes;
+	}
+	
+	public void setMes(Integer mes) {
+		this.mes = mes;
+	}
+	
+	public Integer getAno() {
+		return ano;
+	}
+	
+	public void setAno(Integer ano) {
+		this.ano = ano;
+	}
+	
+	public String getStatusAtual() {
+		return statusAtual;
+	}
+	
+	public void setStatusAtual(String statusAtual) {
+		this.statusAtual = statusAtual;
+	}
+
+	public AtualizaStatusLoteDTO() {
+		super();
+	}
+}
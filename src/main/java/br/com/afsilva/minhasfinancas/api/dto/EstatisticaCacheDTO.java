@@ -0,0 +1,63 @@
+package br.com.afsilva.minhasfinancas.api.dto;
+
+public class EstatisticaCacheDTO {
+
+	private String nome;
+	private long tamanho;
+	private long acertos;
+	private long faltas;
+	private double taxaAcerto;
+	private long remocoes;
+	
+	public String getNome() {
+		return nome;
+	}
+	
+	public void setNome(String nome) {
+		this.nome = nome;
+	}
+	
+	public long getTamanho() {
+		return tamanho;
+	}
+	
+	public void setTamanho(long tamanho) {
+		this.tamanho = tamanho;
+	}
+	
+	public long getAcertos() {
+		return acertos;
+	}
+	
+	public void setAcertos(long acertos) {
+		this.acertos = acertos;
+	}
+	
+	public long getFaltas() {
+		return faltas;
+	}
+	
+	public void setFaltas(long faltas) {
+		this.faltas = faltas;
+	}
+	
+	public double getTaxaAcerto() {
+		return taxaAcerto;
+	}
+	
+	public void setTaxaAcerto(double taxaAcerto) {
+		this.taxaAcerto = taxaAcerto;
+	}
+	
+	public long getRemocoes() {
+		return remocoes;
+	}
+	
+	public void setRemocoes(long remocoes) {
+		this.remocoes = remocoes;
+	}
+
+	public EstatisticaCacheDTO() {
+		super();
+	}
+}
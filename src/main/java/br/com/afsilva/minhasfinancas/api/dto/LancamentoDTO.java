@@ -17,6 +17,8 @@ public class LancamentoDTO {
 	private Long usuario;
 	private String tipo;
 	private String status;
+	private String recorrencia;
+	private Integer ocorrencias;
 	
 	
 	public Long getId() {
@@ -102,6 +104,26 @@ public class LancamentoDTO {
 	}
 
 
+	public String getRecorrencia() {
+		return recorrencia;
+	}
+
+
+	public void setRecorrencia(String recorrencia) {
+		this.recorrencia = recorrencia;
+	}
+
+
+	public Integer getOcorrencias() {
+		return ocorrencias;
+	}
+
+
+	public void setOcorrencias(Integer ocorrencias) {
+		this.ocorrencias = ocorrencias;
+	}
+
+
 	public LancamentoDTO() {
 		super();
 	
@@ -0,0 +1,35 @@
+package br.com.afsilva.minhasfinancas.api.dto;
+
+import java.util.List;
+
+public class PaginaDTO<T> {
+
+	private List<T> itens;
+	private String next;
+	
+	public List<T> getItens() {
+		return itens;
+	}
+	
+	public void setItens(List<T> itens) {
+		this.itens = itens;
+	}
+	
+	public String getNext() {
+		return next;
+	}
+	
+	public void setNext(String next) {
+		this.next = next;
+	}
+
+	public PaginaDTO(List<T> itens, String next) {
+		super();
+		this.itens = itens;
+		this.next = next;
+	}
+
+	public PaginaDTO() {
+		super();
+	}
+}
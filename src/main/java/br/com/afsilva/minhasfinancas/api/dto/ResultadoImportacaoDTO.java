@@ -0,0 +1,70 @@
+package br.com.afsilva.minhasfinancas.api.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ResultadoImportacaoDTO {
+
+	private int importados;
+	private int rejeitados;
+	private long duracaoMs;
+	private long lancamentosPorSegundo;
+	private List<ErroImportacaoDTO> erros = new ArrayList<>();
+	
+	public void adicionarErro(int linha, String mensagem) {
+		erros.add(new ErroImportacaoDTO(linha, mensagem));
+		rejeitados++;
+	}
+	
+	public int getImportados() {
+		return importados;
+	}
+
+	public void setImportados(int importados) {
+		this.importados = importados;
+	}
+
+	public int getRejeitados() {
+		return rejeitados;
+	}
+
+	public long getDuracaoMs() {
+		return duracaoMs;
+	}
+
+	public void setDuracaoMs(long duracaoMs) {
+		this.duracaoMs = duracaoMs;
+	}
+
+	public long getLancamentosPorSegundo() {
+		return lancamentosPorSegundo;
+	}
+
+	public void setLancamentosPorSegundo(long lancamentosPorSegundo) {
+		this.lancamentosPorSegundo = lancamentosPorSegundo;
+	}
+
+	public List<ErroImportacaoDTO> getErros() {
+		return erros;
+	}
+
+	public static class ErroImportacaoDTO {
+		
+		private int linha;
+		private String mensagem;
+		
+		public ErroImportacaoDTO(int linha, String mensagem) {
+			super();
+			this.linha = linha;
+			this.mensagem = mensagem;
+		}
+
+		public int getLinha() {
+			return linha;
+		}
+
+		public String getMensagem() {
+			return mensagem;
+		}
+	}
+}
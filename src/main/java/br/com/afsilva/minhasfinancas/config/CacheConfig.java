@@ -0,0 +1,16 @@
+package br.com.afsilva.minhasfinancas.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Habilita o cache de usuários. O CacheManager (Caffeine) é configurado pelas
+ * propriedades spring.cache.* do application.properties.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+	public static final String USUARIOS = "usuarios";
+	public static final String USUARIOS_POR_EMAIL = "usuariosPorEmail";
+}
@@ -0,0 +1,34 @@
+package br.com.afsilva.minhasfinancas.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Envolve o DataSource com o datasource-proxy para contar, por thread, os comandos SQL
+ * executados (QueryCountHolder). A contagem é zerada e registrada por requisição no
+ * {@link FiltroContagemConsultas}.
+ */
+@Component
+public class ContagemConsultasDataSource implements BeanPostProcessor {
+
+	public static final String NOME = "financas";
+	
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		
+		// Só o DataSource da aplicação: pools internos (primário e réplica do roteamento)
+		// seriam contados duas vezes.
+		if ("dataSource".equals(beanName) && bean instanceof DataSource && !(bean instanceof ProxyDataSource)) {
+			return ProxyDataSourceBuilder.create((DataSource) bean)
+					.name(NOME)
+					.countQuery()
+					.build();
+		}
+		return bean;
+	}
+}
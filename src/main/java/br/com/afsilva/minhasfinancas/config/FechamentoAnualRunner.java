@@ -0,0 +1,40 @@
+package br.com.afsilva.minhasfinancas.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import br.com.afsilva.minhasfinancas.service.FechamentoAnualService;
+
+/**
+ * Grava, ou refaz, o fechamento anual de todos os usuários quando a aplicação é iniciada
+ * com --minhasfinancas.fechamento.ano=AAAA.
+ */
+@Component
+@ConditionalOnProperty(name = "minhasfinancas.fechamento.ano")
+public class FechamentoAnualRunner implements ApplicationRunner {
+
+	private static final Logger log = LoggerFactory.getLogger(FechamentoAnualRunner.class);
+	
+	private FechamentoAnualService fechamentoAnualService;
+	private int ano;
+	
+	public FechamentoAnualRunner(FechamentoAnualService fechamentoAnualService,
+			@Value("${minhasfinancas.fechamento.ano}") int ano) {
+		this.fechamentoAnualService = fechamentoAnualService;
+		this.ano = ano;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		
+		long inicio = System.currentTimeMillis();
+		int usuarios = fechamentoAnualService.fecharTodos(ano);
+		log.info("Ano {} fechado para {} usuários em {} ms.", ano, usuarios, System.currentTimeMillis() - inicio);
+	}
+
+}
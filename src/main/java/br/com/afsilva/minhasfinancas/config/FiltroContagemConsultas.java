@@ -0,0 +1,65 @@
+package br.com.afsilva.minhasfinancas.config;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+
+/**
+ * Registra quantos comandos SQL cada requisição executou. A contagem sai em DEBUG e
+ * vira WARN acima de minhasfinancas.sql.alerta-consultas, o que costuma indicar N+1.
+ * Corpos assíncronos (exportação) rodam em outra thread e não entram na contagem.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FiltroContagemConsultas extends OncePerRequestFilter {
+
+	private static final Logger log = LoggerFactory.getLogger(FiltroContagemConsultas.class);
+	
+	private int limiteAlerta;
+	
+	public FiltroContagemConsultas(@Value("${minhasfinancas.sql.alerta-consultas:20}") int limiteAlerta) {
+		this.limiteAlerta = limiteAlerta;
+	}
+	
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		
+		// Não limpa no fim: a contagem da última requisição fica disponível na thread (testes).
+		QueryCountHolder.clear();
+		try {
+			chain.doFilter(request, response);
+			
+		} finally {
+			QueryCount contagem = QueryCountHolder.getGrandTotal();
+			if (contagem.getTotal() > limiteAlerta) {
+				log.warn(mensagem(), argumentos(request, contagem));
+			} else if (log.isDebugEnabled()) {
+				log.debug(mensagem(), argumentos(request, contagem));
+			}
+		}
+	}
+	
+	private static String mensagem() {
+		return "{} {}: {} comandos SQL (select={}, insert={}, update={}, delete={}, outros={})";
+	}
+	
+	private static Object[] argumentos(HttpServletRequest request, QueryCount contagem) {
+		return new Object[] { request.getMethod(), request.getRequestURI(), contagem.getTotal(), contagem.getSelect(),
+				contagem.getInsert(), contagem.getUpdate(), contagem.getDelete(), contagem.getOther() };
+	}
+}
@@ -0,0 +1,64 @@
+package br.com.afsilva.minhasfinancas.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.service.TokenService;
+
+/**
+ * Resolve o usuário da requisição a partir do header {@code Authorization: Bearer <token>},
+ * sem acesso ao banco. Requisições sem o header seguem como antes; token inválido ou
+ * expirado recebe 401.
+ */
+@Component
+public class FiltroTokenAutenticacao extends OncePerRequestFilter {
+
+	public static final String ATRIBUTO_USUARIO = FiltroTokenAutenticacao.class.getName() + ".usuario";
+	
+	private static final String PREFIXO = "Bearer ";
+	
+	private TokenService tokenService;
+	
+	public FiltroTokenAutenticacao(TokenService tokenService) {
+		this.tokenService = tokenService;
+	}
+	
+	public static Optional<Usuario> usuarioAutenticado(HttpServletRequest request) {
+		return Optional.ofNullable((Usuario) request.getAttribute(ATRIBUTO_USUARIO));
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		
+		String cabecalho = request.getHeader(HttpHeaders.AUTHORIZATION);
+		if (cabecalho == null || !cabecalho.startsWith(PREFIXO)) {
+			chain.doFilter(request, response);
+			return;
+		}
+		
+		Optional<Usuario> usuario = tokenService.validarToken(cabecalho.substring(PREFIXO.length()).trim());
+		if (!usuario.isPresent()) {
+			response.setStatus(HttpStatus.UNAUTHORIZED.value());
+			response.setContentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8).toString());
+			response.getWriter().write("Token de autenticação inválido ou expirado.");
+			return;
+		}
+		
+		request.setAttribute(ATRIBUTO_USUARIO, usuario.get());
+		chain.doFilter(request, response);
+	}
+}
@@ -0,0 +1,50 @@
+package br.com.afsilva.minhasfinancas.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Cronometra os métodos públicos dos serviços (@Service de service.imp) no timer
+ * minhasfinancas.servico, com as tags classe, metodo e excecao e histograma de
+ * percentis. Chamadas internas ao próprio serviço não passam pelo proxy e não são medidas.
+ */
+@Aspect
+@Component
+public class MetricasServicoAspect {
+
+	public static final String TIMER = "minhasfinancas.servico";
+	
+	private MeterRegistry registry;
+	
+	public MetricasServicoAspect(MeterRegistry registry) {
+		this.registry = registry;
+	}
+	
+	@Around("within(br.com.afsilva.minhasfinancas.service.imp..*) && @within(org.springframework.stereotype.Service) && execution(public * *(..))")
+	public Object cronometrar(ProceedingJoinPoint ponto) throws Throwable {
+		
+		Timer.Sample amostra = Timer.start(registry);
+		String excecao = "none";
+		try {
+			return ponto.proceed();
+			
+		} catch (Throwable e) {
+			excecao = e.getClass().getSimpleName();
+			throw e;
+			
+		} finally {
+			amostra.stop(Timer.builder(TIMER)
+					.description("Tempo de execução dos métodos de serviço")
+					.tag("classe", ponto.getSignature().getDeclaringType().getSimpleName())
+					.tag("metodo", ponto.getSignature().getName())
+					.tag("excecao", excecao)
+					.publishPercentileHistogram()
+					.register(registry));
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package br.com.afsilva.minhasfinancas.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import br.com.afsilva.minhasfinancas.service.ResumoMensalService;
+import br.com.afsilva.minhasfinancas.service.SaldoUsuarioService;
+
+/**
+ * Recalcula as tabelas saldo_usuario e resumo_mensal a partir dos lançamentos quando a
+ * aplicação é iniciada com --minhasfinancas.saldo.reconstruir=true.
+ */
+@Component
+@ConditionalOnProperty(name = "minhasfinancas.saldo.reconstruir", havingValue = "true")
+public class ReconstrucaoSaldoRunner implements ApplicationRunner {
+
+	private static final Logger log = LoggerFactory.getLogger(ReconstrucaoSaldoRunner.class);
+	
+	private SaldoUsuarioService saldoUsuarioService;
+	private ResumoMensalService resumoMensalService;
+	
+	public ReconstrucaoSaldoRunner(SaldoUsuarioService saldoUsuarioService, ResumoMensalService resumoMensalService) {
+		this.saldoUsuarioService = saldoUsuarioService;
+		this.resumoMensalService = resumoMensalService;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		
+		long inicio = System.currentTimeMillis();
+		int usuarios = saldoUsuarioService.reconstruirTodos();
+		log.info("Saldos reconstruídos para {} usuários em {} ms.", usuarios, System.currentTimeMillis() - inicio);
+		
+		inicio = System.currentTimeMillis();
+		int celulas = resumoMensalService.reconstruirTodos();
+		log.info("Resumo mensal reconstruído com {} linhas em {} ms.", celulas, System.currentTimeMillis() - inicio);
+	}
+
+}
@@ -0,0 +1,98 @@
+package br.com.afsilva.minhasfinancas.config;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Envia as transações readOnly para a réplica e o resto (escritas e comandos fora de
+ * transação) para o primário. Dentro de uma requisição, depois da primeira escrita as
+ * leituras também vão para o primário, para que a requisição enxergue o que gravou; o
+ * mesmo vale a partir de {@link #lerNoPrimario()}.
+ * <p>
+ * A decisão usa a transação corrente, por isso a conexão é preguiçosa: a conexão real só
+ * é obtida no primeiro comando, quando o readOnly já foi registrado pelo gerenciador de
+ * transações.
+ */
+public class RoteamentoDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+	public enum Destino { PRIMARIO, REPLICA }
+	
+	/** Presente só durante uma requisição; {@code [0]} indica que ela já escreveu ou pediu o primário. */
+	private static final ThreadLocal<boolean[]> ESCRITA_NA_REQUISICAO = new ThreadLocal<>();
+	
+	private HikariDataSource primario;
+	private HikariDataSource replica;
+	
+	public RoteamentoDataSource(HikariDataSource primario, HikariDataSource replica) {
+		
+		this.primario = primario;
+		this.replica = replica;
+		
+		Map<Object, Object> destinos = new HashMap<>();
+		destinos.put(Destino.PRIMARIO, primario);
+		destinos.put(Destino.REPLICA, replica);
+		
+		AbstractRoutingDataSource roteador = new AbstractRoutingDataSource() {
+			@Override
+			protected Object determineCurrentLookupKey() {
+				return destinoAtual();
+			}
+		};
+		roteador.setTargetDataSources(destinos);
+		roteador.setDefaultTargetDataSource(primario);
+		roteador.afterPropertiesSet();
+		
+		setTargetDataSource(roteador);
+		// Evita abrir uma conexão no primário só para ler os padrões de autocommit/isolamento.
+		setDefaultAutoCommit(true);
+	}
+	
+	public static void iniciarRequisicao() {
+		ESCRITA_NA_REQUISICAO.set(new boolean[1]);
+	}
+	
+	public static void encerrarRequisicao() {
+		ESCRITA_NA_REQUISICAO.remove();
+	}
+	
+	/**
+	 * As leituras seguintes da requisição vão para o primário. Usado quando a resposta leva
+	 * um ETag lido da versão em memória: a réplica atrasada devolveria dados anteriores a
+	 * ele. Fora de uma requisição (ou sem réplica configurada) não tem efeito.
+	 */
+	public static void lerNoPrimario() {
+		
+		boolean[] escritaNaRequisicao = ESCRITA_NA_REQUISICAO.get();
+		if (escritaNaRequisicao != null) {
+			escritaNaRequisicao[0] = true;
+		}
+	}
+	
+	public static Destino destinoAtual() {
+		
+		boolean transacao = TransactionSynchronizationManager.isActualTransactionActive();
+		boolean[] escritaNaRequisicao = ESCRITA_NA_REQUISICAO.get();
+		
+		if (transacao && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return escritaNaRequisicao != null && escritaNaRequisicao[0] ? Destino.PRIMARIO : Destino.REPLICA;
+		}
+		
+		if (transacao && escritaNaRequisicao != null) {
+			escritaNaRequisicao[0] = true;
+		}
+		return Destino.PRIMARIO;
+	}
+	
+	@Override
+	public void close() {
+		primario.close();
+		replica.close();
+	}
+}
@@ -0,0 +1,77 @@
+package br.com.afsilva.minhasfinancas.config;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Ativado por minhasfinancas.replica.jdbc-url: o primário continua vindo de
+ * spring.datasource.* e a réplica usa as propriedades do Hikari em minhasfinancas.replica.*.
+ */
+@Configuration
+@ConditionalOnProperty("minhasfinancas.replica.jdbc-url")
+public class RoteamentoDataSourceConfig {
+
+	@Bean(destroyMethod = "close")
+	public RoteamentoDataSource dataSource(DataSourceProperties propriedades, Environment ambiente) {
+		
+		Binder binder = Binder.get(ambiente);
+		
+		HikariDataSource primario = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		binder.bind("spring.datasource.hikari", Bindable.ofInstance(primario));
+		primario.setPoolName("primario");
+		
+		HikariDataSource replica = new HikariDataSource();
+		binder.bind("minhasfinancas.replica", Bindable.ofInstance(replica));
+		replica.setPoolName("replica");
+		replica.setReadOnly(true);
+		
+		return new RoteamentoDataSource(primario, replica);
+	}
+	
+	/**
+	 * Com o open-in-view a sessão do Hibernate vive a requisição inteira e, por padrão,
+	 * segura a mesma conexão até o fim: uma leitura na réplica seria reaproveitada pela
+	 * escrita seguinte. Liberando a conexão a cada transação, cada uma é roteada de novo.
+	 */
+	@Bean
+	public HibernatePropertiesCustomizer liberarConexaoAposTransacao() {
+		return propriedades -> propriedades.put(AvailableSettings.CONNECTION_HANDLING,
+				PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+	}
+	
+	@Bean
+	public OncePerRequestFilter filtroLeituraAposEscrita() {
+		return new OncePerRequestFilter() {
+			
+			@Override
+			protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+					throws ServletException, IOException {
+				
+				RoteamentoDataSource.iniciarRequisicao();
+				try {
+					chain.doFilter(request, response);
+				} finally {
+					RoteamentoDataSource.encerrarRequisicao();
+				}
+			}
+		};
+	}
+}
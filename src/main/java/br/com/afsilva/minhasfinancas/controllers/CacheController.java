@@ -0,0 +1,55 @@
+package br.com.afsilva.minhasfinancas.controllers;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import br.com.afsilva.minhasfinancas.api.dto.EstatisticaCacheDTO;
+
+@RestController
+@RequestMapping("/api/caches")
+public class CacheController {
+
+	private CacheManager cacheManager;
+	
+	public CacheController(CacheManager cacheManager) {
+		this.cacheManager = cacheManager;
+	}
+	
+	@GetMapping
+	public ResponseEntity<List<EstatisticaCacheDTO>> estatisticas() {
+		
+		List<EstatisticaCacheDTO> estatisticas = cacheManager.getCacheNames().stream()
+				.sorted()
+				.map(cacheManager::getCache)
+				.filter(cache -> cache instanceof CaffeineCache)
+				.map(this::converter)
+				.collect(Collectors.toList());
+		
+		return ResponseEntity.ok(estatisticas);
+	}
+	
+	private EstatisticaCacheDTO converter(Cache cache) {
+		
+		com.github.benmanes.caffeine.cache.Cache<Object, Object> nativo = ((CaffeineCache) cache).getNativeCache();
+		CacheStats stats = nativo.stats();
+		
+		EstatisticaCacheDTO dto = new EstatisticaCacheDTO();
+		dto.setNome(cache.getName());
+		dto.setTamanho(nativo.estimatedSize());
+		dto.setAcertos(stats.hitCount());
+		dto.setFaltas(stats.missCount());
+		dto.setTaxaAcerto(stats.hitRate());
+		dto.setRemocoes(stats.evictionCount());
+		return dto;
+	}
+}
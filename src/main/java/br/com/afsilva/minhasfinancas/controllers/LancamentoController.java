@@ -1,48 +1,131 @@
 package br.com.afsilva.minhasfinancas.controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import br.com.afsilva.minhasfinancas.api.dto.AtualizaStatusDTO;
+import br.com.afsilva.minhasfinancas.api.dto.AtualizaStatusLoteDTO;
 import br.com.afsilva.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.afsilva.minhasfinancas.api.dto.PaginaDTO;
+import br.com.afsilva.minhasfinancas.api.dto.ResultadoImportacaoDTO;
+import br.com.afsilva.minhasfinancas.config.FiltroTokenAutenticacao;
+import br.com.afsilva.minhasfinancas.config.RoteamentoDataSource;
+import br.com.afsilva.minhasfinancas.exception.ConflitoIdempotenciaException;
 import br.com.afsilva.minhasfinancas.exception.RegraNegocioException;
 import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
 import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.enums.FormatoExportacao;
+import br.com.afsilva.minhasfinancas.model.enums.Recorrencia;
 import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
 import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import br.com.afsilva.minhasfinancas.model.projection.LancamentoResumo;
+import br.com.afsilva.minhasfinancas.model.repository.CursorLancamento;
+import br.com.afsilva.minhasfinancas.service.ExportacaoLancamentoService;
+import br.com.afsilva.minhasfinancas.service.GravacaoAgrupadaService;
+import br.com.afsilva.minhasfinancas.service.IdempotenciaService;
+import br.com.afsilva.minhasfinancas.service.ImportacaoLancamentoService;
 import br.com.afsilva.minhasfinancas.service.LancamentoService;
+import br.com.afsilva.minhasfinancas.service.RespostaGravada;
 import br.com.afsilva.minhasfinancas.service.UsuarioService;
+import br.com.afsilva.minhasfinancas.service.VersaoDadosService;
 
 @RestController
 @RequestMapping("/api/lancamentos")
 public class LancamentoController {
 
+	static final int LIMITE_PADRAO = 50;
+	static final int LIMITE_MAXIMO = 500;
+	static final int TAMANHO_MAXIMO_CHAVE_IDEMPOTENCIA = 255;
+	static final String CABECALHO_PROXIMA_PAGINA = "X-Next-Cursor";
+	
 	private LancamentoService service;
 	private UsuarioService usuarioService;
+	private ExportacaoLancamentoService exportacaoService;
+	private ImportacaoLancamentoService importacaoService;
+	private VersaoDadosService versaoDados;
+	private IdempotenciaService idempotencia;
+	private ObjectMapper mapper;
+	private GravacaoAgrupadaService gravacaoAgrupada;
 	
-	private LancamentoController(LancamentoService service, UsuarioService usuarioService) {
+	private LancamentoController(LancamentoService service, UsuarioService usuarioService,
+			ExportacaoLancamentoService exportacaoService, ImportacaoLancamentoService importacaoService,
+			VersaoDadosService versaoDados, IdempotenciaService idempotencia, ObjectMapper mapper,
+			GravacaoAgrupadaService gravacaoAgrupada) {
 		this.service = service;
 		this.usuarioService = usuarioService;
+		this.exportacaoService = exportacaoService;
+		this.importacaoService = importacaoService;
+		this.versaoDados = versaoDados;
+		this.idempotencia = idempotencia;
+		this.mapper = mapper;
+		this.gravacaoAgrupada = gravacaoAgrupada;
 	}
 	
+	/**
+	 * Com Idempotency-Key, a primeira resposta é gravada e repetida nos reenvios da mesma
+	 * chave sem gravar outro lançamento; a chave vale por usuário.
+	 */
 	@PostMapping
-	public ResponseEntity<Object> salvar(@RequestBody LancamentoDTO dto) {
+	public ResponseEntity<Object> salvar(@RequestBody LancamentoDTO dto,
+			@RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia,
+			HttpServletRequest request) {
+		
+		if (chaveIdempotencia == null) {
+			return salvar(dto, request);
+		}
+		
+		if (chaveIdempotencia.isEmpty() || chaveIdempotencia.length() > TAMANHO_MAXIMO_CHAVE_IDEMPOTENCIA) {
+			return ResponseEntity.badRequest().body("Informe uma Idempotency-Key com até " + TAMANHO_MAXIMO_CHAVE_IDEMPOTENCIA + " caracteres.");
+		}
+		
+		Long idUsuario = FiltroTokenAutenticacao.usuarioAutenticado(request).map(Usuario::getId).orElse(dto.getUsuario());
+		String chave = "lancamento:" + idUsuario + ":" + chaveIdempotencia;
 		
 		try {
-			Lancamento lancamento = converter(dto);
-			lancamento = service.salvar(lancamento);
+			RespostaGravada resposta = idempotencia.executar(chave, impressao(dto), () -> gravar(salvar(dto, request)));
+			return ResponseEntity.status(resposta.getStatus())
+					.contentType(MediaType.parseMediaType(resposta.getTipoConteudo()))
+					.body(resposta.getCorpo());
+			
+		} catch (ConflitoIdempotenciaException e) {
+			return ResponseEntity.status(e.isEmAndamento() ? HttpStatus.CONFLICT : HttpStatus.UNPROCESSABLE_ENTITY)
+					.body(e.getMessage());
+		}
+	}
+	
+	private ResponseEntity<Object> salvar(LancamentoDTO dto, HttpServletRequest request) {
+		
+		try {
+			Lancamento lancamento = converter(dto, request);
+			lancamento = gravacaoAgrupada.isAtiva() ? gravacaoAgrupada.salvar(lancamento) : service.salvar(lancamento);
 			return  new ResponseEntity<Object>(lancamento, HttpStatus.CREATED);
 			
 		} catch (RegraNegocioException e) {
@@ -51,12 +134,68 @@ public class LancamentoController {
 		
 	}
 	
+	/**
+	 * Grava todas as ocorrências de uma recorrência (mensal ou parcelada) de uma vez, a
+	 * partir do mês e ano informados.
+	 */
+	@PostMapping("/recorrencia")
+	public ResponseEntity<Object> salvarRecorrencia(@RequestBody LancamentoDTO dto, HttpServletRequest request) {
+		
+		Recorrencia recorrencia;
+		try {
+			recorrencia = Recorrencia.valueOf(String.valueOf(dto.getRecorrencia()));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body("Informe uma Recorrência válida.");
+		}
+		
+		try {
+			Lancamento lancamento = converter(dto, request);
+			int ocorrencias = dto.getOcorrencias() == null ? 0 : dto.getOcorrencias();
+			List<Lancamento> lancamentos = service.salvarRecorrencia(lancamento, recorrencia, ocorrencias);
+			return new ResponseEntity<Object>(lancamentos, HttpStatus.CREATED);
+			
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	@PostMapping(value = "/importar", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity importar(@RequestBody List<LancamentoDTO> dtos, HttpServletRequest request) {
+		
+		Usuario autenticado = FiltroTokenAutenticacao.usuarioAutenticado(request).orElse(null);
+		return respostaImportacao(importacaoService.importar(dtos, autenticado));
+	}
+	
+	@PostMapping(value = "/importar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+	public ResponseEntity importarCsv(@RequestParam("arquivo") MultipartFile arquivo, HttpServletRequest request) {
+		
+		Usuario autenticado = FiltroTokenAutenticacao.usuarioAutenticado(request).orElse(null);
+		try (InputStream csv = arquivo.getInputStream()) {
+			return respostaImportacao(importacaoService.importarCsv(csv, autenticado));
+			
+		} catch (RegraNegocioException | IOException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	private ResponseEntity respostaImportacao(ResultadoImportacaoDTO resultado) {
+		
+		if (resultado.getImportados() == 0 && resultado.getRejeitados() > 0) {
+			return ResponseEntity.badRequest().body(resultado);
+		}
+		return new ResponseEntity(resultado, HttpStatus.CREATED);
+	}
+	
 	@PutMapping("{id}")
-	public ResponseEntity atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDTO dto) {
+	public ResponseEntity atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDTO dto, HttpServletRequest request) {
 		
 		return service.obterPorId(id).map(entity -> {
+			if (!pertenceAoAutenticado(entity, request)) {
+				return new ResponseEntity(HttpStatus.FORBIDDEN);
+			}
+			
 			try {
-				Lancamento lancamento = converter(dto);
+				Lancamento lancamento = converter(dto, request);
 				lancamento.setId(entity.getId());
 				service.atualizar(lancamento);
 				return ResponseEntity.ok(lancamento);
@@ -69,8 +208,11 @@ public class LancamentoController {
 	}
 	
 	@DeleteMapping("{id}")
-	public ResponseEntity deletar(@PathVariable("id") Long id) {
+	public ResponseEntity deletar(@PathVariable("id") Long id, HttpServletRequest request) {
 		return service.obterPorId(id).map(lancamento -> {
+			if (!pertenceAoAutenticado(lancamento, request)) {
+				return new ResponseEntity(HttpStatus.FORBIDDEN);
+			}
 			service.deletar(lancamento);
 			return new ResponseEntity(HttpStatus.NO_CONTENT);
 		}).orElseGet(() ->
@@ -82,7 +224,10 @@ public class LancamentoController {
 			@RequestParam(value = "descricao", required = false) String descricao,
 			@RequestParam(value = "mes", required = false) Integer mes,
 			@RequestParam(value = "ano", required = false) Integer ano,
-			@RequestParam("usuario") Long idUsuario) {
+			@RequestParam(value = "usuario", required = false) Long idUsuario,
+			@RequestParam(value = "limit", required = false) Integer limite,
+			@RequestParam(value = "next", required = false) String next,
+			HttpServletRequest request, WebRequest webRequest) {
 		
 		Lancamento lancamentoFiltro = new Lancamento();
 		lancamentoFiltro.setDescricao(descricao);
@@ -90,22 +235,124 @@ public class LancamentoController {
 		lancamentoFiltro.setAno(ano);
 
 		
-		Optional<Usuario> usuario = usuarioService.buscarPorId(idUsuario);
+		Optional<Usuario> usuario;
+		try {
+			usuario = resolverUsuario(idUsuario, request);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+		
 		if (!usuario.isPresent()) {
 			return ResponseEntity.badRequest().body("Não foi possível realizar a consulta. Usuário não encontrado para o Id informado");
 		}else {
 			lancamentoFiltro.setUsuario(usuario.get());
 		}
 		
-		List<Lancamento> lancamentos = service.buscar(lancamentoFiltro);
-		return ResponseEntity.ok(lancamentos);
+		// A versão é lida antes da consulta; com If-None-Match igual responde 304 sem ir ao banco.
+		if (webRequest.checkNotModified(versaoDados.etag(usuario.get().getId()))) {
+			return null;
+		}
+		// O corpo acompanha o ETag: não pode vir de uma réplica que ainda não viu essa versão.
+		RoteamentoDataSource.lerNoPrimario();
+		
+		if (limite == null && next == null) {
+			return buscarLista(lancamentoFiltro);
+		}
+		
+		return buscarPagina(lancamentoFiltro, limite, next);
 		
 	}
 	
+	/**
+	 * Sem limit nem next a resposta continua sendo a lista, com no máximo LIMITE_MAXIMO
+	 * lançamentos; quando há mais, o cursor da continuação vai no cabeçalho X-Next-Cursor.
+	 */
+	private ResponseEntity buscarLista(Lancamento lancamentoFiltro) {
+		
+		List<LancamentoResumo> lancamentos = service.buscar(lancamentoFiltro, null, LIMITE_MAXIMO + 1);
+		if (lancamentos.size() <= LIMITE_MAXIMO) {
+			return ResponseEntity.ok(lancamentos);
+		}
+		
+		lancamentos = lancamentos.subList(0, LIMITE_MAXIMO);
+		return ResponseEntity.ok()
+				.header(CABECALHO_PROXIMA_PAGINA, CursorLancamento.de(lancamentos.get(LIMITE_MAXIMO - 1)).codificar())
+				.body(lancamentos);
+	}
+	
+	private ResponseEntity buscarPagina(Lancamento lancamentoFiltro, Integer limite, String next) {
+		
+		int tamanho = limite == null ? LIMITE_PADRAO : Math.min(limite, LIMITE_MAXIMO);
+		if (tamanho < 1) {
+			return ResponseEntity.badRequest().body("Informe um limite válido.");
+		}
+		
+		try {
+			CursorLancamento cursor = next == null ? null : CursorLancamento.decodificar(next);
+			
+			// Uma linha a mais indica se existe próxima página sem precisar de contagem.
+			List<LancamentoResumo> lancamentos = service.buscar(lancamentoFiltro, cursor, tamanho + 1);
+			String proximo = null;
+			if (lancamentos.size() > tamanho) {
+				lancamentos = lancamentos.subList(0, tamanho);
+				proximo = CursorLancamento.de(lancamentos.get(tamanho - 1)).codificar();
+			}
+			
+			return ResponseEntity.ok(new PaginaDTO<>(lancamentos, proximo));
+			
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	@GetMapping("/exportar")
+	public ResponseEntity<StreamingResponseBody> exportar(
+			@RequestParam(value = "usuario", required = false) Long idUsuario,
+			@RequestParam(value = "formato", defaultValue = "ndjson") String formato,
+			HttpServletRequest request) {
+		
+		FormatoExportacao formatoExportacao;
+		try {
+			formatoExportacao = FormatoExportacao.valueOf(formato.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			return erroExportacao("Formato de exportação inválido, utilize ndjson ou csv.");
+		}
+		
+		Optional<Usuario> usuario;
+		try {
+			usuario = resolverUsuario(idUsuario, request);
+		} catch (RegraNegocioException e) {
+			return erroExportacao(e.getMessage());
+		}
+		
+		if (!usuario.isPresent()) {
+			return erroExportacao("Não foi possível realizar a exportação. Usuário não encontrado para o Id informado");
+		}
+		
+		Long id = usuario.get().getId();
+		StreamingResponseBody corpo = saida -> exportacaoService.exportar(id, formatoExportacao, saida);
+		
+		boolean csv = formatoExportacao == FormatoExportacao.CSV;
+		return ResponseEntity.ok()
+				.contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : new MediaType("application", "x-ndjson"))
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"lancamentos-" + id + (csv ? ".csv" : ".ndjson") + "\"")
+				.body(corpo);
+	}
+	
+	private ResponseEntity<StreamingResponseBody> erroExportacao(String mensagem) {
+		return ResponseEntity.badRequest()
+				.contentType(new MediaType("text", "plain", StandardCharsets.UTF_8))
+				.body(saida -> saida.write(mensagem.getBytes(StandardCharsets.UTF_8)));
+	}
+	
 	@PutMapping("{id}/atualiza-status")
-	public ResponseEntity atualizaStatus(@PathVariable("id") Long id,  @RequestBody AtualizaStatusDTO dto) {
+	public ResponseEntity atualizaStatus(@PathVariable("id") Long id,  @RequestBody AtualizaStatusDTO dto, HttpServletRequest request) {
 		
 		return service.obterPorId(id).map( lancamento -> {
+			if (!pertenceAoAutenticado(lancamento, request)) {
+				return new ResponseEntity(HttpStatus.FORBIDDEN);
+			}
+			
 			StatusLancamento statusSelecionado = StatusLancamento.valueOf(dto.getStatus());
 			if (statusSelecionado == null) {
 				ResponseEntity.badRequest().body("Não foi possível atualizar o status do lançamento, envie um status válido");
@@ -123,7 +370,85 @@ public class LancamentoController {
 		new ResponseEntity("Lançamento não encontrado na base de dados.", HttpStatus.BAD_REQUEST));
 	}
 	
-	private Lancamento converter(LancamentoDTO dto) {
+	@PutMapping("/status")
+	public ResponseEntity atualizaStatusEmLote(@RequestBody AtualizaStatusLoteDTO dto, HttpServletRequest request) {
+		
+		try {
+			Lancamento lancamentoFiltro = new Lancamento();
+			lancamentoFiltro.setMes(dto.getMes());
+			lancamentoFiltro.setAno(dto.getAno());
+			
+			// O filtro só alcança os lançamentos do usuário autenticado, nunca o id do corpo por si só.
+			Usuario usuario = resolverUsuario(dto.getUsuario(), request)
+				.orElseThrow(() -> new RegraNegocioException("Informe um Usuário válido."));
+			lancamentoFiltro.setUsuario(usuario);
+			
+			if (dto.getStatusAtual() != null) {
+				lancamentoFiltro.setStatus(StatusLancamento.valueOf(dto.getStatusAtual()));
+			}
+			
+			StatusLancamento status = dto.getStatus() == null ? null : StatusLancamento.valueOf(dto.getStatus());
+			
+			int alterados = service.atualizarStatus(lancamentoFiltro, dto.getIds(), status);
+			return ResponseEntity.ok(alterados);
+			
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body("Não foi possível atualizar o status dos lançamentos, envie um status válido");
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	private String impressao(LancamentoDTO dto) {
+		try {
+			return DigestUtils.md5DigestAsHex(mapper.writeValueAsBytes(dto));
+		} catch (JsonProcessingException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private RespostaGravada gravar(ResponseEntity<Object> resposta) {
+		
+		Object corpo = resposta.getBody();
+		if (corpo instanceof String) {
+			return new RespostaGravada(resposta.getStatusCodeValue(), "text/plain;charset=UTF-8", (String) corpo);
+		}
+		
+		try {
+			return new RespostaGravada(resposta.getStatusCodeValue(), MediaType.APPLICATION_JSON_VALUE, mapper.writeValueAsString(corpo));
+		} catch (JsonProcessingException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * Com token, o usuário vem das claims validadas pelo filtro, sem consulta ao banco;
+	 * sem token, o id informado é conferido pelo UsuarioService.
+	 */
+	private Optional<Usuario> resolverUsuario(Long idUsuario, HttpServletRequest request) {
+		
+		Optional<Usuario> autenticado = FiltroTokenAutenticacao.usuarioAutenticado(request);
+		if (!autenticado.isPresent()) {
+			return idUsuario == null ? Optional.empty() : usuarioService.buscarPorId(idUsuario);
+		}
+		
+		if (idUsuario != null && !idUsuario.equals(autenticado.get().getId())) {
+			throw new RegraNegocioException("O usuário informado difere do usuário autenticado.");
+		}
+		return autenticado;
+	}
+	
+	/**
+	 * Com token, só o dono do lançamento gravado pode alterá-lo ou excluí-lo.
+	 */
+	private boolean pertenceAoAutenticado(Lancamento lancamento, HttpServletRequest request) {
+		
+		return FiltroTokenAutenticacao.usuarioAutenticado(request)
+				.map(usuario -> usuario.getId().equals(lancamento.getUsuario().getId()))
+				.orElse(true);
+	}
+	
+	private Lancamento converter(LancamentoDTO dto, HttpServletRequest request) {
 		Lancamento lancamento = new Lancamento();
 		lancamento.setDescricao(dto.getDescricao());
 		lancamento.setAno(dto.getAno());
@@ -141,8 +466,7 @@ public class LancamentoController {
 
 		
 		
-		Usuario usuario = usuarioService
-			.buscarPorId(dto.getUsuario())
+		Usuario usuario = resolverUsuario(dto.getUsuario(), request)
 			.orElseThrow(() -> new RegraNegocioException("Usuário para o Id informado."));
 		lancamento.setUsuario(usuario);
 		return lancamento;
@@ -2,23 +2,39 @@ package br.com.afsilva.minhasfinancas.controllers;
 
 import java.math.BigDecimal;
 import java.security.cert.PKIXRevocationChecker.Option;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.Optional;
 
+import javax.servlet.http.HttpServletRequest;
+
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import br.com.afsilva.minhasfinancas.api.dto.UsuarioAutenticadoDTO;
 import br.com.afsilva.minhasfinancas.api.dto.UsuarioDTO;
+import br.com.afsilva.minhasfinancas.config.FiltroTokenAutenticacao;
+import br.com.afsilva.minhasfinancas.config.RoteamentoDataSource;
 import br.com.afsilva.minhasfinancas.exception.ErroAutenticacao;
 import br.com.afsilva.minhasfinancas.exception.RegraNegocioException;
 import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
 import br.com.afsilva.minhasfinancas.service.LancamentoService;
+import br.com.afsilva.minhasfinancas.service.NotificacaoSaldoService;
+import br.com.afsilva.minhasfinancas.service.ResumoMensalService;
+import br.com.afsilva.minhasfinancas.service.TokenService;
 import br.com.afsilva.minhasfinancas.service.UsuarioService;
+import br.com.afsilva.minhasfinancas.service.VersaoDadosService;
 
 @RestController
 @RequestMapping("/api/usuarios")
@@ -26,11 +42,21 @@ public class UsuarioController {
 	
 	private UsuarioService service;
 	private LancamentoService lancamentoService;
+	private TokenService tokenService;
+	private ResumoMensalService resumoMensalService;
+	private VersaoDadosService versaoDados;
+	private NotificacaoSaldoService notificacaoSaldo;
 	
-	public UsuarioController(UsuarioService service, LancamentoService lancamentoService) {
+	public UsuarioController(UsuarioService service, LancamentoService lancamentoService, TokenService tokenService,
+			ResumoMensalService resumoMensalService, VersaoDadosService versaoDados,
+			NotificacaoSaldoService notificacaoSaldo) {
 		
 		this.service = service;
 		this.lancamentoService = lancamentoService;
+		this.tokenService = tokenService;
+		this.resumoMensalService = resumoMensalService;
+		this.versaoDados = versaoDados;
+		this.notificacaoSaldo = notificacaoSaldo;
 	}
 	
 	@PostMapping("/autenticar")
@@ -38,7 +64,9 @@ public class UsuarioController {
 		
 		try {
 			Usuario usuarioAutenticado = service.autenticar(dto.getEmail(), dto.getSenha());
-			return ResponseEntity.ok(usuarioAutenticado);
+			String token = tokenService.gerarToken(usuarioAutenticado);
+			return ResponseEntity.ok(new UsuarioAutenticadoDTO(usuarioAutenticado.getId(),
+					usuarioAutenticado.getNome(), usuarioAutenticado.getEmail(), token));
 			
 		} catch (ErroAutenticacao e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
@@ -62,19 +90,110 @@ public class UsuarioController {
 	}
 	
 	@GetMapping("{id}/saldo")
-	public ResponseEntity obterSaldo(@PathVariable("id") Long id) {
+	public ResponseEntity obterSaldo(@PathVariable("id") Long id, HttpServletRequest request, WebRequest webRequest) {
 		
-		Optional<Usuario> usuario = service.buscarPorId(id);
-		if(!usuario.isPresent()) {
-			return new ResponseEntity(HttpStatus.NOT_FOUND);
-			
+		HttpStatus acesso = verificarUsuario(id, request);
+		if (acesso != null) {
+			return new ResponseEntity(acesso);
 		}
 		
+		if (webRequest.checkNotModified(versaoDados.etag(id))) {
+			return null;
+		}
+		// O corpo acompanha o ETag: não pode vir de uma réplica que ainda não viu essa versão.
+		RoteamentoDataSource.lerNoPrimario();
 
 		BigDecimal saldo = lancamentoService.obterSaldoPorTipoLancamentoEUsuario(id);
 		return  ResponseEntity.ok(saldo);
-
+	}
+	
+	/**
+	 * Eventos SSE com o saldo e o ETag dos lançamentos do usuário, enviados na inscrição e
+	 * após cada escrita confirmada: substitui a consulta periódica ao saldo.
+	 */
+	@GetMapping(value = "{id}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> eventos(@PathVariable("id") Long id, HttpServletRequest request) {
+		
+		HttpStatus acesso = verificarUsuario(id, request);
+		if (acesso != null) {
+			return new ResponseEntity<>(acesso);
+		}
+		
+		return ResponseEntity.ok(notificacaoSaldo.inscrever(id));
+	}
+	
+	/**
+	 * Totais por mês e tipo lidos do resumo mensal; sem período, os últimos 12 meses.
+	 */
+	@GetMapping("{id}/resumo-mensal")
+	public ResponseEntity obterResumoMensal(@PathVariable("id") Long id,
+			@RequestParam(value = "inicio", required = false) String inicio,
+			@RequestParam(value = "fim", required = false) String fim,
+			@RequestParam(value = "status", required = false) String status,
+			HttpServletRequest request) {
+		
+		HttpStatus acesso = verificarUsuario(id, request);
+		if (acesso != null) {
+			return new ResponseEntity(acesso);
+		}
+		
+		try {
+			YearMonth mesFinal = fim == null ? YearMonth.now() : YearMonth.parse(fim);
+			YearMonth mesInicial = inicio == null ? mesFinal.minusMonths(11) : YearMonth.parse(inicio);
+			StatusLancamento statusLancamento = status == null ? null : StatusLancamento.valueOf(status);
+			
+			return ResponseEntity.ok(resumoMensalService.totalizar(id, mesInicial, mesFinal, statusLancamento));
+			
+		} catch (DateTimeParseException e) {
+			return ResponseEntity.badRequest().body("Informe os meses no formato AAAA-MM.");
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body("Informe um status válido.");
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	/**
+	 * Saldo acumulado mês a mês, calculado em uma consulta sobre o resumo mensal; sem
+	 * período, os últimos 12 meses.
+	 */
+	@GetMapping("{id}/fluxo")
+	public ResponseEntity obterFluxo(@PathVariable("id") Long id,
+			@RequestParam(value = "de", required = false) String de,
+			@RequestParam(value = "ate", required = false) String ate,
+			HttpServletRequest request) {
+		
+		HttpStatus acesso = verificarUsuario(id, request);
+		if (acesso != null) {
+			return new ResponseEntity(acesso);
+		}
+		
+		try {
+			YearMonth mesFinal = ate == null ? YearMonth.now() : YearMonth.parse(ate);
+			YearMonth mesInicial = de == null ? mesFinal.minusMonths(11) : YearMonth.parse(de);
+			
+			return ResponseEntity.ok(resumoMensalService.fluxo(id, mesInicial, mesFinal));
+			
+		} catch (DateTimeParseException e) {
+			return ResponseEntity.badRequest().body("Informe os meses no formato AAAA-MM.");
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	/**
+	 * Com token válido o usuário já está resolvido pelo filtro, sem consulta ao banco.
+	 * 
+	 * @return {@code null} quando o acesso é permitido, ou o status da recusa.
+	 */
+	private HttpStatus verificarUsuario(Long id, HttpServletRequest request) {
+		
+		Optional<Usuario> autenticado = FiltroTokenAutenticacao.usuarioAutenticado(request);
+		if (autenticado.isPresent()) {
+			return autenticado.get().getId().equals(id) ? null : HttpStatus.FORBIDDEN;
+		}
 		
+		return service.buscarPorId(id).isPresent() ? null : HttpStatus.NOT_FOUND;
 	}
 	
 	
@@ -0,0 +1,19 @@
+package br.com.afsilva.minhasfinancas.exception;
+
+public class ConflitoIdempotenciaException extends RuntimeException {
+
+	private final boolean emAndamento;
+	
+	public ConflitoIdempotenciaException(String msg, boolean emAndamento) {
+		super(msg);
+		this.emAndamento = emAndamento;
+	}
+	
+	/**
+	 * @return {@code true} se a chave está em execução em outro nó; {@code false} se foi
+	 * usada com outro conteúdo.
+	 */
+	public boolean isEmAndamento() {
+		return emAndamento;
+	}
+}
@@ -0,0 +1,101 @@
+package br.com.afsilva.minhasfinancas.model.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+
+/**
+ * Receitas e despesas acumuladas de um usuário desde o primeiro lançamento até o fim de um
+ * ano já encerrado. O saldo passa a ser este fechamento mais os lançamentos dos anos seguintes.
+ */
+@Entity
+@IdClass(FechamentoAnualId.class)
+@Table(name = "fechamento_anual", schema = "financas")
+public class FechamentoAnual {
+
+	@Id
+	@Column(name = "id_usuario")
+	private Long idUsuario;
+	
+	@Id
+	@Column(name = "ano")
+	private Integer ano;
+	
+	@Column(name = "receitas")
+	private BigDecimal receitas;
+	
+	@Column(name = "despesas")
+	private BigDecimal despesas;
+	
+	@Column(name = "data_fechamento")
+	private LocalDateTime dataFechamento;
+
+	public Long getIdUsuario() {
+		return idUsuario;
+	}
+
+	public void setIdUsuario(Long idUsuario) {
+		this.idUsuario = idUsuario;
+	}
+
+	public Integer getAno() {
+		return ano;
+	}
+
+	public void setAno(Integer ano) {
+		this.ano = ano;
+	}
+
+	public BigDecimal getReceitas() {
+		return receitas;
+	}
+
+	public void setReceitas(BigDecimal receitas) {
+		this.receitas = receitas;
+	}
+
+	public BigDecimal getDespesas() {
+		return despesas;
+	}
+
+	public void setDespesas(BigDecimal despesas) {
+		this.despesas = despesas;
+	}
+
+	public LocalDateTime getDataFechamento() {
+		return dataFechamento;
+	}
+
+	public void setDataFechamento(LocalDateTime dataFechamento) {
+		this.dataFechamento = dataFechamento;
+	}
+	
+	public BigDecimal getSaldo() {
+		return receitas.subtract(despesas);
+	}
+
+	@Override
+	public String toString() {
+		return "FechamentoAnual [idUsuario=" + idUsuario + ", ano=" + ano + ", receitas=" + receitas + ", despesas="
+				+ despesas + ", dataFechamento=" + dataFechamento + "]";
+	}
+
+	public FechamentoAnual(Long idUsuario, Integer ano, BigDecimal receitas, BigDecimal despesas, LocalDateTime dataFechamento) {
+		super();
+		this.idUsuario = idUsuario;
+		this.ano = ano;
+		this.receitas = receitas;
+		this.despesas = despesas;
+		this.dataFechamento = dataFechamento;
+	}
+
+	public FechamentoAnual() {
+		super();
+	}
+	
+}
@@ -0,0 +1,55 @@
+package br.com.afsilva.minhasfinancas.model.entity;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Chave de um fechamento anual: usuário e ano.
+ */
+public class FechamentoAnualId implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Long idUsuario;
+	private Integer ano;
+	
+	public FechamentoAnualId(Long idUsuario, Integer ano) {
+		super();
+		this.idUsuario = idUsuario;
+		this.ano = ano;
+	}
+
+	public FechamentoAnualId() {
+		super();
+	}
+
+	public Long getIdUsuario() {
+		return idUsuario;
+	}
+
+	public Integer getAno() {
+		return ano;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(idUsuario, ano);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof FechamentoAnualId)) {
+			return false;
+		}
+		FechamentoAnualId other = (FechamentoAnualId) obj;
+		return Objects.equals(idUsuario, other.idUsuario) && Objects.equals(ano, other.ano);
+	}
+
+	@Override
+	public String toString() {
+		return "FechamentoAnualId [idUsuario=" + idUsuario + ", ano=" + ano + "]";
+	}
+}
@@ -8,18 +8,29 @@ import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.PostUpdate;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 
 
 import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
 import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import br.com.afsilva.minhasfinancas.util.TextoNormalizado;
 
 
 @Entity
@@ -27,20 +38,25 @@ import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
 public class Lancamento {
 	
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamento_seq")
+	@SequenceGenerator(name = "lancamento_seq", sequenceName = "lancamento_seq", schema = "financas", allocationSize = 50)
 	@Column(name = "id")
 	private Long id;
 	
 	@Column( name = "descricao")
 	private String descricao;
 	
+	@Column(name = "descricao_normalizada")
+	@JsonIgnore
+	private String descricaoNormalizada;
+	
 	@Column(name = "mes")
 	private Integer mes;
 	
 	@Column(name = "ano")
 	private Integer ano;
 	
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "id_usuario")
 	private Usuario usuario;
 	
@@ -58,6 +74,14 @@ public class Lancamento {
 	@Column(name = "status")
 	@Enumerated (value = EnumType.STRING)
 	private StatusLancamento status;
+	
+	/**
+	 * Status como está no banco. O estorno do resumo mensal precisa dele quando a instância
+	 * gerenciada já foi alterada antes da atualização (ex.: endpoint de status).
+	 */
+	@Transient
+	@JsonIgnore
+	private StatusLancamento statusGravado;
 
 	public Long getId() {
 		return id;
@@ -75,6 +99,27 @@ public class Lancamento {
 		this.descricao = descricao;
 	}
 
+	public String getDescricaoNormalizada() {
+		return descricaoNormalizada;
+	}
+	
+	@PrePersist
+	@PreUpdate
+	public void normalizarDescricao() {
+		this.descricaoNormalizada = TextoNormalizado.normalizar(descricao);
+	}
+
+	public StatusLancamento getStatusGravado() {
+		return statusGravado;
+	}
+	
+	@PostLoad
+	@PostPersist
+	@PostUpdate
+	public void registrarStatusGravado() {
+		this.statusGravado = status;
+	}
+
 	public Integer getMes() {
 		return mes;
 	}
@@ -0,0 +1,122 @@
+package br.com.afsilva.minhasfinancas.model.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.Immutable;
+import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
+
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+
+/**
+ * Lançamento movido da tabela ativa pelo arquivamento, com o mesmo id. As linhas só são
+ * gravadas pela cópia do arquivamento e não são alteradas depois; continuam no saldo e no
+ * resumo mensal.
+ */
+@Entity
+@Immutable
+@Table(name = "lancamento_arquivo", schema = "financas")
+public class LancamentoArquivado {
+	
+	@Id
+	@Column(name = "id")
+	private Long id;
+	
+	@Column(name = "descricao")
+	private String descricao;
+	
+	@Column(name = "descricao_normalizada")
+	private String descricaoNormalizada;
+	
+	@Column(name = "mes")
+	private Integer mes;
+	
+	@Column(name = "ano")
+	private Integer ano;
+	
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "id_usuario")
+	private Usuario usuario;
+	
+	@Column(name = "valor")
+	private BigDecimal valor;
+	
+	@Column(name = "data_cadastro")
+	@Convert(converter = Jsr310JpaConverters.LocalDateConverter.class)
+	private LocalDate dataCadastro;
+	
+	@Column(name = "tipo")
+	@Enumerated(value = EnumType.STRING)
+	private TipoLancamento tipo;
+	
+	@Column(name = "status")
+	@Enumerated(value = EnumType.STRING)
+	private StatusLancamento status;
+	
+	@Column(name = "data_arquivamento")
+	private LocalDateTime dataArquivamento;
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getDescricao() {
+		return descricao;
+	}
+
+	public String getDescricaoNormalizada() {
+		return descricaoNormalizada;
+	}
+
+	public Integer getMes() {
+		return mes;
+	}
+
+	public Integer getAno() {
+		return ano;
+	}
+
+	public Usuario getUsuario() {
+		return usuario;
+	}
+
+	public BigDecimal getValor() {
+		return valor;
+	}
+
+	public LocalDate getDataCadastro() {
+		return dataCadastro;
+	}
+
+	public TipoLancamento getTipo() {
+		return tipo;
+	}
+
+	public StatusLancamento getStatus() {
+		return status;
+	}
+
+	public LocalDateTime getDataArquivamento() {
+		return dataArquivamento;
+	}
+
+	@Override
+	public String toString() {
+		return "LancamentoArquivado [id=" + id + ", descricao=" + descricao + ", mes=" + mes + ", ano=" + ano + ", valor=" + valor
+				+ ", tipo=" + tipo + ", status=" + status + ", dataArquivamento=" + dataArquivamento + "]";
+	}
+	
+}
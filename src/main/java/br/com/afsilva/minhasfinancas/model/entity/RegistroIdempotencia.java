@@ -0,0 +1,88 @@
+package br.com.afsilva.minhasfinancas.model.entity;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Resposta gravada de uma requisição com Idempotency-Key. Sem status, a requisição ainda
+ * está em execução no nó que reservou a chave.
+ */
+@Entity
+@Table(name = "idempotencia", schema = "financas")
+public class RegistroIdempotencia {
+
+	@Id
+	@Column(name = "chave")
+	private String chave;
+	
+	@Column(name = "impressao")
+	private String impressao;
+	
+	@Column(name = "status")
+	private Integer status;
+	
+	@Column(name = "tipo_conteudo")
+	private String tipoConteudo;
+	
+	@Column(name = "corpo")
+	private String corpo;
+	
+	@Column(name = "data_criacao")
+	private LocalDateTime dataCriacao;
+
+	public String getChave() {
+		return chave;
+	}
+
+	public void setChave(String chave) {
+		this.chave = chave;
+	}
+
+	public String getImpressao() {
+		return impressao;
+	}
+
+	public void setImpressao(String impressao) {
+		this.impressao = impressao;
+	}
+
+	public Integer getStatus() {
+		return status;
+	}
+
+	public void setStatus(Integer status) {
+		this.status = status;
+	}
+
+	public String getTipoConteudo() {
+		return tipoConteudo;
+	}
+
+	public void setTipoConteudo(String tipoConteudo) {
+		this.tipoConteudo = tipoConteudo;
+	}
+
+	public String getCorpo() {
+		return corpo;
+	}
+
+	public void setCorpo(String corpo) {
+		this.corpo = corpo;
+	}
+
+	public LocalDateTime getDataCriacao() {
+		return dataCriacao;
+	}
+
+	public void setDataCriacao(LocalDateTime dataCriacao) {
+		this.dataCriacao = dataCriacao;
+	}
+
+	public RegistroIdempotencia() {
+		super();
+	}
+}
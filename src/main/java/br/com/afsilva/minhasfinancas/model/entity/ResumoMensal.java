@@ -0,0 +1,130 @@
+package br.com.afsilva.minhasfinancas.model.entity;
+
+import java.math.BigDecimal;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+
+/**
+ * Total e quantidade de lançamentos de um usuário por ano, mês, tipo e status, mantidos a
+ * cada escrita de lançamento.
+ */
+@Entity
+@IdClass(ResumoMensalId.class)
+@Table(name = "resumo_mensal", schema = "financas")
+public class ResumoMensal {
+
+	@Id
+	@Column(name = "id_usuario")
+	private Long idUsuario;
+	
+	@Id
+	@Column(name = "ano")
+	private Integer ano;
+	
+	@Id
+	@Column(name = "mes")
+	private Integer mes;
+	
+	@Id
+	@Column(name = "tipo")
+	@Enumerated(value = EnumType.STRING)
+	private TipoLancamento tipo;
+	
+	@Id
+	@Column(name = "status")
+	@Enumerated(value = EnumType.STRING)
+	private StatusLancamento status;
+	
+	@Column(name = "total")
+	private BigDecimal total;
+	
+	@Column(name = "quantidade")
+	private Long quantidade;
+
+	public Long getIdUsuario() {
+		return idUsuario;
+	}
+
+	public void setIdUsuario(Long idUsuario) {
+		this.idUsuario = idUsuario;
+	}
+
+	public Integer getAno() {
+		return ano;
+	}
+
+	public void setAno(Integer ano) {
+		this.ano = ano;
+	}
+
+	public Integer getMes() {
+		return mes;
+	}
+
+	public void setMes(Integer mes) {
+		this.mes = mes;
+	}
+
+	public TipoLancamento getTipo() {
+		return tipo;
+	}
+
+	public void setTipo(TipoLancamento tipo) {
+		this.tipo = tipo;
+	}
+
+	public StatusLancamento getStatus() {
+		return status;
+	}
+
+	public void setStatus(StatusLancamento status) {
+		this.status = status;
+	}
+
+	public BigDecimal getTotal() {
+		return total;
+	}
+
+	public void setTotal(BigDecimal total) {
+		this.total = total;
+	}
+
+	public Long getQuantidade() {
+		return quantidade;
+	}
+
+	public void setQuantidade(Long quantidade) {
+		this.quantidade = quantidade;
+	}
+
+	@Override
+	public String toString() {
+		return "ResumoMensal [idUsuario=" + idUsuario + ", ano=" + ano + ", mes=" + mes + ", tipo=" + tipo + ", status="
+				+ status + ", total=" + total + ", quantidade=" + quantidade + "]";
+	}
+
+	public ResumoMensal(Long idUsuario, Integer ano, Integer mes, TipoLancamento tipo, StatusLancamento status,
+			BigDecimal total, Long quantidade) {
+		super();
+		this.idUsuario = idUsuario;
+		this.ano = ano;
+		this.mes = mes;
+		this.tipo = tipo;
+		this.status = status;
+		this.total = total;
+		this.quantidade = quantidade;
+	}
+
+	public ResumoMensal() {
+		super();
+	}
+}
@@ -0,0 +1,77 @@
+package br.com.afsilva.minhasfinancas.model.entity;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+
+/**
+ * Chave de uma célula do resumo mensal: usuário, ano, mês, tipo e status.
+ */
+public class ResumoMensalId implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Long idUsuario;
+	private Integer ano;
+	private Integer mes;
+	private TipoLancamento tipo;
+	private StatusLancamento status;
+	
+	public ResumoMensalId(Long idUsuario, Integer ano, Integer mes, TipoLancamento tipo, StatusLancamento status) {
+		super();
+		this.idUsuario = idUsuario;
+		this.ano = ano;
+		this.mes = mes;
+		this.tipo = tipo;
+		this.status = status;
+	}
+
+	public ResumoMensalId() {
+		super();
+	}
+
+	public Long getIdUsuario() {
+		return idUsuario;
+	}
+
+	public Integer getAno() {
+		return ano;
+	}
+
+	public Integer getMes() {
+		return mes;
+	}
+
+	public TipoLancamento getTipo() {
+		return tipo;
+	}
+
+	public StatusLancamento getStatus() {
+		return status;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(idUsuario, ano, mes, tipo, status);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof ResumoMensalId)) {
+			return false;
+		}
+		ResumoMensalId other = (ResumoMensalId) obj;
+		return Objects.equals(idUsuario, other.idUsuario) && Objects.equals(ano, other.ano) && Objects.equals(mes, other.mes)
+				&& tipo == other.tipo && status == other.status;
+	}
+
+	@Override
+	public String toString() {
+		return "ResumoMensalId [idUsuario=" + idUsuario + ", ano=" + ano + ", mes=" + mes + ", tipo=" + tipo + ", status=" + status + "]";
+	}
+}
@@ -0,0 +1,68 @@
+package br.com.afsilva.minhasfinancas.model.entity;
+
+import java.math.BigDecimal;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "saldo_usuario", schema = "financas")
+public class SaldoUsuario {
+
+	@Id
+	@Column(name = "id_usuario")
+	private Long idUsuario;
+	
+	@Column(name = "receitas")
+	private BigDecimal receitas;
+	
+	@Column(name = "despesas")
+	private BigDecimal despesas;
+
+	public Long getIdUsuario() {
+		return idUsuario;
+	}
+
+	public void setIdUsuario(Long idUsuario) {
+		this.idUsuario = idUsuario;
+	}
+
+	public BigDecimal getReceitas() {
+		return receitas;
+	}
+
+	public void setReceitas(BigDecimal receitas) {
+		this.receitas = receitas;
+	}
+
+	public BigDecimal getDespesas() {
+		return despesas;
+	}
+
+	public void setDespesas(BigDecimal despesas) {
+		this.despesas = despesas;
+	}
+	
+	public BigDecimal getSaldo() {
+		return receitas.subtract(despesas);
+	}
+
+	@Override
+	public String toString() {
+		return "SaldoUsuario [idUsuario=" + idUsuario + ", receitas=" + receitas + ", despesas=" + despesas + "]";
+	}
+
+	public SaldoUsuario(Long idUsuario, BigDecimal receitas, BigDecimal despesas) {
+		super();
+		this.idUsuario = idUsuario;
+		this.receitas = receitas;
+		this.despesas = despesas;
+	}
+
+	public SaldoUsuario() {
+		super();
+	}
+	
+}
@@ -0,0 +1,7 @@
+package br.com.afsilva.minhasfinancas.model.enums;
+
+public enum FormatoExportacao {
+
+	NDJSON,
+	CSV
+}
@@ -0,0 +1,9 @@
+package br.com.afsilva.minhasfinancas.model.enums;
+
+public enum Recorrencia {
+
+	/** O mesmo valor repetido por N meses. */
+	MENSAL,
+	/** O valor total dividido em N parcelas mensais. */
+	PARCELADA
+}
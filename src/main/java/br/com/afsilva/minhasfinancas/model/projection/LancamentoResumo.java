@@ -0,0 +1,95 @@
+package br.com.afsilva.minhasfinancas.model.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+
+/**
+ * Linha de lançamento selecionada diretamente como escalares, sem entidade gerenciada
+ * e sem o usuário associado.
+ */
+public class LancamentoResumo {
+
+	/**
+	 * Ordem das buscas e da exportação, para intercalar linhas ativas e arquivadas.
+	 */
+	public static final Comparator<LancamentoResumo> ORDEM = Comparator
+			.comparing(LancamentoResumo::getAno, Comparator.nullsLast(Comparator.<Integer>naturalOrder()))
+			.thenComparing(LancamentoResumo::getMes, Comparator.nullsLast(Comparator.<Integer>naturalOrder()))
+			.thenComparing(LancamentoResumo::getId);
+
+	private Long id;
+	private String descricao;
+	private Integer mes;
+	private Integer ano;
+	private BigDecimal valor;
+	private TipoLancamento tipo;
+	private StatusLancamento status;
+	private LocalDate dataCadastro;
+	private Long usuarioId;
+	
+	public LancamentoResumo(Long id, String descricao, Integer mes, Integer ano, BigDecimal valor,
+			TipoLancamento tipo, StatusLancamento status, LocalDate dataCadastro, Long usuarioId) {
+		super();
+		this.id = id;
+		this.descricao = descricao;
+		this.mes = mes;
+		this.ano = ano;
+		this.valor = valor;
+		this.tipo = tipo;
+		this.status = status;
+		this.dataCadastro = dataCadastro;
+		this.usuarioId = usuarioId;
+	}
+
+	public LancamentoResumo() {
+		super();
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getDescricao() {
+		return descricao;
+	}
+
+	public Integer getMes() {
+		return mes;
+	}
+
+	public Integer getAno() {
+		return ano;
+	}
+
+	public BigDecimal getValor() {
+		return valor;
+	}
+
+	public TipoLancamento getTipo() {
+		return tipo;
+	}
+
+	public StatusLancamento getStatus() {
+		return status;
+	}
+
+	public LocalDate getDataCadastro() {
+		return dataCadastro;
+	}
+
+	public Long getUsuarioId() {
+		return usuarioId;
+	}
+
+	@Override
+	public String toString() {
+		return "LancamentoResumo [id=" + id + ", descricao=" + descricao + ", mes=" + mes + ", ano=" + ano + ", valor="
+				+ valor + ", tipo=" + tipo + ", status=" + status + ", dataCadastro=" + dataCadastro + ", usuarioId="
+				+ usuarioId + "]";
+	}
+	
+}
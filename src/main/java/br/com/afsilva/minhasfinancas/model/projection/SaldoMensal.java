@@ -0,0 +1,54 @@
+package br.com.afsilva.minhasfinancas.model.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Receitas e despesas de um mês e o saldo acumulado de todos os lançamentos até o fim dele.
+ */
+public class SaldoMensal {
+
+	private Integer ano;
+	private Integer mes;
+	private BigDecimal receitas;
+	private BigDecimal despesas;
+	private BigDecimal saldo;
+	
+	public SaldoMensal(Integer ano, Integer mes, BigDecimal receitas, BigDecimal despesas, BigDecimal saldo) {
+		super();
+		this.ano = ano;
+		this.mes = mes;
+		this.receitas = receitas;
+		this.despesas = despesas;
+		this.saldo = saldo;
+	}
+
+	public SaldoMensal() {
+		super();
+	}
+
+	public Integer getAno() {
+		return ano;
+	}
+
+	public Integer getMes() {
+		return mes;
+	}
+
+	public BigDecimal getReceitas() {
+		return receitas;
+	}
+
+	public BigDecimal getDespesas() {
+		return despesas;
+	}
+
+	public BigDecimal getSaldo() {
+		return saldo;
+	}
+
+	@Override
+	public String toString() {
+		return "SaldoMensal [ano=" + ano + ", mes=" + mes + ", receitas=" + receitas + ", despesas=" + despesas
+				+ ", saldo=" + saldo + "]";
+	}
+}
@@ -0,0 +1,68 @@
+package br.com.afsilva.minhasfinancas.model.projection;
+
+import java.math.BigDecimal;
+
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+
+/**
+ * Total e quantidade de lançamentos de um mês e tipo; o status vem {@code null} quando
+ * os status foram somados.
+ */
+public class TotalMensal {
+
+	private Integer ano;
+	private Integer mes;
+	private TipoLancamento tipo;
+	private StatusLancamento status;
+	private BigDecimal total;
+	private Long quantidade;
+	
+	public TotalMensal(Integer ano, Integer mes, TipoLancamento tipo, StatusLancamento status, BigDecimal total, Long quantidade) {
+		super();
+		this.ano = ano;
+		this.mes = mes;
+		this.tipo = tipo;
+		this.status = status;
+		this.total = total;
+		this.quantidade = quantidade;
+	}
+	
+	public TotalMensal(Integer ano, Integer mes, TipoLancamento tipo, BigDecimal total, Long quantidade) {
+		this(ano, mes, tipo, null, total, quantidade);
+	}
+
+	public TotalMensal() {
+		super();
+	}
+
+	public Integer getAno() {
+		return ano;
+	}
+
+	public Integer getMes() {
+		return mes;
+	}
+
+	public TipoLancamento getTipo() {
+		return tipo;
+	}
+
+	public StatusLancamento getStatus() {
+		return status;
+	}
+
+	public BigDecimal getTotal() {
+		return total;
+	}
+
+	public Long getQuantidade() {
+		return quantidade;
+	}
+
+	@Override
+	public String toString() {
+		return "TotalMensal [ano=" + ano + ", mes=" + mes + ", tipo=" + tipo + ", status=" + status + ", total=" + total
+				+ ", quantidade=" + quantidade + "]";
+	}
+}
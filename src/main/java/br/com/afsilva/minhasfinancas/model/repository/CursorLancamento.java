@@ -0,0 +1,61 @@
+package br.com.afsilva.minhasfinancas.model.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import br.com.afsilva.minhasfinancas.exception.RegraNegocioException;
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.projection.LancamentoResumo;
+
+/**
+ * Posição da última linha entregue em uma busca paginada, na ordem (ano, mes, id).
+ * É trafegada para o cliente como um token opaco.
+ */
+public class CursorLancamento {
+
+	private final Integer ano;
+	private final Integer mes;
+	private final Long id;
+	
+	public CursorLancamento(Integer ano, Integer mes, Long id) {
+		this.ano = ano;
+		this.mes = mes;
+		this.id = id;
+	}
+	
+	public static CursorLancamento de(Lancamento lancamento) {
+		return new CursorLancamento(lancamento.getAno(), lancamento.getMes(), lancamento.getId());
+	}
+	
+	public static CursorLancamento de(LancamentoResumo lancamento) {
+		return new CursorLancamento(lancamento.getAno(), lancamento.getMes(), lancamento.getId());
+	}
+	
+	public static CursorLancamento decodificar(String token) {
+		
+		try {
+			String[] partes = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+			return new CursorLancamento(Integer.valueOf(partes[0]), Integer.valueOf(partes[1]), Long.valueOf(partes[2]));
+			
+		} catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+			throw new RegraNegocioException("Token de paginação inválido.");
+		}
+	}
+	
+	public String codificar() {
+		String valor = ano + ":" + mes + ":" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public Integer getAno() {
+		return ano;
+	}
+
+	public Integer getMes() {
+		return mes;
+	}
+
+	public Long getId() {
+		return id;
+	}
+}
@@ -0,0 +1,58 @@
+package br.com.afsilva.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.afsilva.minhasfinancas.model.entity.FechamentoAnual;
+import br.com.afsilva.minhasfinancas.model.entity.FechamentoAnualId;
+
+public interface FechamentoAnualRepository extends JpaRepository<FechamentoAnual, FechamentoAnualId> {
+
+	String TOTAIS_RESUMO = "coalesce(sum(case when r.tipo = 'RECEITA' then r.total end), 0), "
+			+ "coalesce(sum(case when r.tipo = 'DESPESA' then r.total end), 0) ";
+	
+	Optional<FechamentoAnual> findFirstByIdUsuarioOrderByAnoDesc(Long idUsuario);
+	
+	/**
+	 * Soma a variação de um ano a todos os fechamentos que o incluem, isto é, os do próprio
+	 * ano e dos seguintes.
+	 */
+	@Modifying
+	@Query(value = "update FechamentoAnual f set f.receitas = f.receitas + :receitas, f.despesas = f.despesas + :despesas "
+			+ "where f.idUsuario = :idUsuario and f.ano >= :ano")
+	int ajustar(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano,
+			@Param("receitas") BigDecimal receitas, @Param("despesas") BigDecimal despesas);
+	
+	@Modifying
+	@Query(value = "delete from FechamentoAnual f where f.idUsuario = :idUsuario and f.ano = :ano")
+	int excluirPorUsuarioEAno(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano);
+	
+	@Modifying
+	@Query(value = "delete from FechamentoAnual f where f.ano = :ano")
+	int excluirPorAno(@Param("ano") Integer ano);
+	
+	/**
+	 * Calcula o fechamento a partir do resumo mensal: até 6 células por mês em vez de uma
+	 * linha por lançamento.
+	 */
+	@Modifying
+	@Query(value = "insert into financas.fechamento_anual (id_usuario, ano, receitas, despesas, data_fechamento) "
+			+ "select r.id_usuario, :ano, " + TOTAIS_RESUMO + ", :dataFechamento "
+			+ "from financas.resumo_mensal r where r.id_usuario = :idUsuario and r.ano <= :ano "
+			+ "group by r.id_usuario", nativeQuery = true)
+	int fecharPorUsuario(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano,
+			@Param("dataFechamento") LocalDateTime dataFechamento);
+	
+	@Modifying
+	@Query(value = "insert into financas.fechamento_anual (id_usuario, ano, receitas, despesas, data_fechamento) "
+			+ "select r.id_usuario, :ano, " + TOTAIS_RESUMO + ", :dataFechamento "
+			+ "from financas.resumo_mensal r where r.ano <= :ano "
+			+ "group by r.id_usuario", nativeQuery = true)
+	int fecharTodos(@Param("ano") Integer ano, @Param("dataFechamento") LocalDateTime dataFechamento);
+}
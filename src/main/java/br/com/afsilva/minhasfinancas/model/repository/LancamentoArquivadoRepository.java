@@ -0,0 +1,55 @@
+package br.com.afsilva.minhasfinancas.model.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.afsilva.minhasfinancas.model.entity.LancamentoArquivado;
+
+/**
+ * Operações do arquivamento: as três são executadas na mesma transação, um lote por vez.
+ */
+public interface LancamentoArquivadoRepository extends JpaRepository<LancamentoArquivado, Long> {
+
+	/**
+	 * Lançamentos ativos e arquivados, para as reconstruções de saldo e resumo: o
+	 * arquivamento não altera os totais.
+	 */
+	String TODOS_LANCAMENTOS = "(select id_usuario, ano, mes, tipo, status, valor from financas.lancamento "
+			+ "union all select id_usuario, ano, mes, tipo, status, valor from financas.lancamento_arquivo) ";
+
+	/**
+	 * Seleciona e bloqueia até {@code limite} lançamentos ativos anteriores a
+	 * {@code anoLimite}, ou cancelados anteriores a {@code anoLimiteCancelados}, com id
+	 * maior que {@code ultimoId}. O bloqueio faz uma edição concorrente esperar o lote, e
+	 * então falhar por não encontrar a linha.
+	 * <p>
+	 * O filtro não tem índice próprio: a consulta percorre a chave primária em ordem. Cada
+	 * lote parte do último id do anterior, então uma execução completa lê a tabela uma vez,
+	 * em vez de reler a cada lote as linhas não arquiváveis do início.
+	 * 
+	 * @return pares (id, id_usuario).
+	 */
+	@Query(value = "select l.id, l.id_usuario from financas.lancamento l "
+			+ "where l.id > :ultimoId and (l.ano < :anoLimite or (l.status = 'CANCELADO' and l.ano < :anoLimiteCancelados)) "
+			+ "order by l.id limit :limite for update", nativeQuery = true)
+	List<Object[]> bloquearArquivaveis(@Param("anoLimite") Integer anoLimite,
+			@Param("anoLimiteCancelados") Integer anoLimiteCancelados, @Param("ultimoId") Long ultimoId,
+			@Param("limite") Integer limite);
+	
+	@Modifying
+	@Query(value = "insert into financas.lancamento_arquivo "
+			+ "(id, descricao, descricao_normalizada, mes, ano, id_usuario, valor, data_cadastro, tipo, status, data_arquivamento) "
+			+ "select l.id, l.descricao, l.descricao_normalizada, l.mes, l.ano, l.id_usuario, l.valor, l.data_cadastro, l.tipo, l.status, "
+			+ ":dataArquivamento from financas.lancamento l where l.id in (:ids)", nativeQuery = true)
+	int copiar(@Param("ids") Collection<Long> ids, @Param("dataArquivamento") LocalDateTime dataArquivamento);
+	
+	@Modifying
+	@Query(value = "delete from financas.lancamento where id in (:ids)", nativeQuery = true)
+	int excluirAtivos(@Param("ids") Collection<Long> ids);
+}
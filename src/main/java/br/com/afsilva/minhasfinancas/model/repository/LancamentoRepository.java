@@ -1,18 +1,66 @@
 package br.com.afsilva.minhasfinancas.model.repository;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import javax.persistence.QueryHint;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
 import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import br.com.afsilva.minhasfinancas.model.projection.LancamentoResumo;
 
 
-public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
+public interface LancamentoRepository extends JpaRepository<Lancamento, Long>, LancamentoRepositoryCustom {
 	
 	@Query(value = "select sum(l.valor) from Lancamento l join l.usuario u where u.id = :idUsuario and l.tipo =:tipo group by u")
 	BigDecimal obterSaldoPorTipoLancamentoEUsuario(@Param("idUsuario") Long idUsuario, @Param("tipo") TipoLancamento tipo);
+	
+	@Query(value = "select sum(l.valor) from Lancamento l where l.usuario.id = :idUsuario and l.tipo = :tipo and l.ano > :ano")
+	BigDecimal obterSaldoPorTipoLancamentoEUsuarioAposAno(@Param("idUsuario") Long idUsuario, @Param("tipo") TipoLancamento tipo,
+			@Param("ano") Integer ano);
+	
+	@Query(value = "select sum(a.valor) from LancamentoArquivado a where a.usuario.id = :idUsuario and a.tipo = :tipo")
+	BigDecimal obterSaldoArquivadoPorTipoLancamentoEUsuario(@Param("idUsuario") Long idUsuario, @Param("tipo") TipoLancamento tipo);
+	
+	@Query(value = "select sum(a.valor) from LancamentoArquivado a where a.usuario.id = :idUsuario and a.tipo = :tipo and a.ano > :ano")
+	BigDecimal obterSaldoArquivadoPorTipoLancamentoEUsuarioAposAno(@Param("idUsuario") Long idUsuario, @Param("tipo") TipoLancamento tipo,
+			@Param("ano") Integer ano);
+	
+	@Query(value = "select count(a) > 0 from LancamentoArquivado a where a.id = :id")
+	boolean existeArquivado(@Param("id") Long id);
+	
+	@EntityGraph(attributePaths = "usuario")
+	Optional<Lancamento> findComUsuarioById(Long id);
+	
+	@QueryHints(value = {
+			@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"),
+			@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"),
+			@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "false")
+	})
+	@Query(value = "select new br.com.afsilva.minhasfinancas.model.projection.LancamentoResumo("
+			+ "l.id, l.descricao, l.mes, l.ano, l.valor, l.tipo, l.status, l.dataCadastro, l.usuario.id) "
+			+ "from Lancamento l where l.usuario.id = :idUsuario order by l.ano, l.mes, l.id")
+	Stream<LancamentoResumo> streamPorUsuario(@Param("idUsuario") Long idUsuario);
+	
+	@QueryHints(value = {
+			@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"),
+			@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"),
+			@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "false")
+	})
+	@Query(value = "select new br.com.afsilva.minhasfinancas.model.projection.LancamentoResumo("
+			+ "a.id, a.descricao, a.mes, a.ano, a.valor, a.tipo, a.status, a.dataCadastro, a.usuario.id) "
+			+ "from LancamentoArquivado a where a.usuario.id = :idUsuario order by a.ano, a.mes, a.id")
+	Stream<LancamentoResumo> streamArquivadosPorUsuario(@Param("idUsuario") Long idUsuario);
+	
+	@Query(value = "select l.id, l.descricaoNormalizada from Lancamento l where l.usuario.id = :idUsuario")
+	List<Object[]> listarDescricoesPorUsuario(@Param("idUsuario") Long idUsuario);
 
 }
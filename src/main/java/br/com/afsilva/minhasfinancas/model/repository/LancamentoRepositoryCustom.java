@@ -0,0 +1,44 @@
+package br.com.afsilva.minhasfinancas.model.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.projection.LancamentoResumo;
+
+public interface LancamentoRepositoryCustom {
+
+	/**
+	 * Busca os lançamentos do filtro em ordem de (ano, mes, id), selecionando só as colunas
+	 * da listagem (o usuário vem apenas como id).
+	 * 
+	 * @param candidatos ids já pré-selecionados pela descrição, ou {@code null} para filtrar a descrição no banco.
+	 * @param cursor posição após a qual a busca continua, ou {@code null} para a primeira página.
+	 * @param limite quantidade máxima de linhas, ou {@code null} para todas.
+	 */
+	List<LancamentoResumo> buscar(Lancamento filtro, Collection<Long> candidatos, CursorLancamento cursor, Integer limite);
+	
+	/**
+	 * Como {@link #buscar(Lancamento, Collection, CursorLancamento, Integer)}, na tabela de
+	 * lançamentos arquivados. A descrição é sempre filtrada no banco.
+	 */
+	List<LancamentoResumo> buscarArquivados(Lancamento filtro, CursorLancamento cursor, Integer limite);
+	
+	/**
+	 * Altera o status de todos os lançamentos do filtro (usuário, mês, ano e status atual)
+	 * com um único UPDATE.
+	 * 
+	 * @param ids restringe a alteração a estes lançamentos, ou {@code null} para todos os do filtro.
+	 * @return quantidade de lançamentos alterados.
+	 */
+	int atualizarStatus(Lancamento filtro, Collection<Long> ids, StatusLancamento status);
+	
+	/**
+	 * Seleciona com bloqueio de escrita os lançamentos que
+	 * {@link #atualizarStatus(Lancamento, Collection, StatusLancamento)} alteraria, para mover
+	 * o resumo mensal sem carregar as entidades. Até o fim da transação nenhuma outra escrita
+	 * muda o status dessas linhas.
+	 */
+	List<LancamentoResumo> travarAtualizacaoStatus(Lancamento filtro, Collection<Long> ids, StatusLancamento status);
+}
@@ -0,0 +1,161 @@
+package br.com.afsilva.minhasfinancas.model.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.entity.LancamentoArquivado;
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.projection.LancamentoResumo;
+import br.com.afsilva.minhasfinancas.util.TextoNormalizado;
+
+public class LancamentoRepositoryImpl implements LancamentoRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<LancamentoResumo> buscar(Lancamento filtro, Collection<Long> candidatos, CursorLancamento cursor, Integer limite) {
+		
+		if (candidatos != null && candidatos.isEmpty()) {
+			return Collections.emptyList();
+		}
+		return buscar(Lancamento.class, filtro, candidatos, cursor, limite);
+	}
+	
+	@Override
+	public List<LancamentoResumo> buscarArquivados(Lancamento filtro, CursorLancamento cursor, Integer limite) {
+		
+		return buscar(LancamentoArquivado.class, filtro, null, cursor, limite);
+	}
+	
+	private List<LancamentoResumo> buscar(Class<?> entidade, Lancamento filtro, Collection<Long> candidatos,
+			CursorLancamento cursor, Integer limite) {
+		
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<LancamentoResumo> query = cb.createQuery(LancamentoResumo.class);
+		Root<?> root = query.from(entidade);
+		
+		List<Predicate> predicados = filtrar(cb, root, filtro, candidatos);
+		
+		if (cursor != null) {
+			Path<Integer> ano = root.get("ano");
+			Path<Integer> mes = root.get("mes");
+			Path<Long> id = root.get("id");
+			
+			// O limite inferior redundante em ano permite ao banco posicionar no índice
+			// (id_usuario, ano, mes, id) em vez de filtrar todas as linhas do usuário.
+			predicados.add(cb.greaterThanOrEqualTo(ano, cursor.getAno()));
+			predicados.add(cb.or(
+					cb.greaterThan(ano, cursor.getAno()),
+					cb.and(cb.equal(ano, cursor.getAno()), cb.greaterThan(mes, cursor.getMes())),
+					cb.and(cb.equal(ano, cursor.getAno()), cb.equal(mes, cursor.getMes()), cb.greaterThan(id, cursor.getId()))));
+		}
+		
+		query.select(cb.construct(LancamentoResumo.class, root.get("id"), root.get("descricao"), root.get("mes"), root.get("ano"),
+					root.get("valor"), root.get("tipo"), root.get("status"), root.get("dataCadastro"), root.get("usuario").get("id")))
+			.where(predicados.toArray(new Predicate[0]))
+			.orderBy(cb.asc(root.get("ano")), cb.asc(root.get("mes")), cb.asc(root.get("id")));
+		
+		TypedQuery<LancamentoResumo> consulta = entityManager.createQuery(query);
+		if (limite != null) {
+			consulta.setMaxResults(limite);
+		}
+		return consulta.getResultList();
+	}
+	
+	@Override
+	public int atualizarStatus(Lancamento filtro, Collection<Long> ids, StatusLancamento status) {
+		
+		if (ids != null && ids.isEmpty()) {
+			return 0;
+		}
+		
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaUpdate<Lancamento> update = cb.createCriteriaUpdate(Lancamento.class);
+		Root<Lancamento> root = update.from(Lancamento.class);
+		
+		update.set(root.<StatusLancamento>get("status"), status)
+			.where(filtrarAtualizacaoStatus(cb, root, filtro, ids, status));
+		
+		return entityManager.createQuery(update).executeUpdate();
+	}
+	
+	@Override
+	public List<LancamentoResumo> travarAtualizacaoStatus(Lancamento filtro, Collection<Long> ids, StatusLancamento status) {
+		
+		if (ids != null && ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+		
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<LancamentoResumo> query = cb.createQuery(LancamentoResumo.class);
+		Root<Lancamento> root = query.from(Lancamento.class);
+		
+		query.select(cb.construct(LancamentoResumo.class, root.get("id"), root.get("descricao"), root.get("mes"), root.get("ano"),
+					root.get("valor"), root.get("tipo"), root.get("status"), root.get("dataCadastro"), root.get("usuario").get("id")))
+			.where(filtrarAtualizacaoStatus(cb, root, filtro, ids, status));
+		
+		// select ... for update: agregações não aceitam bloqueio, por isso as linhas vêm uma a uma.
+		return entityManager.createQuery(query)
+				.setLockMode(LockModeType.PESSIMISTIC_WRITE)
+				.getResultList();
+	}
+	
+	private Predicate[] filtrarAtualizacaoStatus(CriteriaBuilder cb, Root<Lancamento> root, Lancamento filtro,
+			Collection<Long> ids, StatusLancamento status) {
+		
+		List<Predicate> predicados = filtrar(cb, root, filtro, ids);
+		
+		if (filtro.getStatus() != null) {
+			predicados.add(cb.equal(root.get("status"), filtro.getStatus()));
+		}
+		
+		// Linhas que já estão no status pedido não contam como alteradas.
+		predicados.add(cb.notEqual(root.get("status"), status));
+		
+		return predicados.toArray(new Predicate[0]);
+	}
+	
+	private List<Predicate> filtrar(CriteriaBuilder cb, Root<?> root, Lancamento filtro, Collection<Long> candidatos) {
+		
+		List<Predicate> predicados = new ArrayList<>();
+		
+		predicados.add(cb.equal(root.get("usuario").get("id"), filtro.getUsuario().getId()));
+		
+		if (candidatos != null) {
+			predicados.add(root.get("id").in(candidatos));
+		} else if (filtro.getDescricao() != null) {
+			String termo = escaparLike(TextoNormalizado.normalizar(filtro.getDescricao()));
+			predicados.add(cb.like(root.get("descricaoNormalizada"), "%" + termo + "%", '\\'));
+		}
+		
+		if (filtro.getMes() != null) {
+			predicados.add(cb.equal(root.get("mes"), filtro.getMes()));
+		}
+		
+		if (filtro.getAno() != null) {
+			predicados.add(cb.equal(root.get("ano"), filtro.getAno()));
+		}
+		
+		return predicados;
+	}
+	
+	private static String escaparLike(String termo) {
+		return termo.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+
+}
@@ -0,0 +1,70 @@
+package br.com.afsilva.minhasfinancas.model.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.afsilva.minhasfinancas.model.entity.RegistroIdempotencia;
+
+/**
+ * Cada método confirma a própria transação: a reserva precisa estar visível aos outros nós
+ * antes de a requisição executar.
+ */
+public interface RegistroIdempotenciaRepository extends JpaRepository<RegistroIdempotencia, String> {
+
+	/**
+	 * Insert puro: com a chave já reservada falha pela chave primária, sem merge.
+	 */
+	@Modifying
+	@Transactional
+	@Query(value = "insert into financas.idempotencia (chave, impressao, data_criacao) "
+			+ "values (:chave, :impressao, :dataCriacao)", nativeQuery = true)
+	int reservar(@Param("chave") String chave, @Param("impressao") String impressao,
+			@Param("dataCriacao") LocalDateTime dataCriacao);
+	
+	/**
+	 * Grava a resposta só na reserva feita em {@code dataCriacao}, que identifica o nó dono
+	 * dela: se a reserva passou do prazo e outro nó a retomou, nada é alterado.
+	 */
+	@Modifying
+	@Transactional
+	@Query(value = "update RegistroIdempotencia r set r.status = :status, r.tipoConteudo = :tipoConteudo, r.corpo = :corpo "
+			+ "where r.chave = :chave and r.dataCriacao = :dataCriacao and r.status is null")
+	int concluir(@Param("chave") String chave, @Param("dataCriacao") LocalDateTime dataCriacao, @Param("status") Integer status,
+			@Param("tipoConteudo") String tipoConteudo, @Param("corpo") String corpo);
+	
+	/**
+	 * Como {@link #concluir}, só apaga a reserva feita em {@code dataCriacao} e ainda sem resposta.
+	 */
+	@Modifying
+	@Transactional
+	@Query(value = "delete from RegistroIdempotencia r where r.chave = :chave and r.dataCriacao = :dataCriacao and r.status is null")
+	int liberar(@Param("chave") String chave, @Param("dataCriacao") LocalDateTime dataCriacao);
+	
+	/**
+	 * Só apaga o registro criado antes do limite de validade: se outro nó já o trocou por
+	 * uma reserva nova, nada é apagado.
+	 */
+	@Modifying
+	@Transactional
+	@Query(value = "delete from RegistroIdempotencia r where r.chave = :chave and r.dataCriacao < :limite")
+	int liberarVencido(@Param("chave") String chave, @Param("limite") LocalDateTime limite);
+	
+	/**
+	 * Só apaga a reserva ainda sem resposta e criada antes do limite: se outro nó já a
+	 * retomou ou concluiu, nada é apagado.
+	 */
+	@Modifying
+	@Transactional
+	@Query(value = "delete from RegistroIdempotencia r where r.chave = :chave and r.status is null and r.dataCriacao < :limite")
+	int liberarAbandonada(@Param("chave") String chave, @Param("limite") LocalDateTime limite);
+	
+	@Modifying
+	@Transactional
+	@Query(value = "delete from RegistroIdempotencia r where r.dataCriacao < :limite")
+	int excluirExpirados(@Param("limite") LocalDateTime limite);
+}
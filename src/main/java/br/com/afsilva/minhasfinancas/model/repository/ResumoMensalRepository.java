@@ -0,0 +1,94 @@
+package br.com.afsilva.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.afsilva.minhasfinancas.model.entity.ResumoMensal;
+import br.com.afsilva.minhasfinancas.model.entity.ResumoMensalId;
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import br.com.afsilva.minhasfinancas.model.projection.TotalMensal;
+
+public interface ResumoMensalRepository extends JpaRepository<ResumoMensal, ResumoMensalId> {
+
+	String PERIODO = "r.idUsuario = :idUsuario and r.ano between :anoInicial and :anoFinal "
+			+ "and (r.ano > :anoInicial or r.mes >= :mesInicial) and (r.ano < :anoFinal or r.mes <= :mesFinal) "
+			+ "and r.quantidade > 0 ";
+	
+	@Modifying
+	@Query(value = "update ResumoMensal r set r.total = r.total + :total, r.quantidade = r.quantidade + :quantidade "
+			+ "where r.idUsuario = :idUsuario and r.ano = :ano and r.mes = :mes and r.tipo = :tipo and r.status = :status")
+	int movimentar(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano, @Param("mes") Integer mes,
+			@Param("tipo") TipoLancamento tipo, @Param("status") StatusLancamento status,
+			@Param("total") BigDecimal total, @Param("quantidade") Long quantidade);
+	
+	@Modifying
+	@Query(value = "delete from ResumoMensal r")
+	int excluirTodos();
+	
+	/**
+	 * As reconstruções não falham se outra transação criou a célula ao mesmo tempo: nada é
+	 * inserido e o retorno é 0.
+	 */
+	@Modifying
+	@Query(value = "insert into financas.resumo_mensal (id_usuario, ano, mes, tipo, status, total, quantidade) "
+			+ "select l.id_usuario, l.ano, l.mes, l.tipo, l.status, sum(l.valor), count(*) "
+			+ "from " + LancamentoArquivadoRepository.TODOS_LANCAMENTOS + "l "
+			+ "where l.id_usuario = :idUsuario and l.ano = :ano and l.mes = :mes and l.tipo = :tipo and l.status = :status "
+			+ "group by l.id_usuario, l.ano, l.mes, l.tipo, l.status on conflict do nothing", nativeQuery = true)
+	int reconstruirCelula(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano, @Param("mes") Integer mes,
+			@Param("tipo") String tipo, @Param("status") String status);
+	
+	@Modifying
+	@Query(value = "insert into financas.resumo_mensal (id_usuario, ano, mes, tipo, status, total, quantidade) "
+			+ "select l.id_usuario, l.ano, l.mes, l.tipo, l.status, sum(l.valor), count(*) "
+			+ "from " + LancamentoArquivadoRepository.TODOS_LANCAMENTOS + "l "
+			+ "where l.id_usuario is not null and l.ano is not null and l.mes is not null and l.tipo is not null and l.status is not null "
+			+ "group by l.id_usuario, l.ano, l.mes, l.tipo, l.status on conflict do nothing", nativeQuery = true)
+	int reconstruirTodos();
+	
+	/**
+	 * Totais por mês e tipo no período, somando os status: lê até 6 células por mês.
+	 */
+	@Query(value = "select new br.com.afsilva.minhasfinancas.model.projection.TotalMensal(r.ano, r.mes, r.tipo, sum(r.total), sum(r.quantidade)) "
+			+ "from ResumoMensal r where " + PERIODO
+			+ "group by r.ano, r.mes, r.tipo order by r.ano, r.mes, r.tipo")
+	List<TotalMensal> totalizar(@Param("idUsuario") Long idUsuario, @Param("anoInicial") Integer anoInicial,
+			@Param("mesInicial") Integer mesInicial, @Param("anoFinal") Integer anoFinal, @Param("mesFinal") Integer mesFinal);
+	
+	/**
+	 * Totais por mês e tipo no período para um único status: lê até 2 células por mês.
+	 */
+	@Query(value = "select new br.com.afsilva.minhasfinancas.model.projection.TotalMensal(r.ano, r.mes, r.tipo, r.status, r.total, r.quantidade) "
+			+ "from ResumoMensal r where " + PERIODO + "and r.status = :status "
+			+ "order by r.ano, r.mes, r.tipo")
+	List<TotalMensal> totalizarPorStatus(@Param("idUsuario") Long idUsuario, @Param("anoInicial") Integer anoInicial,
+			@Param("mesInicial") Integer mesInicial, @Param("anoFinal") Integer anoFinal, @Param("mesFinal") Integer mesFinal,
+			@Param("status") StatusLancamento status);
+	
+	/**
+	 * Fluxo de caixa em uma consulta: receitas, despesas e saldo acumulado (função de janela)
+	 * por mês até {@code fim}. Meses anteriores a {@code inicio} entram só no acumulado e
+	 * apenas o último deles é devolvido, como saldo de abertura. Os meses são indexados
+	 * como {@code ano * 12 + mes}.
+	 * 
+	 * @return linhas {@code [ano, mes, receitas, despesas, saldo]} em ordem cronológica.
+	 */
+	@Query(value = "select f.ano, f.mes, f.receitas, f.despesas, f.saldo from ("
+			+ "select r.ano, r.mes, "
+			+ "sum(case when r.tipo = 'RECEITA' then r.total else 0 end) as receitas, "
+			+ "sum(case when r.tipo = 'DESPESA' then r.total else 0 end) as despesas, "
+			+ "sum(sum(case when r.tipo = 'RECEITA' then r.total else -r.total end)) over (order by r.ano, r.mes) as saldo, "
+			+ "lead(r.ano * 12 + r.mes) over (order by r.ano, r.mes) as proximo "
+			+ "from financas.resumo_mensal r "
+			+ "where r.id_usuario = :idUsuario and r.ano * 12 + r.mes <= :fim "
+			+ "group by r.ano, r.mes) f "
+			+ "where f.ano * 12 + f.mes >= :inicio or f.proximo is null or f.proximo >= :inicio "
+			+ "order by f.ano, f.mes", nativeQuery = true)
+	List<Object[]> fluxo(@Param("idUsuario") Long idUsuario, @Param("inicio") Integer inicio, @Param("fim") Integer fim);
+}
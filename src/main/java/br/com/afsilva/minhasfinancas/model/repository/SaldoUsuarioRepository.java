@@ -0,0 +1,57 @@
+package br.com.afsilva.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.afsilva.minhasfinancas.model.entity.SaldoUsuario;
+
+public interface SaldoUsuarioRepository extends JpaRepository<SaldoUsuario, Long> {
+
+	@Modifying
+	@Query(value = "update SaldoUsuario s set s.receitas = s.receitas + :receitas, s.despesas = s.despesas + :despesas where s.idUsuario = :idUsuario")
+	int movimentar(@Param("idUsuario") Long idUsuario, @Param("receitas") BigDecimal receitas, @Param("despesas") BigDecimal despesas);
+	
+	@Modifying
+	@Query(value = "delete from SaldoUsuario s where s.idUsuario = :idUsuario")
+	int excluirPorUsuario(@Param("idUsuario") Long idUsuario);
+	
+	@Modifying
+	@Query(value = "delete from SaldoUsuario s")
+	int excluirTodos();
+	
+	/**
+	 * As reconstruções não falham se outra transação criou a linha do usuário ao mesmo
+	 * tempo: nada é inserido e o retorno é 0.
+	 */
+	@Modifying
+	@Query(value = "insert into financas.saldo_usuario (id_usuario, receitas, despesas) "
+			+ "select l.id_usuario, "
+			+ "coalesce(sum(case when l.tipo = 'RECEITA' then l.valor end), 0), "
+			+ "coalesce(sum(case when l.tipo = 'DESPESA' then l.valor end), 0) "
+			+ "from " + LancamentoArquivadoRepository.TODOS_LANCAMENTOS + "l where l.id_usuario = :idUsuario group by l.id_usuario on conflict do nothing", nativeQuery = true)
+	int reconstruirPorUsuario(@Param("idUsuario") Long idUsuario);
+	
+	/**
+	 * Parte dos totais de um fechamento anual e soma só os lançamentos dos anos seguintes.
+	 */
+	@Modifying
+	@Query(value = "insert into financas.saldo_usuario (id_usuario, receitas, despesas) "
+			+ "select :idUsuario, "
+			+ ":receitas + coalesce(sum(case when l.tipo = 'RECEITA' then l.valor end), 0), "
+			+ ":despesas + coalesce(sum(case when l.tipo = 'DESPESA' then l.valor end), 0) "
+			+ "from " + LancamentoArquivadoRepository.TODOS_LANCAMENTOS + "l where l.id_usuario = :idUsuario and l.ano > :ano on conflict do nothing", nativeQuery = true)
+	int reconstruirPorUsuarioAposFechamento(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano,
+			@Param("receitas") BigDecimal receitas, @Param("despesas") BigDecimal despesas);
+	
+	@Modifying
+	@Query(value = "insert into financas.saldo_usuario (id_usuario, receitas, despesas) "
+			+ "select l.id_usuario, "
+			+ "coalesce(sum(case when l.tipo = 'RECEITA' then l.valor end), 0), "
+			+ "coalesce(sum(case when l.tipo = 'DESPESA' then l.valor end), 0) "
+			+ "from " + LancamentoArquivadoRepository.TODOS_LANCAMENTOS + "l group by l.id_usuario on conflict do nothing", nativeQuery = true)
+	int reconstruirTodos();
+}
@@ -3,9 +3,13 @@ package br.com.afsilva.minhasfinancas.model.repository;
 
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import br.com.afsilva.minhasfinancas.config.CacheConfig;
 import br.com.afsilva.minhasfinancas.model.entity.Usuario;
 
 
@@ -13,5 +17,13 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long>{
 	
 	boolean existsByEmail(String email);
 	
+	/**
+	 * Em cache no próprio repositório, para que a autenticação use o mesmo caminho;
+	 * UsuarioServiceImp.salvarUsuario invalida a entrada.
+	 */
+	@Cacheable(cacheNames = CacheConfig.USUARIOS_POR_EMAIL, unless = "#result == null")
 	Optional<Usuario> findByEmail(String email);
+	
+	@Query("select u.email from Usuario u")
+	Stream<String> streamEmails();
 }
@@ -0,0 +1,20 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+
+public interface ArquivamentoLancamentoService {
+
+	/**
+	 * Move para o arquivo, em lotes, os lançamentos anteriores ao horizonte e os cancelados
+	 * de anos encerrados.
+	 * 
+	 * @return quantidade de lançamentos arquivados.
+	 */
+	int arquivar();
+	
+	/**
+	 * Indica se o ano do filtro pode ter lançamentos arquivados; sem ano, a busca fica na
+	 * tabela ativa.
+	 */
+	boolean alcancaArquivo(Lancamento filtro);
+}
@@ -0,0 +1,11 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import br.com.afsilva.minhasfinancas.model.enums.FormatoExportacao;
+
+public interface ExportacaoLancamentoService {
+
+	long exportar(Long idUsuario, FormatoExportacao formato, OutputStream saida) throws IOException;
+}
@@ -0,0 +1,30 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.util.Optional;
+
+import br.com.afsilva.minhasfinancas.model.entity.FechamentoAnual;
+
+public interface FechamentoAnualService {
+
+	/**
+	 * Grava, ou refaz, o fechamento do usuário em {@code ano}, que precisa estar encerrado.
+	 * 
+	 * @return vazio quando o usuário não tem lançamentos até o fim do ano.
+	 */
+	Optional<FechamentoAnual> fechar(Long idUsuario, int ano);
+	
+	/**
+	 * Grava, ou refaz, o fechamento de {@code ano} de todos os usuários.
+	 */
+	int fecharTodos(int ano);
+	
+	/**
+	 * Fechamento do ano mais recente do usuário.
+	 */
+	Optional<FechamentoAnual> obterUltimo(Long idUsuario);
+	
+	/**
+	 * Leva aos fechamentos existentes as variações em anos já encerrados.
+	 */
+	void ajustar(MovimentacaoResumo movimentacao);
+}
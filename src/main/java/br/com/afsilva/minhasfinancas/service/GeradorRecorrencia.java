@@ -0,0 +1,63 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.enums.Recorrencia;
+
+/**
+ * Expande um lançamento modelo nas ocorrências mensais de uma recorrência, a partir do
+ * mês e ano do modelo. Não valida nem grava: só monta as entidades.
+ */
+public final class GeradorRecorrencia {
+
+	private GeradorRecorrencia() {
+	}
+	
+	/**
+	 * Na recorrência {@link Recorrencia#PARCELADA} o valor do modelo é o total: as parcelas
+	 * têm duas casas e os centavos que sobram da divisão vão para as primeiras, de modo que
+	 * a soma das parcelas é exatamente o total. A descrição recebe o sufixo "(i/N)". O total
+	 * deve ter no máximo duas casas decimais.
+	 * 
+	 * @throws ArithmeticException se o total da parcelada tiver mais de duas casas decimais.
+	 */
+	public static List<Lancamento> gerar(Lancamento modelo, Recorrencia recorrencia, int ocorrencias) {
+		
+		BigDecimal valor = modelo.getValor();
+		long centavosRestantes = 0;
+		if (recorrencia == Recorrencia.PARCELADA) {
+			long totalCentavos = modelo.getValor().setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+			valor = BigDecimal.valueOf(totalCentavos / ocorrencias, 2);
+			centavosRestantes = totalCentavos % ocorrencias;
+		}
+		BigDecimal valorComCentavo = valor.add(BigDecimal.valueOf(1, 2));
+		
+		List<Lancamento> lancamentos = new ArrayList<>(ocorrencias);
+		int mesCorrido = modelo.getAno() * 12 + modelo.getMes() - 1;
+		
+		for (int i = 0; i < ocorrencias; i++, mesCorrido++) {
+			
+			Lancamento lancamento = new Lancamento();
+			lancamento.setAno(mesCorrido / 12);
+			lancamento.setMes(mesCorrido % 12 + 1);
+			lancamento.setTipo(modelo.getTipo());
+			lancamento.setStatus(modelo.getStatus());
+			lancamento.setUsuario(modelo.getUsuario());
+			lancamento.setDataCadastro(modelo.getDataCadastro());
+			
+			if (recorrencia == Recorrencia.PARCELADA) {
+				lancamento.setDescricao(modelo.getDescricao() + " (" + (i + 1) + "/" + ocorrencias + ")");
+				lancamento.setValor(i < centavosRestantes ? valorComCentavo : valor);
+			} else {
+				lancamento.setDescricao(modelo.getDescricao());
+				lancamento.setValor(valor);
+			}
+			lancamentos.add(lancamento);
+		}
+		return lancamentos;
+	}
+}
@@ -0,0 +1,16 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+
+public interface GravacaoAgrupadaService {
+
+	/**
+	 * @return {@code true} se os lançamentos novos devem passar pela fila de gravação agrupada.
+	 */
+	boolean isAtiva();
+	
+	/**
+	 * Valida o lançamento, coloca-o na fila e aguarda o commit do lote em que foi gravado.
+	 */
+	Lancamento salvar(Lancamento lancamento);
+}
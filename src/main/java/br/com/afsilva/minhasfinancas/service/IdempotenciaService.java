@@ -0,0 +1,16 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.util.function.Supplier;
+
+public interface IdempotenciaService {
+
+	/**
+	 * Executa a operação uma única vez por chave. Repetições recebem a primeira resposta
+	 * sem executar de novo; requisições simultâneas com a mesma chave aguardam a que chegou
+	 * primeiro. Se a operação falhar a chave é liberada para uma nova tentativa.
+	 *
+	 * @param impressao resumo do conteúdo da requisição; a mesma chave com outro conteúdo
+	 * lança {@link br.com.afsilva.minhasfinancas.exception.ConflitoIdempotenciaException}.
+	 */
+	RespostaGravada executar(String chave, String impressao, Supplier<RespostaGravada> operacao);
+}
@@ -0,0 +1,20 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import br.com.afsilva.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.afsilva.minhasfinancas.api.dto.ResultadoImportacaoDTO;
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+
+public interface ImportacaoLancamentoService {
+
+	/**
+	 * Com {@code autenticado}, as linhas sem usuário passam a ser dele e as que informam
+	 * outro usuário são rejeitadas; sem token ({@code null}), vale o usuário de cada linha.
+	 */
+	ResultadoImportacaoDTO importar(List<LancamentoDTO> lancamentos, Usuario autenticado);
+	
+	ResultadoImportacaoDTO importarCsv(InputStream csv, Usuario autenticado) throws IOException;
+}
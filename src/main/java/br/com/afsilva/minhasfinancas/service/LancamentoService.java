@@ -1,19 +1,27 @@
 package br.com.afsilva.minhasfinancas.service;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.enums.Recorrencia;
 import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.projection.LancamentoResumo;
+import br.com.afsilva.minhasfinancas.model.repository.CursorLancamento;
 
 public interface LancamentoService {
 	
 	Lancamento salvar(Lancamento lancamento);
+	List<Lancamento> salvarTodos(List<Lancamento> lancamentos);
+	List<Lancamento> salvarRecorrencia(Lancamento lancamento, Recorrencia recorrencia, int ocorrencias);
 	Lancamento atualizar(Lancamento lancamento);
 	void deletar(Lancamento lancamento);
-	List<Lancamento> buscar(Lancamento lancamentoFiltro);
+	List<LancamentoResumo> buscar(Lancamento lancamentoFiltro);
+	List<LancamentoResumo> buscar(Lancamento lancamentoFiltro, CursorLancamento cursor, int limite);
 	void atualizarStatus(Lancamento lancamento, StatusLancamento status);
+	int atualizarStatus(Lancamento lancamentoFiltro, Collection<Long> ids, StatusLancamento status);
 	void validar(Lancamento lancamento);
 	Optional<Lancamento> obterPorId(Long id);
 	BigDecimal obterSaldoPorTipoLancamentoEUsuario(Long id);
@@ -0,0 +1,23 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Evento publicado na transação que grava lançamentos; os ouvintes o recebem depois do
+ * commit.
+ */
+public final class LancamentosAlterados {
+
+	private final Set<Long> idsUsuario;
+	
+	public LancamentosAlterados(Collection<Long> idsUsuario) {
+		this.idsUsuario = Collections.unmodifiableSet(new HashSet<>(idsUsuario));
+	}
+
+	public Set<Long> getIdsUsuario() {
+		return idsUsuario;
+	}
+}
@@ -0,0 +1,86 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.entity.ResumoMensalId;
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.projection.LancamentoResumo;
+
+/**
+ * Acumula, por célula do resumo mensal (usuário, ano, mês, tipo e status), as variações
+ * de total e quantidade produzidas por uma operação de escrita.
+ */
+public class MovimentacaoResumo {
+
+	private final Map<ResumoMensalId, Variacao> variacoes = new LinkedHashMap<>();
+	
+	public MovimentacaoResumo adicionar(Lancamento lancamento) {
+		return registrar(celula(lancamento), lancamento.getValor(), 1);
+	}
+	
+	/**
+	 * Estorna o lançamento da célula do status gravado, que difere do atual quando a instância
+	 * gerenciada foi alterada antes da escrita.
+	 */
+	public MovimentacaoResumo estornar(Lancamento lancamento) {
+		
+		StatusLancamento status = lancamento.getStatusGravado() != null ? lancamento.getStatusGravado() : lancamento.getStatus();
+		return registrar(new ResumoMensalId(lancamento.getUsuario().getId(), lancamento.getAno(), lancamento.getMes(),
+				lancamento.getTipo(), status), lancamento.getValor().negate(), -1);
+	}
+	
+	/**
+	 * Move o lançamento do status de origem para {@code status}.
+	 */
+	public MovimentacaoResumo moverStatus(LancamentoResumo lancamento, StatusLancamento status) {
+		
+		registrar(new ResumoMensalId(lancamento.getUsuarioId(), lancamento.getAno(), lancamento.getMes(), lancamento.getTipo(),
+				lancamento.getStatus()), lancamento.getValor().negate(), -1);
+		return registrar(new ResumoMensalId(lancamento.getUsuarioId(), lancamento.getAno(), lancamento.getMes(), lancamento.getTipo(),
+				status), lancamento.getValor(), 1);
+	}
+	
+	public MovimentacaoResumo registrar(ResumoMensalId celula, BigDecimal total, long quantidade) {
+		
+		Variacao variacao = variacoes.computeIfAbsent(celula, c -> new Variacao());
+		variacao.total = variacao.total.add(total);
+		variacao.quantidade += quantidade;
+		return this;
+	}
+	
+	private static ResumoMensalId celula(Lancamento lancamento) {
+		return new ResumoMensalId(lancamento.getUsuario().getId(), lancamento.getAno(), lancamento.getMes(),
+				lancamento.getTipo(), lancamento.getStatus());
+	}
+	
+	public boolean isVazia() {
+		return variacoes.isEmpty();
+	}
+	
+	public Map<ResumoMensalId, Variacao> getVariacoes() {
+		return Collections.unmodifiableMap(variacoes);
+	}
+	
+	public static class Variacao {
+		
+		private BigDecimal total = BigDecimal.ZERO;
+		private long quantidade;
+		
+		public BigDecimal getTotal() {
+			return total;
+		}
+		
+		public long getQuantidade() {
+			return quantidade;
+		}
+		
+		/** Estorno e lançamento na mesma célula com o mesmo valor se anulam. */
+		public boolean isNula() {
+			return quantidade == 0 && total.signum() == 0;
+		}
+	}
+}
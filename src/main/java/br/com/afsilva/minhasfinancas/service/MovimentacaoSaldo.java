@@ -0,0 +1,46 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+
+/**
+ * Acumula, por usuário, as variações de receitas e despesas produzidas por uma
+ * operação de escrita, para que o saldo seja movimentado uma única vez por usuário.
+ */
+public class MovimentacaoSaldo {
+
+	private final Map<Long, BigDecimal[]> variacoes = new LinkedHashMap<>();
+	
+	public MovimentacaoSaldo adicionar(Lancamento lancamento) {
+		return registrar(lancamento.getUsuario().getId(), lancamento.getTipo(), lancamento.getValor());
+	}
+	
+	public MovimentacaoSaldo estornar(Lancamento lancamento) {
+		return estornar(lancamento.getUsuario().getId(), lancamento.getTipo(), lancamento.getValor());
+	}
+	
+	public MovimentacaoSaldo estornar(Long idUsuario, TipoLancamento tipo, BigDecimal valor) {
+		return registrar(idUsuario, tipo, valor.negate());
+	}
+	
+	public MovimentacaoSaldo registrar(Long idUsuario, TipoLancamento tipo, BigDecimal valor) {
+		
+		BigDecimal[] variacao = variacoes.computeIfAbsent(idUsuario, id -> new BigDecimal[] { BigDecimal.ZERO, BigDecimal.ZERO });
+		int indice = tipo == TipoLancamento.RECEITA ? 0 : 1;
+		variacao[indice] = variacao[indice].add(valor);
+		return this;
+	}
+	
+	public boolean isVazia() {
+		return variacoes.isEmpty();
+	}
+	
+	public Map<Long, BigDecimal[]> getVariacoes() {
+		return Collections.unmodifiableMap(variacoes);
+	}
+}
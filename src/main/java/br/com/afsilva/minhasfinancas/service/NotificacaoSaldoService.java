@@ -0,0 +1,13 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface NotificacaoSaldoService {
+
+	/**
+	 * Abre um fluxo SSE do usuário. Os eventos {@code saldo} (saldo atual) e
+	 * {@code lancamentos} (ETag das listas e do saldo) são enviados na inscrição e depois de
+	 * cada escrita confirmada que envolve o usuário.
+	 */
+	SseEmitter inscrever(Long idUsuario);
+}
@@ -0,0 +1,30 @@
+package br.com.afsilva.minhasfinancas.service;
+
+/**
+ * Resposta HTTP já serializada, guardada para ser repetida a quem reenviar a mesma
+ * Idempotency-Key.
+ */
+public final class RespostaGravada {
+
+	private final int status;
+	private final String tipoConteudo;
+	private final String corpo;
+	
+	public RespostaGravada(int status, String tipoConteudo, String corpo) {
+		this.status = status;
+		this.tipoConteudo = tipoConteudo;
+		this.corpo = corpo;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public String getTipoConteudo() {
+		return tipoConteudo;
+	}
+
+	public String getCorpo() {
+		return corpo;
+	}
+}
@@ -0,0 +1,25 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.projection.SaldoMensal;
+import br.com.afsilva.minhasfinancas.model.projection.TotalMensal;
+
+public interface ResumoMensalService {
+
+	/**
+	 * @param status restringe a um status, ou {@code null} para somar todos.
+	 */
+	List<TotalMensal> totalizar(Long idUsuario, YearMonth inicio, YearMonth fim, StatusLancamento status);
+	
+	/**
+	 * Saldo acumulado mês a mês no período, inclusive nos meses sem lançamentos.
+	 */
+	List<SaldoMensal> fluxo(Long idUsuario, YearMonth inicio, YearMonth fim);
+	
+	void movimentar(MovimentacaoResumo movimentacao);
+	
+	int reconstruirTodos();
+}
@@ -0,0 +1,15 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+public interface SaldoUsuarioService {
+
+	Optional<BigDecimal> obterSaldo(Long idUsuario);
+	
+	void movimentar(MovimentacaoSaldo movimentacao);
+	
+	void reconstruir(Long idUsuario);
+	
+	int reconstruirTodos();
+}
@@ -0,0 +1,17 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.util.Optional;
+
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+
+public interface TokenService {
+
+	String gerarToken(Usuario usuario);
+	
+	/**
+	 * Confere assinatura e validade do token sem acessar o banco.
+	 * 
+	 * @return usuário montado a partir das claims (id, nome e email), ou vazio se o token for inválido ou expirado.
+	 */
+	Optional<Usuario> validarToken(String token);
+}
@@ -0,0 +1,18 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.util.Collection;
+
+public interface VersaoDadosService {
+
+	/**
+	 * ETag forte dos dados de lançamento do usuário (listas, saldo), obtido sem consultar
+	 * o banco. Muda a cada escrita confirmada que envolve o usuário.
+	 */
+	String etag(Long idUsuario);
+	
+	/**
+	 * Troca a versão dos usuários depois do commit da transação corrente, ou imediatamente
+	 * fora de transação.
+	 */
+	void incrementar(Collection<Long> idsUsuario);
+}
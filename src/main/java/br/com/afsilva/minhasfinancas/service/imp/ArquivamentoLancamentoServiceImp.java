@@ -0,0 +1,194 @@
+package br.com.afsilva.minhasfinancas.service.imp;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.repository.LancamentoArquivadoRepository;
+import br.com.afsilva.minhasfinancas.service.ArquivamentoLancamentoService;
+import br.com.afsilva.minhasfinancas.service.LancamentosAlterados;
+import br.com.afsilva.minhasfinancas.service.VersaoDadosService;
+
+/**
+ * Cada lote bloqueia as linhas, copia para lancamento_arquivo e apaga da tabela ativa numa
+ * única transação. Saldo, resumo mensal e fechamentos não são movimentados: os totais já
+ * incluem as linhas, e as reconstruções leem as duas tabelas. Arquivados não podem ser
+ * alterados nem excluídos.
+ * 
+ * <p>Com {@code minhasfinancas.arquivamento.ativo} ligado, uma thread executa o
+ * arquivamento a cada {@code intervalo}. Aumentar o horizonte depois de arquivar não traz
+ * as linhas de volta: a busca deixa de alcançar os anos entre o horizonte antigo e o novo.
+ */
+@Service
+public class ArquivamentoLancamentoServiceImp implements ArquivamentoLancamentoService {
+
+	private static final Logger log = LoggerFactory.getLogger(ArquivamentoLancamentoServiceImp.class);
+	
+	private final LancamentoArquivadoRepository repository;
+	private final IndiceTrigramasDescricao indiceDescricao;
+	private final VersaoDadosService versaoDados;
+	private final ApplicationEventPublisher eventos;
+	private final TransactionTemplate transacao;
+	private final boolean ativo;
+	private final int horizonteAnos;
+	private final boolean cancelados;
+	private final int tamanhoLote;
+	private final Duration intervalo;
+	private final Clock relogio;
+	
+	private ScheduledExecutorService agendador;
+
+	@Autowired
+	public ArquivamentoLancamentoServiceImp(LancamentoArquivadoRepository repository, IndiceTrigramasDescricao indiceDescricao,
+			VersaoDadosService versaoDados, ApplicationEventPublisher eventos, PlatformTransactionManager transactionManager,
+			@Value("${minhasfinancas.arquivamento.ativo:false}") boolean ativo,
+			@Value("${minhasfinancas.arquivamento.horizonte-anos:10}") int horizonteAnos,
+			@Value("${minhasfinancas.arquivamento.cancelados:true}") boolean cancelados,
+			@Value("${minhasfinancas.arquivamento.tamanho-lote:1000}") int tamanhoLote,
+			@Value("${minhasfinancas.arquivamento.intervalo:1h}") Duration intervalo) {
+		this(repository, indiceDescricao, versaoDados, eventos, transactionManager, ativo, horizonteAnos, cancelados,
+				tamanhoLote, intervalo, Clock.systemDefaultZone());
+	}
+
+	public ArquivamentoLancamentoServiceImp(LancamentoArquivadoRepository repository, IndiceTrigramasDescricao indiceDescricao,
+			VersaoDadosService versaoDados, ApplicationEventPublisher eventos, PlatformTransactionManager transactionManager,
+			boolean ativo, int horizonteAnos, boolean cancelados, int tamanhoLote, Duration intervalo, Clock relogio) {
+		this.repository = repository;
+		this.indiceDescricao = indiceDescricao;
+		this.versaoDados = versaoDados;
+		this.eventos = eventos;
+		this.transacao = new TransactionTemplate(transactionManager);
+		this.ativo = ativo;
+		this.horizonteAnos = horizonteAnos;
+		this.cancelados = cancelados;
+		this.tamanhoLote = tamanhoLote;
+		this.intervalo = intervalo;
+		this.relogio = relogio;
+	}
+	
+	@PostConstruct
+	public void iniciar() {
+		
+		if (!ativo) {
+			return;
+		}
+		
+		agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+			Thread thread = new Thread(tarefa, "arquivamento-lancamentos");
+			thread.setDaemon(true);
+			return thread;
+		});
+		agendador.scheduleWithFixedDelay(this::executar, intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+	}
+	
+	@PreDestroy
+	public void parar() {
+		
+		if (agendador != null) {
+			agendador.shutdownNow();
+		}
+	}
+
+	@Override
+	public int arquivar() {
+		
+		long inicio = System.currentTimeMillis();
+		int total = 0;
+		long ultimoId = 0;
+		List<Long> arquivados;
+		do {
+			// Uma transação por lote: bloqueios curtos e progresso preservado se um lote falhar.
+			long aPartirDe = ultimoId;
+			arquivados = transacao.execute(status -> arquivarLote(aPartirDe));
+			total += arquivados.size();
+			if (!arquivados.isEmpty()) {
+				ultimoId = arquivados.get(arquivados.size() - 1);
+			}
+		} while (arquivados.size() == tamanhoLote);
+		
+		if (total > 0) {
+			log.info("{} lançamentos arquivados em {} ms.", total, System.currentTimeMillis() - inicio);
+		}
+		return total;
+	}
+
+	@Override
+	public boolean alcancaArquivo(Lancamento filtro) {
+		
+		return filtro.getAno() != null && filtro.getAno() < anoLimiteCancelados();
+	}
+	
+	/**
+	 * @return ids arquivados, em ordem crescente.
+	 */
+	private List<Long> arquivarLote(long ultimoId) {
+		
+		List<Object[]> linhas = repository.bloquearArquivaveis(anoLimite(), anoLimiteCancelados(), ultimoId, tamanhoLote);
+		if (linhas.isEmpty()) {
+			return Collections.emptyList();
+		}
+		
+		List<Long> ids = new ArrayList<>(linhas.size());
+		Map<Long, List<Long>> porUsuario = new HashMap<>();
+		for (Object[] linha : linhas) {
+			Long id = ((Number) linha[0]).longValue();
+			ids.add(id);
+			if (linha[1] != null) {
+				porUsuario.computeIfAbsent(((Number) linha[1]).longValue(), usuario -> new ArrayList<>()).add(id);
+			}
+		}
+		
+		repository.copiar(ids, LocalDateTime.now(relogio));
+		repository.excluirAtivos(ids);
+		
+		// Listas sem filtro de ano deixam de trazer as linhas: a versão dos dados muda, o saldo não.
+		porUsuario.forEach(indiceDescricao::remover);
+		versaoDados.incrementar(porUsuario.keySet());
+		eventos.publishEvent(new LancamentosAlterados(porUsuario.keySet()));
+		return ids;
+	}
+	
+	private void executar() {
+		try {
+			arquivar();
+		} catch (RuntimeException e) {
+			log.warn("Falha no arquivamento de lançamentos; nova tentativa em {}.", intervalo, e);
+		}
+	}
+	
+	/**
+	 * Lançamentos de anos anteriores a este vão para o arquivo.
+	 */
+	private int anoLimite() {
+		return Year.now(relogio).getValue() - horizonteAnos;
+	}
+	
+	/**
+	 * Cancelados de anos anteriores a este vão para o arquivo.
+	 */
+	private int anoLimiteCancelados() {
+		return cancelados ? Year.now(relogio).getValue() : anoLimite();
+	}
+}
@@ -0,0 +1,158 @@
+package br.com.afsilva.minhasfinancas.service.imp;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.afsilva.minhasfinancas.model.enums.FormatoExportacao;
+import br.com.afsilva.minhasfinancas.model.projection.LancamentoResumo;
+import br.com.afsilva.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.afsilva.minhasfinancas.service.ExportacaoLancamentoService;
+
+@Service
+public class ExportacaoLancamentoServiceImp implements ExportacaoLancamentoService {
+
+	static final String CABECALHO_CSV = "id,descricao,mes,ano,valor,tipo,status,data_cadastro,usuario";
+	
+	private LancamentoRepository repository;
+	private ObjectMapper objectMapper;
+	
+	public ExportacaoLancamentoServiceImp(LancamentoRepository repository, ObjectMapper objectMapper) {
+		this.repository = repository;
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public long exportar(Long idUsuario, FormatoExportacao formato, OutputStream saida) throws IOException {
+		
+		// Os cursores precisam da transação aberta enquanto as linhas são consumidas.
+		try (Stream<LancamentoResumo> ativos = repository.streamPorUsuario(idUsuario);
+				Stream<LancamentoResumo> arquivados = repository.streamArquivadosPorUsuario(idUsuario)) {
+			
+			Iterator<LancamentoResumo> linhas = intercalar(ativos.iterator(), arquivados.iterator());
+			if (formato == FormatoExportacao.CSV) {
+				return escreverCsv(linhas, saida);
+			}
+			return escreverNdjson(linhas, saida);
+			
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+	
+	private long escreverNdjson(Iterator<LancamentoResumo> linhas, OutputStream saida) throws IOException {
+		
+		long total = 0;
+		JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida);
+		gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		gerador.setRootValueSeparator(new SerializedString("\n"));
+		
+		while (linhas.hasNext()) {
+			objectMapper.writeValue(gerador, linhas.next());
+			total++;
+		}
+		
+		gerador.writeRaw('\n');
+		gerador.flush();
+		return total;
+	}
+	
+	private long escreverCsv(Iterator<LancamentoResumo> linhas, OutputStream saida) throws IOException {
+		
+		long total = 0;
+		Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+		escritor.write(CABECALHO_CSV);
+		escritor.write('\n');
+		
+		while (linhas.hasNext()) {
+			LancamentoResumo linha = linhas.next();
+			escritor.write(String.valueOf(linha.getId()));
+			escritor.write(',');
+			escritor.write(escaparCsv(linha.getDescricao()));
+			escritor.write(',');
+			escritor.write(String.valueOf(linha.getMes()));
+			escritor.write(',');
+			escritor.write(String.valueOf(linha.getAno()));
+			escritor.write(',');
+			escritor.write(linha.getValor() == null ? "" : linha.getValor().toPlainString());
+			escritor.write(',');
+			escritor.write(linha.getTipo() == null ? "" : linha.getTipo().name());
+			escritor.write(',');
+			escritor.write(linha.getStatus() == null ? "" : linha.getStatus().name());
+			escritor.write(',');
+			escritor.write(linha.getDataCadastro() == null ? "" : linha.getDataCadastro().toString());
+			escritor.write(',');
+			escritor.write(String.valueOf(linha.getUsuarioId()));
+			escritor.write('\n');
+			total++;
+		}
+		
+		escritor.flush();
+		return total;
+	}
+	
+	/**
+	 * Intercala duas sequências já ordenadas por (ano, mes, id) sem carregá-las.
+	 */
+	static Iterator<LancamentoResumo> intercalar(Iterator<LancamentoResumo> ativos, Iterator<LancamentoResumo> arquivados) {
+		
+		return new Iterator<LancamentoResumo>() {
+			
+			private LancamentoResumo proximoAtivo = ativos.hasNext() ? ativos.next() : null;
+			private LancamentoResumo proximoArquivado = arquivados.hasNext() ? arquivados.next() : null;
+			
+			@Override
+			public boolean hasNext() {
+				return proximoAtivo != null || proximoArquivado != null;
+			}
+			
+			@Override
+			public LancamentoResumo next() {
+				
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				
+				LancamentoResumo linha;
+				if (proximoArquivado == null
+						|| (proximoAtivo != null && LancamentoResumo.ORDEM.compare(proximoAtivo, proximoArquivado) < 0)) {
+					linha = proximoAtivo;
+					proximoAtivo = ativos.hasNext() ? ativos.next() : null;
+				} else {
+					linha = proximoArquivado;
+					proximoArquivado = arquivados.hasNext() ? arquivados.next() : null;
+				}
+				return linha;
+			}
+		};
+	}
+	
+	static String escaparCsv(String valor) {
+		
+		if (valor == null) {
+			return "";
+		}
+		
+		if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+			return valor;
+		}
+		
+		return '"' + valor.replace("\"", "\"\"") + '"';
+	}
+
+}
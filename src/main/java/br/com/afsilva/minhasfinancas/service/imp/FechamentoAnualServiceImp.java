@@ -0,0 +1,115 @@
+package br.com.afsilva.minhasfinancas.service.imp;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.afsilva.minhasfinancas.exception.RegraNegocioException;
+import br.com.afsilva.minhasfinancas.model.entity.FechamentoAnual;
+import br.com.afsilva.minhasfinancas.model.entity.FechamentoAnualId;
+import br.com.afsilva.minhasfinancas.model.entity.ResumoMensalId;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import br.com.afsilva.minhasfinancas.model.repository.FechamentoAnualRepository;
+import br.com.afsilva.minhasfinancas.service.FechamentoAnualService;
+import br.com.afsilva.minhasfinancas.service.MovimentacaoResumo;
+
+/**
+ * Os fechamentos são calculados a partir do resumo mensal e, depois de gravados, mantidos
+ * pelas mesmas variações que movimentam o resumo. Só anos encerrados podem ser fechados,
+ * então escritas no ano corrente não tocam a tabela. Fechar um ano enquanto lançamentos
+ * desse ano ainda estão sendo gravados pode perder a variação de quem commitar depois da
+ * leitura do resumo: o fechamento deve ser feito, ou refeito, fora desses momentos.
+ */
+@Service
+public class FechamentoAnualServiceImp implements FechamentoAnualService {
+
+	private final FechamentoAnualRepository repository;
+	private final Clock relogio;
+
+	@Autowired
+	public FechamentoAnualServiceImp(FechamentoAnualRepository repository) {
+		this(repository, Clock.systemDefaultZone());
+	}
+
+	public FechamentoAnualServiceImp(FechamentoAnualRepository repository, Clock relogio) {
+		this.repository = repository;
+		this.relogio = relogio;
+	}
+
+	@Override
+	@Transactional
+	public Optional<FechamentoAnual> fechar(Long idUsuario, int ano) {
+		
+		validarAno(ano);
+		
+		repository.flush();
+		repository.excluirPorUsuarioEAno(idUsuario, ano);
+		repository.fecharPorUsuario(idUsuario, ano, LocalDateTime.now(relogio));
+		return repository.findById(new FechamentoAnualId(idUsuario, ano));
+	}
+
+	@Override
+	@Transactional
+	public int fecharTodos(int ano) {
+		
+		validarAno(ano);
+		
+		repository.flush();
+		repository.excluirPorAno(ano);
+		return repository.fecharTodos(ano, LocalDateTime.now(relogio));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<FechamentoAnual> obterUltimo(Long idUsuario) {
+		
+		return repository.findFirstByIdUsuarioOrderByAnoDesc(idUsuario);
+	}
+
+	@Override
+	@Transactional
+	public void ajustar(MovimentacaoResumo movimentacao) {
+		
+		int anoCorrente = Year.now(relogio).getValue();
+		
+		// Uma variação por usuário e ano: as células de meses e status diferentes se somam, e
+		// mudanças só de status se anulam.
+		Map<FechamentoAnualId, BigDecimal[]> variacoes = new LinkedHashMap<>();
+		for (Map.Entry<ResumoMensalId, MovimentacaoResumo.Variacao> variacao : movimentacao.getVariacoes().entrySet()) {
+			
+			ResumoMensalId celula = variacao.getKey();
+			if (celula.getAno() == null || celula.getAno() >= anoCorrente) {
+				continue;
+			}
+			
+			BigDecimal[] totais = variacoes.computeIfAbsent(new FechamentoAnualId(celula.getIdUsuario(), celula.getAno()),
+					id -> new BigDecimal[] { BigDecimal.ZERO, BigDecimal.ZERO });
+			int indice = celula.getTipo() == TipoLancamento.RECEITA ? 0 : 1;
+			totais[indice] = totais[indice].add(variacao.getValue().getTotal());
+		}
+		
+		for (Map.Entry<FechamentoAnualId, BigDecimal[]> variacao : variacoes.entrySet()) {
+			
+			BigDecimal[] totais = variacao.getValue();
+			if (totais[0].signum() == 0 && totais[1].signum() == 0) {
+				continue;
+			}
+			repository.ajustar(variacao.getKey().getIdUsuario(), variacao.getKey().getAno(), totais[0], totais[1]);
+		}
+	}
+	
+	private void validarAno(int ano) {
+		
+		if (ano >= Year.now(relogio).getValue()) {
+			throw new RegraNegocioException("Somente anos já encerrados podem ser fechados.");
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package br.com.afsilva.minhasfinancas.service.imp;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.afsilva.minhasfinancas.model.repository.UsuarioRepository;
+
+/**
+ * Filtro de Bloom dos emails cadastrados. Uma resposta negativa é definitiva e dispensa
+ * a consulta existsByEmail no cadastro; uma positiva pode ser falso positivo e leva à
+ * consulta. Até o aquecimento terminar toda resposta é "talvez", e a unicidade continua
+ * garantida pelo índice único uk_usuario_email.
+ */
+@Component
+public class FiltroBloomEmails {
+
+	private static final Logger log = LoggerFactory.getLogger(FiltroBloomEmails.class);
+	
+	private final UsuarioRepository repository;
+	private final AtomicLongArray bits;
+	private final long quantidadeBits;
+	private final int quantidadeHashes;
+	private volatile boolean pronto;
+	
+	public FiltroBloomEmails(UsuarioRepository repository,
+			@Value("${minhasfinancas.usuario.bloom.capacidade:1000000}") long capacidade,
+			@Value("${minhasfinancas.usuario.bloom.taxa-falso-positivo:0.01}") double taxaFalsoPositivo) {
+		
+		this.repository = repository;
+		
+		// m = -n ln(p) / ln(2)^2 e k = m/n ln(2), arredondando m para múltiplo de 64.
+		long m = (long) Math.ceil(-capacidade * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+		this.quantidadeBits = Math.max(64, (m + 63) / 64 * 64);
+		this.quantidadeHashes = Math.max(1, (int) Math.round((double) quantidadeBits / capacidade * Math.log(2)));
+		this.bits = new AtomicLongArray((int) (quantidadeBits / 64));
+	}
+	
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional(readOnly = true)
+	public void aquecer() {
+		
+		long inicio = System.currentTimeMillis();
+		long quantidade = 0;
+		try (Stream<String> emails = repository.streamEmails()) {
+			Iterator<String> iterador = emails.iterator();
+			while (iterador.hasNext()) {
+				adicionar(iterador.next());
+				quantidade++;
+			}
+		}
+		pronto = true;
+		log.info("Filtro de emails aquecido com {} usuários em {} ms ({} bits, {} hashes).",
+				quantidade, System.currentTimeMillis() - inicio, quantidadeBits, quantidadeHashes);
+	}
+	
+	public boolean isPronto() {
+		return pronto;
+	}
+	
+	/**
+	 * @return {@code true} somente quando o email com certeza não está cadastrado.
+	 */
+	public boolean isCertamenteAusente(String email) {
+		
+		if (!pronto || email == null) {
+			return false;
+		}
+		
+		long[] hashes = hashes(email);
+		for (int i = 0; i < quantidadeHashes; i++) {
+			long bit = posicao(hashes, i);
+			if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	public void adicionar(String email) {
+		
+		if (email == null) {
+			return;
+		}
+		
+		long[] hashes = hashes(email);
+		for (int i = 0; i < quantidadeHashes; i++) {
+			long bit = posicao(hashes, i);
+			long mascara = 1L << bit;
+			bits.getAndAccumulate((int) (bit >>> 6), mascara, (atual, m) -> atual | m);
+		}
+	}
+	
+	// Hashing duplo (Kirsch-Mitzenmacher): h1 + i * h2 simula k funções independentes.
+	private long posicao(long[] hashes, int i) {
+		return Math.floorMod(hashes[0] + i * hashes[1], quantidadeBits);
+	}
+	
+	private static long[] hashes(String email) {
+		
+		// FNV-1a 64 bits, espalhado com o finalizador do SplitMix64 para a segunda função.
+		long h = 0xcbf29ce484222325L;
+		for (byte b : email.getBytes(StandardCharsets.UTF_8)) {
+			h ^= b;
+			h *= 0x100000001b3L;
+		}
+		long h2 = h;
+		h2 = (h2 ^ (h2 >>> 30)) * 0xbf58476d1ce4e5b9L;
+		h2 = (h2 ^ (h2 >>> 27)) * 0x94d049bb133111ebL;
+		h2 ^= h2 >>> 31;
+		return new long[] { h, h2 | 1 };
+	}
+}
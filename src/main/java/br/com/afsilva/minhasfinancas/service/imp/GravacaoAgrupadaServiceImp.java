@@ -0,0 +1,213 @@
+package br.com.afsilva.minhasfinancas.service.imp;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.service.GravacaoAgrupadaService;
+import br.com.afsilva.minhasfinancas.service.LancamentoService;
+
+/**
+ * Fila limitada de lançamentos já validados e uma thread gravadora que os grava em lotes,
+ * um commit por lote (até {@code tamanho-lote} lançamentos ou {@code espera-maxima} desde
+ * o primeiro). Quem enviou só recebe a resposta depois do commit do seu lote. Com a fila
+ * cheia, ou com a gravadora parada, o lançamento segue pelo caminho de uma transação por
+ * lançamento.
+ */
+@Service
+public class GravacaoAgrupadaServiceImp implements GravacaoAgrupadaService {
+
+	private static final Logger log = LoggerFactory.getLogger(GravacaoAgrupadaServiceImp.class);
+
+	private static final long ESPERA_FILA_VAZIA_MS = 100;
+
+	private final LancamentoService lancamentoService;
+	private final boolean ativa;
+	private final int tamanhoLote;
+	private final long esperaMaxima;
+	private final BlockingQueue<Pedido> fila;
+
+	private volatile boolean executando;
+	private Thread gravador;
+
+	public GravacaoAgrupadaServiceImp(LancamentoService lancamentoService,
+			@Value("${minhasfinancas.lancamento.gravacao-agrupada.ativa:false}") boolean ativa,
+			@Value("${minhasfinancas.lancamento.gravacao-agrupada.tamanho-lote:100}") int tamanhoLote,
+			@Value("${minhasfinancas.lancamento.gravacao-agrupada.espera-maxima:5ms}") Duration esperaMaxima,
+			@Value("${minhasfinancas.lancamento.gravacao-agrupada.capacidade:10000}") int capacidade) {
+		this.lancamentoService = lancamentoService;
+		this.ativa = ativa;
+		this.tamanhoLote = tamanhoLote;
+		this.esperaMaxima = esperaMaxima.toNanos();
+		this.fila = new ArrayBlockingQueue<>(capacidade);
+	}
+
+	@PostConstruct
+	public void iniciar() {
+
+		if (!ativa) {
+			return;
+		}
+
+		executando = true;
+		gravador = new Thread(this::gravarLotes, "gravacao-agrupada-lancamentos");
+		gravador.setDaemon(true);
+		gravador.start();
+	}
+
+	/**
+	 * Para de aceitar lançamentos e espera a gravadora esvaziar a fila.
+	 */
+	@PreDestroy
+	public void parar() throws InterruptedException {
+
+		if (gravador == null) {
+			return;
+		}
+
+		executando = false;
+		gravador.join();
+
+		// Enviados entre o fim da gravadora e a troca do indicador.
+		List<Pedido> restantes = new ArrayList<>();
+		fila.drainTo(restantes);
+		restantes.forEach(this::gravarSozinho);
+	}
+
+	@Override
+	public boolean isAtiva() {
+		return ativa;
+	}
+
+	@Override
+	public Lancamento salvar(Lancamento lancamento) {
+
+		if (!executando) {
+			return lancamentoService.salvar(lancamento);
+		}
+
+		// Erros de validação voltam para quem enviou sem passar pela fila nem afetar o lote.
+		lancamentoService.validar(lancamento);
+
+		Pedido pedido = new Pedido(lancamento);
+		if (!fila.offer(pedido)) {
+			return lancamentoService.salvar(lancamento);
+		}
+
+		try {
+			return pedido.resultado.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private void gravarLotes() {
+
+		List<Pedido> lote = new ArrayList<>(tamanhoLote);
+		try {
+			while (executando || !fila.isEmpty()) {
+				try {
+					Pedido primeiro = fila.poll(ESPERA_FILA_VAZIA_MS, TimeUnit.MILLISECONDS);
+					if (primeiro == null) {
+						continue;
+					}
+
+					lote.add(primeiro);
+					completarLote(lote, System.nanoTime() + esperaMaxima);
+					gravar(lote);
+
+				} catch (InterruptedException e) {
+					// Interrompida: deixa de aceitar novos e esvazia a fila antes de sair.
+					executando = false;
+					gravar(lote);
+				} finally {
+					// Sem efeito nos já concluídos; evita quem aguarda preso se a gravação falhar com Error.
+					lote.forEach(pedido -> pedido.resultado.completeExceptionally(new IllegalStateException("Lote não gravado.")));
+					lote.clear();
+				}
+			}
+		} finally {
+			executando = false;
+			List<Pedido> restantes = new ArrayList<>();
+			fila.drainTo(restantes);
+			restantes.forEach(this::gravarSozinho);
+		}
+	}
+
+	private void completarLote(List<Pedido> lote, long limite) throws InterruptedException {
+
+		while (lote.size() < tamanhoLote) {
+			fila.drainTo(lote, tamanhoLote - lote.size());
+			long restante = limite - System.nanoTime();
+			if (lote.size() >= tamanhoLote || restante <= 0) {
+				return;
+			}
+
+			Pedido proximo = fila.poll(restante, TimeUnit.NANOSECONDS);
+			if (proximo == null) {
+				return;
+			}
+			lote.add(proximo);
+		}
+	}
+
+	private void gravar(List<Pedido> lote) {
+
+		if (lote.isEmpty()) {
+			return;
+		}
+
+		List<Lancamento> lancamentos = lote.stream().map(pedido -> pedido.lancamento).collect(Collectors.toList());
+		try {
+			List<Lancamento> salvos = lancamentoService.salvarTodos(lancamentos);
+			for (int i = 0; i < lote.size(); i++) {
+				lote.get(i).resultado.complete(salvos.get(i));
+			}
+
+		} catch (RuntimeException e) {
+			// Um lançamento recusado pelo banco desfaz o lote inteiro: cada um é regravado
+			// sozinho para que o erro chegue somente a quem o enviou.
+			log.warn("Lote de {} lançamentos desfeito, regravando um a um: {}", lote.size(), e.getMessage());
+			lote.forEach(this::gravarSozinho);
+		}
+	}
+
+	private void gravarSozinho(Pedido pedido) {
+
+		try {
+			// O id atribuído na tentativa desfeita não foi gravado.
+			pedido.lancamento.setId(null);
+			pedido.resultado.complete(lancamentoService.salvar(pedido.lancamento));
+		} catch (RuntimeException e) {
+			pedido.resultado.completeExceptionally(e);
+		}
+	}
+
+	private static final class Pedido {
+
+		private final Lancamento lancamento;
+		private final CompletableFuture<Lancamento> resultado = new CompletableFuture<>();
+
+		private Pedido(Lancamento lancamento) {
+			this.lancamento = lancamento;
+		}
+	}
+}
@@ -0,0 +1,213 @@
+package br.com.afsilva.minhasfinancas.service.imp;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.afsilva.minhasfinancas.exception.ConflitoIdempotenciaException;
+import br.com.afsilva.minhasfinancas.model.entity.RegistroIdempotencia;
+import br.com.afsilva.minhasfinancas.model.repository.RegistroIdempotenciaRepository;
+import br.com.afsilva.minhasfinancas.service.IdempotenciaService;
+import br.com.afsilva.minhasfinancas.service.RespostaGravada;
+
+/**
+ * As chaves ficam num mapa em memória limitado e com expiração por tempo; cada entrada
+ * guarda um future com a resposta, então requisições simultâneas com a mesma chave
+ * aguardam uma única execução. Com {@code minhasfinancas.idempotencia.banco} ligado a
+ * chave também é reservada na tabela idempotencia antes de executar, o que cobre
+ * repetições que chegam a outro nó. Uma reserva sem resposta dura só o prazo de
+ * {@code minhasfinancas.idempotencia.reserva}: depois dele o nó que a fez é tido como
+ * perdido e a chave pode ser retomada, sem esperar a validade das respostas gravadas. A
+ * data da reserva identifica o nó dono dela: concluir e liberar só alteram a reserva com
+ * essa data, nunca a que outro nó fez ao retomar a chave.
+ */
+@Service
+public class IdempotenciaServiceImp implements IdempotenciaService {
+
+	private static final Logger log = LoggerFactory.getLogger(IdempotenciaServiceImp.class);
+
+	static final int TAMANHO_MAXIMO_CORPO = 10000;
+	private static final int RESERVAS_POR_LIMPEZA = 1000;
+
+	private final ConcurrentMap<String, Registro> registros;
+	private final RegistroIdempotenciaRepository repository;
+	private final Duration validade;
+	private final Duration reserva;
+	private final Clock relogio;
+	private final AtomicLong reservas = new AtomicLong();
+
+	@Autowired
+	public IdempotenciaServiceImp(@Value("${minhasfinancas.idempotencia.validade:24h}") Duration validade,
+			@Value("${minhasfinancas.idempotencia.reserva:30s}") Duration reserva,
+			@Value("${minhasfinancas.idempotencia.maximo-chaves:100000}") int maximoChaves,
+			@Value("${minhasfinancas.idempotencia.banco:false}") boolean banco,
+			RegistroIdempotenciaRepository repository) {
+		this(validade, reserva, maximoChaves, banco ? repository : null, Clock.systemUTC());
+	}
+
+	/**
+	 * @param reserva tempo máximo de uma reserva no banco ainda sem resposta.
+	 * @param repository {@code null} para manter as chaves só em memória.
+	 */
+	public IdempotenciaServiceImp(Duration validade, Duration reserva, int maximoChaves,
+			RegistroIdempotenciaRepository repository, Clock relogio) {
+		this.registros = Caffeine.newBuilder()
+				.expireAfterWrite(validade)
+				.maximumSize(maximoChaves)
+				.<String, Registro>build()
+				.asMap();
+		this.repository = repository;
+		this.validade = validade;
+		this.reserva = reserva;
+		this.relogio = relogio;
+	}
+
+	@Override
+	public RespostaGravada executar(String chave, String impressao, Supplier<RespostaGravada> operacao) {
+
+		Registro novo = new Registro(impressao);
+		Registro existente = registros.putIfAbsent(chave, novo);
+		if (existente != null) {
+			conferirImpressao(existente.impressao, impressao);
+			return aguardar(existente.resposta);
+		}
+
+		try {
+			RespostaGravada resposta = repository == null ? operacao.get() : executarReservado(chave, impressao, operacao);
+			novo.resposta.complete(resposta);
+			return resposta;
+
+		} catch (RuntimeException | Error e) {
+			// Sem resposta gravada a chave volta a ficar livre; quem aguardava recebe o mesmo erro.
+			registros.remove(chave, novo);
+			novo.resposta.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	private RespostaGravada executarReservado(String chave, String impressao, Supplier<RespostaGravada> operacao) {
+
+		// A coluna guarda microssegundos: a data precisa voltar igual para identificar a reserva.
+		LocalDateTime dataReserva = LocalDateTime.now(relogio).truncatedTo(ChronoUnit.MICROS);
+		Optional<RespostaGravada> gravada = reservar(chave, impressao, dataReserva);
+		if (gravada.isPresent()) {
+			return gravada.get();
+		}
+
+		RespostaGravada resposta;
+		try {
+			resposta = operacao.get();
+		} catch (RuntimeException | Error e) {
+			repository.liberar(chave, dataReserva);
+			throw e;
+		}
+
+		String corpo = resposta.getCorpo();
+		if (corpo != null && corpo.length() > TAMANHO_MAXIMO_CORPO) {
+			log.warn("Resposta da chave de idempotência com {} caracteres não cabe na tabela; a chave fica protegida só neste nó.", corpo.length());
+			repository.liberar(chave, dataReserva);
+		} else if (repository.concluir(chave, dataReserva, resposta.getStatus(), resposta.getTipoConteudo(), corpo) == 0) {
+			log.warn("A reserva da chave de idempotência passou de {} e foi retomada por outro nó; a resposta não foi gravada.", reserva);
+		}
+		return resposta;
+	}
+
+	/**
+	 * Insere a reserva; se a chave já existe devolve a resposta gravada por outro nó. Um
+	 * registro vencido, ou uma reserva sem resposta além do prazo, é descartado e a
+	 * inserção tentada mais uma vez.
+	 */
+	private Optional<RespostaGravada> reservar(String chave, String impressao, LocalDateTime dataReserva) {
+
+		if (reservas.incrementAndGet() % RESERVAS_POR_LIMPEZA == 0) {
+			repository.excluirExpirados(limiteValidade());
+		}
+
+		for (int tentativa = 0; tentativa < 2; tentativa++) {
+			try {
+				repository.reservar(chave, impressao, dataReserva);
+				return Optional.empty();
+
+			} catch (DataIntegrityViolationException e) {
+				Optional<RegistroIdempotencia> registro = repository.findById(chave);
+				if (!registro.isPresent()) {
+					continue;
+				}
+
+				RegistroIdempotencia gravado = registro.get();
+				if (gravado.getDataCriacao().isBefore(limiteValidade())) {
+					repository.liberarVencido(chave, limiteValidade());
+					continue;
+				}
+				
+				// O nó que reservou caiu ou travou antes de concluir ou liberar a chave.
+				if (gravado.getStatus() == null && gravado.getDataCriacao().isBefore(limiteReserva())) {
+					repository.liberarAbandonada(chave, limiteReserva());
+					continue;
+				}
+
+				conferirImpressao(gravado.getImpressao(), impressao);
+				if (gravado.getStatus() == null) {
+					throw new ConflitoIdempotenciaException("Já existe uma requisição em andamento com a Idempotency-Key informada.", true);
+				}
+				return Optional.of(new RespostaGravada(gravado.getStatus(), gravado.getTipoConteudo(), gravado.getCorpo()));
+			}
+		}
+
+		throw new ConflitoIdempotenciaException("Já existe uma requisição em andamento com a Idempotency-Key informada.", true);
+	}
+
+	private LocalDateTime limiteValidade() {
+		return LocalDateTime.now(relogio).minus(validade);
+	}
+
+	private LocalDateTime limiteReserva() {
+		return LocalDateTime.now(relogio).minus(reserva);
+	}
+
+	private static void conferirImpressao(String gravada, String recebida) {
+		if (!gravada.equals(recebida)) {
+			throw new ConflitoIdempotenciaException("A Idempotency-Key informada já foi usada com outro conteúdo.", false);
+		}
+	}
+
+	private static RespostaGravada aguardar(CompletableFuture<RespostaGravada> resposta) {
+		try {
+			return resposta.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private static final class Registro {
+
+		private final String impressao;
+		private final CompletableFuture<RespostaGravada> resposta = new CompletableFuture<>();
+
+		private Registro(String impressao) {
+			this.impressao = impressao;
+		}
+	}
+}
@@ -0,0 +1,252 @@
+package br.com.afsilva.minhasfinancas.service.imp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.afsilva.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.afsilva.minhasfinancas.api.dto.ResultadoImportacaoDTO;
+import br.com.afsilva.minhasfinancas.exception.RegraNegocioException;
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import br.com.afsilva.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.afsilva.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.afsilva.minhasfinancas.service.ImportacaoLancamentoService;
+import br.com.afsilva.minhasfinancas.service.LancamentoService;
+import br.com.afsilva.minhasfinancas.service.LancamentosAlterados;
+import br.com.afsilva.minhasfinancas.service.MovimentacaoResumo;
+import br.com.afsilva.minhasfinancas.service.MovimentacaoSaldo;
+import br.com.afsilva.minhasfinancas.service.ResumoMensalService;
+import br.com.afsilva.minhasfinancas.service.SaldoUsuarioService;
+import br.com.afsilva.minhasfinancas.service.VersaoDadosService;
+
+@Service
+public class ImportacaoLancamentoServiceImp implements ImportacaoLancamentoService {
+
+	// Igual a hibernate.jdbc.batch_size: cada flush envia um lote JDBC por tabela.
+	static final int TAMANHO_LOTE = 50;
+	
+	private static final List<String> COLUNAS_OBRIGATORIAS = Arrays.asList("descricao", "mes", "ano", "valor", "tipo");
+	
+	private LancamentoRepository repository;
+	private UsuarioRepository usuarioRepository;
+	private LancamentoService lancamentoService;
+	private SaldoUsuarioService saldoUsuarioService;
+	private IndiceTrigramasDescricao indiceDescricao;
+	private ResumoMensalService resumoMensalService;
+	private VersaoDadosService versaoDados;
+	private ApplicationEventPublisher eventos;
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	public ImportacaoLancamentoServiceImp(LancamentoRepository repository, UsuarioRepository usuarioRepository,
+			LancamentoService lancamentoService, SaldoUsuarioService saldoUsuarioService,
+			IndiceTrigramasDescricao indiceDescricao, ResumoMensalService resumoMensalService,
+			VersaoDadosService versaoDados, ApplicationEventPublisher eventos) {
+		this.repository = repository;
+		this.usuarioRepository = usuarioRepository;
+		this.lancamentoService = lancamentoService;
+		this.saldoUsuarioService = saldoUsuarioService;
+		this.indiceDescricao = indiceDescricao;
+		this.resumoMensalService = resumoMensalService;
+		this.versaoDados = versaoDados;
+		this.eventos = eventos;
+	}
+
+	@Override
+	@Transactional
+	public ResultadoImportacaoDTO importar(List<LancamentoDTO> lancamentos, Usuario autenticado) {
+		
+		long inicio = System.nanoTime();
+		ResultadoImportacaoDTO resultado = new ResultadoImportacaoDTO();
+		
+		Map<Long, Usuario> usuarios = autenticado == null ? buscarUsuarios(lancamentos) : Collections.emptyMap();
+		List<Lancamento> validos = new ArrayList<>(lancamentos.size());
+		
+		for (int i = 0; i < lancamentos.size(); i++) {
+			try {
+				Lancamento lancamento = converter(lancamentos.get(i), usuarios, autenticado);
+				lancamentoService.validar(lancamento);
+				validos.add(lancamento);
+				
+			} catch (RegraNegocioException | IllegalArgumentException e) {
+				resultado.adicionarErro(i + 1, e.getMessage());
+			}
+		}
+		
+		gravarEmLotes(validos);
+		
+		resultado.setImportados(validos.size());
+		registrarVazao(resultado, inicio);
+		return resultado;
+	}
+	
+	@Override
+	@Transactional
+	public ResultadoImportacaoDTO importarCsv(InputStream csv, Usuario autenticado) throws IOException {
+		
+		long inicio = System.nanoTime();
+		ResultadoImportacaoDTO resultado = new ResultadoImportacaoDTO();
+		
+		LeitorCsv leitor = new LeitorCsv(new InputStreamReader(csv, StandardCharsets.UTF_8));
+		List<String> cabecalho = leitor.proximoRegistro();
+		if (cabecalho == null) {
+			throw new RegraNegocioException("Arquivo CSV vazio.");
+		}
+		
+		Map<String, Integer> colunas = new HashMap<>();
+		for (int i = 0; i < cabecalho.size(); i++) {
+			colunas.put(cabecalho.get(i).trim().toLowerCase(), i);
+		}
+		for (String coluna : COLUNAS_OBRIGATORIAS) {
+			if (!colunas.containsKey(coluna)) {
+				throw new RegraNegocioException("Coluna obrigatória ausente no CSV: " + coluna);
+			}
+		}
+		// Com token o usuário vem dele; a coluna só é obrigatória sem autenticação.
+		if (autenticado == null && !colunas.containsKey("usuario")) {
+			throw new RegraNegocioException("Coluna obrigatória ausente no CSV: usuario");
+		}
+		
+		List<LancamentoDTO> lancamentos = new ArrayList<>();
+		List<Integer> linhas = new ArrayList<>();
+		List<String> registro;
+		
+		while ((registro = leitor.proximoRegistro()) != null) {
+			try {
+				lancamentos.add(lerRegistro(registro, colunas));
+				linhas.add(leitor.getLinha());
+			} catch (IllegalArgumentException e) {
+				resultado.adicionarErro(leitor.getLinha(), "Registro inválido: " + e.getMessage());
+			}
+		}
+		
+		ResultadoImportacaoDTO resultadoLinhas = importar(lancamentos, autenticado);
+		resultadoLinhas.getErros().forEach(erro -> 
+			resultado.adicionarErro(linhas.get(erro.getLinha() - 1), erro.getMensagem()));
+		resultado.getErros().sort((a, b) -> Integer.compare(a.getLinha(), b.getLinha()));
+		
+		resultado.setImportados(resultadoLinhas.getImportados());
+		registrarVazao(resultado, inicio);
+		return resultado;
+	}
+	
+	private void gravarEmLotes(List<Lancamento> lancamentos) {
+		
+		MovimentacaoSaldo movimentacao = new MovimentacaoSaldo();
+		MovimentacaoResumo movimentacaoResumo = new MovimentacaoResumo();
+		
+		for (int inicio = 0; inicio < lancamentos.size(); inicio += TAMANHO_LOTE) {
+			List<Lancamento> lote = lancamentos.subList(inicio, Math.min(inicio + TAMANHO_LOTE, lancamentos.size()));
+			repository.saveAll(lote);
+			repository.flush();
+			
+			// Mantém o contexto de persistência do tamanho de um lote.
+			entityManager.clear();
+			lote.forEach(movimentacao::adicionar);
+			lote.forEach(movimentacaoResumo::adicionar);
+		}
+		
+		saldoUsuarioService.movimentar(movimentacao);
+		resumoMensalService.movimentar(movimentacaoResumo);
+		indiceDescricao.registrar(lancamentos);
+		versaoDados.incrementar(movimentacao.getVariacoes().keySet());
+		eventos.publishEvent(new LancamentosAlterados(movimentacao.getVariacoes().keySet()));
+	}
+	
+	private Map<Long, Usuario> buscarUsuarios(List<LancamentoDTO> lancamentos) {
+		
+		Set<Long> ids = lancamentos.stream()
+				.map(LancamentoDTO::getUsuario)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toSet());
+		
+		return usuarioRepository.findAllById(ids).stream()
+				.collect(Collectors.toMap(Usuario::getId, Function.identity()));
+	}
+	
+	private Lancamento converter(LancamentoDTO dto, Map<Long, Usuario> usuarios, Usuario autenticado) {
+		
+		Lancamento lancamento = new Lancamento();
+		lancamento.setDescricao(dto.getDescricao());
+		lancamento.setAno(dto.getAno());
+		lancamento.setMes(dto.getMes());
+		lancamento.setValor(dto.getValor());
+		lancamento.setDataCadastro(LocalDate.now());
+		
+		if (dto.getTipo() != null) {
+			lancamento.setTipo(TipoLancamento.valueOf(dto.getTipo()));
+		}
+		
+		lancamento.setStatus(dto.getStatus() == null ? StatusLancamento.PENDENTE : StatusLancamento.valueOf(dto.getStatus()));
+		
+		if (autenticado != null && dto.getUsuario() != null && !dto.getUsuario().equals(autenticado.getId())) {
+			throw new RegraNegocioException("O usuário informado difere do usuário autenticado.");
+		}
+		
+		Usuario usuario = autenticado != null ? autenticado : usuarios.get(dto.getUsuario());
+		if (usuario == null) {
+			throw new RegraNegocioException("Usuário não encontrado para o Id informado.");
+		}
+		lancamento.setUsuario(usuario);
+		return lancamento;
+	}
+	
+	private LancamentoDTO lerRegistro(List<String> registro, Map<String, Integer> colunas) {
+		
+		LancamentoDTO dto = new LancamentoDTO();
+		dto.setDescricao(campo(registro, colunas, "descricao"));
+		dto.setTipo(campo(registro, colunas, "tipo"));
+		dto.setStatus(campo(registro, colunas, "status"));
+		
+		String mes = campo(registro, colunas, "mes");
+		String ano = campo(registro, colunas, "ano");
+		String valor = campo(registro, colunas, "valor");
+		String usuario = campo(registro, colunas, "usuario");
+		dto.setMes(mes == null ? null : Integer.valueOf(mes));
+		dto.setAno(ano == null ? null : Integer.valueOf(ano));
+		dto.setValor(valor == null ? null : new BigDecimal(valor));
+		dto.setUsuario(usuario == null ? null : Long.valueOf(usuario));
+		return dto;
+	}
+	
+	private String campo(List<String> registro, Map<String, Integer> colunas, String nome) {
+		
+		Integer indice = colunas.get(nome);
+		if (indice == null || indice >= registro.size() || registro.get(indice).trim().isEmpty()) {
+			return null;
+		}
+		return registro.get(indice).trim();
+	}
+	
+	private void registrarVazao(ResultadoImportacaoDTO resultado, long inicio) {
+		
+		long duracaoNanos = Math.max(System.nanoTime() - inicio, 1);
+		resultado.setDuracaoMs(duracaoNanos / 1_000_000);
+		resultado.setLancamentosPorSegundo(resultado.getImportados() * 1_000_000_000L / duracaoNanos);
+	}
+
+}
@@ -0,0 +1,247 @@
+package br.com.afsilva.minhasfinancas.service.imp;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.afsilva.minhasfinancas.util.TextoNormalizado;
+
+/**
+ * Índice invertido de trigramas das descrições normalizadas, por usuário, mantido em
+ * memória para bancos sem índice de trigramas (H2). O índice de um usuário é montado na
+ * primeira busca e depois acompanha as escritas confirmadas deste processo.
+ */
+@Component
+public class IndiceTrigramasDescricao {
+
+	static final int TAMANHO_GRAMA = 3;
+	
+	private final LancamentoRepository repository;
+	private final boolean ativo;
+	private final Map<Long, IndiceUsuario> indices;
+	private final Map<Long, AtomicLong> geracoes = new ConcurrentHashMap<>();
+	
+	public IndiceTrigramasDescricao(LancamentoRepository repository,
+			@Value("${minhasfinancas.busca.descricao.indice-memoria:false}") boolean ativo,
+			@Value("${minhasfinancas.busca.descricao.maximo-usuarios:1000}") int maximoUsuarios) {
+		this.repository = repository;
+		this.ativo = ativo;
+		this.indices = new LinkedHashMap<Long, IndiceUsuario>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, IndiceUsuario> maisAntigo) {
+				return size() > maximoUsuarios;
+			}
+		};
+	}
+	
+	public boolean isAtivo() {
+		return ativo;
+	}
+	
+	/**
+	 * @return ids dos lançamentos do usuário cuja descrição normalizada contém o termo.
+	 */
+	public Set<Long> buscar(Long idUsuario, String termo) {
+		return obter(idUsuario).buscar(TextoNormalizado.normalizar(termo));
+	}
+	
+	public void registrar(Lancamento lancamento) {
+		
+		Long idUsuario = lancamento.getUsuario().getId();
+		Long id = lancamento.getId();
+		String texto = TextoNormalizado.normalizar(lancamento.getDescricao());
+		aposCommit(idUsuario, indice -> indice.adicionar(id, texto));
+	}
+	
+	public void registrar(Collection<Lancamento> lancamentos) {
+		
+		Map<Long, Map<Long, String>> porUsuario = new HashMap<>();
+		for (Lancamento lancamento : lancamentos) {
+			porUsuario.computeIfAbsent(lancamento.getUsuario().getId(), id -> new HashMap<>())
+				.put(lancamento.getId(), TextoNormalizado.normalizar(lancamento.getDescricao()));
+		}
+		porUsuario.forEach((idUsuario, textos) -> aposCommit(idUsuario, indice -> textos.forEach(indice::adicionar)));
+	}
+	
+	public void remover(Long idUsuario, Long id) {
+		aposCommit(idUsuario, indice -> indice.remover(id));
+	}
+	
+	public void remover(Long idUsuario, Collection<Long> ids) {
+		aposCommit(idUsuario, indice -> ids.forEach(indice::remover));
+	}
+	
+	private IndiceUsuario obter(Long idUsuario) {
+		
+		long geracao;
+		synchronized (indices) {
+			IndiceUsuario indice = indices.get(idUsuario);
+			if (indice != null) {
+				return indice;
+			}
+			geracao = geracao(idUsuario).get();
+		}
+		
+		IndiceUsuario novo = new IndiceUsuario();
+		for (Object[] linha : repository.listarDescricoesPorUsuario(idUsuario)) {
+			novo.adicionar((Long) linha[0], (String) linha[1]);
+		}
+		
+		// Uma escrita confirmada durante a carga pode não estar na consulta: nesse caso o
+		// resultado serve só a esta busca e o índice é montado de novo na próxima.
+		synchronized (indices) {
+			if (geracao(idUsuario).get() == geracao) {
+				indices.put(idUsuario, novo);
+			}
+		}
+		return novo;
+	}
+	
+	private void aposCommit(Long idUsuario, Consumer<IndiceUsuario> alteracao) {
+		
+		if (!ativo) {
+			return;
+		}
+		
+		Runnable aplicar = () -> {
+			IndiceUsuario indice;
+			synchronized (indices) {
+				geracao(idUsuario).incrementAndGet();
+				indice = indices.get(idUsuario);
+			}
+			if (indice != null) {
+				alteracao.accept(indice);
+			}
+		};
+		
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					aplicar.run();
+				}
+			});
+		} else {
+			aplicar.run();
+		}
+	}
+	
+	private AtomicLong geracao(Long idUsuario) {
+		return geracoes.computeIfAbsent(idUsuario, id -> new AtomicLong());
+	}
+	
+	static class IndiceUsuario {
+		
+		private final Map<Long, String> textos = new HashMap<>();
+		private final Map<String, Set<Long>> postagens = new HashMap<>();
+		private final ReadWriteLock trava = new ReentrantReadWriteLock();
+		
+		void adicionar(Long id, String texto) {
+			
+			trava.writeLock().lock();
+			try {
+				removerSemTrava(id);
+				if (texto == null) {
+					return;
+				}
+				textos.put(id, texto);
+				for (String grama : gramas(texto)) {
+					postagens.computeIfAbsent(grama, g -> new HashSet<>()).add(id);
+				}
+			} finally {
+				trava.writeLock().unlock();
+			}
+		}
+		
+		void remover(Long id) {
+			
+			trava.writeLock().lock();
+			try {
+				removerSemTrava(id);
+			} finally {
+				trava.writeLock().unlock();
+			}
+		}
+		
+		Set<Long> buscar(String termo) {
+			
+			trava.readLock().lock();
+			try {
+				Set<Long> encontrados = new HashSet<>();
+				
+				// Termos curtos não têm trigramas: a varredura é feita sobre os textos em memória.
+				if (termo.length() < TAMANHO_GRAMA) {
+					textos.forEach((id, texto) -> {
+						if (texto.contains(termo)) {
+							encontrados.add(id);
+						}
+					});
+					return encontrados;
+				}
+				
+				Set<Long> menor = null;
+				for (String grama : gramas(termo)) {
+					Set<Long> postagem = postagens.get(grama);
+					if (postagem == null) {
+						return Collections.emptySet();
+					}
+					if (menor == null || postagem.size() < menor.size()) {
+						menor = postagem;
+					}
+				}
+				
+				for (Long id : menor) {
+					if (textos.get(id).contains(termo)) {
+						encontrados.add(id);
+					}
+				}
+				return encontrados;
+				
+			} finally {
+				trava.readLock().unlock();
+			}
+		}
+		
+		private void removerSemTrava(Long id) {
+			
+			String anterior = textos.remove(id);
+			if (anterior == null) {
+				return;
+			}
+			for (String grama : gramas(anterior)) {
+				Set<Long> postagem = postagens.get(grama);
+				if (postagem != null) {
+					postagem.remove(id);
+					if (postagem.isEmpty()) {
+						postagens.remove(grama);
+					}
+				}
+			}
+		}
+		
+		private static Set<String> gramas(String texto) {
+			
+			Set<String> gramas = new HashSet<>();
+			for (int i = 0; i + TAMANHO_GRAMA <= texto.length(); i++) {
+				gramas.add(texto.substring(i, i + TAMANHO_GRAMA));
+			}
+			return gramas;
+		}
+	}
+}
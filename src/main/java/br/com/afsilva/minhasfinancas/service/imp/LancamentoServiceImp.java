@@ -1,31 +1,66 @@
 package br.com.afsilva.minhasfinancas.service.imp;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
-import org.springframework.data.domain.ExampleMatcher.StringMatcher;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import br.com.afsilva.minhasfinancas.exception.ErroAutenticacao;
 import br.com.afsilva.minhasfinancas.exception.RegraNegocioException;
+import br.com.afsilva.minhasfinancas.model.entity.FechamentoAnual;
 import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.enums.Recorrencia;
 import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
 import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import br.com.afsilva.minhasfinancas.model.projection.LancamentoResumo;
+import br.com.afsilva.minhasfinancas.model.repository.CursorLancamento;
 import br.com.afsilva.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.afsilva.minhasfinancas.service.ArquivamentoLancamentoService;
+import br.com.afsilva.minhasfinancas.service.FechamentoAnualService;
+import br.com.afsilva.minhasfinancas.service.GeradorRecorrencia;
 import br.com.afsilva.minhasfinancas.service.LancamentoService;
+import br.com.afsilva.minhasfinancas.service.LancamentosAlterados;
+import br.com.afsilva.minhasfinancas.service.MovimentacaoResumo;
+import br.com.afsilva.minhasfinancas.service.MovimentacaoSaldo;
+import br.com.afsilva.minhasfinancas.service.ResumoMensalService;
+import br.com.afsilva.minhasfinancas.service.SaldoUsuarioService;
+import br.com.afsilva.minhasfinancas.service.VersaoDadosService;
 
 @Service
 public class LancamentoServiceImp implements LancamentoService{
 	
+	// 30 anos de ocorrências mensais.
+	static final int OCORRENCIAS_MAXIMO = 360;
+	
 	private LancamentoRepository repository;
+	private SaldoUsuarioService saldoUsuarioService;
+	private IndiceTrigramasDescricao indiceDescricao;
+	private ResumoMensalService resumoMensalService;
+	private VersaoDadosService versaoDados;
+	private ApplicationEventPublisher eventos;
+	private FechamentoAnualService fechamentoAnualService;
+	private ArquivamentoLancamentoService arquivamento;
 	
-	public LancamentoServiceImp(LancamentoRepository repository) {
+	public LancamentoServiceImp(LancamentoRepository repository, SaldoUsuarioService saldoUsuarioService,
+			IndiceTrigramasDescricao indiceDescricao, ResumoMensalService resumoMensalService,
+			VersaoDadosService versaoDados, ApplicationEventPublisher eventos, FechamentoAnualService fechamentoAnualService,
+			ArquivamentoLancamentoService arquivamento) {
 		this.repository = repository;
+		this.saldoUsuarioService = saldoUsuarioService;
+		this.indiceDescricao = indiceDescricao;
+		this.resumoMensalService = resumoMensalService;
+		this.versaoDados = versaoDados;
+		this.eventos = eventos;
+		this.fechamentoAnualService = fechamentoAnualService;
+		this.arquivamento = arquivamento;
 	}
 	
 
@@ -34,7 +69,78 @@ public class LancamentoServiceImp implements LancamentoService{
 	public Lancamento salvar(Lancamento lancamento) {
 		validar(lancamento);
 		lancamento.setStatus(StatusLancamento.PENDENTE);
-		return repository.save(lancamento);
+		lancamento = repository.save(lancamento);
+		saldoUsuarioService.movimentar(new MovimentacaoSaldo().adicionar(lancamento));
+		resumoMensalService.movimentar(new MovimentacaoResumo().adicionar(lancamento));
+		indiceDescricao.registrar(lancamento);
+		notificar(Collections.singleton(lancamento.getUsuario().getId()));
+		return lancamento;
+	}
+	
+	@Override
+	@Transactional
+	public List<Lancamento> salvarRecorrencia(Lancamento lancamento, Recorrencia recorrencia, int ocorrencias) {
+		
+		if (recorrencia == null) {
+			throw new RegraNegocioException("Informe uma Recorrência válida.");
+		}
+		
+		if (ocorrencias < 1 || ocorrencias > OCORRENCIAS_MAXIMO) {
+			throw new RegraNegocioException("Informe entre 1 e " + OCORRENCIAS_MAXIMO + " ocorrências.");
+		}
+		
+		validar(lancamento);
+		
+		// O modelo já foi validado; a última ocorrência também precisa cair num ano válido.
+		int ultimoAno = lancamento.getAno() + (lancamento.getMes() - 1 + ocorrencias - 1) / 12;
+		if (String.valueOf(ultimoAno).length() != 4) {
+			throw new RegraNegocioException("A última ocorrência ultrapassa o ano 9999.");
+		}
+		
+		if (recorrencia == Recorrencia.PARCELADA) {
+			// O total é dividido em centavos: mais casas seriam arredondadas sem aviso.
+			if (lancamento.getValor().stripTrailingZeros().scale() > 2) {
+				throw new RegraNegocioException("Informe um Valor com até duas casas decimais para parcelar.");
+			}
+			if (lancamento.getValor().movePointRight(2).compareTo(BigDecimal.valueOf(ocorrencias)) < 0) {
+				throw new RegraNegocioException("Valor insuficiente para " + ocorrencias + " parcelas.");
+			}
+		}
+		
+		lancamento.setStatus(StatusLancamento.PENDENTE);
+		return gravar(GeradorRecorrencia.gerar(lancamento, recorrencia, ocorrencias));
+	}
+	
+	/**
+	 * Grava vários lançamentos novos numa única transação: um commit, uma movimentação de
+	 * saldo e de resumo. Usado pela gravação agrupada.
+	 */
+	@Override
+	@Transactional
+	public List<Lancamento> salvarTodos(List<Lancamento> lancamentos) {
+		
+		for (Lancamento lancamento : lancamentos) {
+			validar(lancamento);
+			lancamento.setStatus(StatusLancamento.PENDENTE);
+		}
+		return gravar(lancamentos);
+	}
+	
+	private List<Lancamento> gravar(List<Lancamento> lancamentos) {
+		
+		// Ids vêm do pool da sequence e hibernate.jdbc.batch_size agrupa os inserts: os
+		// lançamentos vão em lotes JDBC no flush, sem ida ao banco por lançamento.
+		lancamentos = repository.saveAll(lancamentos);
+		
+		MovimentacaoSaldo movimentacao = new MovimentacaoSaldo();
+		MovimentacaoResumo movimentacaoResumo = new MovimentacaoResumo();
+		lancamentos.forEach(movimentacao::adicionar);
+		lancamentos.forEach(movimentacaoResumo::adicionar);
+		saldoUsuarioService.movimentar(movimentacao);
+		resumoMensalService.movimentar(movimentacaoResumo);
+		indiceDescricao.registrar(lancamentos);
+		notificar(movimentacao.getVariacoes().keySet());
+		return lancamentos;
 	}
 
 	@Override
@@ -42,29 +148,132 @@ public class LancamentoServiceImp implements LancamentoService{
 	public Lancamento atualizar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
 		validar(lancamento);
-		return repository.save(lancamento);
+		
+		MovimentacaoSaldo movimentacao = new MovimentacaoSaldo();
+		MovimentacaoResumo movimentacaoResumo = new MovimentacaoResumo();
+		Long usuarioAnterior = estornarAnterior(lancamento, movimentacao, movimentacaoResumo);
+		lancamento = repository.save(lancamento);
+		saldoUsuarioService.movimentar(movimentacao.adicionar(lancamento));
+		resumoMensalService.movimentar(movimentacaoResumo.adicionar(lancamento));
+		
+		if (usuarioAnterior != null && !usuarioAnterior.equals(lancamento.getUsuario().getId())) {
+			indiceDescricao.remover(usuarioAnterior, lancamento.getId());
+		}
+		indiceDescricao.registrar(lancamento);
+		
+		// Variações de saldo existem para o dono anterior e o atual.
+		notificar(movimentacao.getVariacoes().keySet());
+		return lancamento;
 	}
 
 	@Override
 	@Transactional
 	public void deletar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
+		
+		MovimentacaoSaldo movimentacao = new MovimentacaoSaldo();
+		MovimentacaoResumo movimentacaoResumo = new MovimentacaoResumo();
+		Long usuarioAnterior = estornarAnterior(lancamento, movimentacao, movimentacaoResumo);
 		repository.delete(lancamento);
+		saldoUsuarioService.movimentar(movimentacao);
+		resumoMensalService.movimentar(movimentacaoResumo);
+		
+		if (usuarioAnterior != null) {
+			indiceDescricao.remover(usuarioAnterior, lancamento.getId());
+		}
+		notificar(movimentacao.getVariacoes().keySet());
+	}
+	
+	/**
+	 * Troca a versão dos dados dos usuários e publica a alteração; ambos têm efeito após
+	 * o commit.
+	 */
+	private void notificar(Collection<Long> idsUsuario) {
+		versaoDados.incrementar(idsUsuario);
+		eventos.publishEvent(new LancamentosAlterados(idsUsuario));
+	}
+	
+	/**
+	 * Estorna do saldo e do resumo mensal os valores gravados do lançamento. Um lançamento
+	 * alterado sem status mantém o status gravado.
+	 * 
+	 * @return id do usuário dono do lançamento gravado, ou {@code null} se ele não existir.
+	 */
+	private Long estornarAnterior(Lancamento lancamento, MovimentacaoSaldo movimentacao, MovimentacaoResumo movimentacaoResumo) {
+		
+		// A entidade carregada aqui é reaproveitada pelo merge/delete do repositório,
+		// por isso os valores são copiados antes da escrita.
+		Optional<Lancamento> anterior = repository.findById(lancamento.getId());
+		if (!anterior.isPresent()) {
+			// Sem esta verificação o merge gravaria de novo na tabela ativa um lançamento que
+			// continua no saldo pelo arquivo.
+			if (repository.existeArquivado(lancamento.getId())) {
+				throw new RegraNegocioException("Lançamento arquivado não pode ser alterado.");
+			}
+			return null;
+		}
 		
+		if (lancamento.getStatus() == null) {
+			lancamento.setStatus(anterior.get().getStatus());
+		}
+		
+		Long idUsuario = anterior.get().getUsuario().getId();
+		movimentacao.estornar(idUsuario, anterior.get().getTipo(), anterior.get().getValor());
+		movimentacaoResumo.estornar(anterior.get());
+		return idUsuario;
 	}
 
 	@Override
 	@Transactional(readOnly = true)
-	public List<Lancamento> buscar(Lancamento lancamentoFiltro) {
+	public List<LancamentoResumo> buscar(Lancamento lancamentoFiltro) {
+		
+		return buscarComArquivo(lancamentoFiltro, null, null);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public List<LancamentoResumo> buscar(Lancamento lancamentoFiltro, CursorLancamento cursor, int limite) {
+		
+		return buscarComArquivo(lancamentoFiltro, cursor, limite);
+	}
+	
+	/**
+	 * O arquivo só é consultado quando o ano do filtro pode ter lançamentos arquivados. As
+	 * duas listas vêm na ordem (ano, mes, id) a partir do mesmo cursor e são intercaladas.
+	 */
+	private List<LancamentoResumo> buscarComArquivo(Lancamento lancamentoFiltro, CursorLancamento cursor, Integer limite) {
 		
-		Example example = Example.of(lancamentoFiltro, ExampleMatcher.matching()
-				.withIgnoreCase()
-				.withStringMatcher(StringMatcher.CONTAINING));
+		List<LancamentoResumo> ativos = repository.buscar(lancamentoFiltro, candidatosPorDescricao(lancamentoFiltro), cursor, limite);
+		if (!arquivamento.alcancaArquivo(lancamentoFiltro)) {
+			return ativos;
+		}
+		
+		List<LancamentoResumo> arquivados = repository.buscarArquivados(lancamentoFiltro, cursor, limite);
+		if (arquivados.isEmpty()) {
+			return ativos;
+		}
+		
+		List<LancamentoResumo> lancamentos = new ArrayList<>(ativos.size() + arquivados.size());
+		lancamentos.addAll(ativos);
+		lancamentos.addAll(arquivados);
+		lancamentos.sort(LancamentoResumo.ORDEM);
+		return limite == null || lancamentos.size() <= limite ? lancamentos : new ArrayList<>(lancamentos.subList(0, limite));
+	}
+	
+	/**
+	 * Resolve o filtro de descrição pelo índice em memória quando ele está ativo; caso
+	 * contrário o filtro fica para o banco (índice de trigramas no PostgreSQL).
+	 */
+	private Set<Long> candidatosPorDescricao(Lancamento lancamentoFiltro) {
 		
-		return repository.findAll(example);
+		if (!indiceDescricao.isAtivo() || lancamentoFiltro.getDescricao() == null) {
+			return null;
+		}
+		return indiceDescricao.buscar(lancamentoFiltro.getUsuario().getId(), lancamentoFiltro.getDescricao());
 	}
 
 	@Override
+	@Transactional
 	public void atualizarStatus(Lancamento lancamento, StatusLancamento status) {
 
 		lancamento.setStatus(status);
@@ -72,10 +281,46 @@ public class LancamentoServiceImp implements LancamentoService{
 		
 	}
 	
+	@Override
+	@Transactional
+	public int atualizarStatus(Lancamento lancamentoFiltro, Collection<Long> ids, StatusLancamento status) {
+		
+		if (status == null) {
+			throw new RegraNegocioException("Informe um Status válido.");
+		}
+		
+		if (lancamentoFiltro.getUsuario() == null || lancamentoFiltro.getUsuario().getId() == null) {
+			throw new RegraNegocioException("Informe um Usuário válido.");
+		}
+		
+		// Status não participa do saldo nem da descrição: ledger e índice não mudam. O resumo
+		// mensal move as linhas afetadas para o novo status. O UPDATE alcança só as linhas
+		// travadas na leitura, para que nenhuma escrita concorrente fique fora do resumo.
+		List<LancamentoResumo> travados = repository.travarAtualizacaoStatus(lancamentoFiltro, ids, status);
+		if (travados.isEmpty()) {
+			return 0;
+		}
+		
+		MovimentacaoResumo movimentacaoResumo = new MovimentacaoResumo();
+		List<Long> idsTravados = new ArrayList<>(travados.size());
+		for (LancamentoResumo lancamento : travados) {
+			movimentacaoResumo.moverStatus(lancamento, status);
+			idsTravados.add(lancamento.getId());
+		}
+		
+		int alterados = repository.atualizarStatus(lancamentoFiltro, idsTravados, status);
+		resumoMensalService.movimentar(movimentacaoResumo);
+		if (alterados > 0) {
+			notificar(Collections.singleton(lancamentoFiltro.getUsuario().getId()));
+		}
+		return alterados;
+	}
+	
 	@Override
 	public Optional<Lancamento> obterPorId (Long id){
 		
-		return repository.findById(id);
+		// O lançamento é devolvido como resposta com o usuário: busca os dois em uma consulta.
+		return repository.findComUsuarioById(id);
 		
 	}
 
@@ -113,20 +358,36 @@ public class LancamentoServiceImp implements LancamentoService{
 	@Transactional(readOnly = true)
 	public BigDecimal obterSaldoPorTipoLancamentoEUsuario(Long id) {
 		
-
-		BigDecimal receitas = repository.obterSaldoPorTipoLancamentoEUsuario(id, TipoLancamento.RECEITA);
-		BigDecimal despesas = repository.obterSaldoPorTipoLancamentoEUsuario(id, TipoLancamento.DESPESA);
-		
-		if(receitas == null) {
-			receitas = BigDecimal.ZERO;
+		Optional<BigDecimal> saldo = saldoUsuarioService.obterSaldo(id);
+		if (saldo.isPresent()) {
+			return saldo.get();
 		}
-		
-		if(despesas == null) {
-			despesas = BigDecimal.ZERO;
+
+		// Com um ano fechado, só os lançamentos dos anos seguintes são somados. Arquivados
+		// continuam no saldo: cada tipo soma a tabela ativa e o arquivo.
+		Optional<FechamentoAnual> fechamento = fechamentoAnualService.obterUltimo(id);
+		if (fechamento.isPresent()) {
+			Integer ano = fechamento.get().getAno();
+			BigDecimal receitas = somar(repository.obterSaldoPorTipoLancamentoEUsuarioAposAno(id, TipoLancamento.RECEITA, ano),
+					repository.obterSaldoArquivadoPorTipoLancamentoEUsuarioAposAno(id, TipoLancamento.RECEITA, ano));
+			BigDecimal despesas = somar(repository.obterSaldoPorTipoLancamentoEUsuarioAposAno(id, TipoLancamento.DESPESA, ano),
+					repository.obterSaldoArquivadoPorTipoLancamentoEUsuarioAposAno(id, TipoLancamento.DESPESA, ano));
+			
+			return fechamento.get().getSaldo().add(receitas).subtract(despesas);
 		}
+
+		BigDecimal receitas = somar(repository.obterSaldoPorTipoLancamentoEUsuario(id, TipoLancamento.RECEITA),
+				repository.obterSaldoArquivadoPorTipoLancamentoEUsuario(id, TipoLancamento.RECEITA));
+		BigDecimal despesas = somar(repository.obterSaldoPorTipoLancamentoEUsuario(id, TipoLancamento.DESPESA),
+				repository.obterSaldoArquivadoPorTipoLancamentoEUsuario(id, TipoLancamento.DESPESA));
 		
 		return receitas.subtract(despesas);
 	}
 	
+	private static BigDecimal somar(BigDecimal ativos, BigDecimal arquivados) {
+		
+		BigDecimal soma = ativos == null ? BigDecimal.ZERO : ativos;
+		return arquivados == null ? soma : soma.add(arquivados);
+	}
 
 }
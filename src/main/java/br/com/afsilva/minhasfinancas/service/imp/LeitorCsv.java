@@ -0,0 +1,99 @@
+package br.com.afsilva.minhasfinancas.service.imp;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de CSV separado por vírgula com campos opcionalmente entre aspas duplas,
+ * no mesmo formato gerado pela exportação de lançamentos.
+ */
+class LeitorCsv {
+
+	private final Reader leitor;
+	private int linhaFisica = 1;
+	private int inicioRegistro;
+	private int proximo = -2;
+	
+	LeitorCsv(Reader leitor) {
+		this.leitor = leitor;
+	}
+	
+	/**
+	 * @return campos do próximo registro, ou null no fim do arquivo.
+	 */
+	List<String> proximoRegistro() throws IOException {
+		
+		int c = ler();
+		while (c == '\r' || c == '\n') {
+			if (c == '\n') {
+				linhaFisica++;
+			}
+			c = ler();
+		}
+		if (c == -1) {
+			return null;
+		}
+		
+		inicioRegistro = linhaFisica;
+		List<String> campos = new ArrayList<>();
+		StringBuilder campo = new StringBuilder();
+		boolean entreAspas = false;
+		
+		while (c != -1) {
+			if (entreAspas) {
+				if (c == '"') {
+					int seguinte = ler();
+					if (seguinte == '"') {
+						campo.append('"');
+					} else {
+						entreAspas = false;
+						devolver(seguinte);
+					}
+				} else {
+					if (c == '\n') {
+						linhaFisica++;
+					}
+					campo.append((char) c);
+				}
+			} else if (c == '"') {
+				entreAspas = true;
+			} else if (c == ',') {
+				campos.add(campo.toString());
+				campo.setLength(0);
+			} else if (c == '\n') {
+				linhaFisica++;
+				break;
+			} else if (c == '\r') {
+				break;
+			} else {
+				campo.append((char) c);
+			}
+			c = ler();
+		}
+		
+		campos.add(campo.toString());
+		return campos;
+	}
+	
+	/**
+	 * @return número da linha física em que o último registro lido começou.
+	 */
+	int getLinha() {
+		return inicioRegistro;
+	}
+	
+	private int ler() throws IOException {
+		if (proximo != -2) {
+			int c = proximo;
+			proximo = -2;
+			return c;
+		}
+		return leitor.read();
+	}
+	
+	private void devolver(int c) {
+		proximo = c;
+	}
+}
@@ -0,0 +1,165 @@
+package br.com.afsilva.minhasfinancas.service.imp;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import br.com.afsilva.minhasfinancas.service.LancamentoService;
+import br.com.afsilva.minhasfinancas.service.LancamentosAlterados;
+import br.com.afsilva.minhasfinancas.service.NotificacaoSaldoService;
+import br.com.afsilva.minhasfinancas.service.VersaoDadosService;
+
+/**
+ * Inscrições SSE por usuário. As conexões abertas ficam em modo assíncrono do servlet, sem
+ * thread presa; os envios rodam num pool pequeno, fora da thread que fez o commit. Escritas
+ * seguidas do mesmo usuário enquanto um envio está pendente resultam em um único envio, e
+ * usuários sem inscrição não geram consulta.
+ */
+@Service
+public class NotificacaoSaldoServiceImp implements NotificacaoSaldoService {
+
+	private static final Logger log = LoggerFactory.getLogger(NotificacaoSaldoServiceImp.class);
+	
+	private final LancamentoService lancamentoService;
+	private final VersaoDadosService versaoDados;
+	private final TransactionTemplate transacao;
+	private final long timeout;
+	private final Map<Long, Set<SseEmitter>> inscritos = new ConcurrentHashMap<>();
+	private final Set<Long> pendentes = ConcurrentHashMap.newKeySet();
+	private final ScheduledExecutorService envios;
+	
+	public NotificacaoSaldoServiceImp(LancamentoService lancamentoService, VersaoDadosService versaoDados,
+			PlatformTransactionManager transactionManager,
+			@Value("${minhasfinancas.eventos.timeout:30m}") Duration timeout,
+			@Value("${minhasfinancas.eventos.intervalo-heartbeat:30s}") Duration heartbeat,
+			@Value("${minhasfinancas.eventos.threads:2}") int threads) {
+		this.lancamentoService = lancamentoService;
+		this.versaoDados = versaoDados;
+		this.transacao = new TransactionTemplate(transactionManager);
+		this.timeout = timeout.toMillis();
+		
+		AtomicInteger numero = new AtomicInteger();
+		this.envios = Executors.newScheduledThreadPool(threads, tarefa -> {
+			Thread thread = new Thread(tarefa, "eventos-saldo-" + numero.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		
+		// Um comentário periódico detecta conexões fechadas pelo cliente e mantém proxies abertos.
+		long intervalo = heartbeat.toMillis();
+		envios.scheduleWithFixedDelay(this::manterConexoes, intervalo, intervalo, TimeUnit.MILLISECONDS);
+	}
+	
+	@PreDestroy
+	public void parar() {
+		envios.shutdownNow();
+		inscritos.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+		inscritos.clear();
+	}
+
+	@Override
+	public SseEmitter inscrever(Long idUsuario) {
+		
+		SseEmitter emitter = new SseEmitter(timeout);
+		inscritos.compute(idUsuario, (id, emitters) -> {
+			Set<SseEmitter> conjunto = emitters == null ? ConcurrentHashMap.newKeySet() : emitters;
+			conjunto.add(emitter);
+			return conjunto;
+		});
+		
+		emitter.onCompletion(() -> remover(idUsuario, emitter));
+		emitter.onTimeout(() -> remover(idUsuario, emitter));
+		emitter.onError(erro -> remover(idUsuario, emitter));
+		
+		envios.execute(() -> enviarEstado(idUsuario, Collections.singleton(emitter)));
+		return emitter;
+	}
+	
+	/**
+	 * Chamado após o commit da transação que publicou o evento, ou na hora quando não há
+	 * transação.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void aoAlterar(LancamentosAlterados evento) {
+		
+		for (Long idUsuario : evento.getIdsUsuario()) {
+			if (inscritos.containsKey(idUsuario) && pendentes.add(idUsuario)) {
+				envios.execute(() -> {
+					pendentes.remove(idUsuario);
+					Set<SseEmitter> emitters = inscritos.get(idUsuario);
+					if (emitters != null) {
+						enviarEstado(idUsuario, emitters);
+					}
+				});
+			}
+		}
+	}
+	
+	private void enviarEstado(Long idUsuario, Collection<SseEmitter> emitters) {
+		
+		String versao;
+		BigDecimal saldo;
+		try {
+			// A versão é lida antes do saldo, como no GET: nunca anuncia dados mais novos que os enviados.
+			// A transação externa não é readOnly, então a consulta vai ao primário e não a uma
+			// réplica que ainda não recebeu o commit que disparou o evento.
+			versao = versaoDados.etag(idUsuario);
+			saldo = transacao.execute(status -> lancamentoService.obterSaldoPorTipoLancamentoEUsuario(idUsuario));
+		} catch (RuntimeException e) {
+			log.warn("Não foi possível obter o saldo do usuário {} para os eventos: {}", idUsuario, e.getMessage());
+			return;
+		}
+		
+		for (SseEmitter emitter : emitters) {
+			enviar(idUsuario, emitter, SseEmitter.event().name("saldo").data(saldo, MediaType.APPLICATION_JSON));
+			enviar(idUsuario, emitter, SseEmitter.event().name("lancamentos").data(versao, MediaType.TEXT_PLAIN));
+		}
+	}
+	
+	private void manterConexoes() {
+		inscritos.forEach((idUsuario, emitters) ->
+			emitters.forEach(emitter -> enviar(idUsuario, emitter, SseEmitter.event().comment("ping"))));
+	}
+	
+	private void enviar(Long idUsuario, SseEmitter emitter, SseEventBuilder evento) {
+		try {
+			emitter.send(evento);
+		} catch (IOException e) {
+			// Conexão encerrada pelo cliente: libera a requisição assíncrona.
+			remover(idUsuario, emitter);
+			emitter.completeWithError(e);
+		} catch (IllegalStateException e) {
+			// Emitter já concluído (timeout ou erro): só precisa sair do registro.
+			remover(idUsuario, emitter);
+		}
+	}
+	
+	private void remover(Long idUsuario, SseEmitter emitter) {
+		inscritos.computeIfPresent(idUsuario, (id, emitters) -> {
+			emitters.remove(emitter);
+			return emitters.isEmpty() ? null : emitters;
+		});
+	}
+}
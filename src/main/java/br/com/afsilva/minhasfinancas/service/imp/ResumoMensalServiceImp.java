@@ -0,0 +1,143 @@
+package br.com.afsilva.minhasfinancas.service.imp;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.afsilva.minhasfinancas.exception.RegraNegocioException;
+import br.com.afsilva.minhasfinancas.model.entity.ResumoMensalId;
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.projection.SaldoMensal;
+import br.com.afsilva.minhasfinancas.model.projection.TotalMensal;
+import br.com.afsilva.minhasfinancas.model.repository.ResumoMensalRepository;
+import br.com.afsilva.minhasfinancas.service.FechamentoAnualService;
+import br.com.afsilva.minhasfinancas.service.MovimentacaoResumo;
+import br.com.afsilva.minhasfinancas.service.ResumoMensalService;
+
+@Service
+public class ResumoMensalServiceImp implements ResumoMensalService {
+
+	static final int MESES_MAXIMO = 120;
+	
+	private ResumoMensalRepository repository;
+	private FechamentoAnualService fechamentoAnualService;
+
+	public ResumoMensalServiceImp(ResumoMensalRepository repository, FechamentoAnualService fechamentoAnualService) {
+		this.repository = repository;
+		this.fechamentoAnualService = fechamentoAnualService;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<TotalMensal> totalizar(Long idUsuario, YearMonth inicio, YearMonth fim, StatusLancamento status) {
+		
+		validarPeriodo(inicio, fim);
+		
+		if (status == null) {
+			return repository.totalizar(idUsuario, inicio.getYear(), inicio.getMonthValue(), fim.getYear(), fim.getMonthValue());
+		}
+		return repository.totalizarPorStatus(idUsuario, inicio.getYear(), inicio.getMonthValue(), fim.getYear(), fim.getMonthValue(), status);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<SaldoMensal> fluxo(Long idUsuario, YearMonth inicio, YearMonth fim) {
+		
+		validarPeriodo(inicio, fim);
+		
+		// Uma passada sobre no máximo um mês por linha: o banco já acumulou o saldo, aqui só
+		// se preenchem os meses sem movimento com o saldo do mês anterior.
+		List<SaldoMensal> fluxo = new ArrayList<>();
+		BigDecimal saldo = BigDecimal.ZERO;
+		YearMonth mes = inicio;
+		
+		for (Object[] linha : repository.fluxo(idUsuario, indice(inicio), indice(fim))) {
+			
+			YearMonth mesLinha = YearMonth.of(((Number) linha[0]).intValue(), ((Number) linha[1]).intValue());
+			for (; mes.isBefore(mesLinha); mes = mes.plusMonths(1)) {
+				fluxo.add(new SaldoMensal(mes.getYear(), mes.getMonthValue(), BigDecimal.ZERO, BigDecimal.ZERO, saldo));
+			}
+			
+			saldo = decimal(linha[4]);
+			if (!mesLinha.isBefore(inicio)) {
+				fluxo.add(new SaldoMensal(mesLinha.getYear(), mesLinha.getMonthValue(), decimal(linha[2]), decimal(linha[3]), saldo));
+				mes = mesLinha.plusMonths(1);
+			}
+		}
+		
+		for (; !mes.isAfter(fim); mes = mes.plusMonths(1)) {
+			fluxo.add(new SaldoMensal(mes.getYear(), mes.getMonthValue(), BigDecimal.ZERO, BigDecimal.ZERO, saldo));
+		}
+		return fluxo;
+	}
+
+	@Override
+	@Transactional
+	public void movimentar(MovimentacaoResumo movimentacao) {
+		
+		for (Map.Entry<ResumoMensalId, MovimentacaoResumo.Variacao> variacao : movimentacao.getVariacoes().entrySet()) {
+			
+			if (variacao.getValue().isNula()) {
+				continue;
+			}
+			
+			ResumoMensalId celula = variacao.getKey();
+			
+			// Célula ainda inexistente: é calculada a partir dos lançamentos, que já refletem
+			// a escrita corrente. Se outra transação a criou ao mesmo tempo, o cálculo dela não
+			// vê esta escrita, que é somada à linha existente.
+			if (movimentar(celula, variacao.getValue()) == 0 && criar(celula) == 0) {
+				movimentar(celula, variacao.getValue());
+			}
+		}
+		
+		fechamentoAnualService.ajustar(movimentacao);
+	}
+
+	private int movimentar(ResumoMensalId celula, MovimentacaoResumo.Variacao variacao) {
+		return repository.movimentar(celula.getIdUsuario(), celula.getAno(), celula.getMes(),
+				celula.getTipo(), celula.getStatus(), variacao.getTotal(), variacao.getQuantidade());
+	}
+	
+	/**
+	 * @return 0 se a célula não tem lançamentos ou se a linha já existia.
+	 */
+	private int criar(ResumoMensalId celula) {
+		repository.flush();
+		return repository.reconstruirCelula(celula.getIdUsuario(), celula.getAno(), celula.getMes(),
+				celula.getTipo().name(), celula.getStatus().name());
+	}
+
+	@Override
+	@Transactional
+	public int reconstruirTodos() {
+		
+		repository.flush();
+		repository.excluirTodos();
+		return repository.reconstruirTodos();
+	}
+	
+	private static void validarPeriodo(YearMonth inicio, YearMonth fim) {
+		
+		if (inicio.isAfter(fim)) {
+			throw new RegraNegocioException("O mês inicial deve ser anterior ao mês final.");
+		}
+		
+		if (inicio.plusMonths(MESES_MAXIMO).isBefore(fim)) {
+			throw new RegraNegocioException("Informe um período de até " + MESES_MAXIMO + " meses.");
+		}
+	}
+	
+	private static Integer indice(YearMonth mes) {
+		return mes.getYear() * 12 + mes.getMonthValue();
+	}
+	
+	private static BigDecimal decimal(Object valor) {
+		return valor instanceof BigDecimal ? (BigDecimal) valor : new BigDecimal(valor.toString());
+	}
+}
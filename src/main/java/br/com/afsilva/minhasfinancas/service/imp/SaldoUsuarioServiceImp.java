@@ -0,0 +1,85 @@
+package br.com.afsilva.minhasfinancas.service.imp;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.afsilva.minhasfinancas.model.entity.FechamentoAnual;
+import br.com.afsilva.minhasfinancas.model.entity.SaldoUsuario;
+import br.com.afsilva.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import br.com.afsilva.minhasfinancas.service.FechamentoAnualService;
+import br.com.afsilva.minhasfinancas.service.MovimentacaoSaldo;
+import br.com.afsilva.minhasfinancas.service.SaldoUsuarioService;
+
+@Service
+public class SaldoUsuarioServiceImp implements SaldoUsuarioService {
+
+	private SaldoUsuarioRepository repository;
+	private FechamentoAnualService fechamentoAnualService;
+
+	public SaldoUsuarioServiceImp(SaldoUsuarioRepository repository, FechamentoAnualService fechamentoAnualService) {
+		this.repository = repository;
+		this.fechamentoAnualService = fechamentoAnualService;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<BigDecimal> obterSaldo(Long idUsuario) {
+		
+		return repository.findById(idUsuario).map(SaldoUsuario::getSaldo);
+	}
+
+	@Override
+	@Transactional
+	public void movimentar(MovimentacaoSaldo movimentacao) {
+		
+		for (Map.Entry<Long, BigDecimal[]> variacao : movimentacao.getVariacoes().entrySet()) {
+			
+			int atualizados = repository.movimentar(variacao.getKey(), variacao.getValue()[0], variacao.getValue()[1]);
+			
+			// Usuário ainda sem linha no razão: o saldo é recalculado a partir dos lançamentos,
+			// que já refletem a escrita corrente. Se outra transação criou a linha ao mesmo
+			// tempo, a soma dela não inclui esta escrita, e a variação é aplicada sobre ela.
+			if (atualizados == 0 && criar(variacao.getKey()) == 0) {
+				repository.movimentar(variacao.getKey(), variacao.getValue()[0], variacao.getValue()[1]);
+			}
+		}
+	}
+
+	@Override
+	@Transactional
+	public void reconstruir(Long idUsuario) {
+		
+		repository.excluirPorUsuario(idUsuario);
+		criar(idUsuario);
+	}
+	
+	/**
+	 * @return 0 se o usuário não tem lançamentos ou se a linha já existia.
+	 */
+	private int criar(Long idUsuario) {
+		
+		repository.flush();
+		
+		// Com um ano fechado, só os lançamentos dos anos seguintes são somados.
+		Optional<FechamentoAnual> fechamento = fechamentoAnualService.obterUltimo(idUsuario);
+		if (fechamento.isPresent()) {
+			return repository.reconstruirPorUsuarioAposFechamento(idUsuario, fechamento.get().getAno(),
+					fechamento.get().getReceitas(), fechamento.get().getDespesas());
+		}
+		return repository.reconstruirPorUsuario(idUsuario);
+	}
+
+	@Override
+	@Transactional
+	public int reconstruirTodos() {
+		
+		repository.flush();
+		repository.excluirTodos();
+		return repository.reconstruirTodos();
+	}
+
+}
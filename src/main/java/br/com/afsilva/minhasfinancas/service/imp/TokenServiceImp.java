@@ -0,0 +1,144 @@
+package br.com.afsilva.minhasfinancas.service.imp;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.service.TokenService;
+
+/**
+ * Tokens no formato JWT compacto assinados com HMAC-SHA256. A verificação é local:
+ * as claims trazem id, nome e email do usuário, então nenhuma consulta é necessária.
+ */
+@Service
+public class TokenServiceImp implements TokenService {
+
+	private static final Logger log = LoggerFactory.getLogger(TokenServiceImp.class);
+	
+	private static final String ALGORITMO = "HmacSHA256";
+	private static final int TAMANHO_MINIMO_CHAVE = 32;
+	private static final Base64.Encoder CODIFICADOR = Base64.getUrlEncoder().withoutPadding();
+	private static final Base64.Decoder DECODIFICADOR = Base64.getUrlDecoder();
+	private static final String CABECALHO = CODIFICADOR.encodeToString(
+			"{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	
+	private final SecretKeySpec chave;
+	private final Duration validade;
+	private final Clock relogio;
+	
+	// Mac não é thread-safe e Mac.getInstance é caro para fazer a cada requisição.
+	private final ThreadLocal<Mac> macs;
+	
+	@Autowired
+	public TokenServiceImp(@Value("${minhasfinancas.token.segredo:}") String segredo,
+			@Value("${minhasfinancas.token.validade:30m}") Duration validade) {
+		this(segredo, validade, Clock.systemUTC());
+	}
+	
+	public TokenServiceImp(String segredo, Duration validade, Clock relogio) {
+		
+		byte[] bytes;
+		if (segredo == null || segredo.isEmpty()) {
+			log.warn("minhasfinancas.token.segredo não configurado: usando chave aleatória, os tokens não sobrevivem a um reinício.");
+			bytes = new byte[TAMANHO_MINIMO_CHAVE];
+			new SecureRandom().nextBytes(bytes);
+		} else {
+			bytes = segredo.getBytes(StandardCharsets.UTF_8);
+			if (bytes.length < TAMANHO_MINIMO_CHAVE) {
+				throw new IllegalStateException("minhasfinancas.token.segredo deve ter ao menos " + TAMANHO_MINIMO_CHAVE + " bytes.");
+			}
+		}
+		
+		this.chave = new SecretKeySpec(bytes, ALGORITMO);
+		this.validade = validade;
+		this.relogio = relogio;
+		this.macs = ThreadLocal.withInitial(() -> {
+			try {
+				Mac mac = Mac.getInstance(ALGORITMO);
+				mac.init(chave);
+				return mac;
+			} catch (GeneralSecurityException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+	}
+
+	@Override
+	public String gerarToken(Usuario usuario) {
+		
+		long agora = relogio.instant().getEpochSecond();
+		
+		Map<String, Object> claims = new LinkedHashMap<>();
+		claims.put("sub", usuario.getId().toString());
+		claims.put("nome", usuario.getNome());
+		claims.put("email", usuario.getEmail());
+		claims.put("iat", agora);
+		claims.put("exp", agora + validade.getSeconds());
+		
+		try {
+			String conteudo = CABECALHO + "." + CODIFICADOR.encodeToString(MAPPER.writeValueAsBytes(claims));
+			return conteudo + "." + CODIFICADOR.encodeToString(assinar(conteudo));
+			
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public Optional<Usuario> validarToken(String token) {
+		
+		int primeiroPonto = token.indexOf('.');
+		int ultimoPonto = token.lastIndexOf('.');
+		if (primeiroPonto < 0 || primeiroPonto == ultimoPonto || !CABECALHO.equals(token.substring(0, primeiroPonto))) {
+			return Optional.empty();
+		}
+		
+		try {
+			String conteudo = token.substring(0, ultimoPonto);
+			byte[] assinatura = DECODIFICADOR.decode(token.substring(ultimoPonto + 1));
+			if (!MessageDigest.isEqual(assinar(conteudo), assinatura)) {
+				return Optional.empty();
+			}
+			
+			Map<String, Object> claims = MAPPER.readValue(DECODIFICADOR.decode(token.substring(primeiroPonto + 1, ultimoPonto)),
+					new TypeReference<Map<String, Object>>() {});
+			
+			long expiracao = ((Number) claims.get("exp")).longValue();
+			if (relogio.instant().getEpochSecond() >= expiracao) {
+				return Optional.empty();
+			}
+			
+			return Optional.of(new Usuario(Long.valueOf((String) claims.get("sub")),
+					(String) claims.get("nome"), (String) claims.get("email"), null));
+			
+		} catch (IOException | RuntimeException e) {
+			return Optional.empty();
+		}
+	}
+	
+	private byte[] assinar(String conteudo) {
+		return macs.get().doFinal(conteudo.getBytes(StandardCharsets.US_ASCII));
+	}
+}
@@ -3,9 +3,14 @@ package br.com.afsilva.minhasfinancas.service.imp;
 
 import java.util.Optional;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import br.com.afsilva.minhasfinancas.config.CacheConfig;
 import br.com.afsilva.minhasfinancas.exception.ErroAutenticacao;
 import br.com.afsilva.minhasfinancas.exception.RegraNegocioException;
 import br.com.afsilva.minhasfinancas.model.entity.Usuario;
@@ -15,13 +20,17 @@ import br.com.afsilva.minhasfinancas.service.UsuarioService;
 @Service
 public class UsuarioServiceImp implements UsuarioService {
 	
+	private static final String INDICE_EMAIL = "uk_usuario_email";
+	
 	private UsuarioRepository repository;
+	private FiltroBloomEmails filtroEmails;
 
 	
 	
-	public UsuarioServiceImp(UsuarioRepository repository) {
+	public UsuarioServiceImp(UsuarioRepository repository, FiltroBloomEmails filtroEmails) {
 		super();
 		this.repository = repository;
+		this.filtroEmails = filtroEmails;
 	}
 
 	@Override
@@ -41,11 +50,42 @@ public class UsuarioServiceImp implements UsuarioService {
 
 	@Override
 	@Transactional
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CacheConfig.USUARIOS, key = "#result.id"),
+			@CacheEvict(cacheNames = CacheConfig.USUARIOS_POR_EMAIL, key = "#result.email")
+	})
 	public Usuario salvarUsuario(Usuario usuario) {
 
-		validarEmail(usuario.getEmail());
+		// Email novo na maioria dos cadastros: o filtro dispensa a consulta quando é
+		// certamente ausente. O índice único cobre falsos negativos entre instâncias.
+		if (!filtroEmails.isCertamenteAusente(usuario.getEmail())) {
+			validarEmail(usuario.getEmail());
+		}
 		
-		return repository.save(usuario);
+		try {
+			Usuario salvo = repository.save(usuario);
+			filtroEmails.adicionar(salvo.getEmail());
+			return salvo;
+			
+		} catch (DataIntegrityViolationException e) {
+			if (violouEmailUnico(e)) {
+				throw new RegraNegocioException("Já existe um usuário cadastrado com este email");
+			}
+			throw e;
+		}
+	}
+	
+	/**
+	 * Só a violação do índice único de email é um cadastro duplicado; as demais
+	 * (nulos, tamanho, outras restrições) seguem como erro de integridade.
+	 */
+	private static boolean violouEmailUnico(DataIntegrityViolationException e) {
+		for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+			if (causa.getMessage() != null && causa.getMessage().toLowerCase().contains(INDICE_EMAIL)) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	@Override
@@ -58,7 +98,12 @@ public class UsuarioServiceImp implements UsuarioService {
 		
 	}
 
+	/**
+	 * A instância devolvida fica em cache e é compartilhada: serve como referência
+	 * (chave estrangeira) para gravar lançamentos sem consultar o usuário de novo.
+	 */
 	@Override
+	@Cacheable(cacheNames = CacheConfig.USUARIOS, unless = "#result == null")
 	public Optional<Usuario> buscarPorId(Long id) {
 		
 		return repository.findById(id);
@@ -0,0 +1,79 @@
+package br.com.afsilva.minhasfinancas.service.imp;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import br.com.afsilva.minhasfinancas.service.VersaoDadosService;
+
+/**
+ * Versões mantidas em memória neste processo. Cada versão nova sai de um contador global,
+ * então um usuário descartado pelo limite recebe, ao voltar, uma versão nunca emitida; a
+ * época (início do processo) faz o mesmo entre reinícios. A troca acontece após o commit e
+ * a versão é lida antes da consulta, que vai ao primário: um ETag nunca acompanha dados
+ * mais antigos que ele.
+ * <p>
+ * As versões são por processo: com várias instâncias, a que não recebeu uma escrita não
+ * troca a versão. Por isso cada versão vale só por {@code minhasfinancas.etag.validade};
+ * depois dela o usuário recebe uma versão nova e a próxima consulta volta ao banco. Uma
+ * instância responde 304 sobre dados desatualizados no máximo por esse prazo.
+ */
+@Service
+public class VersaoDadosServiceImp implements VersaoDadosService {
+
+	private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+	private final AtomicLong contador = new AtomicLong();
+	private final Cache<Long, Long> versoes;
+	
+	@Autowired
+	public VersaoDadosServiceImp(@Value("${minhasfinancas.etag.maximo-usuarios:100000}") int maximoUsuarios,
+			@Value("${minhasfinancas.etag.validade:1m}") Duration validade) {
+		this(maximoUsuarios, validade, Ticker.systemTicker());
+	}
+	
+	public VersaoDadosServiceImp(int maximoUsuarios, Duration validade, Ticker relogio) {
+		this.versoes = Caffeine.newBuilder()
+				.maximumSize(maximoUsuarios)
+				.expireAfterWrite(validade)
+				.ticker(relogio)
+				.build();
+	}
+
+	@Override
+	public String etag(Long idUsuario) {
+		
+		Long versao = versoes.get(idUsuario, id -> contador.incrementAndGet());
+		return epoca + "-" + idUsuario + "-" + versao;
+	}
+
+	@Override
+	public void incrementar(Collection<Long> idsUsuario) {
+		
+		Set<Long> usuarios = new HashSet<>(idsUsuario);
+		Runnable aplicar = () -> usuarios.forEach(id -> versoes.put(id, contador.incrementAndGet()));
+		
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					aplicar.run();
+				}
+			});
+		} else {
+			aplicar.run();
+		}
+	}
+
+}
@@ -0,0 +1,25 @@
+package br.com.afsilva.minhasfinancas.util;
+
+import java.text.Normalizer;
+import java.util.regex.Pattern;
+
+public final class TextoNormalizado {
+
+	private static final Pattern ACENTOS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+	
+	private TextoNormalizado() {
+	}
+	
+	/**
+	 * Minúsculas e sem acentos, forma usada para comparar descrições por substring.
+	 */
+	public static String normalizar(String texto) {
+		
+		if (texto == null) {
+			return null;
+		}
+		
+		String decomposto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+		return ACENTOS.matcher(decomposto).replaceAll("").toLowerCase();
+	}
+}
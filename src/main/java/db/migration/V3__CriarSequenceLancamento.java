@@ -0,0 +1,34 @@
+package db.migration;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Cria a sequence usada por Lancamento (otimizador pooled, incremento 50) começando
+ * depois do maior id já existente, para bases que vieram da coluna IDENTITY.
+ */
+public class V3__CriarSequenceLancamento extends BaseJavaMigration {
+
+	static final int INCREMENTO = 50;
+	
+	@Override
+	public void migrate(Context context) throws Exception {
+		
+		try (Statement statement = context.getConnection().createStatement()) {
+			
+			long maiorId;
+			try (ResultSet resultado = statement.executeQuery("select coalesce(max(id), 0) from financas.lancamento")) {
+				resultado.next();
+				maiorId = resultado.getLong(1);
+			}
+			
+			// O pooled trata o valor lido como o topo do bloco: o primeiro id gerado será maiorId + 1.
+			statement.execute("create sequence financas.lancamento_seq start with " + (maiorId + INCREMENTO)
+					+ " increment by " + INCREMENTO);
+		}
+	}
+
+}
@@ -0,0 +1,61 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import br.com.afsilva.minhasfinancas.util.TextoNormalizado;
+
+/**
+ * Cria lancamento.descricao_normalizada e a preenche com a mesma normalização da
+ * aplicação (remover acentos não tem equivalente portável em SQL). No PostgreSQL
+ * a coluna recebe um índice GIN de trigramas, que atende like '%termo%'.
+ */
+public class V5__AdicionarDescricaoNormalizada extends BaseJavaMigration {
+
+	static final int TAMANHO_LOTE = 1000;
+	
+	@Override
+	public void migrate(Context context) throws Exception {
+		
+		Connection conexao = context.getConnection();
+		
+		try (Statement statement = conexao.createStatement()) {
+			statement.execute("alter table financas.lancamento add column descricao_normalizada varchar(255)");
+		}
+		
+		try (Statement consulta = conexao.createStatement();
+				ResultSet linhas = consulta.executeQuery("select id, descricao from financas.lancamento where descricao is not null");
+				PreparedStatement atualizacao = conexao.prepareStatement(
+						"update financas.lancamento set descricao_normalizada = ? where id = ?")) {
+			
+			int pendentes = 0;
+			while (linhas.next()) {
+				atualizacao.setString(1, TextoNormalizado.normalizar(linhas.getString(2)));
+				atualizacao.setLong(2, linhas.getLong(1));
+				atualizacao.addBatch();
+				
+				if (++pendentes == TAMANHO_LOTE) {
+					atualizacao.executeBatch();
+					pendentes = 0;
+				}
+			}
+			if (pendentes > 0) {
+				atualizacao.executeBatch();
+			}
+		}
+		
+		if ("PostgreSQL".equals(conexao.getMetaData().getDatabaseProductName())) {
+			try (Statement statement = conexao.createStatement()) {
+				statement.execute("create extension if not exists pg_trgm");
+				statement.execute("create index idx_lancamento_descricao_trgm on financas.lancamento "
+						+ "using gin (descricao_normalizada gin_trgm_ops)");
+			}
+		}
+	}
+
+}
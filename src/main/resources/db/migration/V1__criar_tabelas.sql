@@ -0,0 +1,18 @@
+create table financas.usuario (
+	id bigint generated by default as identity primary key,
+	nome varchar(255),
+	email varchar(255),
+	senha varchar(255)
+);
+
+create table financas.lancamento (
+	id bigint not null primary key,
+	descricao varchar(255),
+	mes integer,
+	ano integer,
+	id_usuario bigint references financas.usuario (id),
+	valor numeric(16,2),
+	data_cadastro timestamp,
+	tipo varchar(255),
+	status varchar(255)
+);
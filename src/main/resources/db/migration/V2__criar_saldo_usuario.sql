@@ -0,0 +1,12 @@
+create table financas.saldo_usuario (
+	id_usuario bigint not null primary key references financas.usuario (id),
+	receitas numeric(16,2) not null,
+	despesas numeric(16,2) not null
+);
+
+insert into financas.saldo_usuario (id_usuario, receitas, despesas)
+select l.id_usuario,
+	coalesce(sum(case when l.tipo = 'RECEITA' then l.valor end), 0),
+	coalesce(sum(case when l.tipo = 'DESPESA' then l.valor end), 0)
+from financas.lancamento l
+group by l.id_usuario;
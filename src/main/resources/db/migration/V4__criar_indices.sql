@@ -0,0 +1,8 @@
+-- findByEmail / existsByEmail
+create unique index uk_usuario_email on financas.usuario (email);
+
+-- buscar por usuario, ano e mes, e paginação por cursor na ordem (ano, mes, id)
+create index idx_lancamento_usuario_ano_mes on financas.lancamento (id_usuario, ano, mes, id);
+
+-- soma de valores por usuario e tipo (obterSaldoPorTipoLancamentoEUsuario)
+create index idx_lancamento_usuario_tipo on financas.lancamento (id_usuario, tipo, valor);
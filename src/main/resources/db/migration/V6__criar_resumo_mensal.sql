@@ -0,0 +1,16 @@
+create table financas.resumo_mensal (
+	id_usuario bigint not null references financas.usuario (id),
+	ano integer not null,
+	mes integer not null,
+	tipo varchar(20) not null,
+	status varchar(20) not null,
+	total numeric(16,2) not null,
+	quantidade bigint not null,
+	primary key (id_usuario, ano, mes, tipo, status)
+);
+
+insert into financas.resumo_mensal (id_usuario, ano, mes, tipo, status, total, quantidade)
+select l.id_usuario, l.ano, l.mes, l.tipo, l.status, sum(l.valor), count(*)
+from financas.lancamento l
+where l.id_usuario is not null and l.ano is not null and l.mes is not null and l.tipo is not null and l.status is not null
+group by l.id_usuario, l.ano, l.mes, l.tipo, l.status;
@@ -0,0 +1,10 @@
+create table financas.idempotencia (
+	chave varchar(300) not null primary key,
+	impressao varchar(64) not null,
+	status integer,
+	tipo_conteudo varchar(100),
+	corpo varchar(10000),
+	data_criacao timestamp not null
+);
+
+create index idx_idempotencia_data_criacao on financas.idempotencia (data_criacao);
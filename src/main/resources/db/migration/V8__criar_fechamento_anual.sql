@@ -0,0 +1,8 @@
+create table financas.fechamento_anual (
+	id_usuario bigint not null references financas.usuario (id),
+	ano integer not null,
+	receitas numeric(16,2) not null,
+	despesas numeric(16,2) not null,
+	data_fechamento timestamp not null,
+	primary key (id_usuario, ano)
+);
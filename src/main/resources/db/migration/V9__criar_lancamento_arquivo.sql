@@ -0,0 +1,16 @@
+create table financas.lancamento_arquivo (
+	id bigint not null primary key,
+	descricao varchar(255),
+	descricao_normalizada varchar(255),
+	mes integer,
+	ano integer,
+	id_usuario bigint references financas.usuario (id),
+	valor numeric(16,2),
+	data_cadastro timestamp,
+	tipo varchar(255),
+	status varchar(255),
+	data_arquivamento timestamp not null
+);
+
+-- buscar nos períodos arquivados, na mesma ordem (ano, mes, id) da tabela ativa
+create index idx_lancamento_arquivo_usuario_ano_mes on financas.lancamento_arquivo (id_usuario, ano, mes, id);
@@ -0,0 +1,302 @@
+package br.com.afsilva.minhasfinancas.carga;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.service.ResumoMensalService;
+import br.com.afsilva.minhasfinancas.service.SaldoUsuarioService;
+import br.com.afsilva.minhasfinancas.service.TokenService;
+
+/**
+ * Teste de carga HTTP de ponta a ponta: sobe a aplicação no H2, popula
+ * usuários × lançamentos com {@link GeradorDadosSinteticos} e dispara, a partir de
+ * vários clientes concorrentes, um mix de criação, busca, saldo e troca de status.
+ * Relata vazão e latências p50/p99/p999 por endpoint no console e em
+ * target/carga-resultado.json.
+ * <p>
+ * Executado apenas com {@code mvn test -Pbenchmark -Dtest=CargaHttpBenchmark}. Parâmetros
+ * (propriedades de sistema): carga.usuarios, carga.lancamentos (por usuário),
+ * carga.clientes, carga.aquecimento e carga.duracao (segundos), carga.token (usa o
+ * token de autenticação) e carga.mix, por exemplo {@code criar=20,buscar=50,saldo=20,status=10}.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("teste")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+public class CargaHttpBenchmark {
+
+	private static final Logger log = LoggerFactory.getLogger(CargaHttpBenchmark.class);
+	
+	enum Operacao {
+		
+		CRIAR("POST /api/lancamentos"),
+		BUSCAR("GET /api/lancamentos"),
+		SALDO("GET /api/usuarios/{id}/saldo"),
+		STATUS("PUT /api/lancamentos/{id}/atualiza-status");
+		
+		final String endpoint;
+		
+		Operacao(String endpoint) {
+			this.endpoint = endpoint;
+		}
+	}
+	
+	private static final String[] STATUS = { "PENDENTE", "EFETIVADO", "CANCELADO" };
+	
+	private final int usuarios = Integer.getInteger("carga.usuarios", 50);
+	private final int lancamentosPorUsuario = Integer.getInteger("carga.lancamentos", 200);
+	private final int clientes = Integer.getInteger("carga.clientes", 16);
+	private final int aquecimento = Integer.getInteger("carga.aquecimento", 5);
+	private final int duracao = Integer.getInteger("carga.duracao", 20);
+	private final boolean token = Boolean.parseBoolean(System.getProperty("carga.token", "true"));
+	private final Map<Operacao, Integer> mix = lerMix(System.getProperty("carga.mix", "criar=20,buscar=50,saldo=20,status=10"));
+	
+	@LocalServerPort
+	int porta;
+	
+	@Autowired
+	DataSource dataSource;
+	
+	@Autowired
+	SaldoUsuarioService saldoUsuarioService;
+	
+	@Autowired
+	ResumoMensalService resumoMensalService;
+	
+	@Autowired
+	TokenService tokenService;
+	
+	private GeradorDadosSinteticos gerador;
+	private String[] tokens;
+	private HttpClient http;
+	
+	@AfterEach
+	public void limparTabelas() {
+		if (gerador != null) {
+			gerador.limpar();
+		}
+	}
+	
+	@Test
+	public void medirLatenciaSobCarga() throws Exception {
+		
+		long inicio = System.nanoTime();
+		gerador = new GeradorDadosSinteticos(new JdbcTemplate(dataSource));
+		gerador.gerar(usuarios, lancamentosPorUsuario);
+		saldoUsuarioService.reconstruirTodos();
+		resumoMensalService.reconstruirTodos();
+		log.info("Carga: {} usuários × {} lançamentos gerados em {} ms",
+				usuarios, lancamentosPorUsuario, (System.nanoTime() - inicio) / 1_000_000);
+		
+		tokens = new String[usuarios];
+		for (int u = 0; u < usuarios; u++) {
+			tokens[u] = tokenService.gerarToken(new Usuario(gerador.getUsuarios().get(u), "Usuario " + u, "carga" + u + "@email.com", null));
+		}
+		http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+		
+		executar(aquecimento);
+		Map<Operacao, Latencias> medicao = executar(duracao);
+		
+		relatar(medicao);
+	}
+	
+	private Map<Operacao, Latencias> executar(int segundos) throws Exception {
+		
+		long fim = System.nanoTime() + Duration.ofSeconds(segundos).toNanos();
+		int pesoTotal = mix.values().stream().mapToInt(Integer::intValue).sum();
+		
+		ExecutorService executor = Executors.newFixedThreadPool(clientes);
+		List<Future<Map<Operacao, Latencias>>> resultados = new ArrayList<>();
+		for (int c = 0; c < clientes; c++) {
+			resultados.add(executor.submit(() -> {
+				Map<Operacao, Latencias> latencias = new EnumMap<>(Operacao.class);
+				while (System.nanoTime() < fim) {
+					Operacao operacao = sortear(pesoTotal);
+					long antes = System.nanoTime();
+					boolean sucesso = requisitar(operacao);
+					latencias.computeIfAbsent(operacao, o -> new Latencias()).registrar(System.nanoTime() - antes, sucesso);
+				}
+				return latencias;
+			}));
+		}
+		
+		Map<Operacao, Latencias> total = new EnumMap<>(Operacao.class);
+		for (Future<Map<Operacao, Latencias>> resultado : resultados) {
+			resultado.get().forEach((operacao, latencias) -> total.computeIfAbsent(operacao, o -> new Latencias()).juntar(latencias));
+		}
+		executor.shutdown();
+		return total;
+	}
+	
+	private boolean requisitar(Operacao operacao) {
+		
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int indice = random.nextInt(usuarios);
+		Long usuario = gerador.getUsuarios().get(indice);
+		String base = "http://localhost:" + porta;
+		
+		HttpRequest.Builder requisicao;
+		switch (operacao) {
+		case CRIAR:
+			requisicao = HttpRequest.newBuilder(URI.create(base + "/api/lancamentos"))
+				.POST(HttpRequest.BodyPublishers.ofString("{\"descricao\":\"Carga " + random.nextInt(1_000) + "\",\"mes\":"
+						+ (random.nextInt(12) + 1) + ",\"ano\":2020,\"valor\":" + (random.nextInt(10_000) + 1)
+						+ ",\"tipo\":\"DESPESA\",\"usuario\":" + usuario + "}"));
+			break;
+		case BUSCAR:
+			requisicao = HttpRequest.newBuilder(URI.create(base + "/api/lancamentos?usuario=" + usuario
+					+ "&ano=" + (2015 + random.nextInt(6)))).GET();
+			break;
+		case SALDO:
+			requisicao = HttpRequest.newBuilder(URI.create(base + "/api/usuarios/" + usuario + "/saldo")).GET();
+			break;
+		default:
+			long lancamento = gerador.getPrimeiroId(indice) + random.nextInt(gerador.getLancamentosPorUsuario());
+			requisicao = HttpRequest.newBuilder(URI.create(base + "/api/lancamentos/" + lancamento + "/atualiza-status"))
+				.PUT(HttpRequest.BodyPublishers.ofString("{\"status\":\"" + STATUS[random.nextInt(STATUS.length)] + "\"}"));
+		}
+		
+		requisicao.header("Content-Type", "application/json").timeout(Duration.ofSeconds(30));
+		if (token) {
+			requisicao.header("Authorization", "Bearer " + tokens[indice]);
+		}
+		
+		try {
+			HttpResponse<Void> resposta = http.send(requisicao.build(), HttpResponse.BodyHandlers.discarding());
+			return resposta.statusCode() < 400;
+			
+		} catch (Exception e) {
+			return false;
+		}
+	}
+	
+	private Operacao sortear(int pesoTotal) {
+		
+		int sorteio = ThreadLocalRandom.current().nextInt(pesoTotal);
+		for (Map.Entry<Operacao, Integer> peso : mix.entrySet()) {
+			sorteio -= peso.getValue();
+			if (sorteio < 0) {
+				return peso.getKey();
+			}
+		}
+		throw new IllegalStateException();
+	}
+	
+	private void relatar(Map<Operacao, Latencias> medicao) throws Exception {
+		
+		StringBuilder relatorio = new StringBuilder(String.format("%n%d clientes, %d s%n%-44s %9s %7s %10s %9s %9s %9s%n",
+				clientes, duracao, "endpoint", "requisições", "erros", "req/s", "p50 ms", "p99 ms", "p999 ms"));
+		List<Map<String, Object>> json = new ArrayList<>();
+		
+		for (Operacao operacao : Operacao.values()) {
+			Latencias latencias = medicao.get(operacao);
+			if (latencias == null) {
+				continue;
+			}
+			
+			long[] ordenadas = latencias.ordenadas();
+			double vazao = ordenadas.length / (double) duracao;
+			double p50 = percentil(ordenadas, 0.50);
+			double p99 = percentil(ordenadas, 0.99);
+			double p999 = percentil(ordenadas, 0.999);
+			
+			relatorio.append(String.format("%-44s %9d %7d %10.1f %9.2f %9.2f %9.2f%n",
+					operacao.endpoint, ordenadas.length, latencias.erros, vazao, p50, p99, p999));
+			
+			Map<String, Object> linha = new LinkedHashMap<>();
+			linha.put("endpoint", operacao.endpoint);
+			linha.put("requisicoes", ordenadas.length);
+			linha.put("erros", latencias.erros);
+			linha.put("requisicoesPorSegundo", vazao);
+			linha.put("p50Ms", p50);
+			linha.put("p99Ms", p99);
+			linha.put("p999Ms", p999);
+			json.add(linha);
+		}
+		
+		log.info("{}", relatorio);
+		new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(new File("target/carga-resultado.json"), json);
+	}
+	
+	private static double percentil(long[] ordenadas, double percentil) {
+		int posicao = (int) Math.ceil(percentil * ordenadas.length) - 1;
+		return ordenadas[Math.max(0, posicao)] / 1_000_000.0;
+	}
+	
+	private static Map<Operacao, Integer> lerMix(String mix) {
+		
+		Map<Operacao, Integer> pesos = new EnumMap<>(Operacao.class);
+		for (String parte : mix.split(",")) {
+			String[] chaveValor = parte.trim().split("=");
+			int peso = Integer.parseInt(chaveValor[1].trim());
+			if (peso > 0) {
+				pesos.put(Operacao.valueOf(chaveValor[0].trim().toUpperCase()), peso);
+			}
+		}
+		return pesos;
+	}
+	
+	/**
+	 * Latências em nanossegundos de um cliente (sem sincronização) ou já somadas.
+	 */
+	static class Latencias {
+		
+		private long[] valores = new long[1_024];
+		private int tamanho;
+		private int erros;
+		
+		void registrar(long nanos, boolean sucesso) {
+			if (tamanho == valores.length) {
+				valores = Arrays.copyOf(valores, tamanho * 2);
+			}
+			valores[tamanho++] = nanos;
+			if (!sucesso) {
+				erros++;
+			}
+		}
+		
+		void juntar(Latencias outras) {
+			for (int i = 0; i < outras.tamanho; i++) {
+				registrar(outras.valores[i], true);
+			}
+			erros += outras.erros;
+		}
+		
+		long[] ordenadas() {
+			long[] ordenadas = Arrays.copyOf(valores, tamanho);
+			Arrays.sort(ordenadas);
+			return ordenadas;
+		}
+	}
+}
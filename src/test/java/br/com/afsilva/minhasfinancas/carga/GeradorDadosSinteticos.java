@@ -0,0 +1,98 @@
+package br.com.afsilva.minhasfinancas.carga;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.afsilva.minhasfinancas.util.TextoNormalizado;
+
+/**
+ * Popula usuários e lançamentos sintéticos direto por JDBC em lotes, sem passar pelos
+ * serviços. Os ids de lançamento de cada usuário são contíguos ({@link #getPrimeiroId}),
+ * e a sequence é reposicionada após a carga para as inserções da aplicação não colidirem.
+ */
+public class GeradorDadosSinteticos {
+
+	private static final int TAMANHO_LOTE = 1_000;
+	private static final String[] DESCRICOES = { "Mercado", "Aluguel", "Energia elétrica", "Internet", "Salário",
+			"Combustível", "Restaurante", "Academia", "Farmácia", "Água" };
+	
+	private final JdbcTemplate jdbc;
+	private final Random random = new Random(42);
+	private final List<Long> usuarios = new ArrayList<>();
+	private final List<Long> primeirosIds = new ArrayList<>();
+	private int lancamentosPorUsuario;
+	
+	public GeradorDadosSinteticos(JdbcTemplate jdbc) {
+		this.jdbc = jdbc;
+	}
+	
+	public void gerar(int quantidadeUsuarios, int lancamentosPorUsuario) {
+		
+		this.lancamentosPorUsuario = lancamentosPorUsuario;
+		
+		List<Object[]> linhasUsuario = new ArrayList<>(quantidadeUsuarios);
+		for (int u = 0; u < quantidadeUsuarios; u++) {
+			linhasUsuario.add(new Object[] { "Usuario " + u, "carga" + u + "@email.com", "senha" });
+		}
+		jdbc.batchUpdate("insert into financas.usuario (nome, email, senha) values (?, ?, ?)", linhasUsuario);
+		usuarios.addAll(jdbc.queryForList("select id from financas.usuario where email like 'carga%@email.com' order by id", Long.class));
+		
+		Long maior = jdbc.queryForObject("select coalesce(max(id), 0) from financas.lancamento", Long.class);
+		long proximoId = maior + 1;
+		
+		List<Object[]> lote = new ArrayList<>(TAMANHO_LOTE);
+		for (Long usuario : usuarios) {
+			primeirosIds.add(proximoId);
+			for (int i = 0; i < lancamentosPorUsuario; i++) {
+				String descricao = DESCRICOES[random.nextInt(DESCRICOES.length)] + " " + i;
+				lote.add(new Object[] { proximoId++, descricao, TextoNormalizado.normalizar(descricao), random.nextInt(12) + 1,
+						2015 + random.nextInt(6), usuario, BigDecimal.valueOf(1_000 + random.nextInt(100_000), 2),
+						Timestamp.valueOf(LocalDateTime.now()), random.nextInt(3) == 0 ? "RECEITA" : "DESPESA", "PENDENTE" });
+				if (lote.size() == TAMANHO_LOTE) {
+					inserirLancamentos(lote);
+				}
+			}
+		}
+		inserirLancamentos(lote);
+		
+		// A sequence usa o otimizador pooled com incremento 50: recomeça após o último id.
+		jdbc.execute("alter sequence financas.lancamento_seq restart with " + (proximoId + 50));
+	}
+	
+	public void limpar() {
+		jdbc.update("delete from financas.saldo_usuario");
+		jdbc.update("delete from financas.resumo_mensal");
+		jdbc.update("delete from financas.fechamento_anual");
+		jdbc.update("delete from financas.lancamento_arquivo");
+		jdbc.update("delete from financas.lancamento");
+		jdbc.update("delete from financas.usuario");
+	}
+	
+	public List<Long> getUsuarios() {
+		return usuarios;
+	}
+	
+	public long getPrimeiroId(int indiceUsuario) {
+		return primeirosIds.get(indiceUsuario);
+	}
+	
+	public int getLancamentosPorUsuario() {
+		return lancamentosPorUsuario;
+	}
+	
+	private void inserirLancamentos(List<Object[]> lote) {
+		
+		if (lote.isEmpty()) {
+			return;
+		}
+		jdbc.batchUpdate("insert into financas.lancamento (id, descricao, descricao_normalizada, mes, ano, id_usuario, "
+				+ "valor, data_cadastro, tipo, status) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", lote);
+		lote.clear();
+	}
+}
@@ -0,0 +1,54 @@
+package br.com.afsilva.minhasfinancas.config;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.web.server.LocalManagementPort;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("teste")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@AutoConfigureMetrics
+public class MetricasPrometheusTest {
+
+	@LocalServerPort
+	int porta;
+	
+	@LocalManagementPort
+	int portaGestao;
+	
+	@Autowired
+	TestRestTemplate rest;
+	
+	@Test
+	public void deveExporMetricasDeEndpointsServicosEHibernateNoFormatoPrometheus() {
+		
+		//cenario
+		rest.getForEntity("http://localhost:" + porta + "/api/lancamentos?usuario=1", String.class);
+		
+		//execucao
+		ResponseEntity<String> resposta = rest.getForEntity("http://localhost:" + portaGestao + "/actuator/prometheus", String.class);
+		
+		//verificacao
+		Assertions.assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.OK);
+		Assertions.assertThat(resposta.getBody())
+			.contains("http_server_requests_seconds_bucket{")
+			.contains("uri=\"/api/lancamentos\"")
+			.contains("minhasfinancas_servico_seconds_bucket{")
+			.contains("classe=\"UsuarioServiceImp\"")
+			.contains("hibernate_query_executions_total")
+			.contains("hibernate_entities_loads_total")
+			.contains("cache_gets_total{cache=\"usuarios\"");
+	}
+	
+}
@@ -0,0 +1,178 @@
+package br.com.afsilva.minhasfinancas.config;
+
+import java.math.BigDecimal;
+
+import org.assertj.core.api.Assertions;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import br.com.afsilva.minhasfinancas.service.LancamentoService;
+
+/**
+ * Primário e réplica são dois bancos H2 independentes: o que cada consulta enxerga
+ * mostra para onde ela foi roteada.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("teste")
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+		"spring.datasource.url=" + RoteamentoDataSourceTest.PRIMARIO,
+		"minhasfinancas.replica.jdbc-url=" + RoteamentoDataSourceTest.REPLICA,
+		"minhasfinancas.replica.username=sa",
+		"minhasfinancas.replica.password=sa" })
+public class RoteamentoDataSourceTest {
+
+	static final String PRIMARIO = "jdbc:h2:mem:primario;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS financas";
+	static final String REPLICA = "jdbc:h2:mem:replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS financas";
+	
+	@Autowired
+	LancamentoService lancamentoService;
+	
+	@Autowired
+	CacheManager cacheManager;
+	
+	@Autowired
+	MockMvc mvc;
+	
+	JdbcTemplate primario;
+	JdbcTemplate replica;
+	
+	@BeforeAll
+	public static void migrarReplica() {
+		
+		// Em produção a réplica recebe o schema pela replicação; aqui é migrada antes do contexto.
+		Flyway.configure().dataSource(REPLICA, "sa", "sa").schemas("financas").load().migrate();
+	}
+	
+	@BeforeEach
+	public void criarCenario() {
+		
+		primario = new JdbcTemplate(new DriverManagerDataSource(PRIMARIO, "sa", "sa"));
+		replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA, "sa", "sa"));
+		for (JdbcTemplate banco : new JdbcTemplate[] { primario, replica }) {
+			banco.update("insert into financas.usuario (id, nome, email, senha) values (1, 'usuario', 'usuario@email.com', 'senha')");
+		}
+		cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+	}
+	
+	@AfterEach
+	public void limpar() {
+		for (JdbcTemplate banco : new JdbcTemplate[] { primario, replica }) {
+			banco.update("delete from financas.saldo_usuario");
+			banco.update("delete from financas.resumo_mensal");
+			banco.update("delete from financas.fechamento_anual");
+			banco.update("delete from financas.lancamento_arquivo");
+			banco.update("delete from financas.lancamento");
+			banco.update("delete from financas.usuario");
+		}
+		RoteamentoDataSource.encerrarRequisicao();
+	}
+	
+	@Test
+	public void deveBuscarNaReplicaEmTransacaoSomenteLeitura() {
+		
+		replica.update("insert into financas.lancamento (id, descricao, mes, ano, id_usuario, valor, tipo, status) "
+				+ "values (1, 'replica', 1, 2019, 1, 10, 'RECEITA', 'PENDENTE')");
+		
+		Assertions.assertThat(lancamentoService.buscar(filtro())).hasSize(1);
+	}
+	
+	@Test
+	public void deveGravarNoPrimario() {
+		
+		lancamentoService.salvar(criarLancamento());
+		
+		Assertions.assertThat(contarLancamentos(primario)).isEqualTo(1);
+		Assertions.assertThat(contarLancamentos(replica)).isZero();
+	}
+	
+	@Test
+	public void deveBuscarNoPrimarioAposEscritaNaMesmaRequisicao() {
+		
+		lancamentoService.salvar(criarLancamento());
+		Assertions.assertThat(lancamentoService.buscar(filtro())).isEmpty();
+		
+		RoteamentoDataSource.iniciarRequisicao();
+		Assertions.assertThat(lancamentoService.buscar(filtro())).isEmpty();
+		
+		lancamentoService.salvar(criarLancamento());
+		Assertions.assertThat(lancamentoService.buscar(filtro())).hasSize(2);
+	}
+	
+	@Test
+	public void deveGravarNoPrimarioAposLeituraNaReplicaNaMesmaRequisicao() throws Exception {
+		
+		// Sem token o usuário é lido antes, em transação somente leitura (réplica); a sessão
+		// aberta pela requisição não pode reaproveitar essa conexão para o insert.
+		mvc.perform(MockMvcRequestBuilders.post("/api/lancamentos")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"descricao\":\"lancamento\",\"mes\":1,\"ano\":2019,\"valor\":10,\"tipo\":\"RECEITA\",\"usuario\":1}"))
+			.andExpect(MockMvcResultMatchers.status().isCreated());
+		
+		Assertions.assertThat(contarLancamentos(primario)).isEqualTo(1);
+		Assertions.assertThat(contarLancamentos(replica)).isZero();
+	}
+	
+	@Test
+	public void deveLerNoPrimarioAsRespostasComETag() throws Exception {
+		
+		// Réplica atrasada: a escrita só chegou ao primário.
+		primario.update("insert into financas.lancamento (id, descricao, mes, ano, id_usuario, valor, tipo, status) "
+				+ "values (1, 'primario', 1, 2019, 1, 10, 'RECEITA', 'PENDENTE')");
+		primario.update("insert into financas.saldo_usuario (id_usuario, receitas, despesas) values (1, 10, 0)");
+		
+		mvc.perform(MockMvcRequestBuilders.get("/api/lancamentos").param("usuario", "1"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().exists("ETag"))
+			.andExpect(MockMvcResultMatchers.jsonPath("[0].descricao").value("primario"));
+		
+		mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/1/saldo"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().exists("ETag"))
+			.andExpect(MockMvcResultMatchers.content().string("10.00"));
+	}
+	
+	private int contarLancamentos(JdbcTemplate banco) {
+		return banco.queryForObject("select count(*) from financas.lancamento", Integer.class);
+	}
+	
+	private static Lancamento filtro() {
+		
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(new Usuario(1L, null, null, null));
+		return filtro;
+	}
+	
+	private static Lancamento criarLancamento() {
+		
+		Lancamento lancamento = new Lancamento();
+		lancamento.setDescricao("primario");
+		lancamento.setMes(1);
+		lancamento.setAno(2019);
+		lancamento.setValor(BigDecimal.TEN);
+		lancamento.setTipo(TipoLancamento.RECEITA);
+		lancamento.setUsuario(new Usuario(1L, "usuario", "usuario@email.com", "senha"));
+		return lancamento;
+	}
+}
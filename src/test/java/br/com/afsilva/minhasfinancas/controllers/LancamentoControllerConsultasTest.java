@@ -0,0 +1,272 @@
+package br.com.afsilva.minhasfinancas.controllers;
+
+import java.math.BigDecimal;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.entity.ResumoMensalId;
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import br.com.afsilva.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.afsilva.minhasfinancas.model.repository.ResumoMensalRepository;
+import br.com.afsilva.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import br.com.afsilva.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.afsilva.minhasfinancas.service.ResumoMensalService;
+import br.com.afsilva.minhasfinancas.service.SaldoUsuarioService;
+import br.com.afsilva.minhasfinancas.service.TokenService;
+
+/**
+ * Orçamento de comandos SQL por endpoint de /api/lancamentos, sobre o H2 e com os serviços
+ * reais; o LancamentoControllerTest cobre o comportamento com os serviços mockados.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("teste")
+@SpringBootTest
+@AutoConfigureMockMvc
+public class LancamentoControllerConsultasTest {
+
+	static final String API = "/api/lancamentos";
+	static final MediaType JSON = MediaType.APPLICATION_JSON;
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+	
+	@Autowired
+	SaldoUsuarioRepository saldoRepository;
+	
+	@Autowired
+	ResumoMensalRepository resumoRepository;
+	
+	@Autowired
+	SaldoUsuarioService saldoUsuarioService;
+	
+	@Autowired
+	ResumoMensalService resumoMensalService;
+	
+	@Autowired
+	TokenService tokenService;
+	
+	@Autowired
+	CacheManager cacheManager;
+	
+	Usuario usuario;
+	Lancamento lancamento;
+	
+	@BeforeEach
+	public void criarCenario() {
+		
+		usuario = usuarioRepository.save(new Usuario("usuario", "consultas@email.com", "senha"));
+		for (int i = 0; i < 3; i++) {
+			lancamento = lancamentoRepository.save(criarLancamento(usuario));
+		}
+		saldoUsuarioService.reconstruir(usuario.getId());
+		resumoMensalService.reconstruirTodos();
+		cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+	}
+	
+	@AfterEach
+	public void limpar() {
+		saldoRepository.deleteAll();
+		resumoRepository.deleteAll();
+		lancamentoRepository.deleteAll();
+		usuarioRepository.deleteAll();
+	}
+	
+	@Test
+	public void deveSalvarUmLancamentoComUmInsertEUpdatesDeSaldoEResumo() throws Exception {
+		
+		executar(autenticado(MockMvcRequestBuilders.post(API).contentType(JSON).content(json(null))));
+		
+		// Saldo, resumo e fechamentos anuais: 2019 é um ano encerrado, então a variação também
+		// é levada aos fechamentos, mesmo que o usuário ainda não tenha nenhum.
+		OrcamentoConsultas.verificar(0, 1, 3, 0);
+	}
+	
+	@Test
+	public void deveSalvarUmaRecorrenciaSemUmInsertPorOcorrencia() throws Exception {
+		
+		String dto = json(null).replace("}", ",\"recorrencia\":\"PARCELADA\",\"ocorrencias\":12}");
+		executar(autenticado(MockMvcRequestBuilders.post(API + "/recorrencia").contentType(JSON).content(dto)));
+		
+		// As 12 parcelas vão em um único lote JDBC (1 insert). No resumo, a célula de 2019/1 é
+		// atualizada e as 11 seguintes ainda não existem: update sem linhas + reconstrução. Os
+		// fechamentos anuais recebem um único update com a soma de 2019.
+		OrcamentoConsultas.verificar(0, 12, 14, 0);
+	}
+	
+	@Test
+	public void deveRepetirOSalvamentoComAMesmaIdempotencyKeySemConsultas() throws Exception {
+		
+		MockHttpServletRequestBuilder request = autenticado(MockMvcRequestBuilders.post(API)
+				.header("Idempotency-Key", "salvar-uma-vez").contentType(JSON).content(json(null)));
+		
+		OrcamentoConsultas.zerar();
+		String primeira = mvc.perform(request).andExpect(MockMvcResultMatchers.status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		OrcamentoConsultas.verificar(0, 1, 3, 0);
+		
+		OrcamentoConsultas.zerar();
+		String segunda = mvc.perform(request).andExpect(MockMvcResultMatchers.status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		OrcamentoConsultas.verificar(0, 0, 0, 0);
+		
+		Assertions.assertEquals(primeira, segunda);
+		Assertions.assertEquals(4, lancamentoRepository.count());
+	}
+	
+	@Test
+	public void deveConsultarOUsuarioSemTokenUmaUnicaVez() throws Exception {
+		
+		executar(MockMvcRequestBuilders.post(API).contentType(JSON).content(json(usuario.getId())));
+		OrcamentoConsultas.verificar(1, 1, 3, 0);
+		
+		executar(MockMvcRequestBuilders.post(API).contentType(JSON).content(json(usuario.getId())));
+		OrcamentoConsultas.verificar(0, 1, 3, 0);
+	}
+	
+	@Test
+	public void deveAtualizarUmLancamentoComUmaUnicaLeitura() throws Exception {
+		
+		executar(autenticado(MockMvcRequestBuilders.put(API + "/" + lancamento.getId()).contentType(JSON).content(json(null))));
+		
+		// Sem status no corpo o gravado é mantido: o lançamento não fica sujo e a célula do
+		// resumo se anula, sobra só o update do saldo.
+		OrcamentoConsultas.verificar(1, 0, 1, 0);
+	}
+	
+	@Test
+	public void deveAtualizarOStatusComUmaUnicaLeitura() throws Exception {
+		
+		executar(MockMvcRequestBuilders.put(API + "/" + lancamento.getId() + "/atualiza-status")
+				.contentType(JSON).content("{\"status\":\"EFETIVADO\"}"));
+		
+		// Resumo: update da célula PENDENTE e da EFETIVADO, que ainda não existe e é reconstruída.
+		OrcamentoConsultas.verificar(1, 1, 4, 0);
+		Assertions.assertEquals(2, resumoRepository.findById(new ResumoMensalId(usuario.getId(), 2019, 1,
+				TipoLancamento.RECEITA, StatusLancamento.PENDENTE)).get().getQuantidade());
+		Assertions.assertEquals(1, resumoRepository.findById(new ResumoMensalId(usuario.getId(), 2019, 1,
+				TipoLancamento.RECEITA, StatusLancamento.EFETIVADO)).get().getQuantidade());
+	}
+	
+	@Test
+	public void deveAtualizarStatusEmLoteComUmUnicoUpdate() throws Exception {
+		
+		executar(autenticado(MockMvcRequestBuilders.put(API + "/status").contentType(JSON)
+				.content("{\"status\":\"EFETIVADO\"}")));
+		
+		// Um select totaliza as linhas afetadas por célula antes do update único.
+		OrcamentoConsultas.verificar(1, 1, 3, 0);
+	}
+	
+	@Test
+	public void deveDeletarUmLancamentoComUmaUnicaLeitura() throws Exception {
+		
+		OrcamentoConsultas.zerar();
+		mvc.perform(MockMvcRequestBuilders.delete(API + "/" + lancamento.getId()))
+			.andExpect(MockMvcResultMatchers.status().isNoContent());
+		
+		OrcamentoConsultas.verificar(1, 0, 3, 1);
+	}
+	
+	@Test
+	public void deveBuscarLancamentosComUmaUnicaConsulta() throws Exception {
+		
+		executar(autenticado(MockMvcRequestBuilders.get(API).param("ano", "2019")));
+		OrcamentoConsultas.verificar(1, 0, 0, 0);
+		
+		executar(autenticado(MockMvcRequestBuilders.get(API).param("limit", "2")));
+		OrcamentoConsultas.verificar(1, 0, 0, 0);
+	}
+
+	@Test
+	public void deveConsultarOArquivoSoParaAnosQuePodemEstarArquivados() throws Exception {
+
+		// Com horizonte de 50 anos no perfil de teste, 1960 já pode estar no arquivo.
+		executar(autenticado(MockMvcRequestBuilders.get(API).param("ano", "1960")));
+		OrcamentoConsultas.verificar(2, 0, 0, 0);
+	}
+
+	@Test
+	public void deveResponderNaoModificadoSemConsultarOBanco() throws Exception {
+		
+		String etag = mvc.perform(autenticado(MockMvcRequestBuilders.get(API).param("ano", "2019")))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		
+		OrcamentoConsultas.zerar();
+		mvc.perform(autenticado(MockMvcRequestBuilders.get(API).param("ano", "2019")).header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(MockMvcResultMatchers.status().isNotModified());
+		OrcamentoConsultas.verificar(0, 0, 0, 0);
+		
+		// Uma escrita confirmada troca a versão: o mesmo ETag deixa de valer.
+		executar(autenticado(MockMvcRequestBuilders.post(API).contentType(JSON).content(json(null))));
+		mvc.perform(autenticado(MockMvcRequestBuilders.get(API).param("ano", "2019")).header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, Matchers.not(etag)))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(4));
+	}
+	
+	@Test
+	public void deveImportarLancamentosEmLote() throws Exception {
+		
+		String dtos = "[" + json(usuario.getId()) + "," + json(usuario.getId()) + "," + json(usuario.getId()) + "]";
+		OrcamentoConsultas.zerar();
+		mvc.perform(MockMvcRequestBuilders.post(API + "/importar").contentType(JSON).content(dtos))
+			.andExpect(MockMvcResultMatchers.status().isCreated());
+		
+		OrcamentoConsultas.verificar(1, 1, 3, 0);
+	}
+	
+	private void executar(MockHttpServletRequestBuilder request) throws Exception {
+		
+		OrcamentoConsultas.zerar();
+		mvc.perform(request.accept(JSON)).andExpect(MockMvcResultMatchers.status().is2xxSuccessful());
+	}
+	
+	private MockHttpServletRequestBuilder autenticado(MockHttpServletRequestBuilder request) {
+		return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.gerarToken(usuario));
+	}
+	
+	private static String json(Long idUsuario) {
+		return "{\"descricao\":\"lancamento\",\"mes\":1,\"ano\":2019,\"valor\":10,\"tipo\":\"RECEITA\""
+				+ (idUsuario == null ? "" : ",\"usuario\":" + idUsuario) + "}";
+	}
+	
+	private static Lancamento criarLancamento(Usuario usuario) {
+		
+		Lancamento lancamento = new Lancamento();
+		lancamento.setDescricao("lancamento");
+		lancamento.setMes(1);
+		lancamento.setAno(2019);
+		lancamento.setValor(BigDecimal.TEN);
+		lancamento.setTipo(TipoLancamento.RECEITA);
+		lancamento.setStatus(StatusLancamento.PENDENTE);
+		lancamento.setUsuario(usuario);
+		return lancamento;
+	}
+}
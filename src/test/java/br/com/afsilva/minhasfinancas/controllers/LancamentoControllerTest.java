@@ -1,23 +1,32 @@
 package br.com.afsilva.minhasfinancas.controllers;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
+import org.assertj.core.api.Assertions;
 import org.assertj.core.error.ShouldHaveSameSizeAs;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
@@ -25,19 +34,34 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import br.com.afsilva.minhasfinancas.api.dto.AtualizaStatusDTO;
+import br.com.afsilva.minhasfinancas.api.dto.AtualizaStatusLoteDTO;
 import br.com.afsilva.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.afsilva.minhasfinancas.api.dto.ResultadoImportacaoDTO;
 import br.com.afsilva.minhasfinancas.exception.RegraNegocioException;
 import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
 import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.enums.FormatoExportacao;
+import br.com.afsilva.minhasfinancas.model.enums.Recorrencia;
 import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
 import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import br.com.afsilva.minhasfinancas.model.projection.LancamentoResumo;
+import br.com.afsilva.minhasfinancas.model.repository.CursorLancamento;
+import br.com.afsilva.minhasfinancas.model.repository.RegistroIdempotenciaRepository;
+import br.com.afsilva.minhasfinancas.service.ExportacaoLancamentoService;
+import br.com.afsilva.minhasfinancas.service.GravacaoAgrupadaService;
+import br.com.afsilva.minhasfinancas.service.ImportacaoLancamentoService;
 import br.com.afsilva.minhasfinancas.service.LancamentoService;
+import br.com.afsilva.minhasfinancas.service.TokenService;
 import br.com.afsilva.minhasfinancas.service.UsuarioService;
+import br.com.afsilva.minhasfinancas.service.VersaoDadosService;
+import br.com.afsilva.minhasfinancas.service.imp.IdempotenciaServiceImp;
+import br.com.afsilva.minhasfinancas.service.imp.TokenServiceImp;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("teste")
 @WebMvcTest(controllers = LancamentoController.class)
 @AutoConfigureMockMvc
+@Import({TokenServiceImp.class, IdempotenciaServiceImp.class})
 public class LancamentoControllerTest {
 
 	static final String API = "/api/lancamentos";
@@ -52,6 +76,24 @@ public class LancamentoControllerTest {
 	@MockBean
 	UsuarioService usuarioService;
 	
+	@MockBean
+	ExportacaoLancamentoService exportacaoService;
+	
+	@MockBean
+	ImportacaoLancamentoService importacaoService;
+	
+	@MockBean
+	VersaoDadosService versaoDados;
+	
+	@MockBean
+	RegistroIdempotenciaRepository registroIdempotenciaRepository;
+	
+	@MockBean
+	GravacaoAgrupadaService gravacaoAgrupada;
+	
+	@Autowired
+	TokenService tokenService;
+	
 	@Test
 	public void deveSalvarUmLancamento() throws Exception {
 		
@@ -82,6 +124,156 @@ public class LancamentoControllerTest {
 		
 	}
 	
+	@Test
+	public void deveSalvarPelaGravacaoAgrupadaQuandoAtiva() throws Exception {
+		
+		//cenario
+		LancamentoDTO dto = criarLancamentoDTO();
+		Lancamento lancamento = criarLancamento();
+		Usuario usuario = criarUsuario();
+		
+		Mockito.when(gravacaoAgrupada.isAtiva()).thenReturn(true);
+		Mockito.when(gravacaoAgrupada.salvar(Mockito.any(Lancamento.class))).thenReturn(lancamento);
+		Mockito.when(usuarioService.buscarPorId(usuario.getId())).thenReturn(Optional.of(usuario));
+		
+		//execucao e verificacao
+		mvc.perform(MockMvcRequestBuilders.post(API).contentType(JSON).content(new ObjectMapper().writeValueAsString(dto)))
+			.andExpect(MockMvcResultMatchers.status().isCreated())
+			.andExpect(MockMvcResultMatchers.jsonPath("id").value(lancamento.getId()));
+		
+		Mockito.verify(lancamentoService, Mockito.never()).salvar(Mockito.any(Lancamento.class));
+	}
+	
+	@Test
+	public void deveRepetirARespostaParaAMesmaIdempotencyKey() throws Exception {
+		
+		//cenario
+		LancamentoDTO dto = criarLancamentoDTO();
+		Lancamento lancamento = criarLancamento();
+		Usuario usuario = criarUsuario();
+		
+		Mockito.when(lancamentoService.salvar(Mockito.any(Lancamento.class))).thenReturn(lancamento);
+		Mockito.when(usuarioService.buscarPorId(usuario.getId())).thenReturn(Optional.of(usuario));
+		
+		String json = new ObjectMapper().writeValueAsString(dto);
+		
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+													.post(API)
+													.header("Idempotency-Key", "repetir-resposta")
+													.accept(JSON)
+													.contentType(JSON)
+													.content(json);
+		
+		//execucao
+		String primeira = mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isCreated())
+			.andReturn().getResponse().getContentAsString();
+		
+		String segunda = mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isCreated())
+			.andExpect(MockMvcResultMatchers.jsonPath("id").value(lancamento.getId()))
+			.andReturn().getResponse().getContentAsString();
+		
+		//verificacao
+		Assertions.assertThat(segunda).isEqualTo(primeira);
+		Mockito.verify(lancamentoService, Mockito.times(1)).salvar(Mockito.any(Lancamento.class));
+	}
+	
+	@Test
+	public void deveRecusarAMesmaIdempotencyKeyComOutroConteudo() throws Exception {
+		
+		//cenario
+		LancamentoDTO dto = criarLancamentoDTO();
+		Usuario usuario = criarUsuario();
+		
+		Mockito.when(lancamentoService.salvar(Mockito.any(Lancamento.class))).thenReturn(criarLancamento());
+		Mockito.when(usuarioService.buscarPorId(usuario.getId())).thenReturn(Optional.of(usuario));
+		
+		mvc.perform(MockMvcRequestBuilders.post(API).header("Idempotency-Key", "outro-conteudo")
+				.contentType(JSON).content(new ObjectMapper().writeValueAsString(dto)))
+			.andExpect(MockMvcResultMatchers.status().isCreated());
+		
+		dto.setValor(BigDecimal.TEN);
+		
+		//execucao e verificacao
+		mvc.perform(MockMvcRequestBuilders.post(API).header("Idempotency-Key", "outro-conteudo")
+				.contentType(JSON).content(new ObjectMapper().writeValueAsString(dto)))
+			.andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+		
+		Mockito.verify(lancamentoService, Mockito.times(1)).salvar(Mockito.any(Lancamento.class));
+	}
+	
+	@Test
+	public void deveRepetirOErroDeValidacaoParaAMesmaIdempotencyKey() throws Exception {
+		
+		//cenario
+		LancamentoDTO dto = criarLancamentoDTO();
+		Usuario usuario = criarUsuario();
+		
+		Mockito.when(lancamentoService.salvar(Mockito.any(Lancamento.class))).thenThrow(new RegraNegocioException("Informe um Valor válido."));
+		Mockito.when(usuarioService.buscarPorId(usuario.getId())).thenReturn(Optional.of(usuario));
+		
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+													.post(API)
+													.header("Idempotency-Key", "erro-validacao")
+													.contentType(JSON)
+													.content(new ObjectMapper().writeValueAsString(dto));
+		
+		//execucao e verificacao
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isBadRequest())
+			.andExpect(MockMvcResultMatchers.content().string("Informe um Valor válido."));
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isBadRequest())
+			.andExpect(MockMvcResultMatchers.content().string("Informe um Valor válido."));
+		
+		Mockito.verify(lancamentoService, Mockito.times(1)).salvar(Mockito.any(Lancamento.class));
+	}
+	
+	@Test
+	public void deveSalvarUmaRecorrencia() throws Exception {
+		
+		//cenario
+		LancamentoDTO dto = criarLancamentoDTO();
+		dto.setRecorrencia(Recorrencia.PARCELADA.toString());
+		dto.setOcorrencias(2);
+		Usuario usuario = criarUsuario();
+		
+		Mockito.when(usuarioService.buscarPorId(usuario.getId())).thenReturn(Optional.of(usuario));
+		Mockito.when(lancamentoService.salvarRecorrencia(Mockito.any(Lancamento.class), Mockito.eq(Recorrencia.PARCELADA), Mockito.eq(2)))
+			.thenReturn(Arrays.asList(criarLancamento(), criarLancamento()));
+		
+		//execucao e verificacao
+		
+		mvc
+			.perform(MockMvcRequestBuilders.post(API.concat("/recorrencia"))
+					.accept(JSON)
+					.contentType(JSON)
+					.content(new ObjectMapper().writeValueAsString(dto)))
+			.andExpect(MockMvcResultMatchers.status().isCreated())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2));
+	}
+	
+	@Test
+	public void deveRetornarBadRequestAoSalvarUmaRecorrenciaInvalida() throws Exception {
+		
+		//cenario
+		LancamentoDTO dto = criarLancamentoDTO();
+		dto.setRecorrencia("SEMANAL");
+		dto.setOcorrencias(2);
+		
+		//execucao e verificacao
+		
+		mvc
+			.perform(MockMvcRequestBuilders.post(API.concat("/recorrencia"))
+					.accept(JSON)
+					.contentType(JSON)
+					.content(new ObjectMapper().writeValueAsString(dto)))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		
+		Mockito.verify(lancamentoService, Mockito.never()).salvarRecorrencia(Mockito.any(), Mockito.any(), Mockito.anyInt());
+	}
+	
 	@Test
 	public void deveLancarUmErroAoSalvarUmLancamentoComUmUsuarioNaoCadastrado() throws Exception {
 		
@@ -144,6 +336,30 @@ public class LancamentoControllerTest {
 		
 	}
 	
+	@Test
+	public void deveRetornarForbiddenAoAtualizarUmLancamentoDeOutroUsuarioComToken() throws Exception {
+		
+		//cenario
+		String token = tokenService.gerarToken(criarUsuario());
+		LancamentoDTO dto = criarLancamentoDTO();
+		Lancamento lancamento = criarLancamento();
+		lancamento.getUsuario().setId(2l);
+		dto.setUsuario(null);
+		
+		Mockito.when(lancamentoService.obterPorId(lancamento.getId())).thenReturn(Optional.of(lancamento));
+		
+		String json = new ObjectMapper().writeValueAsString(dto);
+		
+		//execucao e verificacao
+		
+		mvc
+			.perform(MockMvcRequestBuilders.put(API.concat("/" + lancamento.getId())).header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+					.accept(JSON).contentType(JSON).content(json))
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+		
+		Mockito.verify(lancamentoService, Mockito.never()).atualizar(Mockito.any(Lancamento.class));
+	}
+	
 	@Test
 	public void deveLancarErroAoAtualizarUmLancamentoNaoCadastrado() throws Exception {
 		
@@ -289,6 +505,122 @@ public class LancamentoControllerTest {
 			.andExpect(MockMvcResultMatchers.status().isBadRequest());
 	}
 	
+	@Test
+	public void deveRetornarForbiddenAoAtualizarOStatusDeUmLancamentoDeOutroUsuarioComToken() throws Exception {
+		
+		//cenario
+		String token = tokenService.gerarToken(criarUsuario());
+		Lancamento lancamento = criarLancamento();
+		lancamento.getUsuario().setId(2l);
+		AtualizaStatusDTO dto = new AtualizaStatusDTO();
+		dto.setStatus(StatusLancamento.EFETIVADO.toString());
+		
+		Mockito.when(lancamentoService.obterPorId(lancamento.getId())).thenReturn(Optional.of(lancamento));
+		
+		String json = new ObjectMapper().writeValueAsString(dto);
+		
+		//execucao e verificacao
+		
+		mvc
+			.perform(MockMvcRequestBuilders.put(API.concat("/" + lancamento.getId() + "/atualiza-status")).header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+					.accept(JSON).contentType(JSON).content(json))
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+		
+		Mockito.verify(lancamentoService, Mockito.never()).atualizar(Mockito.any(Lancamento.class));
+	}
+	
+	@Test
+	public void deveAtualizarOStatusDeVariosLancamentosPeloFiltro() throws Exception {
+		
+		//cenario
+		AtualizaStatusLoteDTO dto = new AtualizaStatusLoteDTO();
+		dto.setStatus(StatusLancamento.EFETIVADO.toString());
+		dto.setStatusAtual(StatusLancamento.PENDENTE.toString());
+		dto.setUsuario(1l);
+		dto.setMes(3);
+		dto.setAno(2020);
+		
+		Mockito.when(usuarioService.buscarPorId(1l)).thenReturn(Optional.of(criarUsuario()));
+		ArgumentCaptor<Lancamento> filtro = ArgumentCaptor.forClass(Lancamento.class);
+		Mockito.when(lancamentoService.atualizarStatus(filtro.capture(), Mockito.isNull(), Mockito.eq(StatusLancamento.EFETIVADO))).thenReturn(42);
+		
+		String json = new ObjectMapper().writeValueAsString(dto);
+		
+		//execucao e verificacao
+		
+		mvc
+			.perform(MockMvcRequestBuilders.put(API.concat("/status")).accept(JSON).contentType(JSON).content(json))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.content().string("42"));
+		
+		Assertions.assertThat(filtro.getValue().getUsuario().getId()).isEqualTo(1l);
+		Assertions.assertThat(filtro.getValue().getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+		Assertions.assertThat(filtro.getValue().getMes()).isEqualTo(3);
+		Mockito.verify(lancamentoService, Mockito.never()).atualizar(Mockito.any(Lancamento.class));
+	}
+	
+	@Test
+	public void deveRetornarBadRequestAoAtualizarStatusEmLoteDeOutroUsuarioComToken() throws Exception {
+		
+		//cenario
+		String token = tokenService.gerarToken(criarUsuario());
+		AtualizaStatusLoteDTO dto = new AtualizaStatusLoteDTO();
+		dto.setStatus(StatusLancamento.EFETIVADO.toString());
+		dto.setUsuario(2l);
+		
+		String json = new ObjectMapper().writeValueAsString(dto);
+		
+		//execucao e verificacao
+		
+		mvc
+			.perform(MockMvcRequestBuilders.put(API.concat("/status")).header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+					.accept(JSON).contentType(JSON).content(json))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		
+		Mockito.verify(lancamentoService, Mockito.never()).atualizarStatus(Mockito.any(), Mockito.any(), Mockito.any());
+	}
+	
+	@Test
+	public void deveRetornarBadRequestAoAtualizarStatusEmLoteDeUsuarioInexistente() throws Exception {
+		
+		//cenario
+		AtualizaStatusLoteDTO dto = new AtualizaStatusLoteDTO();
+		dto.setStatus(StatusLancamento.EFETIVADO.toString());
+		dto.setUsuario(1l);
+		Mockito.when(usuarioService.buscarPorId(1l)).thenReturn(Optional.empty());
+		
+		String json = new ObjectMapper().writeValueAsString(dto);
+		
+		//execucao e verificacao
+		
+		mvc
+			.perform(MockMvcRequestBuilders.put(API.concat("/status")).accept(JSON).contentType(JSON).content(json))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		
+		Mockito.verify(lancamentoService, Mockito.never()).atualizarStatus(Mockito.any(), Mockito.any(), Mockito.any());
+	}
+	
+	@Test
+	public void deveRetornarBadRequestAoAtualizarStatusEmLoteComStatusInvalido() throws Exception {
+		
+		//cenario
+		AtualizaStatusLoteDTO dto = new AtualizaStatusLoteDTO();
+		dto.setStatus("ARQUIVADO");
+		dto.setUsuario(1l);
+		Mockito.when(usuarioService.buscarPorId(1l)).thenReturn(Optional.of(criarUsuario()));
+		dto.setIds(Arrays.asList(1l, 2l));
+		
+		String json = new ObjectMapper().writeValueAsString(dto);
+		
+		//execucao e verificacao
+		
+		mvc
+			.perform(MockMvcRequestBuilders.put(API.concat("/status")).accept(JSON).contentType(JSON).content(json))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		
+		Mockito.verify(lancamentoService, Mockito.never()).atualizarStatus(Mockito.any(), Mockito.any(), Mockito.any());
+	}
+	
 	@Test
 	public void deveDeletarUmLancamento() throws Exception{
 		
@@ -319,6 +651,25 @@ public class LancamentoControllerTest {
 	
 	
 	
+	}
+	
+	@Test
+	public void deveRetornarForbiddenAoDeletarUmLancamentoDeOutroUsuarioComToken() throws Exception{
+		
+		//cenario
+		String token = tokenService.gerarToken(criarUsuario());
+		Lancamento lancamento = criarLancamento();
+		lancamento.getUsuario().setId(2l);
+		
+		Mockito.when(lancamentoService.obterPorId(lancamento.getId())).thenReturn(Optional.of(lancamento));
+		
+		//execucao e verificacao
+		
+		mvc
+			.perform(MockMvcRequestBuilders.delete(API.concat("/" + lancamento.getId())).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+		
+		Mockito.verify(lancamentoService, Mockito.never()).deletar(Mockito.any(Lancamento.class));
 	}
 	
 	@Test
@@ -366,11 +717,10 @@ public class LancamentoControllerTest {
 		Integer mes =  1;
 		Integer ano = 2020;
 		
-		Lancamento lancamentoBusca = criarLancamento();
-		Lancamento lancamentoRetorno = criarLancamento();
-		lancamentoRetorno.setId(2l);
+		LancamentoResumo lancamentoBusca = criarLancamentoResumo(1l);
+		LancamentoResumo lancamentoRetorno = criarLancamentoResumo(2l);
 		
-		List<Lancamento> listaLancamentos = new ArrayList<Lancamento>();
+		List<LancamentoResumo> listaLancamentos = new ArrayList<LancamentoResumo>();
 		
 		
 		listaLancamentos.add(lancamentoBusca);
@@ -381,7 +731,8 @@ public class LancamentoControllerTest {
 		Usuario usuario = criarUsuario();
 	
 		Mockito.when(usuarioService.buscarPorId(idUsuario)).thenReturn(Optional.of(usuario));
-		Mockito.when(lancamentoService.buscar(Mockito.any(Lancamento.class))).thenReturn(listaLancamentos);
+		Mockito.when(lancamentoService.buscar(Mockito.any(Lancamento.class), Mockito.isNull(), Mockito.eq(LancamentoController.LIMITE_MAXIMO + 1)))
+			.thenReturn(listaLancamentos);
 		
 	//execucao e verificacao
 		
@@ -441,8 +792,241 @@ public class LancamentoControllerTest {
 		.perform(request)
 		.andExpect(MockMvcResultMatchers.status().isBadRequest());
 		
-		Mockito.verify(lancamentoService, Mockito.never()).buscar(Mockito.any(Lancamento.class));
+		Mockito.verify(lancamentoService, Mockito.never()).buscar(Mockito.any(Lancamento.class), Mockito.any(), Mockito.anyInt());
+		
+	}
+	
+	@Test
+	public void deveBuscarLancamentosDoUsuarioDoTokenSemConsultarOUsuario() throws Exception{
+		
+		//cenario
+		String token = tokenService.gerarToken(criarUsuario());
+		ArgumentCaptor<Lancamento> filtro = ArgumentCaptor.forClass(Lancamento.class);
+		Mockito.when(lancamentoService.buscar(filtro.capture(), Mockito.isNull(), Mockito.anyInt())).thenReturn(Arrays.asList(criarLancamentoResumo(1l)));
+		
+	//execucao e verificacao
+		
+		mvc
+			.perform(MockMvcRequestBuilders.get(API).header(HttpHeaders.AUTHORIZATION, "Bearer " + token).accept(JSON))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("[0].id").value(1));
 		
+		Assertions.assertThat(filtro.getValue().getUsuario().getId()).isEqualTo(1l);
+		Mockito.verify(usuarioService, Mockito.never()).buscarPorId(Mockito.anyLong());
+	}
+	
+	@Test
+	public void deveRetornarBadRequestAoBuscarLancamentosDeOutroUsuarioComToken() throws Exception{
+		
+		//cenario
+		String token = tokenService.gerarToken(criarUsuario());
+		
+	//execucao e verificacao
+		
+		mvc
+			.perform(MockMvcRequestBuilders.get(API.concat("?usuario=2")).header(HttpHeaders.AUTHORIZATION, "Bearer " + token).accept(JSON))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		
+		Mockito.verify(lancamentoService, Mockito.never()).buscar(Mockito.any(Lancamento.class), Mockito.any(), Mockito.anyInt());
+	}
+	
+	@Test
+	public void deveBuscarLancamentosPaginadosERetornarOTokenDaProximaPagina() throws Exception{
+		
+		//cenario
+		Long idUsuario = 1l;
+		
+		LancamentoResumo primeiro = criarLancamentoResumo(1l);
+		LancamentoResumo segundo = criarLancamentoResumo(2l);
+		LancamentoResumo terceiro = criarLancamentoResumo(3l);
+		
+		Mockito.when(usuarioService.buscarPorId(idUsuario)).thenReturn(Optional.of(criarUsuario()));
+		Mockito.when(lancamentoService.buscar(Mockito.any(Lancamento.class), Mockito.isNull(), Mockito.eq(3)))
+			.thenReturn(Arrays.asList(primeiro, segundo, terceiro));
+		
+	//execucao e verificacao
+		
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+													.get(API.concat("?usuario=" + idUsuario + "&limit=2"))
+													.accept(JSON);
+
+		mvc
+		.perform(request)
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("itens.length()").value(2))
+		.andExpect(MockMvcResultMatchers.jsonPath("itens[1].id").value(2))
+		.andExpect(MockMvcResultMatchers.jsonPath("itens[1].usuarioId").value(1))
+		.andExpect(MockMvcResultMatchers.jsonPath("itens[1].usuario").doesNotExist())
+		.andExpect(MockMvcResultMatchers.jsonPath("next").value(CursorLancamento.de(segundo).codificar()));
+		
+	}
+	
+	@Test
+	public void deveLimitarABuscaSemPaginacaoERetornarOCursorNoCabecalho() throws Exception{
+		
+		//cenario
+		Long idUsuario = 1l;
+		List<LancamentoResumo> lancamentos = new ArrayList<>();
+		for (long id = 1; id <= LancamentoController.LIMITE_MAXIMO + 1; id++) {
+			lancamentos.add(criarLancamentoResumo(id));
+		}
+		
+		Mockito.when(usuarioService.buscarPorId(idUsuario)).thenReturn(Optional.of(criarUsuario()));
+		Mockito.when(lancamentoService.buscar(Mockito.any(Lancamento.class), Mockito.isNull(), Mockito.eq(LancamentoController.LIMITE_MAXIMO + 1)))
+			.thenReturn(lancamentos);
+		
+	//execucao e verificacao
+		
+		mvc
+		.perform(MockMvcRequestBuilders.get(API.concat("?usuario=" + idUsuario)).accept(JSON))
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(LancamentoController.LIMITE_MAXIMO))
+		.andExpect(MockMvcResultMatchers.header().string(LancamentoController.CABECALHO_PROXIMA_PAGINA,
+				CursorLancamento.de(lancamentos.get(LancamentoController.LIMITE_MAXIMO - 1)).codificar()));
+		
+	}
+	
+	@Test
+	public void deveBuscarAProximaPaginaAPartirDoToken() throws Exception{
+		
+		//cenario
+		Long idUsuario = 1l;
+		LancamentoResumo ultimo = criarLancamentoResumo(7l);
+		String next = CursorLancamento.de(criarLancamento()).codificar();
+		
+		Mockito.when(usuarioService.buscarPorId(idUsuario)).thenReturn(Optional.of(criarUsuario()));
+		Mockito.when(lancamentoService.buscar(Mockito.any(Lancamento.class), Mockito.any(CursorLancamento.class), Mockito.eq(LancamentoController.LIMITE_PADRAO + 1)))
+			.thenReturn(Arrays.asList(ultimo));
+		
+	//execucao e verificacao
+		
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+													.get(API.concat("?usuario=" + idUsuario + "&next=" + next))
+													.accept(JSON);
+
+		mvc
+		.perform(request)
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("itens[0].id").value(7))
+		.andExpect(MockMvcResultMatchers.jsonPath("next").doesNotExist());
+		
+	}
+	
+	@Test
+	public void deveRetornarBadRequestAoBuscarComTokenDePaginacaoInvalido() throws Exception{
+		
+		//cenario
+		Long idUsuario = 1l;
+		Mockito.when(usuarioService.buscarPorId(idUsuario)).thenReturn(Optional.of(criarUsuario()));
+		
+	//execucao e verificacao
+		
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+													.get(API.concat("?usuario=" + idUsuario + "&next=invalido"))
+													.accept(JSON);
+
+		mvc
+		.perform(request)
+		.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		
+		Mockito.verify(lancamentoService, Mockito.never()).buscar(Mockito.any(Lancamento.class), Mockito.any(), Mockito.anyInt());
+	}
+	
+	@Test
+	public void deveExportarOsLancamentosDoUsuarioEmCsv() throws Exception{
+		
+		//cenario
+		Long idUsuario = 1l;
+		Mockito.when(usuarioService.buscarPorId(idUsuario)).thenReturn(Optional.of(criarUsuario()));
+		Mockito.when(exportacaoService.exportar(Mockito.eq(idUsuario), Mockito.eq(FormatoExportacao.CSV), Mockito.any(OutputStream.class)))
+			.thenAnswer(invocacao -> {
+				invocacao.getArgument(2, OutputStream.class).write("id\n1\n".getBytes());
+				return 1l;
+			});
+		
+	//execucao e verificacao
+		
+		MvcResult resultado = mvc
+			.perform(MockMvcRequestBuilders.get(API.concat("/exportar?usuario=" + idUsuario + "&formato=csv")))
+			.andExpect(MockMvcResultMatchers.request().asyncStarted())
+			.andReturn();
+		
+		mvc
+			.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"lancamentos-1.csv\""))
+			.andExpect(MockMvcResultMatchers.content().string("id\n1\n"));
+	}
+	
+	@Test
+	public void deveRetornarBadRequestAoExportarComFormatoInvalido() throws Exception{
+		
+	//execucao e verificacao
+		
+		mvc
+			.perform(MockMvcRequestBuilders.get(API.concat("/exportar?usuario=1&formato=xml")))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		
+		Mockito.verify(exportacaoService, Mockito.never()).exportar(Mockito.anyLong(), Mockito.any(), Mockito.any());
+	}
+	
+	@Test
+	public void deveImportarUmaListaDeLancamentos() throws Exception{
+		
+		//cenario
+		ResultadoImportacaoDTO resultado = new ResultadoImportacaoDTO();
+		resultado.setImportados(2);
+		resultado.adicionarErro(3, "Informe um Valor válido.");
+		Mockito.when(importacaoService.importar(Mockito.anyList(), Mockito.isNull())).thenReturn(resultado);
+		
+		String json = new ObjectMapper().writeValueAsString(Arrays.asList(criarLancamentoDTO(), criarLancamentoDTO(), criarLancamentoDTO()));
+		
+	//execucao e verificacao
+		
+		mvc
+			.perform(MockMvcRequestBuilders.post(API.concat("/importar")).contentType(JSON).content(json))
+			.andExpect(MockMvcResultMatchers.status().isCreated())
+			.andExpect(MockMvcResultMatchers.jsonPath("importados").value(2))
+			.andExpect(MockMvcResultMatchers.jsonPath("erros[0].linha").value(3));
+	}
+	
+	@Test
+	public void deveImportarUmArquivoCsv() throws Exception{
+		
+		//cenario
+		ResultadoImportacaoDTO resultado = new ResultadoImportacaoDTO();
+		resultado.setImportados(1);
+		Mockito.when(importacaoService.importarCsv(Mockito.any(InputStream.class), Mockito.isNull())).thenReturn(resultado);
+		
+		MockMultipartFile arquivo = new MockMultipartFile("arquivo", "lancamentos.csv", "text/csv",
+				"descricao,mes,ano,valor,tipo,usuario\nLuz,1,2020,100,DESPESA,1\n".getBytes());
+		
+	//execucao e verificacao
+		
+		mvc
+			.perform(MockMvcRequestBuilders.multipart(API.concat("/importar")).file(arquivo))
+			.andExpect(MockMvcResultMatchers.status().isCreated())
+			.andExpect(MockMvcResultMatchers.jsonPath("importados").value(1));
+	}
+	
+	@Test
+	public void deveImportarComOUsuarioDoToken() throws Exception{
+		
+		//cenario
+		String token = tokenService.gerarToken(criarUsuario());
+		ArgumentCaptor<Usuario> autenticado = ArgumentCaptor.forClass(Usuario.class);
+		Mockito.when(importacaoService.importar(Mockito.anyList(), autenticado.capture())).thenReturn(new ResultadoImportacaoDTO());
+		
+		String json = new ObjectMapper().writeValueAsString(Arrays.asList(criarLancamentoDTO()));
+		
+	//execucao e verificacao
+		
+		mvc
+			.perform(MockMvcRequestBuilders.post(API.concat("/importar")).header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+					.contentType(JSON).content(json))
+			.andExpect(MockMvcResultMatchers.status().isCreated());
+		
+		Assertions.assertThat(autenticado.getValue().getId()).isEqualTo(1l);
 	}
 	
 	public static Lancamento criarLancamento() {
@@ -464,6 +1048,12 @@ public class LancamentoControllerTest {
 
 	}
 	
+	public static LancamentoResumo criarLancamentoResumo(Long id) {
+		
+		return new LancamentoResumo(id, "Teste Unitario do Controller Lancamento", 3, 2020, BigDecimal.valueOf(100),
+				TipoLancamento.DESPESA, StatusLancamento.PENDENTE, null, 1l);
+	}
+	
 	public static LancamentoDTO criarLancamentoDTO() {
 		
 		LancamentoDTO dto = new LancamentoDTO();
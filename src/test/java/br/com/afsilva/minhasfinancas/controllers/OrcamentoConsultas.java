@@ -0,0 +1,29 @@
+package br.com.afsilva.minhasfinancas.controllers;
+
+import org.assertj.core.api.Assertions;
+
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+
+/**
+ * Orçamento exato de comandos SQL de uma requisição, lido do datasource-proxy na thread
+ * do teste (o MockMvc executa a requisição na mesma thread). Comandos de sequence
+ * ("outros") dependem do otimizador pooled e ficam fora da conta.
+ */
+public final class OrcamentoConsultas {
+
+	private OrcamentoConsultas() {
+	}
+	
+	public static void zerar() {
+		QueryCountHolder.clear();
+	}
+	
+	public static void verificar(long selects, long inserts, long updates, long deletes) {
+		
+		QueryCount contagem = QueryCountHolder.getGrandTotal();
+		Assertions.assertThat(new long[] { contagem.getSelect(), contagem.getInsert(), contagem.getUpdate(), contagem.getDelete() })
+			.as("comandos SQL [select, insert, update, delete]")
+			.containsExactly(selects, inserts, updates, deletes);
+	}
+}
@@ -0,0 +1,206 @@
+package br.com.afsilva.minhasfinancas.controllers;
+
+import java.math.BigDecimal;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import br.com.afsilva.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.afsilva.minhasfinancas.model.repository.ResumoMensalRepository;
+import br.com.afsilva.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import br.com.afsilva.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.afsilva.minhasfinancas.service.SaldoUsuarioService;
+import br.com.afsilva.minhasfinancas.service.TokenService;
+
+/**
+ * Orçamento de comandos SQL por endpoint de /api/usuarios, sobre o H2 e com os serviços
+ * reais; o UsuarioControllersTest cobre o comportamento com os serviços mockados.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("teste")
+@SpringBootTest
+@AutoConfigureMockMvc
+public class UsuarioControllersConsultasTest {
+
+	static final String API = "/api/usuarios";
+	static final MediaType JSON = MediaType.APPLICATION_JSON;
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+	
+	@Autowired
+	SaldoUsuarioRepository saldoRepository;
+	
+	@Autowired
+	ResumoMensalRepository resumoRepository;
+	
+	@Autowired
+	SaldoUsuarioService saldoUsuarioService;
+	
+	@Autowired
+	TokenService tokenService;
+	
+	@Autowired
+	CacheManager cacheManager;
+	
+	Usuario usuario;
+	
+	@BeforeEach
+	public void criarCenario() {
+		
+		usuario = usuarioRepository.save(new Usuario("usuario", "consultas@email.com", "senha"));
+		
+		// Com lançamento o usuário tem linha no razão de saldos e o saldo sai de uma leitura.
+		Lancamento lancamento = new Lancamento();
+		lancamento.setDescricao("lancamento");
+		lancamento.setMes(1);
+		lancamento.setAno(2019);
+		lancamento.setValor(BigDecimal.TEN);
+		lancamento.setTipo(TipoLancamento.RECEITA);
+		lancamento.setStatus(StatusLancamento.PENDENTE);
+		lancamento.setUsuario(usuario);
+		lancamentoRepository.save(lancamento);
+		saldoUsuarioService.reconstruir(usuario.getId());
+		cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+	}
+	
+	@AfterEach
+	public void limpar() {
+		saldoRepository.deleteAll();
+		resumoRepository.deleteAll();
+		lancamentoRepository.deleteAll();
+		usuarioRepository.deleteAll();
+	}
+	
+	@Test
+	public void deveAutenticarComUmaUnicaConsulta() throws Exception {
+		
+		executar(MockMvcRequestBuilders.post(API + "/autenticar").contentType(JSON)
+				.content("{\"email\":\"consultas@email.com\",\"senha\":\"senha\"}"));
+		
+		OrcamentoConsultas.verificar(1, 0, 0, 0);
+	}
+	
+	@Test
+	public void deveCriarUsuarioComEmailNovoSemConsulta() throws Exception {
+		
+		OrcamentoConsultas.zerar();
+		mvc.perform(MockMvcRequestBuilders.post(API).contentType(JSON)
+				.content("{\"nome\":\"novo\",\"email\":\"novo@email.com\",\"senha\":\"senha\"}"))
+			.andExpect(MockMvcResultMatchers.status().isCreated());
+		
+		OrcamentoConsultas.verificar(0, 1, 0, 0);
+	}
+	
+	@Test
+	public void deveObterSaldoPeloTokenComUmaUnicaConsulta() throws Exception {
+		
+		executar(MockMvcRequestBuilders.get(API + "/" + usuario.getId() + "/saldo")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.gerarToken(usuario)));
+		
+		OrcamentoConsultas.verificar(1, 0, 0, 0);
+	}
+	
+	@Test
+	public void deveResponderNaoModificadoAoSaldoSemConsultarOBanco() throws Exception {
+		
+		String token = "Bearer " + tokenService.gerarToken(usuario);
+		String etag = mvc.perform(MockMvcRequestBuilders.get(API + "/" + usuario.getId() + "/saldo").header(HttpHeaders.AUTHORIZATION, token))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		
+		OrcamentoConsultas.zerar();
+		mvc.perform(MockMvcRequestBuilders.get(API + "/" + usuario.getId() + "/saldo").header(HttpHeaders.AUTHORIZATION, token)
+					.header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(MockMvcResultMatchers.status().isNotModified());
+		OrcamentoConsultas.verificar(0, 0, 0, 0);
+	}
+	
+	@Test
+	public void deveObterSaldoSemTokenConsultandoOUsuarioUmaUnicaVez() throws Exception {
+		
+		executar(MockMvcRequestBuilders.get(API + "/" + usuario.getId() + "/saldo"));
+		OrcamentoConsultas.verificar(2, 0, 0, 0);
+		
+		executar(MockMvcRequestBuilders.get(API + "/" + usuario.getId() + "/saldo"));
+		OrcamentoConsultas.verificar(1, 0, 0, 0);
+	}
+	
+	@Test
+	public void deveObterOFluxoDeCaixaComUmaUnicaConsulta() throws Exception {
+		
+		executar(MockMvcRequestBuilders.get(API + "/" + usuario.getId() + "/fluxo").param("de", "2010-01").param("ate", "2019-12")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.gerarToken(usuario)));
+		
+		OrcamentoConsultas.verificar(1, 0, 0, 0);
+	}
+	
+	@Test
+	public void deveEnviarOSaldoNaInscricaoEAposCadaEscritaConfirmada() throws Exception {
+		
+		String token = "Bearer " + tokenService.gerarToken(usuario);
+		
+		// A inscrição não consulta o banco na thread da requisição; o saldo sai do pool de envio.
+		OrcamentoConsultas.zerar();
+		MvcResult inscricao = mvc.perform(MockMvcRequestBuilders.get(API + "/" + usuario.getId() + "/eventos")
+				.header(HttpHeaders.AUTHORIZATION, token).accept(MediaType.TEXT_EVENT_STREAM))
+			.andExpect(MockMvcResultMatchers.request().asyncStarted())
+			.andReturn();
+		OrcamentoConsultas.verificar(0, 0, 0, 0);
+		
+		try {
+			aguardarEvento(inscricao, "data:10.00");
+			
+			mvc.perform(MockMvcRequestBuilders.post("/api/lancamentos").header(HttpHeaders.AUTHORIZATION, token)
+					.contentType(JSON).content("{\"descricao\":\"novo\",\"mes\":2,\"ano\":2019,\"valor\":5,\"tipo\":\"RECEITA\"}"))
+				.andExpect(MockMvcResultMatchers.status().isCreated());
+			
+			aguardarEvento(inscricao, "data:15.00");
+			Assertions.assertThat(inscricao.getResponse().getContentAsString()).contains("event:lancamentos");
+			
+		} finally {
+			inscricao.getRequest().getAsyncContext().complete();
+		}
+	}
+	
+	private static void aguardarEvento(MvcResult inscricao, String trecho) throws Exception {
+		
+		long limite = System.currentTimeMillis() + 5000;
+		while (!inscricao.getResponse().getContentAsString().contains(trecho)) {
+			Assertions.assertThat(System.currentTimeMillis()).as("evento com " + trecho).isLessThan(limite);
+			Thread.sleep(10);
+		}
+	}
+	
+	private void executar(MockHttpServletRequestBuilder request) throws Exception {
+		
+		OrcamentoConsultas.zerar();
+		mvc.perform(request.accept(JSON)).andExpect(MockMvcResultMatchers.status().isOk());
+	}
+}
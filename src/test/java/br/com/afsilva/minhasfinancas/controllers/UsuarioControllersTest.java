@@ -1,6 +1,8 @@
 package br.com.afsilva.minhasfinancas.controllers;
 
 import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Arrays;
 import java.util.Optional;
 
 
@@ -11,6 +13,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -25,13 +29,23 @@ import br.com.afsilva.minhasfinancas.api.dto.UsuarioDTO;
 import br.com.afsilva.minhasfinancas.exception.ErroAutenticacao;
 import br.com.afsilva.minhasfinancas.exception.RegraNegocioException;
 import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import br.com.afsilva.minhasfinancas.model.projection.SaldoMensal;
+import br.com.afsilva.minhasfinancas.model.projection.TotalMensal;
 import br.com.afsilva.minhasfinancas.service.LancamentoService;
+import br.com.afsilva.minhasfinancas.service.NotificacaoSaldoService;
+import br.com.afsilva.minhasfinancas.service.ResumoMensalService;
+import br.com.afsilva.minhasfinancas.service.TokenService;
 import br.com.afsilva.minhasfinancas.service.UsuarioService;
+import br.com.afsilva.minhasfinancas.service.VersaoDadosService;
+import br.com.afsilva.minhasfinancas.service.imp.TokenServiceImp;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("teste")
 @WebMvcTest(controllers = UsuarioController.class)
 @AutoConfigureMockMvc
+@Import(TokenServiceImp.class)
 public class UsuarioControllersTest {
 	
 	static final String API = "/api/usuarios";
@@ -47,6 +61,18 @@ public class UsuarioControllersTest {
 	@MockBean
 	LancamentoService lancamentoService;
 	
+	@MockBean
+	ResumoMensalService resumoMensalService;
+	
+	@MockBean
+	VersaoDadosService versaoDados;
+	
+	@MockBean
+	NotificacaoSaldoService notificacaoSaldo;
+	
+	@Autowired
+	TokenService tokenService;
+	
 	
 	@Test
 	public void deveAutenticarUmUsuario() throws Exception{
@@ -73,7 +99,9 @@ public class UsuarioControllersTest {
 			.andExpect(MockMvcResultMatchers.status().isOk())
 			.andExpect(MockMvcResultMatchers.jsonPath("id").value(usuario.getId()))
 			.andExpect(MockMvcResultMatchers.jsonPath("nome").value(usuario.getNome()))
-			.andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()));
+			.andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()))
+			.andExpect(MockMvcResultMatchers.jsonPath("token").isNotEmpty())
+			.andExpect(MockMvcResultMatchers.jsonPath("senha").doesNotExist());
 	}
 	
 	
@@ -181,6 +209,61 @@ public class UsuarioControllersTest {
 			.andExpect(MockMvcResultMatchers.content().string("1000"));
 	}
 	
+	@Test
+	public void deveObterSaldoPeloTokenSemConsultarOUsuario() throws Exception{
+		
+		//cenario
+		Usuario usuario = criarUsuario();
+		String token = tokenService.gerarToken(usuario);
+		
+		Mockito.when(lancamentoService.obterSaldoPorTipoLancamentoEUsuario(usuario.getId()))
+					.thenReturn(BigDecimal.valueOf(1000));
+		
+		//execucao e verificacao
+		
+		mvc
+			.perform(MockMvcRequestBuilders.get(API.concat("/" + usuario.getId() + "/saldo"))
+					.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+					.accept(JSON))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.content().string("1000"));
+		
+		Mockito.verify(service, Mockito.never()).buscarPorId(Mockito.anyLong());
+	}
+	
+	@Test
+	public void deveRetornarForbiddenAoObterSaldoDeOutroUsuarioComToken() throws Exception{
+		
+		//cenario
+		String token = tokenService.gerarToken(criarUsuario());
+		
+		//execucao e verificacao
+		
+		mvc
+			.perform(MockMvcRequestBuilders.get(API.concat("/2/saldo"))
+					.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+					.accept(JSON))
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+		
+		Mockito.verify(lancamentoService, Mockito.never()).obterSaldoPorTipoLancamentoEUsuario(Mockito.anyLong());
+	}
+	
+	@Test
+	public void deveRetornarUnauthorizedComTokenInvalido() throws Exception{
+		
+		//cenario
+		String token = tokenService.gerarToken(criarUsuario());
+		String adulterado = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+		
+		//execucao e verificacao
+		
+		mvc
+			.perform(MockMvcRequestBuilders.get(API.concat("/1/saldo"))
+					.header(HttpHeaders.AUTHORIZATION, "Bearer " + adulterado)
+					.accept(JSON))
+			.andExpect(MockMvcResultMatchers.status().isUnauthorized());
+	}
+	
 	@Test
 	public void deveRetornarStatusNotFoundAoObterSaldoComUmUsuarioNaoEncontrado() throws Exception{
 		
@@ -202,6 +285,76 @@ public class UsuarioControllersTest {
 
 	}
 	
+	@Test
+	public void deveObterOResumoMensalPeloToken() throws Exception{
+		
+		//cenario
+		Usuario usuario = criarUsuario();
+		String token = tokenService.gerarToken(usuario);
+		
+		Mockito.when(resumoMensalService.totalizar(usuario.getId(), YearMonth.of(2020, 1), YearMonth.of(2020, 12), StatusLancamento.EFETIVADO))
+			.thenReturn(Arrays.asList(new TotalMensal(2020, 3, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, BigDecimal.valueOf(150), 2l)));
+		
+		//execucao e verificacao
+		
+		mvc
+			.perform(MockMvcRequestBuilders.get(API.concat("/" + usuario.getId() + "/resumo-mensal"))
+					.param("inicio", "2020-01")
+					.param("fim", "2020-12")
+					.param("status", "EFETIVADO")
+					.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+					.accept(JSON))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].mes").value(3))
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].tipo").value("DESPESA"))
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].total").value(150))
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].quantidade").value(2));
+		
+		Mockito.verify(service, Mockito.never()).buscarPorId(Mockito.anyLong());
+	}
+	
+	@Test
+	public void deveRetornarBadRequestAoObterOResumoMensalComMesInvalido() throws Exception{
+		
+		//cenario
+		String token = tokenService.gerarToken(criarUsuario());
+		
+		//execucao e verificacao
+		
+		mvc
+			.perform(MockMvcRequestBuilders.get(API.concat("/1/resumo-mensal"))
+					.param("inicio", "01/2020")
+					.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+					.accept(JSON))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		
+		Mockito.verifyNoInteractions(resumoMensalService);
+	}
+	
+	@Test
+	public void deveObterOFluxoDeCaixaPeloToken() throws Exception{
+		
+		//cenario
+		Usuario usuario = criarUsuario();
+		String token = tokenService.gerarToken(usuario);
+		
+		Mockito.when(resumoMensalService.fluxo(usuario.getId(), YearMonth.of(2020, 1), YearMonth.of(2020, 2)))
+			.thenReturn(Arrays.asList(new SaldoMensal(2020, 1, BigDecimal.valueOf(500), BigDecimal.ZERO, BigDecimal.valueOf(500)),
+					new SaldoMensal(2020, 2, BigDecimal.ZERO, BigDecimal.valueOf(200), BigDecimal.valueOf(300))));
+		
+		//execucao e verificacao
+		
+		mvc
+			.perform(MockMvcRequestBuilders.get(API.concat("/" + usuario.getId() + "/fluxo"))
+					.param("de", "2020-01")
+					.param("ate", "2020-02")
+					.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+					.accept(JSON))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$[1].mes").value(2))
+			.andExpect(MockMvcResultMatchers.jsonPath("$[1].saldo").value(300));
+	}
+	
 	private UsuarioDTO criarUsuarioDto() {
 		
 		UsuarioDTO usuarioDto = new UsuarioDTO();
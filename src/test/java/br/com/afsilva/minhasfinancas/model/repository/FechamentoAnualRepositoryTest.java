@@ -0,0 +1,111 @@
+package br.com.afsilva.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.afsilva.minhasfinancas.model.entity.FechamentoAnual;
+import br.com.afsilva.minhasfinancas.model.entity.FechamentoAnualId;
+import br.com.afsilva.minhasfinancas.model.entity.ResumoMensal;
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("teste")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+public class FechamentoAnualRepositoryTest {
+
+	static final LocalDateTime DATA_FECHAMENTO = LocalDateTime.of(2021, 1, 5, 10, 0);
+	
+	@Autowired
+	FechamentoAnualRepository repository;
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	@Test
+	public void deveFecharOAnoSomandoOResumoAteOFimDoAno() {
+		
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		persistirResumo(usuario, 2019, 12, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 500);
+		persistirResumo(usuario, 2020, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 120);
+		persistirResumo(usuario, 2020, 3, TipoLancamento.DESPESA, StatusLancamento.CANCELADO, 30);
+		persistirResumo(usuario, 2021, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 999);
+		entityManager.flush();
+		
+		//acao
+		int fechados = repository.fecharPorUsuario(usuario.getId(), 2020, DATA_FECHAMENTO);
+		entityManager.clear();
+		
+		//verificacao
+		FechamentoAnual fechamento = entityManager.find(FechamentoAnual.class, new FechamentoAnualId(usuario.getId(), 2020));
+		Assertions.assertThat(fechados).isEqualTo(1);
+		Assertions.assertThat(fechamento.getReceitas()).isEqualByComparingTo(BigDecimal.valueOf(500));
+		Assertions.assertThat(fechamento.getDespesas()).isEqualByComparingTo(BigDecimal.valueOf(150));
+		Assertions.assertThat(fechamento.getDataFechamento()).isEqualTo(DATA_FECHAMENTO);
+	}
+	
+	@Test
+	public void naoDeveFecharUsuarioSemResumoAteOAno() {
+		
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		persistirResumo(usuario, 2021, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 999);
+		entityManager.flush();
+		
+		//acao
+		int fechados = repository.fecharTodos(2020, DATA_FECHAMENTO);
+		
+		//verificacao
+		Assertions.assertThat(fechados).isZero();
+		Assertions.assertThat(repository.findFirstByIdUsuarioOrderByAnoDesc(usuario.getId())).isEmpty();
+	}
+	
+	@Test
+	public void deveAjustarOsFechamentosDoAnoEDosSeguintes() {
+		
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		persistirFechamento(usuario, 2018, 100, 10);
+		persistirFechamento(usuario, 2019, 200, 20);
+		persistirFechamento(usuario, 2020, 300, 30);
+		entityManager.flush();
+		entityManager.clear();
+		
+		//acao
+		int atualizados = repository.ajustar(usuario.getId(), 2019, BigDecimal.valueOf(5), BigDecimal.valueOf(-3));
+		Optional<FechamentoAnual> ultimo = repository.findFirstByIdUsuarioOrderByAnoDesc(usuario.getId());
+		
+		//verificacao
+		FechamentoAnual anterior = entityManager.find(FechamentoAnual.class, new FechamentoAnualId(usuario.getId(), 2018));
+		FechamentoAnual ajustado = entityManager.find(FechamentoAnual.class, new FechamentoAnualId(usuario.getId(), 2019));
+		Assertions.assertThat(atualizados).isEqualTo(2);
+		Assertions.assertThat(anterior.getSaldo()).isEqualByComparingTo(BigDecimal.valueOf(90));
+		Assertions.assertThat(ajustado.getSaldo()).isEqualByComparingTo(BigDecimal.valueOf(188));
+		Assertions.assertThat(ultimo.get().getAno()).isEqualTo(2020);
+		Assertions.assertThat(ultimo.get().getSaldo()).isEqualByComparingTo(BigDecimal.valueOf(278));
+	}
+	
+	private void persistirResumo(Usuario usuario, int ano, int mes, TipoLancamento tipo, StatusLancamento status, int total) {
+		entityManager.persist(new ResumoMensal(usuario.getId(), ano, mes, tipo, status, BigDecimal.valueOf(total), 1l));
+	}
+	
+	private void persistirFechamento(Usuario usuario, int ano, int receitas, int despesas) {
+		entityManager.persist(new FechamentoAnual(usuario.getId(), ano, BigDecimal.valueOf(receitas), BigDecimal.valueOf(despesas),
+				DATA_FECHAMENTO));
+	}
+}
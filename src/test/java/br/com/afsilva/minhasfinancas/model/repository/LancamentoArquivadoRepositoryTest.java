@@ -0,0 +1,176 @@
+package br.com.afsilva.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.entity.LancamentoArquivado;
+import br.com.afsilva.minhasfinancas.model.entity.SaldoUsuario;
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import br.com.afsilva.minhasfinancas.model.projection.LancamentoResumo;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("teste")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+public class LancamentoArquivadoRepositoryTest {
+
+	@Autowired
+	LancamentoArquivadoRepository repository;
+
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+
+	@Autowired
+	SaldoUsuarioRepository saldoUsuarioRepository;
+
+	@Autowired
+	TestEntityManager entityManager;
+
+	@Test
+	public void deveSelecionarOsAntigosEOsCanceladosDeAnosEncerrados() {
+
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento antigo = persistirLancamento(usuario, 2005, StatusLancamento.PENDENTE);
+		Lancamento cancelado = persistirLancamento(usuario, 2020, StatusLancamento.CANCELADO);
+		persistirLancamento(usuario, 2020, StatusLancamento.PENDENTE);
+		persistirLancamento(usuario, 2021, StatusLancamento.CANCELADO);
+		entityManager.flush();
+
+		//acao
+		List<Object[]> linhas = repository.bloquearArquivaveis(2010, 2021, 0l, 10);
+
+		//verificacao
+		Assertions.assertThat(linhas).extracting(linha -> ((Number) linha[0]).longValue())
+			.containsExactly(antigo.getId(), cancelado.getId());
+		Assertions.assertThat(linhas).extracting(linha -> ((Number) linha[1]).longValue())
+			.containsOnly(usuario.getId());
+	}
+
+	@Test
+	public void deveContinuarAposOUltimoIdDoLoteAnterior() {
+
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento primeiro = persistirLancamento(usuario, 2005, StatusLancamento.PENDENTE);
+		persistirLancamento(usuario, 2020, StatusLancamento.PENDENTE);
+		Lancamento segundo = persistirLancamento(usuario, 2006, StatusLancamento.PENDENTE);
+		Lancamento terceiro = persistirLancamento(usuario, 2007, StatusLancamento.PENDENTE);
+		entityManager.flush();
+
+		//acao
+		List<Object[]> lote = repository.bloquearArquivaveis(2010, 2021, primeiro.getId(), 1);
+		List<Object[]> proximo = repository.bloquearArquivaveis(2010, 2021, segundo.getId(), 10);
+
+		//verificacao
+		Assertions.assertThat(lote).extracting(linha -> ((Number) linha[0]).longValue()).containsExactly(segundo.getId());
+		Assertions.assertThat(proximo).extracting(linha -> ((Number) linha[0]).longValue()).containsExactly(terceiro.getId());
+	}
+
+	@Test
+	public void deveMoverOsLancamentosParaOArquivo() {
+
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento antigo = persistirLancamento(usuario, 2005, StatusLancamento.EFETIVADO);
+		Lancamento atual = persistirLancamento(usuario, 2020, StatusLancamento.PENDENTE);
+		entityManager.flush();
+		List<Long> ids = Arrays.asList(antigo.getId());
+
+		//acao
+		int copiados = repository.copiar(ids, LocalDateTime.of(2021, 3, 10, 12, 0));
+		int excluidos = repository.excluirAtivos(ids);
+		entityManager.clear();
+
+		//verificacao
+		Assertions.assertThat(copiados).isEqualTo(1);
+		Assertions.assertThat(excluidos).isEqualTo(1);
+		Assertions.assertThat(entityManager.find(Lancamento.class, antigo.getId())).isNull();
+		Assertions.assertThat(entityManager.find(Lancamento.class, atual.getId())).isNotNull();
+
+		LancamentoArquivado arquivado = entityManager.find(LancamentoArquivado.class, antigo.getId());
+		Assertions.assertThat(arquivado.getAno()).isEqualTo(2005);
+		Assertions.assertThat(arquivado.getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+		Assertions.assertThat(arquivado.getUsuario().getId()).isEqualTo(usuario.getId());
+		Assertions.assertThat(lancamentoRepository.existeArquivado(antigo.getId())).isTrue();
+		Assertions.assertThat(lancamentoRepository.existeArquivado(atual.getId())).isFalse();
+	}
+
+	@Test
+	public void deveBuscarOsArquivadosPeloFiltro() {
+
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento primeiro = persistirLancamento(usuario, 2005, StatusLancamento.PENDENTE);
+		Lancamento segundo = persistirLancamento(usuario, 2006, StatusLancamento.PENDENTE);
+		arquivar(primeiro, segundo);
+
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+		filtro.setAno(2005);
+
+		//acao
+		List<LancamentoResumo> linhas = lancamentoRepository.buscarArquivados(filtro, null, null);
+
+		//verificacao
+		Assertions.assertThat(linhas).extracting(LancamentoResumo::getId).containsExactly(primeiro.getId());
+		Assertions.assertThat(linhas).extracting(LancamentoResumo::getUsuarioId).containsOnly(usuario.getId());
+	}
+
+	@Test
+	public void deveManterOSaldoReconstruidoDepoisDeArquivar() {
+
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento antigo = persistirLancamento(usuario, 2005, StatusLancamento.EFETIVADO);
+		antigo.setTipo(TipoLancamento.RECEITA);
+		persistirLancamento(usuario, 2020, StatusLancamento.PENDENTE);
+		arquivar(antigo);
+
+		//acao
+		saldoUsuarioRepository.reconstruirPorUsuario(usuario.getId());
+		entityManager.clear();
+
+		//verificacao
+		SaldoUsuario saldo = entityManager.find(SaldoUsuario.class, usuario.getId());
+		Assertions.assertThat(saldo.getReceitas()).isEqualByComparingTo(BigDecimal.valueOf(100));
+		Assertions.assertThat(saldo.getDespesas()).isEqualByComparingTo(BigDecimal.valueOf(100));
+		Assertions.assertThat(lancamentoRepository.obterSaldoArquivadoPorTipoLancamentoEUsuario(usuario.getId(), TipoLancamento.RECEITA))
+			.isEqualByComparingTo(BigDecimal.valueOf(100));
+		Assertions.assertThat(lancamentoRepository.obterSaldoArquivadoPorTipoLancamentoEUsuario(usuario.getId(), TipoLancamento.DESPESA))
+			.isNull();
+	}
+
+	private void arquivar(Lancamento... lancamentos) {
+		entityManager.flush();
+		List<Long> ids = Arrays.stream(lancamentos).map(Lancamento::getId).collect(Collectors.toList());
+		repository.copiar(ids, LocalDateTime.of(2021, 3, 10, 12, 0));
+		repository.excluirAtivos(ids);
+		entityManager.clear();
+	}
+
+	private Lancamento persistirLancamento(Usuario usuario, Integer ano, StatusLancamento status) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setAno(ano);
+		lancamento.setStatus(status);
+		return entityManager.persist(lancamento);
+	}
+}
@@ -2,7 +2,14 @@ package br.com.afsilva.minhasfinancas.model.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.persistence.PersistenceUnitUtil;
 
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -16,7 +23,9 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
 import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.projection.LancamentoResumo;
 import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
 
 @ExtendWith(SpringExtension.class)
@@ -88,6 +97,156 @@ public class LancamentoRepositoryTest {
 	}
 	
 	
+	@Test
+	public void deveBuscarLancamentosAposOCursorNaOrdemAnoMesId() {
+		
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento marco2019 = persistirLancamento(usuario, 2019, 3);
+		Lancamento janeiro2020 = persistirLancamento(usuario, 2020, 1);
+		Lancamento marco2020 = persistirLancamento(usuario, 2020, 3);
+		Lancamento outroMarco2020 = persistirLancamento(usuario, 2020, 3);
+		
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+		
+		List<LancamentoResumo> primeiraPagina = repository.buscar(filtro, null, null, 2);
+		List<LancamentoResumo> segundaPagina = repository.buscar(filtro, null, CursorLancamento.de(primeiraPagina.get(1)), 2);
+		
+		Assertions.assertThat(primeiraPagina).extracting(LancamentoResumo::getId).containsExactly(marco2019.getId(), janeiro2020.getId());
+		Assertions.assertThat(segundaPagina).extracting(LancamentoResumo::getId).containsExactly(marco2020.getId(), outroMarco2020.getId());
+		Assertions.assertThat(segundaPagina).extracting(LancamentoResumo::getUsuarioId).containsOnly(usuario.getId());
+	}
+	
+	@Test
+	public void deveFiltrarADescricaoSemDiferenciarAcentosEMaiusculas() {
+		
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento agua = persistirLancamento(usuario, 2020, 1);
+		agua.setDescricao("Conta de ÁGUA");
+		Lancamento desconto = persistirLancamento(usuario, 2020, 2);
+		desconto.setDescricao("Desconto de 10%");
+		persistirLancamento(usuario, 2020, 3);
+		entityManager.flush();
+		
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+		
+		filtro.setDescricao("agua");
+		Assertions.assertThat(repository.buscar(filtro, null, null, null)).extracting(LancamentoResumo::getId).containsExactly(agua.getId());
+		
+		filtro.setDescricao("0%");
+		Assertions.assertThat(repository.buscar(filtro, null, null, null)).extracting(LancamentoResumo::getId).containsExactly(desconto.getId());
+	}
+	
+	@Test
+	public void deveRestringirABuscaAosIdsCandidatos() {
+		
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		persistirLancamento(usuario, 2020, 1);
+		Lancamento candidato = persistirLancamento(usuario, 2020, 2);
+		
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+		filtro.setDescricao("ignorada quando há candidatos");
+		
+		Assertions.assertThat(repository.buscar(filtro, Arrays.asList(candidato.getId()), null, null))
+			.extracting(LancamentoResumo::getId).containsExactly(candidato.getId());
+		Assertions.assertThat(repository.buscar(filtro, Collections.emptyList(), null, null)).isEmpty();
+	}
+	
+	@Test
+	public void deveAtualizarOStatusDosLancamentosDoFiltroEmUmUnicoUpdate() {
+		
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento pendente = persistirLancamento(usuario, 2020, 3);
+		Lancamento outroPendente = persistirLancamento(usuario, 2020, 3);
+		Lancamento cancelado = persistirLancamento(usuario, 2020, 3);
+		cancelado.setStatus(StatusLancamento.CANCELADO);
+		Lancamento outroMes = persistirLancamento(usuario, 2020, 4);
+		entityManager.flush();
+		
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+		filtro.setMes(3);
+		filtro.setAno(2020);
+		filtro.setStatus(StatusLancamento.PENDENTE);
+		
+		int alterados = repository.atualizarStatus(filtro, null, StatusLancamento.EFETIVADO);
+		entityManager.clear();
+		
+		Assertions.assertThat(alterados).isEqualTo(2);
+		Assertions.assertThat(entityManager.find(Lancamento.class, pendente.getId()).getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+		Assertions.assertThat(entityManager.find(Lancamento.class, outroPendente.getId()).getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+		Assertions.assertThat(entityManager.find(Lancamento.class, cancelado.getId()).getStatus()).isEqualTo(StatusLancamento.CANCELADO);
+		Assertions.assertThat(entityManager.find(Lancamento.class, outroMes.getId()).getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+	}
+	
+	@Test
+	public void deveAtualizarOStatusSomenteDosIdsInformados() {
+		
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento escolhido = persistirLancamento(usuario, 2020, 3);
+		Lancamento jaCancelado = persistirLancamento(usuario, 2020, 3);
+		jaCancelado.setStatus(StatusLancamento.CANCELADO);
+		persistirLancamento(usuario, 2020, 3);
+		entityManager.flush();
+		
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+		
+		int alterados = repository.atualizarStatus(filtro, Arrays.asList(escolhido.getId(), jaCancelado.getId()), StatusLancamento.CANCELADO);
+		
+		Assertions.assertThat(alterados).isEqualTo(1);
+		Assertions.assertThat(repository.atualizarStatus(filtro, Collections.emptyList(), StatusLancamento.CANCELADO)).isZero();
+	}
+	
+	@Test
+	public void deveCarregarOUsuarioSobDemandaOuPeloGrafoDeBusca() {
+		
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento lancamento = persistirLancamento(usuario, 2020, 3);
+		entityManager.flush();
+		entityManager.clear();
+		
+		PersistenceUnitUtil util = entityManager.getEntityManager().getEntityManagerFactory().getPersistenceUnitUtil();
+		
+		Lancamento semUsuario = repository.findById(lancamento.getId()).get();
+		Assertions.assertThat(util.isLoaded(semUsuario, "usuario")).isFalse();
+		Assertions.assertThat(semUsuario.getUsuario().getId()).isEqualTo(usuario.getId());
+		
+		entityManager.clear();
+		
+		Lancamento comUsuario = repository.findComUsuarioById(lancamento.getId()).get();
+		Assertions.assertThat(util.isLoaded(comUsuario, "usuario")).isTrue();
+	}
+	
+	@Test
+	public void deveLerOsLancamentosDoUsuarioEmStreamSemGerenciarEntidades() {
+		
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento segundo = persistirLancamento(usuario, 2020, 5);
+		Lancamento primeiro = persistirLancamento(usuario, 2019, 1);
+		entityManager.flush();
+		entityManager.clear();
+		
+		List<LancamentoResumo> linhas;
+		try (Stream<LancamentoResumo> stream = repository.streamPorUsuario(usuario.getId())) {
+			linhas = stream.collect(Collectors.toList());
+		}
+		
+		Assertions.assertThat(linhas).extracting(LancamentoResumo::getId).containsExactly(primeiro.getId(), segundo.getId());
+		Assertions.assertThat(linhas).extracting(LancamentoResumo::getUsuarioId).containsOnly(usuario.getId());
+		Assertions.assertThat(entityManager.getEntityManager().contains(entityManager.find(Lancamento.class, primeiro.getId()))).isTrue();
+	}
+	
+	private Lancamento persistirLancamento(Usuario usuario, Integer ano, Integer mes) {
+		Lancamento lancamento = criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setAno(ano);
+		lancamento.setMes(mes);
+		return entityManager.persist(lancamento);
+	}
+	
 	private Lancamento criarEPersistirUmLancamento() {
 		Lancamento lancamento = criarLancamento();
 		lancamento = entityManager.persist(lancamento);
@@ -0,0 +1,160 @@
+package br.com.afsilva.minhasfinancas.model.repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Confere no plano do H2 que as consultas geradas pelos repositórios usam os índices
+ * criados em db/migration. O SQL é capturado com o datasource-proxy ao chamar o próprio
+ * repositório e explicado com os mesmos parâmetros. Os dados são confirmados fora da
+ * transação do teste porque o H2 só considera linhas efetivadas ao estimar o custo de
+ * cada índice.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("teste")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PlanoConsultaIndicesTest {
+
+	static final List<QueryInfo> CONSULTAS = new ArrayList<>();
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+	
+	@Autowired
+	DataSource dataSource;
+	
+	Usuario usuario;
+	
+	@BeforeEach
+	public void popularTabelas() {
+		
+		for (int u = 0; u < 20; u++) {
+			usuario = usuarioRepository.save(new Usuario("usuario", "plano" + u + "@email.com", "teste"));
+			List<Lancamento> lancamentos = new ArrayList<>();
+			for (int i = 0; i < 100; i++) {
+				Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+				lancamento.setUsuario(usuario);
+				lancamento.setAno(2000 + i % 20);
+				lancamento.setMes(i % 12 + 1);
+				lancamento.setTipo(i % 2 == 0 ? TipoLancamento.RECEITA : TipoLancamento.DESPESA);
+				lancamentos.add(lancamento);
+			}
+			lancamentoRepository.saveAll(lancamentos);
+		}
+		CONSULTAS.clear();
+	}
+	
+	@AfterEach
+	public void limparTabelas() {
+		lancamentoRepository.deleteAllInBatch();
+		usuarioRepository.deleteAllInBatch();
+	}
+	
+	@Test
+	public void deveBuscarLancamentosPeloIndiceDeUsuarioAnoEMes() {
+		
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+		filtro.setAno(2010);
+		filtro.setMes(3);
+		lancamentoRepository.buscar(filtro, null, null, 51);
+		
+		Assertions.assertThat(explicarUltimaConsulta()).containsIgnoringCase("IDX_LANCAMENTO_USUARIO_ANO_MES");
+	}
+	
+	@Test
+	public void deveBuscarAProximaPaginaPeloIndiceDeUsuarioAnoEMes() {
+		
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+		lancamentoRepository.buscar(filtro, null, new CursorLancamento(2010, 6, 1l), 51);
+		
+		Assertions.assertThat(explicarUltimaConsulta()).containsIgnoringCase("IDX_LANCAMENTO_USUARIO_ANO_MES");
+	}
+	
+	@Test
+	public void deveSomarOSaldoPeloIndiceDeUsuarioETipo() {
+		
+		lancamentoRepository.obterSaldoPorTipoLancamentoEUsuario(usuario.getId(), TipoLancamento.RECEITA);
+		
+		Assertions.assertThat(explicarUltimaConsulta()).containsIgnoringCase("IDX_LANCAMENTO_USUARIO_TIPO");
+	}
+	
+	@Test
+	public void deveBuscarUsuarioPeloIndiceUnicoDeEmail() {
+		
+		usuarioRepository.findByEmail("plano1@email.com");
+		
+		Assertions.assertThat(explicarUltimaConsulta()).containsIgnoringCase("UK_USUARIO_EMAIL");
+	}
+	
+	/**
+	 * Explica o último comando enviado ao banco, com os parâmetros com que foi executado.
+	 */
+	private String explicarUltimaConsulta() {
+		
+		Assertions.assertThat(CONSULTAS).isNotEmpty();
+		QueryInfo consulta = CONSULTAS.get(CONSULTAS.size() - 1);
+		
+		Object[] parametros = consulta.getParametersList().isEmpty() ? new Object[0]
+				: consulta.getParametersList().get(0).stream()
+					.sorted(Comparator.comparingInt(operacao -> (Integer) operacao.getArgs()[0]))
+					.map(operacao -> operacao.getArgs()[1])
+					.collect(Collectors.toList()).toArray();
+		
+		return new JdbcTemplate(dataSource).queryForObject("explain " + consulta.getQuery(), String.class, parametros);
+	}
+	
+	@TestConfiguration
+	static class CapturaConsultas {
+		
+		@Bean
+		static BeanPostProcessor capturarConsultas() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if ("dataSource".equals(beanName) && bean instanceof DataSource && !(bean instanceof ProxyDataSource)) {
+						return ProxyDataSourceBuilder.create((DataSource) bean)
+								.afterQuery((execucao, consultas) -> CONSULTAS.addAll(consultas))
+								.build();
+					}
+					return bean;
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package br.com.afsilva.minhasfinancas.model.repository;
+
+import java.time.LocalDateTime;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.afsilva.minhasfinancas.model.entity.RegistroIdempotencia;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("teste")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+public class RegistroIdempotenciaRepositoryTest {
+
+	@Autowired
+	RegistroIdempotenciaRepository repository;
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	@Test
+	public void deveReservarEConcluirUmaChave() {
+		
+		//acao
+		LocalDateTime agora = LocalDateTime.of(2021, 3, 10, 12, 0);
+		repository.reservar("chave", "impressao", agora);
+		int concluidos = repository.concluir("chave", agora, 201, "application/json", "{}");
+		
+		//verificacao
+		entityManager.clear();
+		RegistroIdempotencia registro = entityManager.find(RegistroIdempotencia.class, "chave");
+		Assertions.assertThat(concluidos).isEqualTo(1);
+		Assertions.assertThat(registro.getStatus()).isEqualTo(201);
+		Assertions.assertThat(registro.getCorpo()).isEqualTo("{}");
+	}
+	
+	@Test
+	public void naoDeveConcluirNemLiberarAReservaRetomadaPorOutroNo() {
+		
+		//cenario
+		LocalDateTime abandonada = LocalDateTime.of(2021, 3, 10, 12, 0);
+		LocalDateTime retomada = abandonada.plusMinutes(1);
+		repository.reservar("chave", "impressao", retomada);
+		
+		//acao
+		int alterados = repository.concluir("chave", abandonada, 201, "application/json", "{}")
+				+ repository.liberar("chave", abandonada);
+		
+		//verificacao
+		entityManager.clear();
+		RegistroIdempotencia registro = entityManager.find(RegistroIdempotencia.class, "chave");
+		Assertions.assertThat(alterados).isZero();
+		Assertions.assertThat(registro.getStatus()).isNull();
+	}
+	
+	@Test
+	public void naoDeveReservarUmaChaveJaReservada() {
+		
+		//cenario
+		repository.reservar("chave", "impressao", LocalDateTime.now());
+		
+		//acao e verificacao
+		Assertions.assertThatThrownBy(() -> repository.reservar("chave", "impressao", LocalDateTime.now()))
+			.isInstanceOf(DataIntegrityViolationException.class);
+	}
+	
+	@Test
+	public void deveLiberarSomenteAReservaSemRespostaAnteriorAoLimite() {
+		
+		//cenario
+		LocalDateTime agora = LocalDateTime.of(2021, 3, 10, 12, 0);
+		repository.reservar("abandonada", "impressao", agora.minusMinutes(5));
+		repository.reservar("concluida", "impressao", agora.minusMinutes(5));
+		repository.concluir("concluida", agora.minusMinutes(5), 201, "application/json", "{}");
+		repository.reservar("recente", "impressao", agora);
+		
+		//acao
+		int liberadas = repository.liberarAbandonada("abandonada", agora.minusSeconds(30))
+				+ repository.liberarAbandonada("concluida", agora.minusSeconds(30))
+				+ repository.liberarAbandonada("recente", agora.minusSeconds(30));
+		
+		//verificacao
+		Assertions.assertThat(liberadas).isEqualTo(1);
+		Assertions.assertThat(repository.existsById("abandonada")).isFalse();
+		Assertions.assertThat(repository.existsById("concluida")).isTrue();
+		Assertions.assertThat(repository.existsById("recente")).isTrue();
+	}
+	
+	@Test
+	public void deveExcluirSomenteAsChavesExpiradas() {
+		
+		//cenario
+		LocalDateTime agora = LocalDateTime.now();
+		repository.reservar("antiga", "impressao", agora.minusDays(2));
+		repository.reservar("recente", "impressao", agora);
+		
+		//acao
+		int excluidos = repository.excluirExpirados(agora.minusDays(1));
+		
+		//verificacao
+		Assertions.assertThat(excluidos).isEqualTo(1);
+		Assertions.assertThat(repository.existsById("recente")).isTrue();
+	}
+}
@@ -0,0 +1,149 @@
+package br.com.afsilva.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.entity.ResumoMensal;
+import br.com.afsilva.minhasfinancas.model.entity.ResumoMensalId;
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import br.com.afsilva.minhasfinancas.model.projection.TotalMensal;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("teste")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+public class ResumoMensalRepositoryTest {
+
+	@Autowired
+	ResumoMensalRepository repository;
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	@Test
+	public void deveMovimentarUmaCelulaExistente() {
+		
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		entityManager.persist(new ResumoMensal(usuario.getId(), 2020, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE,
+				BigDecimal.valueOf(100), 1l));
+		entityManager.flush();
+		entityManager.clear();
+		
+		//acao
+		int atualizados = repository.movimentar(usuario.getId(), 2020, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE,
+				BigDecimal.valueOf(50), 1l);
+		int inexistentes = repository.movimentar(usuario.getId(), 2020, 4, TipoLancamento.DESPESA, StatusLancamento.PENDENTE,
+				BigDecimal.valueOf(50), 1l);
+		
+		//verificacao
+		ResumoMensal resumo = entityManager.find(ResumoMensal.class,
+				new ResumoMensalId(usuario.getId(), 2020, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE));
+		Assertions.assertThat(atualizados).isEqualTo(1);
+		Assertions.assertThat(inexistentes).isZero();
+		Assertions.assertThat(resumo.getTotal()).isEqualByComparingTo(BigDecimal.valueOf(150));
+		Assertions.assertThat(resumo.getQuantidade()).isEqualTo(2l);
+	}
+	
+	@Test
+	public void deveReconstruirACelulaETotalizarOPeriodo() {
+		
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		persistirLancamento(usuario, 2019, 12, StatusLancamento.EFETIVADO, 70);
+		persistirLancamento(usuario, 2020, 3, StatusLancamento.PENDENTE, 100);
+		persistirLancamento(usuario, 2020, 3, StatusLancamento.PENDENTE, 20);
+		persistirLancamento(usuario, 2020, 3, StatusLancamento.EFETIVADO, 30);
+		persistirLancamento(usuario, 2020, 5, StatusLancamento.EFETIVADO, 999);
+		entityManager.flush();
+		
+		//acao
+		int celulas = repository.reconstruirCelula(usuario.getId(), 2020, 3, "DESPESA", "PENDENTE");
+		repository.excluirTodos();
+		repository.reconstruirTodos();
+		entityManager.clear();
+		List<TotalMensal> totais = repository.totalizar(usuario.getId(), 2019, 12, 2020, 4);
+		List<TotalMensal> efetivados = repository.totalizarPorStatus(usuario.getId(), 2019, 12, 2020, 4, StatusLancamento.EFETIVADO);
+		
+		//verificacao
+		Assertions.assertThat(celulas).isEqualTo(1);
+		Assertions.assertThat(totais).hasSize(2);
+		Assertions.assertThat(totais.get(0).getAno()).isEqualTo(2019);
+		Assertions.assertThat(totais.get(1).getTotal()).isEqualByComparingTo(BigDecimal.valueOf(150));
+		Assertions.assertThat(totais.get(1).getQuantidade()).isEqualTo(3l);
+		Assertions.assertThat(efetivados).extracting(TotalMensal::getMes).containsExactly(12, 3);
+	}
+	
+	@Test
+	public void naoDeveReconstruirACelulaQueJaExiste() {
+		
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		persistirLancamento(usuario, 2020, 3, StatusLancamento.PENDENTE, 100);
+		entityManager.flush();
+		repository.reconstruirCelula(usuario.getId(), 2020, 3, "DESPESA", "PENDENTE");
+		
+		//acao
+		int celulas = repository.reconstruirCelula(usuario.getId(), 2020, 3, "DESPESA", "PENDENTE");
+		entityManager.clear();
+		
+		//verificacao
+		Assertions.assertThat(celulas).isEqualTo(0);
+		Assertions.assertThat(repository.totalizar(usuario.getId(), 2020, 3, 2020, 3))
+			.extracting(TotalMensal::getQuantidade).containsExactly(1l);
+	}
+	
+	@Test
+	public void deveCalcularOFluxoComSaldoAcumuladoEAbertura() {
+		
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		persistirLancamento(usuario, 2019, 11, StatusLancamento.EFETIVADO, 10);
+		persistirLancamento(usuario, 2019, 12, StatusLancamento.EFETIVADO, 70);
+		Lancamento receita = LancamentoRepositoryTest.criarLancamento();
+		receita.setUsuario(usuario);
+		receita.setTipo(TipoLancamento.RECEITA);
+		receita.setValor(BigDecimal.valueOf(500));
+		entityManager.persist(receita);
+		persistirLancamento(usuario, 2020, 3, StatusLancamento.PENDENTE, 100);
+		persistirLancamento(usuario, 2020, 5, StatusLancamento.EFETIVADO, 999);
+		entityManager.flush();
+		repository.reconstruirTodos();
+		
+		//acao
+		List<Object[]> fluxo = repository.fluxo(usuario.getId(), 2020 * 12 + 1, 2020 * 12 + 4);
+		
+		//verificacao
+		Assertions.assertThat(fluxo).hasSize(2);
+		Assertions.assertThat(((Number) fluxo.get(0)[1]).intValue()).isEqualTo(12);
+		Assertions.assertThat((BigDecimal) fluxo.get(0)[4]).isEqualByComparingTo(BigDecimal.valueOf(-80));
+		Assertions.assertThat(((Number) fluxo.get(1)[1]).intValue()).isEqualTo(3);
+		Assertions.assertThat((BigDecimal) fluxo.get(1)[2]).isEqualByComparingTo(BigDecimal.valueOf(500));
+		Assertions.assertThat((BigDecimal) fluxo.get(1)[3]).isEqualByComparingTo(BigDecimal.valueOf(100));
+		Assertions.assertThat((BigDecimal) fluxo.get(1)[4]).isEqualByComparingTo(BigDecimal.valueOf(320));
+	}
+	
+	private void persistirLancamento(Usuario usuario, int ano, int mes, StatusLancamento status, int valor) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setAno(ano);
+		lancamento.setMes(mes);
+		lancamento.setStatus(status);
+		lancamento.setValor(BigDecimal.valueOf(valor));
+		entityManager.persist(lancamento);
+	}
+}
@@ -0,0 +1,134 @@
+package br.com.afsilva.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.entity.SaldoUsuario;
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("teste")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+public class SaldoUsuarioRepositoryTest {
+
+	@Autowired
+	SaldoUsuarioRepository repository;
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	@Test
+	public void deveMovimentarOSaldoDeUmUsuario() {
+		
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		entityManager.persist(new SaldoUsuario(usuario.getId(), BigDecimal.valueOf(100), BigDecimal.valueOf(40)));
+		entityManager.flush();
+		entityManager.clear();
+		
+		//acao
+		int atualizados = repository.movimentar(usuario.getId(), BigDecimal.valueOf(50), BigDecimal.valueOf(-10));
+		
+		//verificacao
+		SaldoUsuario saldo = entityManager.find(SaldoUsuario.class, usuario.getId());
+		Assertions.assertThat(atualizados).isEqualTo(1);
+		Assertions.assertThat(saldo.getSaldo()).isEqualByComparingTo(BigDecimal.valueOf(120));
+	}
+	
+	@Test
+	public void naoDeveMovimentarQuandoOUsuarioNaoPossuiSaldo() {
+		
+		//acao
+		int atualizados = repository.movimentar(99l, BigDecimal.TEN, BigDecimal.ZERO);
+		
+		//verificacao
+		Assertions.assertThat(atualizados).isZero();
+	}
+	
+	@Test
+	public void deveReconstruirOSaldoAPartirDosLancamentos() {
+		
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		persistirLancamento(usuario, TipoLancamento.RECEITA, 300);
+		persistirLancamento(usuario, TipoLancamento.DESPESA, 120);
+		persistirLancamento(usuario, TipoLancamento.DESPESA, 30);
+		entityManager.flush();
+		
+		//acao
+		int usuarios = repository.reconstruirPorUsuario(usuario.getId());
+		entityManager.clear();
+		
+		//verificacao
+		SaldoUsuario saldo = entityManager.find(SaldoUsuario.class, usuario.getId());
+		Assertions.assertThat(usuarios).isEqualTo(1);
+		Assertions.assertThat(saldo.getReceitas()).isEqualByComparingTo(BigDecimal.valueOf(300));
+		Assertions.assertThat(saldo.getDespesas()).isEqualByComparingTo(BigDecimal.valueOf(150));
+	}
+	
+	@Test
+	public void deveReconstruirOSaldoAPartirDoFechamentoESomenteDosAnosSeguintes() {
+		
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		persistirLancamento(usuario, 2019, TipoLancamento.RECEITA, 300);
+		persistirLancamento(usuario, 2020, TipoLancamento.RECEITA, 40);
+		persistirLancamento(usuario, 2021, TipoLancamento.DESPESA, 10);
+		entityManager.flush();
+		
+		//acao
+		int usuarios = repository.reconstruirPorUsuarioAposFechamento(usuario.getId(), 2019, BigDecimal.valueOf(1000), BigDecimal.valueOf(200));
+		entityManager.clear();
+		
+		//verificacao
+		SaldoUsuario saldo = entityManager.find(SaldoUsuario.class, usuario.getId());
+		Assertions.assertThat(usuarios).isEqualTo(1);
+		Assertions.assertThat(saldo.getReceitas()).isEqualByComparingTo(BigDecimal.valueOf(1040));
+		Assertions.assertThat(saldo.getDespesas()).isEqualByComparingTo(BigDecimal.valueOf(210));
+	}
+	
+	@Test
+	public void naoDeveReconstruirQuandoOUsuarioJaPossuiSaldo() {
+		
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		entityManager.persist(new SaldoUsuario(usuario.getId(), BigDecimal.valueOf(100), BigDecimal.valueOf(40)));
+		persistirLancamento(usuario, TipoLancamento.RECEITA, 300);
+		entityManager.flush();
+		
+		//acao
+		int usuarios = repository.reconstruirPorUsuario(usuario.getId());
+		entityManager.clear();
+		
+		//verificacao
+		SaldoUsuario saldo = entityManager.find(SaldoUsuario.class, usuario.getId());
+		Assertions.assertThat(usuarios).isZero();
+		Assertions.assertThat(saldo.getReceitas()).isEqualByComparingTo(BigDecimal.valueOf(100));
+	}
+	
+	private void persistirLancamento(Usuario usuario, TipoLancamento tipo, int valor) {
+		persistirLancamento(usuario, 2020, tipo, valor);
+	}
+	
+	private void persistirLancamento(Usuario usuario, int ano, TipoLancamento tipo, int valor) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setAno(ano);
+		lancamento.setTipo(tipo);
+		lancamento.setValor(BigDecimal.valueOf(valor));
+		entityManager.persist(lancamento);
+	}
+}
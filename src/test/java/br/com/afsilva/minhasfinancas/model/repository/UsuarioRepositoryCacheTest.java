@@ -0,0 +1,68 @@
+package br.com.afsilva.minhasfinancas.model.repository;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.afsilva.minhasfinancas.config.CacheConfig;
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.service.UsuarioService;
+import br.com.afsilva.minhasfinancas.service.imp.FiltroBloomEmails;
+import br.com.afsilva.minhasfinancas.service.imp.UsuarioServiceImp;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("teste")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ CacheConfig.class, UsuarioServiceImp.class, FiltroBloomEmails.class })
+// @DataJpaTest desliga o cache; aqui ele é o que se quer verificar.
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+public class UsuarioRepositoryCacheTest {
+
+	@Autowired
+	UsuarioRepository repository;
+
+	@Autowired
+	UsuarioService service;
+
+	@Autowired
+	CacheManager cacheManager;
+
+	@AfterEach
+	public void limpar() {
+		repository.deleteAllInBatch();
+		cacheManager.getCache(CacheConfig.USUARIOS_POR_EMAIL).clear();
+	}
+
+	@Test
+	public void deveAutenticarPeloCacheDaConsultaPorEmail() {
+
+		//cenario
+		repository.save(new Usuario("usuario", "login@email.com", "senha"));
+		service.autenticar("login@email.com", "senha");
+
+		// Exclusão em lote não passa pelo cache: a segunda autenticação não volta ao banco.
+		repository.deleteAllInBatch();
+
+		//execucao
+		Usuario usuario = service.autenticar("login@email.com", "senha");
+
+		//verificacao
+		Assertions.assertThat(usuario.getEmail()).isEqualTo("login@email.com");
+		Assertions.assertThat(repository.count()).isZero();
+	}
+}
@@ -9,6 +9,7 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -46,6 +47,18 @@ public class UsuarioRepositoryTest {
 			
 	}
 	
+	@Test
+	public void naoDevePermitirDoisUsuariosComOMesmoEmail() {
+		
+		//Cenario
+		repository.save(criarUsuario());
+		
+		//acao e verificacao
+		Assertions.assertThatThrownBy(() -> repository.save(criarUsuario()))
+			.isInstanceOf(DataIntegrityViolationException.class)
+			.hasStackTraceContaining("UK_USUARIO_EMAIL");
+	}
+	
 	@Test
 	public void deveRetornarFalsoQuandoNaoHouverUsuarioCadastradoComOEmail() {
 		
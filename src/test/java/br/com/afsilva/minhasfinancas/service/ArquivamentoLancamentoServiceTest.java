@@ -0,0 +1,139 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.repository.LancamentoArquivadoRepository;
+import br.com.afsilva.minhasfinancas.service.imp.ArquivamentoLancamentoServiceImp;
+import br.com.afsilva.minhasfinancas.service.imp.IndiceTrigramasDescricao;
+
+public class ArquivamentoLancamentoServiceTest {
+
+	static final Clock RELOGIO = Clock.fixed(Instant.parse("2021-03-10T12:00:00Z"), ZoneOffset.UTC);
+
+	LancamentoArquivadoRepository repository = Mockito.mock(LancamentoArquivadoRepository.class);
+	IndiceTrigramasDescricao indiceDescricao = Mockito.mock(IndiceTrigramasDescricao.class);
+	VersaoDadosService versaoDados = Mockito.mock(VersaoDadosService.class);
+	ApplicationEventPublisher eventos = Mockito.mock(ApplicationEventPublisher.class);
+	PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+
+	@Test
+	public void deveArquivarEmLotesAteUmLoteIncompleto() {
+
+		//cenario
+		ArquivamentoLancamentoService service = criarService(true, 2);
+		Mockito.when(repository.bloquearArquivaveis(2011, 2021, 0l, 2))
+			.thenReturn(linhas(new Object[] {1l, 10l}, new Object[] {2l, 20l}));
+		Mockito.when(repository.bloquearArquivaveis(2011, 2021, 2l, 2))
+			.thenReturn(linhas(new Object[] {3l, 10l}));
+
+		//execucao
+		int total = service.arquivar();
+
+		//verificacao
+		Assertions.assertEquals(3, total);
+		Mockito.verify(repository).bloquearArquivaveis(2011, 2021, 0l, 2);
+		Mockito.verify(repository).bloquearArquivaveis(2011, 2021, 2l, 2);
+		Mockito.verify(repository).copiar(Arrays.asList(1l, 2l), LocalDateTime.now(RELOGIO));
+		Mockito.verify(repository).excluirAtivos(Arrays.asList(1l, 2l));
+		Mockito.verify(repository).copiar(Arrays.asList(3l), LocalDateTime.now(RELOGIO));
+		Mockito.verify(repository).excluirAtivos(Arrays.asList(3l));
+		Mockito.verify(transactionManager, Mockito.times(2)).commit(Mockito.any());
+	}
+
+	@Test
+	public void deveRetirarDoIndiceEAvisarAsListasDosUsuarios() {
+
+		//cenario
+		ArquivamentoLancamentoService service = criarService(true, 10);
+		Mockito.when(repository.bloquearArquivaveis(2011, 2021, 0l, 10))
+			.thenReturn(linhas(new Object[] {1l, 10l}, new Object[] {2l, 20l}, new Object[] {3l, 10l}));
+
+		//execucao
+		service.arquivar();
+
+		//verificacao
+		Mockito.verify(indiceDescricao).remover(10l, Arrays.asList(1l, 3l));
+		Mockito.verify(indiceDescricao).remover(20l, Arrays.asList(2l));
+		Mockito.verify(versaoDados).incrementar(Mockito.argThat(ids -> ids.size() == 2 && ids.containsAll(Arrays.asList(10l, 20l))));
+
+		ArgumentCaptor<LancamentosAlterados> evento = ArgumentCaptor.forClass(LancamentosAlterados.class);
+		Mockito.verify(eventos).publishEvent(evento.capture());
+		Assertions.assertEquals(2, evento.getValue().getIdsUsuario().size());
+	}
+
+	@Test
+	public void naoDeveAlterarNadaSemLancamentosArquivaveis() {
+
+		//cenario
+		ArquivamentoLancamentoService service = criarService(true, 10);
+		Mockito.when(repository.bloquearArquivaveis(2011, 2021, 0l, 10)).thenReturn(Collections.emptyList());
+
+		//execucao
+		int total = service.arquivar();
+
+		//verificacao
+		Assertions.assertEquals(0, total);
+		Mockito.verify(repository, Mockito.never()).copiar(Mockito.any(), Mockito.any());
+		Mockito.verifyNoInteractions(versaoDados, eventos, indiceDescricao);
+	}
+
+	@Test
+	public void deveUsarOHorizonteTambemParaCanceladosQuandoDesligado() {
+
+		//cenario
+		ArquivamentoLancamentoService service = criarService(false, 10);
+		Mockito.when(repository.bloquearArquivaveis(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(Collections.emptyList());
+
+		//execucao
+		service.arquivar();
+
+		//verificacao
+		Mockito.verify(repository).bloquearArquivaveis(2011, 2011, 0l, 10);
+	}
+
+	@Test
+	public void deveAlcancarOArquivoSoNosAnosQuePodemTerArquivados() {
+
+		//cenario
+		ArquivamentoLancamentoService comCancelados = criarService(true, 10);
+		ArquivamentoLancamentoService semCancelados = criarService(false, 10);
+
+		//verificacao
+		Assertions.assertTrue(comCancelados.alcancaArquivo(filtro(2020)));
+		Assertions.assertFalse(comCancelados.alcancaArquivo(filtro(2021)));
+		Assertions.assertFalse(comCancelados.alcancaArquivo(filtro(null)));
+		Assertions.assertTrue(semCancelados.alcancaArquivo(filtro(2010)));
+		Assertions.assertFalse(semCancelados.alcancaArquivo(filtro(2011)));
+	}
+
+	private ArquivamentoLancamentoService criarService(boolean cancelados, int tamanhoLote) {
+		return new ArquivamentoLancamentoServiceImp(repository, indiceDescricao, versaoDados, eventos, transactionManager,
+				false, 10, cancelados, tamanhoLote, Duration.ofHours(1), RELOGIO);
+	}
+
+	private static List<Object[]> linhas(Object[]... linhas) {
+		return new ArrayList<>(Arrays.asList(linhas));
+	}
+
+	private static Lancamento filtro(Integer ano) {
+		Lancamento filtro = new Lancamento();
+		filtro.setAno(ano);
+		return filtro;
+	}
+}
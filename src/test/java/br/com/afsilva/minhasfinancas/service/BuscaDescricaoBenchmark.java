@@ -0,0 +1,135 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.projection.LancamentoResumo;
+import br.com.afsilva.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.afsilva.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.afsilva.minhasfinancas.util.TextoNormalizado;
+
+/**
+ * Latência da busca por descrição conforme o tamanho da tabela: varredura com
+ * {@code lower(descricao) like '%termo%'} (caminho antigo) contra o índice de trigramas.
+ * Executado apenas com {@code mvn test -Pbenchmark}.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("teste")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import(ServicosLancamento.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BuscaDescricaoBenchmark {
+
+	private static final Logger log = LoggerFactory.getLogger(BuscaDescricaoBenchmark.class);
+	
+	private static final int[] TAMANHOS = { 1_000, 10_000, 50_000, 100_000 };
+	private static final List<String> PALAVRAS = Arrays.asList(
+			"mercado", "aluguel", "energia", "internet", "salário", "combustível", "restaurante", "academia");
+	private static final String TERMO = "Farmácia";
+	private static final int AQUECIMENTO = 5;
+	private static final int MEDICOES = 21;
+	private static final long PRIMEIRO_ID = 10_000_000L;
+	
+	@Autowired
+	LancamentoService service;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+	
+	@Autowired
+	DataSource dataSource;
+	
+	@AfterEach
+	public void limparTabelas() {
+		lancamentoRepository.deleteAllInBatch();
+		usuarioRepository.deleteAllInBatch();
+	}
+	
+	@Test
+	public void medirLatenciaPorTamanhoDaTabela() {
+		
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		StringBuilder relatorio = new StringBuilder(String.format("%n%10s %12s %12s%n", "linhas", "antes (ms)", "depois (ms)"));
+		
+		int inseridas = 0;
+		for (int tamanho : TAMANHOS) {
+			Usuario usuario = usuarioRepository.save(new Usuario("usuario", "benchmark" + tamanho + "@email.com", "teste"));
+			popular(jdbc, usuario.getId(), inseridas, tamanho);
+			inseridas += tamanho;
+			
+			Lancamento filtro = new Lancamento();
+			filtro.setUsuario(usuario);
+			filtro.setDescricao(TERMO);
+			
+			List<Long> antes = jdbc.queryForList("select id from financas.lancamento where id_usuario = ? "
+					+ "and lower(descricao) like ?", Long.class, usuario.getId(), "%" + TERMO.toLowerCase() + "%");
+			List<Long> depois = service.buscar(filtro).stream().map(LancamentoResumo::getId).collect(Collectors.toList());
+			Assertions.assertThat(depois).containsExactlyInAnyOrderElementsOf(antes);
+			
+			double varredura = medianaEmMs(() -> jdbc.queryForList(
+					"select * from financas.lancamento where id_usuario = ? and lower(descricao) like ?",
+					usuario.getId(), "%" + TERMO.toLowerCase() + "%"));
+			double indice = medianaEmMs(() -> service.buscar(filtro));
+			
+			relatorio.append(String.format("%10d %12.3f %12.3f%n", tamanho, varredura, indice));
+		}
+		
+		log.info("{}", relatorio);
+	}
+	
+	private void popular(JdbcTemplate jdbc, Long idUsuario, int deslocamento, int quantidade) {
+		
+		List<Object[]> linhas = new ArrayList<>(quantidade);
+		for (int i = 0; i < quantidade; i++) {
+			// Cerca de 0,1% das linhas contém o termo buscado.
+			String descricao = (i % 1000 == 0 ? TERMO : PALAVRAS.get(i % PALAVRAS.size())) + " " + i;
+			linhas.add(new Object[] { PRIMEIRO_ID + deslocamento + i, descricao, TextoNormalizado.normalizar(descricao),
+					i % 12 + 1, 2000 + i % 20, idUsuario });
+		}
+		jdbc.batchUpdate("insert into financas.lancamento (id, descricao, descricao_normalizada, mes, ano, id_usuario, "
+				+ "valor, tipo, status) values (?, ?, ?, ?, ?, ?, 10, 'DESPESA', 'PENDENTE')", linhas);
+	}
+	
+	private double medianaEmMs(Runnable busca) {
+		
+		for (int i = 0; i < AQUECIMENTO; i++) {
+			busca.run();
+		}
+		
+		long[] tempos = new long[MEDICOES];
+		for (int i = 0; i < MEDICOES; i++) {
+			long inicio = System.nanoTime();
+			busca.run();
+			tempos[i] = System.nanoTime() - inicio;
+		}
+		Arrays.sort(tempos);
+		return tempos[MEDICOES / 2] / 1_000_000.0;
+	}
+}
@@ -0,0 +1,107 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import br.com.afsilva.minhasfinancas.model.enums.FormatoExportacao;
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import br.com.afsilva.minhasfinancas.model.projection.LancamentoResumo;
+import br.com.afsilva.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.afsilva.minhasfinancas.service.imp.ExportacaoLancamentoServiceImp;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("teste")
+public class ExportacaoLancamentoServiceTest {
+
+	@MockBean
+	LancamentoRepository repository;
+	
+	ExportacaoLancamentoServiceImp service;
+	
+	@BeforeEach
+	public void setUp() {
+		ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+		service = new ExportacaoLancamentoServiceImp(repository, objectMapper);
+	}
+	
+	@Test
+	public void deveExportarUmaLinhaJsonPorLancamento() throws Exception {
+		
+		//cenario
+		Mockito.when(repository.streamPorUsuario(1l)).thenReturn(Stream.of(criarLinha(1l, "Aluguel"), criarLinha(2l, "Luz")));
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		
+		//execucao
+		long total = service.exportar(1l, FormatoExportacao.NDJSON, saida);
+		
+		//verificacao
+		String[] linhas = saida.toString(StandardCharsets.UTF_8.name()).split("\n");
+		Assertions.assertEquals(2, total);
+		Assertions.assertEquals(2, linhas.length);
+		Assertions.assertTrue(linhas[0].startsWith("{\"id\":1,\"descricao\":\"Aluguel\""));
+		Assertions.assertTrue(linhas[1].contains("\"dataCadastro\":\"2020-03-10\""));
+	}
+	
+	@Test
+	public void deveExportarCsvEscapandoADescricao() throws Exception {
+		
+		//cenario
+		Mockito.when(repository.streamPorUsuario(1l)).thenReturn(Stream.of(criarLinha(1l, "Mercado, \"feira\"")));
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		
+		//execucao
+		service.exportar(1l, FormatoExportacao.CSV, saida);
+		
+		//verificacao
+		String[] linhas = saida.toString(StandardCharsets.UTF_8.name()).split("\n");
+		Assertions.assertEquals("id,descricao,mes,ano,valor,tipo,status,data_cadastro,usuario", linhas[0]);
+		Assertions.assertEquals("1,\"Mercado, \"\"feira\"\"\",3,2020,150.50,DESPESA,PENDENTE,2020-03-10,1", linhas[1]);
+	}
+	
+	@Test
+	public void deveIntercalarOsArquivadosNaOrdemAnoMesId() throws Exception {
+		
+		//cenario
+		Mockito.when(repository.streamPorUsuario(1l)).thenReturn(Stream.of(criarLinha(5l, 2020, 3), criarLinha(9l, 2021, 1)));
+		Mockito.when(repository.streamArquivadosPorUsuario(1l)).thenReturn(Stream.of(criarLinha(2l, 2009, 7), criarLinha(7l, 2020, 3)));
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		
+		//execucao
+		long total = service.exportar(1l, FormatoExportacao.CSV, saida);
+		
+		//verificacao
+		String[] linhas = saida.toString(StandardCharsets.UTF_8.name()).split("\n");
+		Assertions.assertEquals(4, total);
+		Assertions.assertTrue(linhas[1].startsWith("2,"));
+		Assertions.assertTrue(linhas[2].startsWith("5,"));
+		Assertions.assertTrue(linhas[3].startsWith("7,"));
+		Assertions.assertTrue(linhas[4].startsWith("9,"));
+	}
+	
+	private LancamentoResumo criarLinha(Long id, int ano, int mes) {
+		return new LancamentoResumo(id, "Conta", mes, ano, BigDecimal.TEN, TipoLancamento.DESPESA,
+				StatusLancamento.PENDENTE, LocalDate.of(ano, mes, 10), 1l);
+	}
+	
+	private LancamentoResumo criarLinha(Long id, String descricao) {
+		return new LancamentoResumo(id, descricao, 3, 2020, new BigDecimal("150.50"), TipoLancamento.DESPESA,
+				StatusLancamento.PENDENTE, LocalDate.of(2020, 3, 10), 1l);
+	}
+}
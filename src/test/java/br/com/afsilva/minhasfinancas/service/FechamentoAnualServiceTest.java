@@ -0,0 +1,87 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import br.com.afsilva.minhasfinancas.exception.RegraNegocioException;
+import br.com.afsilva.minhasfinancas.model.entity.ResumoMensalId;
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import br.com.afsilva.minhasfinancas.model.repository.FechamentoAnualRepository;
+import br.com.afsilva.minhasfinancas.service.imp.FechamentoAnualServiceImp;
+
+public class FechamentoAnualServiceTest {
+
+	static final Clock RELOGIO = Clock.fixed(Instant.parse("2021-03-10T12:00:00Z"), ZoneOffset.UTC);
+
+	FechamentoAnualRepository repository = Mockito.mock(FechamentoAnualRepository.class);
+	
+	FechamentoAnualService service = new FechamentoAnualServiceImp(repository, RELOGIO);
+	
+	@Test
+	public void deveRefazerOFechamentoDeUmAnoEncerrado() {
+		
+		//execucao
+		service.fechar(1l, 2020);
+		
+		//verificacao
+		Mockito.verify(repository).excluirPorUsuarioEAno(1l, 2020);
+		Mockito.verify(repository).fecharPorUsuario(1l, 2020, LocalDateTime.now(RELOGIO));
+	}
+	
+	@Test
+	public void naoDeveFecharOAnoCorrente() {
+		
+		//execucao
+		Assertions.assertThrows(RegraNegocioException.class, () -> service.fecharTodos(2021));
+		
+		//verificacao
+		Mockito.verify(repository, Mockito.never()).fecharTodos(Mockito.anyInt(), Mockito.any());
+	}
+	
+	@Test
+	public void deveAjustarUmaVezPorUsuarioEAnoEncerrado() {
+		
+		//cenario
+		MovimentacaoResumo movimentacao = new MovimentacaoResumo()
+				.registrar(celula(1l, 2019, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE), BigDecimal.valueOf(100), 1)
+				.registrar(celula(1l, 2019, 7, TipoLancamento.DESPESA, StatusLancamento.PENDENTE), BigDecimal.valueOf(-30), -1)
+				.registrar(celula(1l, 2019, 7, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO), BigDecimal.valueOf(50), 1)
+				.registrar(celula(2l, 2020, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE), BigDecimal.valueOf(10), 1);
+		
+		//execucao
+		service.ajustar(movimentacao);
+		
+		//verificacao
+		Mockito.verify(repository).ajustar(1l, 2019, BigDecimal.valueOf(50), BigDecimal.valueOf(70));
+		Mockito.verify(repository).ajustar(2l, 2020, BigDecimal.valueOf(10), BigDecimal.ZERO);
+		Mockito.verifyNoMoreInteractions(repository);
+	}
+	
+	@Test
+	public void naoDeveAjustarOAnoCorrenteNemMudancasSoDeStatus() {
+		
+		//cenario
+		MovimentacaoResumo movimentacao = new MovimentacaoResumo()
+				.registrar(celula(1l, 2021, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE), BigDecimal.valueOf(100), 1)
+				.registrar(celula(1l, 2019, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE), BigDecimal.valueOf(-40), -1)
+				.registrar(celula(1l, 2019, 3, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO), BigDecimal.valueOf(40), 1);
+		
+		//execucao
+		service.ajustar(movimentacao);
+		
+		//verificacao
+		Mockito.verifyNoInteractions(repository);
+	}
+	
+	private static ResumoMensalId celula(Long idUsuario, int ano, int mes, TipoLancamento tipo, StatusLancamento status) {
+		return new ResumoMensalId(idUsuario, ano, mes, tipo, status);
+	}
+}
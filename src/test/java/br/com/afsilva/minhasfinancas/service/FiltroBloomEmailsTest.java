@@ -0,0 +1,62 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import br.com.afsilva.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.afsilva.minhasfinancas.service.imp.FiltroBloomEmails;
+
+public class FiltroBloomEmailsTest {
+	
+	UsuarioRepository repository = Mockito.mock(UsuarioRepository.class);
+	
+	FiltroBloomEmails filtro = new FiltroBloomEmails(repository, 10_000, 0.01);
+	
+	@Test
+	public void naoDeveGarantirAusenciaAntesDoAquecimento() {
+		
+		Assertions.assertThat(filtro.isPronto()).isFalse();
+		Assertions.assertThat(filtro.isCertamenteAusente("novo@email.com")).isFalse();
+	}
+	
+	@Test
+	public void naoDeveTerFalsoNegativoParaEmailsCadastrados() {
+		
+		Mockito.when(repository.streamEmails()).thenReturn(IntStream.range(0, 5_000).mapToObj(i -> "usuario" + i + "@email.com"));
+		filtro.aquecer();
+		filtro.adicionar("cadastrado.depois@email.com");
+		
+		Assertions.assertThat(filtro.isPronto()).isTrue();
+		Assertions.assertThat(IntStream.range(0, 5_000).mapToObj(i -> "usuario" + i + "@email.com"))
+			.noneMatch(filtro::isCertamenteAusente);
+		Assertions.assertThat(filtro.isCertamenteAusente("cadastrado.depois@email.com")).isFalse();
+	}
+	
+	@Test
+	public void deveManterATaxaDeFalsoPositivoProximaDaConfigurada() {
+		
+		Mockito.when(repository.streamEmails()).thenReturn(IntStream.range(0, 10_000).mapToObj(i -> "usuario" + i + "@email.com"));
+		filtro.aquecer();
+		
+		long falsosPositivos = IntStream.range(0, 100_000)
+				.mapToObj(i -> "novo" + i + "@outro.com")
+				.filter(email -> !filtro.isCertamenteAusente(email))
+				.count();
+		
+		Assertions.assertThat(falsosPositivos / 100_000.0).isLessThan(0.02);
+	}
+	
+	@Test
+	public void deveIgnorarEmailNulo() {
+		
+		Mockito.when(repository.streamEmails()).thenReturn(Stream.empty());
+		filtro.aquecer();
+		filtro.adicionar(null);
+		
+		Assertions.assertThat(filtro.isCertamenteAusente(null)).isFalse();
+	}
+}
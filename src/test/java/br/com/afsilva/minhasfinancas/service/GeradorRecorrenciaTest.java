@@ -0,0 +1,51 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.enums.Recorrencia;
+
+public class GeradorRecorrenciaTest {
+
+	@Test
+	public void deveRepetirOValorMensalmenteVirandoOAno() {
+		
+		//cenario
+		Lancamento modelo = LancametoServiceTest.criarLancamento();
+		modelo.setMes(11);
+		
+		//execucao
+		List<Lancamento> lancamentos = GeradorRecorrencia.gerar(modelo, Recorrencia.MENSAL, 3);
+		
+		//verificacao
+		Assertions.assertEquals(3, lancamentos.size());
+		Assertions.assertEquals(12, lancamentos.get(1).getMes());
+		Assertions.assertEquals(1, lancamentos.get(2).getMes());
+		Assertions.assertEquals(2021, lancamentos.get(2).getAno());
+		Assertions.assertEquals(modelo.getValor(), lancamentos.get(2).getValor());
+		Assertions.assertEquals(modelo.getDescricao(), lancamentos.get(2).getDescricao());
+		Assertions.assertSame(modelo.getUsuario(), lancamentos.get(2).getUsuario());
+	}
+	
+	@Test
+	public void deveDividirOTotalEmParcelasQueSomamOTotal() {
+		
+		//cenario
+		Lancamento modelo = LancametoServiceTest.criarLancamento();
+		modelo.setValor(new BigDecimal("100.00"));
+		
+		//execucao
+		List<Lancamento> lancamentos = GeradorRecorrencia.gerar(modelo, Recorrencia.PARCELADA, 3);
+		
+		//verificacao
+		Assertions.assertEquals(new BigDecimal("33.34"), lancamentos.get(0).getValor());
+		Assertions.assertEquals(new BigDecimal("33.33"), lancamentos.get(2).getValor());
+		Assertions.assertEquals(new BigDecimal("100.00"),
+				lancamentos.stream().map(Lancamento::getValor).reduce(BigDecimal.ZERO, BigDecimal::add));
+		Assertions.assertEquals("Testes de Servico (3/3)", lancamentos.get(2).getDescricao());
+	}
+}
@@ -0,0 +1,208 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import br.com.afsilva.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.afsilva.minhasfinancas.model.repository.ResumoMensalRepository;
+import br.com.afsilva.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import br.com.afsilva.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.afsilva.minhasfinancas.service.imp.GravacaoAgrupadaServiceImp;
+import br.com.afsilva.minhasfinancas.service.imp.LancamentoServiceImp;
+
+/**
+ * Vazão de lançamentos gravados por segundo com vários clientes simultâneos: uma
+ * transação por lançamento (caminho atual) contra a fila de gravação agrupada.
+ * Executado apenas com {@code mvn test -Pbenchmark}.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("teste")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import(ServicosLancamento.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class GravacaoAgrupadaBenchmark {
+
+	private static final Logger log = LoggerFactory.getLogger(GravacaoAgrupadaBenchmark.class);
+	
+	private static final int[] CLIENTES = { 1, 8, 32 };
+	private static final int LANCAMENTOS_POR_CLIENTE = 500;
+	private static final int TAMANHO_LOTE = 100;
+	private static final Duration ESPERA_MAXIMA = Duration.ofMillis(2);
+	private static final int SEMENTES = 24;
+	
+	@Autowired
+	LancamentoService service;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+	
+	@Autowired
+	SaldoUsuarioRepository saldoRepository;
+	
+	@Autowired
+	ResumoMensalRepository resumoRepository;
+	
+	@AfterEach
+	public void limparTabelas() {
+		saldoRepository.deleteAllInBatch();
+		resumoRepository.deleteAllInBatch();
+		lancamentoRepository.deleteAllInBatch();
+		usuarioRepository.deleteAllInBatch();
+	}
+	
+	@Test
+	public void medirVazaoPorNumeroDeClientes() throws Exception {
+		
+		StringBuilder relatorio = new StringBuilder(String.format("%n%8s %18s %18s %10s%n",
+				"clientes", "direto (lanc/s)", "agrupado (lanc/s)", "commits"));
+		
+		for (int clientes : CLIENTES) {
+			Usuario usuario = usuarioRepository.save(new Usuario("usuario", "gravacao" + clientes + "@email.com", "teste"));
+			semear(usuario);
+			
+			// Aquecimento do caminho direto e do agrupado.
+			medir(clientes, usuario, service::salvar);
+			GravacaoAgrupadaServiceImp agrupada = new GravacaoAgrupadaServiceImp(service, true, TAMANHO_LOTE, ESPERA_MAXIMA, 10_000);
+			agrupada.iniciar();
+			
+			try {
+				medir(clientes, usuario, agrupada::salvar);
+				
+				double direto = medir(clientes, usuario, service::salvar);
+				ContadorLotes lotes = new ContadorLotes(service);
+				GravacaoAgrupadaServiceImp contada = new GravacaoAgrupadaServiceImp(lotes, true, TAMANHO_LOTE, ESPERA_MAXIMA, 10_000);
+				contada.iniciar();
+				double agrupado;
+				try {
+					agrupado = medir(clientes, usuario, contada::salvar);
+				} finally {
+					contada.parar();
+				}
+				
+				relatorio.append(String.format("%8d %18.0f %18.0f %10d%n", clientes, direto, agrupado, lotes.commits.get()));
+				
+			} finally {
+				agrupada.parar();
+			}
+		}
+		
+		Assertions.assertThat(lancamentoRepository.count())
+			.isEqualTo(CLIENTES.length * SEMENTES + 4L * LANCAMENTOS_POR_CLIENTE * (CLIENTES[0] + CLIENTES[1] + CLIENTES[2]));
+		log.info("{}", relatorio);
+	}
+	
+	/**
+	 * Cria antes da medição o saldo e as células do resumo que a carga vai movimentar: a
+	 * primeira gravação de cada linha é uma reconstrução, que não é o que se quer medir.
+	 */
+	private void semear(Usuario usuario) {
+		
+		List<Lancamento> sementes = new ArrayList<>();
+		for (int i = 0; i < SEMENTES; i++) {
+			sementes.add(criarLancamento(usuario, i));
+		}
+		service.salvarTodos(sementes);
+	}
+	
+	/**
+	 * @return lançamentos gravados por segundo.
+	 */
+	private double medir(int clientes, Usuario usuario, Gravacao gravacao) throws Exception {
+		
+		ExecutorService executor = Executors.newFixedThreadPool(clientes);
+		try {
+			long inicio = System.nanoTime();
+			List<Future<?>> envios = new ArrayList<>();
+			for (int c = 0; c < clientes; c++) {
+				envios.add(executor.submit(() -> {
+					for (int i = 0; i < LANCAMENTOS_POR_CLIENTE; i++) {
+						gravacao.salvar(criarLancamento(usuario, i));
+					}
+				}));
+			}
+			for (Future<?> envio : envios) {
+				envio.get();
+			}
+			return clientes * LANCAMENTOS_POR_CLIENTE / ((System.nanoTime() - inicio) / 1_000_000_000.0);
+			
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	private static Lancamento criarLancamento(Usuario usuario, int i) {
+		
+		Lancamento lancamento = new Lancamento();
+		lancamento.setDescricao("lançamento " + i);
+		lancamento.setMes(i % 12 + 1);
+		lancamento.setAno(2020);
+		lancamento.setValor(BigDecimal.TEN);
+		lancamento.setTipo(i % 2 == 0 ? TipoLancamento.RECEITA : TipoLancamento.DESPESA);
+		lancamento.setUsuario(usuario);
+		return lancamento;
+	}
+	
+	private interface Gravacao {
+		Lancamento salvar(Lancamento lancamento);
+	}
+	
+	/**
+	 * Conta as transações abertas pela fila; o restante delega ao serviço real.
+	 */
+	private static final class ContadorLotes extends LancamentoServiceImp {
+		
+		private final LancamentoService service;
+		private final AtomicLong commits = new AtomicLong();
+		
+		private ContadorLotes(LancamentoService service) {
+			super(null, null, null, null, null, null, null, null);
+			this.service = service;
+		}
+		
+		@Override
+		public List<Lancamento> salvarTodos(List<Lancamento> lancamentos) {
+			commits.incrementAndGet();
+			return service.salvarTodos(lancamentos);
+		}
+		
+		@Override
+		public Lancamento salvar(Lancamento lancamento) {
+			commits.incrementAndGet();
+			return service.salvar(lancamento);
+		}
+		
+		@Override
+		public void validar(Lancamento lancamento) {
+			service.validar(lancamento);
+		}
+	}
+}
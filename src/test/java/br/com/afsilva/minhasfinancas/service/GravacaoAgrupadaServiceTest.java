@@ -0,0 +1,110 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import br.com.afsilva.minhasfinancas.exception.RegraNegocioException;
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.service.imp.GravacaoAgrupadaServiceImp;
+
+public class GravacaoAgrupadaServiceTest {
+
+	LancamentoService lancamentoService = Mockito.mock(LancamentoService.class);
+	GravacaoAgrupadaServiceImp service;
+	
+	@AfterEach
+	public void parar() throws InterruptedException {
+		if (service != null) {
+			service.parar();
+		}
+	}
+	
+	@Test
+	public void deveGravarEnviosSimultaneosNumUnicoLote() throws Exception {
+		
+		//cenario
+		iniciar(4, Duration.ofSeconds(5));
+		Mockito.when(lancamentoService.salvarTodos(Mockito.anyList())).thenAnswer(invocacao -> invocacao.getArgument(0));
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		
+		try {
+			//execucao
+			List<Future<Lancamento>> respostas = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				Lancamento lancamento = LancametoServiceTest.criarLancamento();
+				respostas.add(executor.submit(() -> service.salvar(lancamento)));
+			}
+			
+			//verificacao
+			for (Future<Lancamento> resposta : respostas) {
+				Assertions.assertNotNull(resposta.get(5, TimeUnit.SECONDS));
+			}
+			Mockito.verify(lancamentoService, Mockito.times(1)).salvarTodos(Mockito.argThat(lancamentos -> lancamentos.size() == 4));
+			Mockito.verify(lancamentoService, Mockito.never()).salvar(Mockito.any());
+			
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	@Test
+	public void deveRegravarUmAUmQuandoOLoteFalha() {
+		
+		//cenario
+		iniciar(1, Duration.ofMillis(1));
+		Lancamento lancamento = LancametoServiceTest.criarLancamento();
+		Mockito.when(lancamentoService.salvarTodos(Mockito.anyList())).thenThrow(new DataIntegrityViolationException("usuário inexistente"));
+		Mockito.when(lancamentoService.salvar(lancamento)).thenThrow(new DataIntegrityViolationException("usuário inexistente"));
+		
+		//execucao e verificacao
+		Assertions.assertThrows(DataIntegrityViolationException.class, () -> service.salvar(lancamento));
+		Mockito.verify(lancamentoService).salvar(lancamento);
+		Assertions.assertNull(lancamento.getId());
+	}
+	
+	@Test
+	public void naoDeveEnfileirarLancamentoInvalido() {
+		
+		//cenario
+		iniciar(1, Duration.ofMillis(1));
+		Lancamento lancamento = LancametoServiceTest.criarLancamento();
+		Mockito.doThrow(RegraNegocioException.class).when(lancamentoService).validar(lancamento);
+		
+		//execucao e verificacao
+		Assertions.assertThrows(RegraNegocioException.class, () -> service.salvar(lancamento));
+		Mockito.verify(lancamentoService, Mockito.never()).salvarTodos(Mockito.anyList());
+	}
+	
+	@Test
+	public void deveGravarDiretamenteQuandoInativa() {
+		
+		//cenario
+		service = new GravacaoAgrupadaServiceImp(lancamentoService, false, 10, Duration.ofMillis(1), 10);
+		service.iniciar();
+		Lancamento lancamento = LancametoServiceTest.criarLancamento();
+		Mockito.when(lancamentoService.salvar(lancamento)).thenReturn(lancamento);
+		
+		//execucao
+		Lancamento salvo = service.salvar(lancamento);
+		
+		//verificacao
+		Assertions.assertSame(lancamento, salvo);
+		Mockito.verify(lancamentoService, Mockito.never()).salvarTodos(Mockito.anyList());
+	}
+	
+	private void iniciar(int tamanhoLote, Duration esperaMaxima) {
+		service = new GravacaoAgrupadaServiceImp(lancamentoService, true, tamanhoLote, esperaMaxima, 100);
+		service.iniciar();
+	}
+}
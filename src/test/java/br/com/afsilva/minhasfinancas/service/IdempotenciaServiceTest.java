@@ -0,0 +1,243 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import br.com.afsilva.minhasfinancas.exception.ConflitoIdempotenciaException;
+import br.com.afsilva.minhasfinancas.model.entity.RegistroIdempotencia;
+import br.com.afsilva.minhasfinancas.model.repository.RegistroIdempotenciaRepository;
+import br.com.afsilva.minhasfinancas.service.imp.IdempotenciaServiceImp;
+
+public class IdempotenciaServiceTest {
+
+	static final Clock RELOGIO = Clock.fixed(Instant.parse("2021-03-10T12:00:00Z"), ZoneOffset.UTC);
+
+	IdempotenciaService service = new IdempotenciaServiceImp(Duration.ofHours(24), Duration.ofMinutes(5), 100, null, RELOGIO);
+
+	@Test
+	public void deveRepetirAPrimeiraRespostaSemExecutarDeNovo() {
+
+		//cenario
+		AtomicInteger execucoes = new AtomicInteger();
+
+		//execucao
+		RespostaGravada primeira = service.executar("chave", "a", () -> resposta(execucoes.incrementAndGet()));
+		RespostaGravada segunda = service.executar("chave", "a", () -> resposta(execucoes.incrementAndGet()));
+
+		//verificacao
+		Assertions.assertEquals(1, execucoes.get());
+		Assertions.assertSame(primeira, segunda);
+	}
+
+	@Test
+	public void deveRecusarAChaveComOutraImpressao() {
+
+		//cenario
+		service.executar("chave", "a", () -> resposta(1));
+
+		//execucao
+		ConflitoIdempotenciaException erro = Assertions.assertThrows(ConflitoIdempotenciaException.class,
+				() -> service.executar("chave", "b", () -> resposta(2)));
+
+		//verificacao
+		Assertions.assertFalse(erro.isEmAndamento());
+	}
+
+	@Test
+	public void deveLiberarAChaveQuandoAOperacaoFalha() {
+
+		//cenario
+		Assertions.assertThrows(IllegalStateException.class,
+				() -> service.executar("chave", "a", () -> { throw new IllegalStateException(); }));
+
+		//execucao
+		RespostaGravada resposta = service.executar("chave", "a", () -> resposta(2));
+
+		//verificacao
+		Assertions.assertEquals("2", resposta.getCorpo());
+	}
+
+	@Test
+	public void deveUnirRequisicoesSimultaneasNumaUnicaExecucao() throws Exception {
+
+		//cenario
+		AtomicInteger execucoes = new AtomicInteger();
+		CountDownLatch iniciada = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		try {
+			Future<RespostaGravada> primeira = executor.submit(() -> service.executar("chave", "a", () -> {
+				iniciada.countDown();
+				aguardar(liberar);
+				return resposta(execucoes.incrementAndGet());
+			}));
+			Assertions.assertTrue(iniciada.await(5, TimeUnit.SECONDS));
+
+			//execucao
+			Future<RespostaGravada> segunda = executor.submit(() -> service.executar("chave", "a", () -> resposta(execucoes.incrementAndGet())));
+			Future<RespostaGravada> terceira = executor.submit(() -> service.executar("chave", "a", () -> resposta(execucoes.incrementAndGet())));
+			liberar.countDown();
+
+			//verificacao
+			RespostaGravada resposta = primeira.get(5, TimeUnit.SECONDS);
+			Assertions.assertSame(resposta, segunda.get(5, TimeUnit.SECONDS));
+			Assertions.assertSame(resposta, terceira.get(5, TimeUnit.SECONDS));
+			Assertions.assertEquals(1, execucoes.get());
+
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void deveReservarEConcluirAChaveNoBanco() {
+
+		//cenario
+		RegistroIdempotenciaRepository repository = Mockito.mock(RegistroIdempotenciaRepository.class);
+		IdempotenciaService banco = new IdempotenciaServiceImp(Duration.ofHours(24), Duration.ofMinutes(5), 100, repository, RELOGIO);
+
+		//execucao
+		banco.executar("chave", "a", () -> resposta(1));
+
+		//verificacao
+		Mockito.verify(repository).reservar("chave", "a", LocalDateTime.now(RELOGIO));
+		Mockito.verify(repository).concluir("chave", LocalDateTime.now(RELOGIO), 201, "application/json", "1");
+	}
+
+	@Test
+	public void deveRepetirARespostaGravadaPorOutroNo() {
+
+		//cenario
+		RegistroIdempotenciaRepository repository = Mockito.mock(RegistroIdempotenciaRepository.class);
+		IdempotenciaService banco = new IdempotenciaServiceImp(Duration.ofHours(24), Duration.ofMinutes(5), 100, repository, RELOGIO);
+
+		Mockito.when(repository.reservar(Mockito.anyString(), Mockito.anyString(), Mockito.any()))
+			.thenThrow(new DataIntegrityViolationException("chave duplicada"));
+		Mockito.when(repository.findById("chave")).thenReturn(Optional.of(registro(201, "7")));
+
+		//execucao
+		RespostaGravada resposta = banco.executar("chave", "a", () -> Assertions.fail("não deveria executar"));
+
+		//verificacao
+		Assertions.assertEquals(201, resposta.getStatus());
+		Assertions.assertEquals("7", resposta.getCorpo());
+		Mockito.verify(repository, Mockito.never()).concluir(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	public void deveRecusarAChaveEmAndamentoEmOutroNo() {
+
+		//cenario
+		RegistroIdempotenciaRepository repository = Mockito.mock(RegistroIdempotenciaRepository.class);
+		IdempotenciaService banco = new IdempotenciaServiceImp(Duration.ofHours(24), Duration.ofMinutes(5), 100, repository, RELOGIO);
+
+		Mockito.when(repository.reservar(Mockito.anyString(), Mockito.anyString(), Mockito.any()))
+			.thenThrow(new DataIntegrityViolationException("chave duplicada"));
+		Mockito.when(repository.findById("chave")).thenReturn(Optional.of(registro(null, null)));
+
+		//execucao
+		ConflitoIdempotenciaException erro = Assertions.assertThrows(ConflitoIdempotenciaException.class,
+				() -> banco.executar("chave", "a", () -> resposta(1)));
+
+		//verificacao
+		Assertions.assertTrue(erro.isEmAndamento());
+	}
+
+	@Test
+	public void deveRetomarAReservaAbandonadaPorOutroNo() {
+
+		//cenario
+		RegistroIdempotenciaRepository repository = Mockito.mock(RegistroIdempotenciaRepository.class);
+		IdempotenciaService banco = new IdempotenciaServiceImp(Duration.ofHours(24), Duration.ofSeconds(30), 100, repository, RELOGIO);
+
+		Mockito.when(repository.reservar(Mockito.anyString(), Mockito.anyString(), Mockito.any()))
+			.thenThrow(new DataIntegrityViolationException("chave duplicada"))
+			.thenReturn(1);
+		Mockito.when(repository.findById("chave")).thenReturn(Optional.of(registro(null, null)));
+
+		//execucao
+		RespostaGravada resposta = banco.executar("chave", "a", () -> resposta(1));
+
+		//verificacao
+		Assertions.assertEquals("1", resposta.getCorpo());
+		Mockito.verify(repository).liberarAbandonada("chave", LocalDateTime.now(RELOGIO).minusSeconds(30));
+		Mockito.verify(repository, Mockito.never()).liberar(Mockito.anyString(), Mockito.any());
+		Mockito.verify(repository).concluir("chave", LocalDateTime.now(RELOGIO), 201, "application/json", "1");
+	}
+
+	@Test
+	public void deveDescartarSoORegistroVencidoAoReservar() {
+
+		//cenario
+		RegistroIdempotenciaRepository repository = Mockito.mock(RegistroIdempotenciaRepository.class);
+		IdempotenciaService banco = new IdempotenciaServiceImp(Duration.ofSeconds(30), Duration.ofSeconds(30), 100, repository, RELOGIO);
+
+		Mockito.when(repository.reservar(Mockito.anyString(), Mockito.anyString(), Mockito.any()))
+			.thenThrow(new DataIntegrityViolationException("chave duplicada"))
+			.thenReturn(1);
+		Mockito.when(repository.findById("chave")).thenReturn(Optional.of(registro(201, "7")));
+
+		//execucao
+		RespostaGravada resposta = banco.executar("chave", "a", () -> resposta(1));
+
+		//verificacao
+		Assertions.assertEquals("1", resposta.getCorpo());
+		Mockito.verify(repository).liberarVencido("chave", LocalDateTime.now(RELOGIO).minusSeconds(30));
+		Mockito.verify(repository, Mockito.never()).liberar(Mockito.anyString(), Mockito.any());
+	}
+
+	@Test
+	public void deveLiberarAReservaNoBancoQuandoAOperacaoFalha() {
+
+		//cenario
+		RegistroIdempotenciaRepository repository = Mockito.mock(RegistroIdempotenciaRepository.class);
+		IdempotenciaService banco = new IdempotenciaServiceImp(Duration.ofHours(24), Duration.ofMinutes(5), 100, repository, RELOGIO);
+
+		//execucao
+		Assertions.assertThrows(IllegalStateException.class,
+				() -> banco.executar("chave", "a", () -> { throw new IllegalStateException(); }));
+
+		//verificacao
+		Mockito.verify(repository).liberar("chave", LocalDateTime.now(RELOGIO));
+		Mockito.verify(repository, Mockito.never()).concluir(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+	}
+
+	private static RespostaGravada resposta(int corpo) {
+		return new RespostaGravada(201, "application/json", String.valueOf(corpo));
+	}
+
+	private static RegistroIdempotencia registro(Integer status, String corpo) {
+		RegistroIdempotencia registro = new RegistroIdempotencia();
+		registro.setChave("chave");
+		registro.setImpressao("a");
+		registro.setStatus(status);
+		registro.setTipoConteudo(corpo == null ? null : "application/json");
+		registro.setCorpo(corpo);
+		registro.setDataCriacao(LocalDateTime.now(RELOGIO).minusMinutes(1));
+		return registro;
+	}
+
+	private static void aguardar(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
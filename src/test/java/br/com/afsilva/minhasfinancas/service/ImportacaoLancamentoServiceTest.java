@@ -0,0 +1,141 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.afsilva.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.afsilva.minhasfinancas.api.dto.ResultadoImportacaoDTO;
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.projection.TotalMensal;
+import br.com.afsilva.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.afsilva.minhasfinancas.model.repository.UsuarioRepositoryTest;
+import br.com.afsilva.minhasfinancas.service.imp.ImportacaoLancamentoServiceImp;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("teste")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import({ ImportacaoLancamentoServiceImp.class, ServicosLancamento.class })
+public class ImportacaoLancamentoServiceTest {
+
+	@Autowired
+	ImportacaoLancamentoService service;
+	
+	@Autowired
+	SaldoUsuarioService saldoUsuarioService;
+	
+	@Autowired
+	ResumoMensalService resumoMensalService;
+	
+	@Autowired
+	LancamentoRepository repository;
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	@Test
+	public void deveImportarEmLotesEReportarAsLinhasInvalidas() {
+		
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		
+		List<LancamentoDTO> lancamentos = new ArrayList<>();
+		for (int i = 0; i < 120; i++) {
+			lancamentos.add(criarDTO(usuario.getId(), "RECEITA", 10));
+		}
+		LancamentoDTO semValor = criarDTO(usuario.getId(), "DESPESA", 10);
+		semValor.setValor(null);
+		lancamentos.add(5, semValor);
+		lancamentos.add(criarDTO(999l, "DESPESA", 10));
+		
+		//execucao
+		ResultadoImportacaoDTO resultado = service.importar(lancamentos, null);
+		
+		//verificacao
+		Assertions.assertEquals(120, resultado.getImportados());
+		Assertions.assertEquals(2, resultado.getRejeitados());
+		Assertions.assertEquals(6, resultado.getErros().get(0).getLinha());
+		Assertions.assertEquals("Informe um Valor válido.", resultado.getErros().get(0).getMensagem());
+		Assertions.assertEquals(122, resultado.getErros().get(1).getLinha());
+		Assertions.assertEquals(120, repository.count());
+		Assertions.assertEquals(0, BigDecimal.valueOf(1200).compareTo(saldoUsuarioService.obterSaldo(usuario.getId()).get()));
+		
+		TotalMensal resumo = resumoMensalService.totalizar(usuario.getId(), YearMonth.of(2020, 1), YearMonth.of(2020, 12), null).get(0);
+		Assertions.assertEquals(0, BigDecimal.valueOf(1200).compareTo(resumo.getTotal()));
+		Assertions.assertEquals(120, resumo.getQuantidade());
+	}
+	
+	@Test
+	public void deveImportarUmCsvNoFormatoDaExportacao() throws Exception {
+		
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		String csv = "id,descricao,mes,ano,valor,tipo,status,data_cadastro,usuario\n"
+				+ "1,\"Mercado, \"\"feira\"\"\",3,2020,150.50,DESPESA,EFETIVADO,2020-03-10," + usuario.getId() + "\n"
+				+ "2,Salário,abc,2020,1000,RECEITA,PENDENTE,2020-03-10," + usuario.getId() + "\n"
+				+ "3,Salário,4,2020,1000,RECEITA,,2020-04-10," + usuario.getId() + "\n";
+		
+		//execucao
+		ResultadoImportacaoDTO resultado = service.importarCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), null);
+		
+		//verificacao
+		Assertions.assertEquals(2, resultado.getImportados());
+		Assertions.assertEquals(1, resultado.getRejeitados());
+		Assertions.assertEquals(3, resultado.getErros().get(0).getLinha());
+		Assertions.assertEquals(Arrays.asList("Mercado, \"feira\"", "Salário"),
+				Arrays.asList(repository.findAll().stream().map(l -> l.getDescricao()).sorted().toArray()));
+	}
+	
+	@Test
+	public void deveImportarParaOUsuarioAutenticadoERejeitarLinhasDeOutroUsuario() throws Exception {
+		
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Usuario outro = UsuarioRepositoryTest.criarUsuario();
+		outro.setEmail("outro@email.com");
+		outro = entityManager.persist(outro);
+		String csv = "descricao,mes,ano,valor,tipo,usuario\n"
+				+ "Luz,1,2020,100,DESPESA,\n"
+				+ "Água,1,2020,50,DESPESA," + outro.getId() + "\n"
+				+ "Gás,1,2020,30,DESPESA," + usuario.getId() + "\n";
+		
+		//execucao
+		ResultadoImportacaoDTO resultado = service.importarCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), usuario);
+		
+		//verificacao
+		Assertions.assertEquals(2, resultado.getImportados());
+		Assertions.assertEquals(1, resultado.getRejeitados());
+		Assertions.assertEquals(3, resultado.getErros().get(0).getLinha());
+		Assertions.assertEquals("O usuário informado difere do usuário autenticado.", resultado.getErros().get(0).getMensagem());
+		Assertions.assertTrue(repository.findAll().stream().allMatch(l -> l.getUsuario().getId().equals(usuario.getId())));
+	}
+	
+	private LancamentoDTO criarDTO(Long usuario, String tipo, int valor) {
+		
+		LancamentoDTO dto = new LancamentoDTO();
+		dto.setDescricao("Importação");
+		dto.setMes(1);
+		dto.setAno(2020);
+		dto.setValor(BigDecimal.valueOf(valor));
+		dto.setTipo(tipo);
+		dto.setUsuario(usuario);
+		return dto;
+	}
+}
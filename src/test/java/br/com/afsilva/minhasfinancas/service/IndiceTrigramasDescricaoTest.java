@@ -0,0 +1,101 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.util.Arrays;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.afsilva.minhasfinancas.service.imp.IndiceTrigramasDescricao;
+
+public class IndiceTrigramasDescricaoTest {
+	
+	LancamentoRepository repository = Mockito.mock(LancamentoRepository.class);
+	
+	IndiceTrigramasDescricao indice = new IndiceTrigramasDescricao(repository, true, 10);
+	
+	@BeforeEach
+	public void setUp() {
+		Mockito.when(repository.listarDescricoesPorUsuario(1l)).thenReturn(Arrays.asList(
+				new Object[] { 10l, "conta de agua" },
+				new Object[] { 11l, "aluguel" },
+				new Object[] { 12l, "agua mineral" }));
+	}
+	
+	@AfterEach
+	public void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+	
+	@Test
+	public void deveEncontrarOsLancamentosQueContemOTermo() {
+		
+		Assertions.assertThat(indice.buscar(1l, "ÁGUA")).containsExactlyInAnyOrder(10l, 12l);
+		Assertions.assertThat(indice.buscar(1l, "de ag")).containsExactly(10l);
+		Assertions.assertThat(indice.buscar(1l, "luz")).isEmpty();
+	}
+	
+	@Test
+	public void deveVarrerOsTextosQuandoOTermoTemMenosDeTresLetras() {
+		
+		Assertions.assertThat(indice.buscar(1l, "al")).containsExactlyInAnyOrder(11l, 12l);
+	}
+	
+	@Test
+	public void deveCarregarOIndiceDoUsuarioUmaUnicaVez() {
+		
+		indice.buscar(1l, "agua");
+		indice.buscar(1l, "aluguel");
+		
+		Mockito.verify(repository, Mockito.times(1)).listarDescricoesPorUsuario(1l);
+	}
+	
+	@Test
+	public void deveAplicarAsEscritasSomenteAposOCommit() {
+		
+		indice.buscar(1l, "agua");
+		
+		TransactionSynchronizationManager.initSynchronization();
+		indice.registrar(criarLancamento(13l, "Água de coco"));
+		indice.remover(1l, 10l);
+		
+		Assertions.assertThat(indice.buscar(1l, "agua")).containsExactlyInAnyOrder(10l, 12l);
+		
+		TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		
+		Assertions.assertThat(indice.buscar(1l, "agua")).containsExactlyInAnyOrder(12l, 13l);
+	}
+	
+	@Test
+	public void deveDescartarAsEscritasDeTransacoesDesfeitas() {
+		
+		indice.buscar(1l, "agua");
+		
+		TransactionSynchronizationManager.initSynchronization();
+		indice.registrar(criarLancamento(13l, "Água de coco"));
+		TransactionSynchronizationManager.clearSynchronization();
+		
+		Assertions.assertThat(indice.buscar(1l, "agua")).containsExactlyInAnyOrder(10l, 12l);
+	}
+	
+	private Lancamento criarLancamento(Long id, String descricao) {
+		
+		Usuario usuario = new Usuario();
+		usuario.setId(1l);
+		
+		Lancamento lancamento = new Lancamento();
+		lancamento.setId(id);
+		lancamento.setDescricao(descricao);
+		lancamento.setUsuario(usuario);
+		return lancamento;
+	}
+}
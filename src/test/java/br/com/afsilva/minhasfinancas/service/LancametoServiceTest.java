@@ -2,26 +2,35 @@ package br.com.afsilva.minhasfinancas.service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
-import org.springframework.data.domain.Example;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import br.com.afsilva.minhasfinancas.exception.RegraNegocioException;
+import br.com.afsilva.minhasfinancas.model.entity.FechamentoAnual;
 import br.com.afsilva.minhasfinancas.model.entity.Lancamento;
+import br.com.afsilva.minhasfinancas.model.entity.ResumoMensalId;
 import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.enums.Recorrencia;
 import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
 import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import br.com.afsilva.minhasfinancas.model.projection.LancamentoResumo;
 import br.com.afsilva.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.afsilva.minhasfinancas.service.imp.IndiceTrigramasDescricao;
 import br.com.afsilva.minhasfinancas.service.imp.LancamentoServiceImp;
 
 
@@ -33,6 +42,24 @@ public class LancametoServiceTest {
 	@MockBean
 	LancamentoRepository repository;
 	
+	@MockBean
+	SaldoUsuarioService saldoUsuarioService;
+	
+	@MockBean
+	IndiceTrigramasDescricao indiceDescricao;
+	
+	@MockBean
+	ResumoMensalService resumoMensalService;
+	
+	@MockBean
+	VersaoDadosService versaoDados;
+	
+	@MockBean
+	FechamentoAnualService fechamentoAnualService;
+	
+	@MockBean
+	ArquivamentoLancamentoService arquivamento;
+	
 	@SpyBean
 	LancamentoServiceImp service; // = new UsuarioServiceImp(repository);
 	
@@ -56,6 +83,103 @@ public class LancametoServiceTest {
 	
 	}
 	
+	@Test
+	public void deveSalvarTodasAsOcorrenciasDeUmaRecorrenciaDeUmaVez() {
+		
+		//cenario
+		Lancamento modelo = criarLancamento();
+		modelo.setId(null);
+		modelo.getUsuario().setId(1l);
+		Mockito.when(repository.saveAll(Mockito.anyList())).thenAnswer(invocacao -> invocacao.getArgument(0));
+		
+		//execucao
+		List<Lancamento> lancamentos = service.salvarRecorrencia(modelo, Recorrencia.MENSAL, 12);
+		
+		//verificacao
+		ArgumentCaptor<MovimentacaoSaldo> movimentacao = ArgumentCaptor.forClass(MovimentacaoSaldo.class);
+		Mockito.verify(repository, Mockito.times(1)).saveAll(Mockito.anyList());
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any(Lancamento.class));
+		Mockito.verify(saldoUsuarioService).movimentar(movimentacao.capture());
+		Mockito.verify(indiceDescricao).registrar(lancamentos);
+		
+		Assertions.assertEquals(12, lancamentos.size());
+		Assertions.assertEquals(StatusLancamento.PENDENTE, lancamentos.get(11).getStatus());
+		Assertions.assertEquals(BigDecimal.valueOf(1200), movimentacao.getValue().getVariacoes().get(1l)[1]);
+	}
+	
+	@Test
+	public void deveSalvarVariosLancamentosNumaUnicaGravacao() {
+		
+		//cenario
+		Lancamento primeiro = criarLancamento();
+		Lancamento segundo = criarLancamento();
+		primeiro.getUsuario().setId(1l);
+		segundo.getUsuario().setId(2l);
+		Mockito.when(repository.saveAll(Mockito.anyList())).thenAnswer(invocacao -> invocacao.getArgument(0));
+		
+		//execucao
+		List<Lancamento> lancamentos = service.salvarTodos(Arrays.asList(primeiro, segundo));
+		
+		//verificacao
+		Mockito.verify(repository, Mockito.times(1)).saveAll(Mockito.anyList());
+		Mockito.verify(saldoUsuarioService, Mockito.times(1)).movimentar(Mockito.any(MovimentacaoSaldo.class));
+		Mockito.verify(resumoMensalService, Mockito.times(1)).movimentar(Mockito.any(MovimentacaoResumo.class));
+		Mockito.verify(versaoDados).incrementar(new HashSet<>(Arrays.asList(1l, 2l)));
+		Assertions.assertEquals(StatusLancamento.PENDENTE, lancamentos.get(1).getStatus());
+	}
+	
+	@Test
+	public void naoDeveSalvarNenhumLancamentoDoGrupoComUmInvalido() {
+		
+		//cenario
+		Lancamento valido = criarLancamento();
+		Lancamento invalido = criarLancamento();
+		invalido.setValor(null);
+		
+		//execucao e verificacao
+		Assertions.assertThrows(RegraNegocioException.class, () -> service.salvarTodos(Arrays.asList(valido, invalido)));
+		Mockito.verify(repository, Mockito.never()).saveAll(Mockito.anyList());
+	}
+	
+	@Test
+	public void naoDeveSalvarRecorrenciaComOcorrenciasForaDoLimite() {
+		
+		//cenario
+		Lancamento modelo = criarLancamento();
+		
+		//execucao e verificacao
+		Assertions.assertThrows(RegraNegocioException.class, () -> service.salvarRecorrencia(modelo, Recorrencia.MENSAL, 0));
+		Assertions.assertThrows(RegraNegocioException.class, () -> service.salvarRecorrencia(modelo, Recorrencia.MENSAL, 361));
+		Mockito.verify(repository, Mockito.never()).saveAll(Mockito.anyList());
+	}
+	
+	@Test
+	public void naoDeveSalvarRecorrenciaCujaUltimaOcorrenciaPassaDoAno9999() {
+		
+		//cenario
+		Lancamento modelo = criarLancamento();
+		modelo.setAno(9999);
+		modelo.setMes(11);
+		Mockito.when(repository.saveAll(Mockito.anyList())).thenAnswer(invocacao -> invocacao.getArgument(0));
+		
+		//execucao e verificacao
+		Assertions.assertEquals(2, service.salvarRecorrencia(modelo, Recorrencia.MENSAL, 2).size());
+		Assertions.assertThrows(RegraNegocioException.class, () -> service.salvarRecorrencia(modelo, Recorrencia.MENSAL, 3));
+		Mockito.verify(repository, Mockito.times(1)).saveAll(Mockito.anyList());
+	}
+	
+	@Test
+	public void naoDeveParcelarValorComMaisDeDuasCasasDecimais() {
+		
+		//cenario
+		Lancamento modelo = criarLancamento();
+		modelo.setValor(new BigDecimal("100.005"));
+		
+		//execucao e verificacao
+		Assertions.assertThrows(RegraNegocioException.class, () -> service.salvarRecorrencia(modelo, Recorrencia.PARCELADA, 3));
+		Mockito.verify(repository, Mockito.never()).saveAll(Mockito.anyList());
+	}
+	
 	@Test
 	public void naoDeveSalvaLancamentoQuandoHouverErroDeValidacao() {
 		
@@ -145,12 +269,13 @@ public class LancametoServiceTest {
 		Lancamento lancamento = criarLancamento();
 		lancamento.setId(1l);
 		
-		List<Lancamento> lista = Arrays.asList(lancamento);
+		List<LancamentoResumo> lista = Arrays.asList(new LancamentoResumo(1l, lancamento.getDescricao(), lancamento.getMes(),
+				lancamento.getAno(), lancamento.getValor(), lancamento.getTipo(), lancamento.getStatus(), null, 1l));
 		
-		Mockito.when(repository.findAll(Mockito.any(Example.class))).thenReturn(lista);
+		Mockito.when(repository.buscar(lancamento, null, null, null)).thenReturn(lista);
 		
 		//execucao
-		List<Lancamento> resultado = service.buscar(lancamento);
+		List<LancamentoResumo> resultado = service.buscar(lancamento);
 		
 		//verificacao		
 		Assertions.assertEquals(lista, resultado);
@@ -160,6 +285,152 @@ public class LancametoServiceTest {
 		
 	}
 	
+	@Test
+	public void deveFiltrarADescricaoPeloIndiceEmMemoriaQuandoAtivo() {
+		//cenario
+		Lancamento filtro = criarLancamento();
+		filtro.getUsuario().setId(1l);
+		
+		Set<Long> candidatos = Set.of(5l, 7l);
+		Mockito.when(indiceDescricao.isAtivo()).thenReturn(true);
+		Mockito.when(indiceDescricao.buscar(1l, filtro.getDescricao())).thenReturn(candidatos);
+		
+		//execucao
+		service.buscar(filtro);
+		
+		//verificacao
+		Mockito.verify(repository).buscar(filtro, candidatos, null, null);
+	}
+
+	@Test
+	public void deveIntercalarOsArquivadosQuandoOFiltroAlcancaOArquivo() {
+		//cenario
+		Lancamento filtro = criarLancamento();
+		filtro.setAno(2005);
+
+		LancamentoResumo ativo = new LancamentoResumo(9l, "Ativo", 3, 2005, BigDecimal.TEN, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, null, 1l);
+		LancamentoResumo primeiro = new LancamentoResumo(2l, "Arquivado", 1, 2005, BigDecimal.TEN, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, null, 1l);
+		LancamentoResumo ultimo = new LancamentoResumo(4l, "Arquivado", 12, 2005, BigDecimal.TEN, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, null, 1l);
+
+		Mockito.when(arquivamento.alcancaArquivo(filtro)).thenReturn(true);
+		Mockito.when(repository.buscar(filtro, null, null, 2)).thenReturn(Arrays.asList(ativo));
+		Mockito.when(repository.buscarArquivados(filtro, null, 2)).thenReturn(Arrays.asList(primeiro, ultimo));
+
+		//execucao
+		List<LancamentoResumo> resultado = service.buscar(filtro, null, 2);
+
+		//verificacao
+		Assertions.assertEquals(Arrays.asList(primeiro, ativo), resultado);
+	}
+
+	@Test
+	public void naoDeveConsultarOArquivoQuandoOFiltroNaoAlcanca() {
+		//cenario
+		Lancamento filtro = criarLancamento();
+
+		//execucao
+		service.buscar(filtro);
+
+		//verificacao
+		Mockito.verify(repository, Mockito.never()).buscarArquivados(Mockito.any(), Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	public void naoDeveAtualizarUmLancamentoArquivado() {
+
+		//cenario
+		Lancamento lancamento = criarLancamento();
+
+		Mockito.doNothing().when(service).validar(lancamento);
+		Mockito.when(repository.findById(lancamento.getId())).thenReturn(Optional.empty());
+		Mockito.when(repository.existeArquivado(lancamento.getId())).thenReturn(true);
+
+		//execucao e verificacao
+		Assertions.assertThrows(RegraNegocioException.class, () -> service.atualizar(lancamento));
+		Mockito.verify(repository, Mockito.never()).save(lancamento);
+	}
+
+	@Test
+	public void naoDeveAtualizarStatusEmLoteSemUsuario() {
+		//cenario
+		Lancamento filtro = new Lancamento();
+		
+		//execucao e verificacao
+		Assertions.assertThrows(RegraNegocioException.class,
+				() -> service.atualizarStatus(filtro, Arrays.asList(1l), StatusLancamento.EFETIVADO));
+		Mockito.verify(repository, Mockito.never()).atualizarStatus(Mockito.any(), Mockito.any(), Mockito.any());
+	}
+	
+	@Test
+	public void deveMoverOResumoMensalAoAtualizarStatusEmLote() {
+		//cenario
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(new Usuario(1l, null, null, null));
+		
+		Mockito.when(repository.travarAtualizacaoStatus(filtro, null, StatusLancamento.EFETIVADO)).thenReturn(Arrays.asList(
+				new LancamentoResumo(7l, "Luz", 3, 2020, BigDecimal.valueOf(100), TipoLancamento.DESPESA, StatusLancamento.PENDENTE, null, 1l),
+				new LancamentoResumo(8l, "Água", 3, 2020, BigDecimal.valueOf(50), TipoLancamento.DESPESA, StatusLancamento.PENDENTE, null, 1l)));
+		Mockito.when(repository.atualizarStatus(filtro, Arrays.asList(7l, 8l), StatusLancamento.EFETIVADO)).thenReturn(2);
+		
+		//execucao
+		int alterados = service.atualizarStatus(filtro, null, StatusLancamento.EFETIVADO);
+		
+		//verificacao
+		ArgumentCaptor<MovimentacaoResumo> movimentacao = ArgumentCaptor.forClass(MovimentacaoResumo.class);
+		Mockito.verify(resumoMensalService).movimentar(movimentacao.capture());
+		
+		Map<ResumoMensalId, MovimentacaoResumo.Variacao> variacoes = movimentacao.getValue().getVariacoes();
+		MovimentacaoResumo.Variacao pendente = variacoes.get(new ResumoMensalId(1l, 2020, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE));
+		MovimentacaoResumo.Variacao efetivado = variacoes.get(new ResumoMensalId(1l, 2020, 3, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO));
+		
+		Assertions.assertEquals(2, alterados);
+		Assertions.assertEquals(0, BigDecimal.valueOf(-150).compareTo(pendente.getTotal()));
+		Assertions.assertEquals(-2, pendente.getQuantidade());
+		Assertions.assertEquals(0, BigDecimal.valueOf(150).compareTo(efetivado.getTotal()));
+		Assertions.assertEquals(2, efetivado.getQuantidade());
+	}
+	
+	@Test
+	public void deveManterOStatusGravadoAoAtualizarSemStatus() {
+		//cenario
+		Lancamento gravado = criarLancamento();
+		gravado.getUsuario().setId(1l);
+		gravado.setStatus(StatusLancamento.EFETIVADO);
+		
+		Lancamento lancamento = criarLancamento();
+		lancamento.getUsuario().setId(1l);
+		lancamento.setStatus(null);
+		
+		Mockito.doNothing().when(service).validar(lancamento);
+		Mockito.when(repository.findById(1l)).thenReturn(Optional.of(gravado));
+		Mockito.when(repository.save(lancamento)).thenReturn(lancamento);
+		
+		//execucao
+		service.atualizar(lancamento);
+		
+		//verificacao
+		Assertions.assertEquals(StatusLancamento.EFETIVADO, lancamento.getStatus());
+	}
+	
+	@Test
+	public void deveAtualizarOIndiceDeDescricaoAoSalvarEDeletar() {
+		//cenario
+		Lancamento lancamento = criarLancamento();
+		lancamento.setId(1l);
+		lancamento.getUsuario().setId(1l);
+		Mockito.doNothing().when(service).validar(lancamento);
+		Mockito.when(repository.save(lancamento)).thenReturn(lancamento);
+		Mockito.when(repository.findById(1l)).thenReturn(Optional.of(lancamento));
+		
+		//execucao
+		service.salvar(lancamento);
+		service.deletar(lancamento);
+		
+		//verificacao
+		Mockito.verify(indiceDescricao).registrar(lancamento);
+		Mockito.verify(indiceDescricao).remover(1l, 1l);
+	}
+	
 	@Test
 	public void deveAtualizarOStatusDeUmLancamento() {
 	
@@ -191,7 +462,7 @@ public class LancametoServiceTest {
 		Lancamento lancamento = criarLancamento();
 		lancamento.setId(id);
 		
-		Mockito.when(repository.findById(id)).thenReturn(Optional.of(lancamento));
+		Mockito.when(repository.findComUsuarioById(id)).thenReturn(Optional.of(lancamento));
 		
 		//execucao
 		Optional<Lancamento> lancamentoPorId = service.obterPorId(id);
@@ -207,7 +478,7 @@ public class LancametoServiceTest {
 		
 		//cenario
 		Long id = 1l;		
-		Mockito.when(repository.findById(id)).thenReturn(Optional.empty());
+		Mockito.when(repository.findComUsuarioById(id)).thenReturn(Optional.empty());
 		
 		//execucao
 		Optional<Lancamento> lancamentoPorId = service.obterPorId(id);
@@ -336,6 +607,83 @@ public class LancametoServiceTest {
 		
 	}
 	
+	@Test
+	public void deveObterSaldoDeUmUsuarioSomandoOFechamentoEOsAnosSeguintes() {
+
+		Long idUsuario = 1l;
+		
+		Mockito.when(fechamentoAnualService.obterUltimo(idUsuario)).thenReturn(Optional.of(
+				new FechamentoAnual(idUsuario, 2019, BigDecimal.valueOf(1000), BigDecimal.valueOf(300), LocalDateTime.now())));
+		Mockito.when(repository.obterSaldoPorTipoLancamentoEUsuarioAposAno(idUsuario, TipoLancamento.RECEITA, 2019)).thenReturn(BigDecimal.valueOf(50));
+		Mockito.when(repository.obterSaldoPorTipoLancamentoEUsuarioAposAno(idUsuario, TipoLancamento.DESPESA, 2019)).thenReturn(null);
+		
+		BigDecimal saldo = service.obterSaldoPorTipoLancamentoEUsuario(idUsuario);
+		
+		Assertions.assertEquals(saldo, BigDecimal.valueOf(750));
+		Mockito.verify(repository, Mockito.never()).obterSaldoPorTipoLancamentoEUsuario(Mockito.anyLong(), Mockito.any(TipoLancamento.class));
+		
+	}
+	
+	@Test
+	public void deveObterSaldoDeUmUsuarioPeloRazaoSemSomarLancamentos() {
+
+		Long idUsuario = 1l;
+		
+		Mockito.when(saldoUsuarioService.obterSaldo(idUsuario)).thenReturn(Optional.of(BigDecimal.valueOf(350)));
+		
+		BigDecimal saldo = service.obterSaldoPorTipoLancamentoEUsuario(idUsuario);
+		
+		Assertions.assertEquals(saldo, BigDecimal.valueOf(350));
+		Mockito.verify(repository, Mockito.never()).obterSaldoPorTipoLancamentoEUsuario(Mockito.anyLong(), Mockito.any(TipoLancamento.class));
+		
+	}
+	
+	@Test
+	public void deveMovimentarOSaldoAoSalvarUmLancamento() {
+		
+		//cenario
+		Lancamento lancamentoASalvar = criarLancamento();
+		lancamentoASalvar.getUsuario().setId(1l);
+		Mockito.doNothing().when(service).validar(lancamentoASalvar);
+		Mockito.when(repository.save(lancamentoASalvar)).thenReturn(lancamentoASalvar);
+		
+		//execucao
+		service.salvar(lancamentoASalvar);
+		
+		//verificacao
+		ArgumentCaptor<MovimentacaoSaldo> captor = ArgumentCaptor.forClass(MovimentacaoSaldo.class);
+		Mockito.verify(saldoUsuarioService).movimentar(captor.capture());
+		BigDecimal[] variacao = captor.getValue().getVariacoes().get(1l);
+		Assertions.assertEquals(BigDecimal.ZERO, variacao[0]);
+		Assertions.assertEquals(BigDecimal.valueOf(100), variacao[1]);
+		
+	}
+	
+	@Test
+	public void deveEstornarOValorAnteriorAoAtualizarUmLancamento() {
+		
+		//cenario
+		Lancamento anterior = criarLancamento();
+		anterior.getUsuario().setId(1l);
+		
+		Lancamento lancamento = criarLancamento();
+		lancamento.getUsuario().setId(1l);
+		lancamento.setValor(BigDecimal.valueOf(250));
+		
+		Mockito.doNothing().when(service).validar(lancamento);
+		Mockito.when(repository.findById(lancamento.getId())).thenReturn(Optional.of(anterior));
+		Mockito.when(repository.save(lancamento)).thenReturn(lancamento);
+		
+		//execucao
+		service.atualizar(lancamento);
+		
+		//verificacao
+		ArgumentCaptor<MovimentacaoSaldo> captor = ArgumentCaptor.forClass(MovimentacaoSaldo.class);
+		Mockito.verify(saldoUsuarioService).movimentar(captor.capture());
+		Assertions.assertEquals(BigDecimal.valueOf(150), captor.getValue().getVariacoes().get(1l)[1]);
+		
+	}
+	
 	public static Lancamento criarLancamento() {
 		
 		Lancamento lancamento = new Lancamento();
@@ -0,0 +1,79 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import br.com.afsilva.minhasfinancas.service.imp.NotificacaoSaldoServiceImp;
+
+public class NotificacaoSaldoServiceTest {
+
+	LancamentoService lancamentoService = Mockito.mock(LancamentoService.class);
+	VersaoDadosService versaoDados = Mockito.mock(VersaoDadosService.class);
+	PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+	NotificacaoSaldoServiceImp service = new NotificacaoSaldoServiceImp(lancamentoService, versaoDados, transactionManager,
+			Duration.ofMinutes(1), Duration.ofMinutes(1), 1);
+	
+	@AfterEach
+	public void parar() {
+		service.parar();
+	}
+	
+	@Test
+	public void naoDeveConsultarOSaldoDeUsuarioSemInscricao() {
+		
+		//execucao
+		service.aoAlterar(new LancamentosAlterados(Arrays.asList(1l, 2l)));
+		
+		//verificacao
+		Mockito.verify(lancamentoService, Mockito.after(200).never()).obterSaldoPorTipoLancamentoEUsuario(Mockito.anyLong());
+	}
+	
+	@Test
+	public void deveEnviarOSaldoNaInscricaoESomenteAoUsuarioAlterado() {
+		
+		//cenario
+		Mockito.when(lancamentoService.obterSaldoPorTipoLancamentoEUsuario(Mockito.anyLong())).thenReturn(BigDecimal.TEN);
+		service.inscrever(1l);
+		Mockito.verify(lancamentoService, Mockito.timeout(1000)).obterSaldoPorTipoLancamentoEUsuario(1l);
+		
+		//execucao
+		service.aoAlterar(new LancamentosAlterados(Arrays.asList(1l, 2l)));
+		
+		//verificacao
+		Mockito.verify(lancamentoService, Mockito.timeout(1000).times(2)).obterSaldoPorTipoLancamentoEUsuario(1l);
+		Mockito.verify(lancamentoService, Mockito.never()).obterSaldoPorTipoLancamentoEUsuario(2l);
+		Mockito.verify(versaoDados, Mockito.times(2)).etag(1l);
+	}
+	
+	@Test
+	public void deveLerAVersaoAntesDoSaldo() {
+		
+		//execucao
+		service.inscrever(1l);
+		
+		//verificacao
+		InOrder ordem = Mockito.inOrder(versaoDados, lancamentoService);
+		Mockito.verify(lancamentoService, Mockito.timeout(1000)).obterSaldoPorTipoLancamentoEUsuario(1l);
+		ordem.verify(versaoDados).etag(1l);
+		ordem.verify(lancamentoService).obterSaldoPorTipoLancamentoEUsuario(1l);
+	}
+	
+	@Test
+	public void deveLerOSaldoEmTransacaoDeEscritaParaIrAoPrimario() {
+		
+		//execucao
+		service.inscrever(1l);
+		
+		//verificacao
+		Mockito.verify(lancamentoService, Mockito.timeout(1000)).obterSaldoPorTipoLancamentoEUsuario(1l);
+		Mockito.verify(transactionManager, Mockito.timeout(1000)).getTransaction(Mockito.argThat(definicao -> !definicao.isReadOnly()));
+		Mockito.verify(transactionManager, Mockito.timeout(1000)).commit(Mockito.any());
+	}
+}
@@ -0,0 +1,145 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.afsilva.minhasfinancas.exception.RegraNegocioException;
+import br.com.afsilva.minhasfinancas.model.entity.ResumoMensalId;
+import br.com.afsilva.minhasfinancas.model.enums.StatusLancamento;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import br.com.afsilva.minhasfinancas.model.projection.SaldoMensal;
+import br.com.afsilva.minhasfinancas.model.repository.ResumoMensalRepository;
+import br.com.afsilva.minhasfinancas.service.imp.ResumoMensalServiceImp;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("teste")
+public class ResumoMensalServiceTest {
+
+	@MockBean
+	ResumoMensalRepository repository;
+	
+	@MockBean
+	FechamentoAnualService fechamentoAnualService;
+	
+	@SpyBean
+	ResumoMensalServiceImp service;
+	
+	@Test
+	public void deveAplicarAsVariacoesAgrupadasPorCelula() {
+		
+		//cenario
+		ResumoMensalId celula = new ResumoMensalId(1l, 2020, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE);
+		MovimentacaoResumo movimentacao = new MovimentacaoResumo()
+				.registrar(celula, BigDecimal.valueOf(100), 1)
+				.registrar(celula, BigDecimal.valueOf(30), 1);
+		Mockito.when(repository.movimentar(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any(), Mockito.any(),
+				Mockito.any(), Mockito.anyLong())).thenReturn(1);
+		
+		//execucao
+		service.movimentar(movimentacao);
+		
+		//verificacao
+		Mockito.verify(repository, Mockito.times(1)).movimentar(1l, 2020, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE,
+				BigDecimal.valueOf(130), 2l);
+		Mockito.verify(repository, Mockito.never()).reconstruirCelula(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(),
+				Mockito.anyString(), Mockito.anyString());
+		Mockito.verify(fechamentoAnualService).ajustar(movimentacao);
+	}
+	
+	@Test
+	public void naoDeveTocarCelulasCujaVariacaoSeAnula() {
+		
+		//cenario
+		ResumoMensalId celula = new ResumoMensalId(1l, 2020, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE);
+		MovimentacaoResumo movimentacao = new MovimentacaoResumo()
+				.registrar(celula, BigDecimal.valueOf(100), 1)
+				.registrar(celula, BigDecimal.valueOf(-100), -1);
+		
+		//execucao
+		service.movimentar(movimentacao);
+		
+		//verificacao
+		Mockito.verifyNoInteractions(repository);
+	}
+	
+	@Test
+	public void deveReconstruirACelulaQuandoAindaNaoExiste() {
+		
+		//cenario
+		MovimentacaoResumo movimentacao = new MovimentacaoResumo()
+				.registrar(new ResumoMensalId(2l, 2020, 4, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO), BigDecimal.TEN, 1);
+		Mockito.when(repository.movimentar(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any(), Mockito.any(),
+				Mockito.any(), Mockito.anyLong())).thenReturn(0);
+		Mockito.when(repository.reconstruirCelula(2l, 2020, 4, "RECEITA", "EFETIVADO")).thenReturn(1);
+		
+		//execucao
+		service.movimentar(movimentacao);
+		
+		//verificacao
+		Mockito.verify(repository).reconstruirCelula(2l, 2020, 4, "RECEITA", "EFETIVADO");
+		Mockito.verify(repository).movimentar(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any(), Mockito.any(),
+				Mockito.any(), Mockito.anyLong());
+	}
+	
+	@Test
+	public void deveAplicarAVariacaoQuandoOutraTransacaoCriouACelulaAoMesmoTempo() {
+		
+		//cenario
+		MovimentacaoResumo movimentacao = new MovimentacaoResumo()
+				.registrar(new ResumoMensalId(2l, 2020, 4, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO), BigDecimal.TEN, 1);
+		Mockito.when(repository.movimentar(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any(), Mockito.any(),
+				Mockito.any(), Mockito.anyLong())).thenReturn(0, 1);
+		Mockito.when(repository.reconstruirCelula(2l, 2020, 4, "RECEITA", "EFETIVADO")).thenReturn(0);
+		
+		//execucao
+		service.movimentar(movimentacao);
+		
+		//verificacao
+		Mockito.verify(repository, Mockito.times(2)).movimentar(2l, 2020, 4, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO,
+				BigDecimal.TEN, 1l);
+	}
+	
+	@Test
+	public void devePreencherOsMesesSemMovimentoComOSaldoAnterior() {
+		
+		//cenario
+		Mockito.when(repository.fluxo(1l, 2020 * 12 + 1, 2020 * 12 + 4)).thenReturn(Arrays.asList(
+				new Object[] { 2019, 12, BigDecimal.ZERO, BigDecimal.valueOf(80), BigDecimal.valueOf(-80) },
+				new Object[] { 2020, 3, BigDecimal.valueOf(500), BigDecimal.valueOf(100), BigDecimal.valueOf(320) }));
+		
+		//execucao
+		List<SaldoMensal> fluxo = service.fluxo(1l, YearMonth.of(2020, 1), YearMonth.of(2020, 4));
+		
+		//verificacao
+		Assertions.assertEquals(4, fluxo.size());
+		Assertions.assertEquals(1, fluxo.get(0).getMes());
+		Assertions.assertEquals(BigDecimal.valueOf(-80), fluxo.get(0).getSaldo());
+		Assertions.assertEquals(BigDecimal.valueOf(-80), fluxo.get(1).getSaldo());
+		Assertions.assertEquals(BigDecimal.valueOf(500), fluxo.get(2).getReceitas());
+		Assertions.assertEquals(BigDecimal.valueOf(320), fluxo.get(2).getSaldo());
+		Assertions.assertEquals(BigDecimal.ZERO, fluxo.get(3).getDespesas());
+		Assertions.assertEquals(BigDecimal.valueOf(320), fluxo.get(3).getSaldo());
+	}
+	
+	@Test
+	public void naoDeveTotalizarUmPeriodoInvertidoOuLongoDemais() {
+		
+		//execucao e verificacao
+		Assertions.assertThrows(RegraNegocioException.class,
+				() -> service.totalizar(1l, YearMonth.of(2020, 5), YearMonth.of(2020, 4), null));
+		Assertions.assertThrows(RegraNegocioException.class,
+				() -> service.totalizar(1l, YearMonth.of(2000, 1), YearMonth.of(2020, 1), null));
+		Mockito.verifyNoInteractions(repository);
+	}
+}
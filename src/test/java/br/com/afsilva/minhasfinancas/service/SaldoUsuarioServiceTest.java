@@ -0,0 +1,115 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.afsilva.minhasfinancas.model.entity.FechamentoAnual;
+import br.com.afsilva.minhasfinancas.model.entity.SaldoUsuario;
+import br.com.afsilva.minhasfinancas.model.enums.TipoLancamento;
+import br.com.afsilva.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import br.com.afsilva.minhasfinancas.service.imp.SaldoUsuarioServiceImp;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("teste")
+public class SaldoUsuarioServiceTest {
+
+	@MockBean
+	SaldoUsuarioRepository repository;
+	
+	@MockBean
+	FechamentoAnualService fechamentoAnualService;
+	
+	@SpyBean
+	SaldoUsuarioServiceImp service;
+	
+	@Test
+	public void deveObterOSaldoPelaChaveDoUsuario() {
+		
+		//cenario
+		Mockito.when(repository.findById(1l))
+			.thenReturn(Optional.of(new SaldoUsuario(1l, BigDecimal.valueOf(500), BigDecimal.valueOf(200))));
+		
+		//execucao
+		Optional<BigDecimal> saldo = service.obterSaldo(1l);
+		
+		//verificacao
+		Assertions.assertEquals(BigDecimal.valueOf(300), saldo.get());
+	}
+	
+	@Test
+	public void deveAplicarAsVariacoesAgrupadasPorUsuario() {
+		
+		//cenario
+		MovimentacaoSaldo movimentacao = new MovimentacaoSaldo()
+				.registrar(1l, TipoLancamento.RECEITA, BigDecimal.valueOf(100))
+				.registrar(1l, TipoLancamento.DESPESA, BigDecimal.valueOf(30))
+				.estornar(1l, TipoLancamento.RECEITA, BigDecimal.valueOf(40));
+		Mockito.when(repository.movimentar(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(1);
+		
+		//execucao
+		service.movimentar(movimentacao);
+		
+		//verificacao
+		Mockito.verify(repository, Mockito.times(1)).movimentar(1l, BigDecimal.valueOf(60), BigDecimal.valueOf(30));
+		Mockito.verify(repository, Mockito.never()).reconstruirPorUsuario(Mockito.anyLong());
+	}
+	
+	@Test
+	public void deveReconstruirOSaldoQuandoOUsuarioAindaNaoPossuiRazao() {
+		
+		//cenario
+		MovimentacaoSaldo movimentacao = new MovimentacaoSaldo()
+				.registrar(2l, TipoLancamento.RECEITA, BigDecimal.valueOf(100));
+		Mockito.when(repository.movimentar(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(0);
+		Mockito.when(repository.reconstruirPorUsuario(2l)).thenReturn(1);
+		
+		//execucao
+		service.movimentar(movimentacao);
+		
+		//verificacao
+		Mockito.verify(repository).reconstruirPorUsuario(2l);
+		Mockito.verify(repository, Mockito.times(1)).movimentar(2l, BigDecimal.valueOf(100), BigDecimal.ZERO);
+		Mockito.verify(repository, Mockito.never()).excluirPorUsuario(Mockito.anyLong());
+	}
+	
+	@Test
+	public void deveAplicarAVariacaoQuandoOutraTransacaoCriouORazaoAoMesmoTempo() {
+		
+		//cenario
+		MovimentacaoSaldo movimentacao = new MovimentacaoSaldo()
+				.registrar(2l, TipoLancamento.RECEITA, BigDecimal.valueOf(100));
+		Mockito.when(repository.movimentar(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(0, 1);
+		Mockito.when(repository.reconstruirPorUsuario(2l)).thenReturn(0);
+		
+		//execucao
+		service.movimentar(movimentacao);
+		
+		//verificacao
+		Mockito.verify(repository, Mockito.times(2)).movimentar(2l, BigDecimal.valueOf(100), BigDecimal.ZERO);
+	}
+	
+	@Test
+	public void deveReconstruirOSaldoAPartirDoUltimoFechamento() {
+		
+		//cenario
+		Mockito.when(fechamentoAnualService.obterUltimo(2l)).thenReturn(Optional.of(
+				new FechamentoAnual(2l, 2020, BigDecimal.valueOf(900), BigDecimal.valueOf(400), LocalDateTime.now())));
+		
+		//execucao
+		service.reconstruir(2l);
+		
+		//verificacao
+		Mockito.verify(repository).reconstruirPorUsuarioAposFechamento(2l, 2020, BigDecimal.valueOf(900), BigDecimal.valueOf(400));
+		Mockito.verify(repository, Mockito.never()).reconstruirPorUsuario(Mockito.anyLong());
+	}
+}
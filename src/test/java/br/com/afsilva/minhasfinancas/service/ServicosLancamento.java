@@ -0,0 +1,26 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+
+import br.com.afsilva.minhasfinancas.service.imp.ArquivamentoLancamentoServiceImp;
+import br.com.afsilva.minhasfinancas.service.imp.FechamentoAnualServiceImp;
+import br.com.afsilva.minhasfinancas.service.imp.IndiceTrigramasDescricao;
+import br.com.afsilva.minhasfinancas.service.imp.LancamentoServiceImp;
+import br.com.afsilva.minhasfinancas.service.imp.ResumoMensalServiceImp;
+import br.com.afsilva.minhasfinancas.service.imp.SaldoUsuarioServiceImp;
+import br.com.afsilva.minhasfinancas.service.imp.VersaoDadosServiceImp;
+
+/**
+ * LancamentoServiceImp e os serviços de que ele depende, para os testes e medições
+ * {@code @DataJpaTest} que gravam de verdade. Uma dependência nova entra só aqui: as
+ * medições, executadas apenas com -Pbenchmark, usam a mesma lista que
+ * ImportacaoLancamentoServiceTest confere no build padrão.
+ */
+@TestConfiguration
+@Import({ LancamentoServiceImp.class, SaldoUsuarioServiceImp.class, IndiceTrigramasDescricao.class,
+	ResumoMensalServiceImp.class, VersaoDadosServiceImp.class, FechamentoAnualServiceImp.class,
+	ArquivamentoLancamentoServiceImp.class })
+public class ServicosLancamento {
+
+}
@@ -0,0 +1,64 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.service.imp.TokenServiceImp;
+
+public class TokenServiceTest {
+	
+	static final String SEGREDO = "segredo-de-teste-com-mais-de-32-bytes";
+	static final Instant AGORA = Instant.parse("2020-03-01T12:00:00Z");
+	
+	TokenService service = new TokenServiceImp(SEGREDO, Duration.ofMinutes(30), Clock.fixed(AGORA, ZoneOffset.UTC));
+	
+	@Test
+	public void deveValidarOTokenGeradoERecuperarOUsuarioDasClaims() {
+		
+		String token = service.gerarToken(new Usuario(1l, "usuario", "usuario@email.com", "senha"));
+		
+		Optional<Usuario> usuario = service.validarToken(token);
+		
+		Assertions.assertThat(usuario).isPresent();
+		Assertions.assertThat(usuario.get().getId()).isEqualTo(1l);
+		Assertions.assertThat(usuario.get().getNome()).isEqualTo("usuario");
+		Assertions.assertThat(usuario.get().getEmail()).isEqualTo("usuario@email.com");
+		Assertions.assertThat(usuario.get().getSenha()).isNull();
+	}
+	
+	@Test
+	public void deveRejeitarTokenExpirado() {
+		
+		String token = service.gerarToken(new Usuario(1l, "usuario", "usuario@email.com", "senha"));
+		TokenService depois = new TokenServiceImp(SEGREDO, Duration.ofMinutes(30),
+				Clock.fixed(AGORA.plus(Duration.ofMinutes(31)), ZoneOffset.UTC));
+		
+		Assertions.assertThat(depois.validarToken(token)).isEmpty();
+	}
+	
+	@Test
+	public void deveRejeitarTokenAssinadoComOutraChaveOuMalFormado() {
+		
+		TokenService outro = new TokenServiceImp("outro-segredo-de-teste-com-mais-de-32-bytes", Duration.ofMinutes(30),
+				Clock.fixed(AGORA, ZoneOffset.UTC));
+		String token = outro.gerarToken(new Usuario(1l, "usuario", "usuario@email.com", "senha"));
+		
+		Assertions.assertThat(service.validarToken(token)).isEmpty();
+		Assertions.assertThat(service.validarToken("abc")).isEmpty();
+		Assertions.assertThat(service.validarToken("a.b.c")).isEmpty();
+	}
+	
+	@Test
+	public void naoDeveAceitarSegredoCurto() {
+		
+		Assertions.assertThatThrownBy(() -> new TokenServiceImp("curto", Duration.ofMinutes(30)))
+			.isInstanceOf(IllegalStateException.class);
+	}
+}
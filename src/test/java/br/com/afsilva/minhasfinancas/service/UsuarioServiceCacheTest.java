@@ -0,0 +1,73 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.afsilva.minhasfinancas.config.CacheConfig;
+import br.com.afsilva.minhasfinancas.model.entity.Usuario;
+import br.com.afsilva.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.afsilva.minhasfinancas.service.imp.FiltroBloomEmails;
+import br.com.afsilva.minhasfinancas.service.imp.UsuarioServiceImp;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("teste")
+@Import({ CacheConfig.class, UsuarioServiceImp.class, FiltroBloomEmails.class })
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+public class UsuarioServiceCacheTest {
+
+	@MockBean
+	UsuarioRepository repository;
+	
+	@Autowired
+	UsuarioService service;
+	
+	@Test
+	public void deveConsultarOBancoUmaUnicaVezPorId() {
+		
+		Usuario usuario = new Usuario(10l, "usuario", "cache@email.com", "senha");
+		Mockito.when(repository.findById(10l)).thenReturn(Optional.of(usuario));
+		
+		Optional<Usuario> primeira = service.buscarPorId(10l);
+		Optional<Usuario> segunda = service.buscarPorId(10l);
+		
+		Assertions.assertThat(primeira).contains(usuario);
+		Assertions.assertThat(segunda).contains(usuario);
+		Mockito.verify(repository, Mockito.times(1)).findById(10l);
+	}
+	
+	@Test
+	public void naoDeveGuardarUsuarioInexistente() {
+		
+		Mockito.when(repository.findById(11l)).thenReturn(Optional.empty());
+		
+		service.buscarPorId(11l);
+		service.buscarPorId(11l);
+		
+		Mockito.verify(repository, Mockito.times(2)).findById(11l);
+	}
+	
+	@Test
+	public void deveInvalidarOCacheAoSalvarOUsuario() {
+		
+		Usuario usuario = new Usuario(12l, "usuario", "salvo@email.com", "senha");
+		Mockito.when(repository.findById(12l)).thenReturn(Optional.of(usuario));
+		Mockito.when(repository.save(usuario)).thenReturn(usuario);
+		
+		service.buscarPorId(12l);
+		service.salvarUsuario(usuario);
+		service.buscarPorId(12l);
+		
+		Mockito.verify(repository, Mockito.times(2)).findById(12l);
+	}
+}
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
@@ -16,6 +17,7 @@ import br.com.afsilva.minhasfinancas.exception.ErroAutenticacao;
 import br.com.afsilva.minhasfinancas.exception.RegraNegocioException;
 import br.com.afsilva.minhasfinancas.model.entity.Usuario;
 import br.com.afsilva.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.afsilva.minhasfinancas.service.imp.FiltroBloomEmails;
 import br.com.afsilva.minhasfinancas.service.imp.UsuarioServiceImp;
 
 @ExtendWith(SpringExtension.class)
@@ -25,6 +27,9 @@ public class UsuarioServiceTest {
 //	UsuarioRepository repository = Mockito.mock(UsuarioRepository.class) ;
 	@MockBean
 	UsuarioRepository repository;
+	
+	@MockBean
+	FiltroBloomEmails filtroEmails;
 
 	@SpyBean
 	UsuarioServiceImp service; // = new UsuarioServiceImp(repository);
@@ -57,6 +62,46 @@ public class UsuarioServiceTest {
 
 	}
 
+	@Test
+	public void naoDeveConsultarOEmailQuandoOFiltroGaranteQueEleEhNovo() {
+		// cenario
+		Usuario usuario = criarUsuario();
+		Mockito.when(filtroEmails.isCertamenteAusente(usuario.getEmail())).thenReturn(true);
+		Mockito.when(repository.save(usuario)).thenReturn(usuario);
+		
+		// acao
+		service.salvarUsuario(usuario);
+		
+		// verificacao
+		Mockito.verify(repository, Mockito.never()).existsByEmail(Mockito.anyString());
+		Mockito.verify(filtroEmails).adicionar(usuario.getEmail());
+	}
+	
+	@Test
+	public void deveTraduzirViolacaoDoIndiceUnicoDeEmail() {
+		// cenario
+		Usuario usuario = criarUsuario();
+		Mockito.when(filtroEmails.isCertamenteAusente(usuario.getEmail())).thenReturn(true);
+		Mockito.when(repository.save(usuario)).thenThrow(new DataIntegrityViolationException("uk_usuario_email"));
+		
+		// acao e verificacao
+		Assertions.assertThrows(RegraNegocioException.class, () -> service.salvarUsuario(usuario));
+		Mockito.verify(filtroEmails, Mockito.never()).adicionar(Mockito.anyString());
+	}
+
+	@Test
+	public void deveRepassarViolacoesDeIntegridadeQueNaoSaoDoEmail() {
+		
+		// cenario
+		Usuario usuario = criarUsuario();
+		Mockito.when(filtroEmails.isCertamenteAusente(usuario.getEmail())).thenReturn(true);
+		Mockito.when(repository.save(usuario)).thenThrow(new DataIntegrityViolationException("not-null constraint: senha"));
+		
+		// acao e verificacao
+		Assertions.assertThrows(DataIntegrityViolationException.class, () -> service.salvarUsuario(usuario));
+		Mockito.verify(filtroEmails, Mockito.never()).adicionar(Mockito.anyString());
+	}
+
 	@Test
 	public void naoDeveSalvarUmUsuarioComEmailJaCadastrado() {
 
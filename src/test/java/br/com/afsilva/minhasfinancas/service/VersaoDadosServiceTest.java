@@ -0,0 +1,73 @@
+package br.com.afsilva.minhasfinancas.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import br.com.afsilva.minhasfinancas.service.imp.VersaoDadosServiceImp;
+
+public class VersaoDadosServiceTest {
+
+	AtomicLong nanos = new AtomicLong();
+	VersaoDadosService service = new VersaoDadosServiceImp(100, Duration.ofMinutes(1), nanos::get);
+	
+	@Test
+	public void deveTrocarAVersaoAoFimDaValidadeMesmoSemEscrita() {
+		
+		//cenario
+		String etag = service.etag(1l);
+		
+		//execucao
+		nanos.addAndGet(Duration.ofSeconds(59).toNanos());
+		String antes = service.etag(1l);
+		nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+		
+		//verificacao
+		Assertions.assertEquals(etag, antes);
+		Assertions.assertNotEquals(etag, service.etag(1l));
+	}
+	
+	@Test
+	public void deveManterOEtagAteUmaEscritaDoUsuario() {
+		
+		//cenario
+		String etag = service.etag(1l);
+		String outroUsuario = service.etag(2l);
+		
+		//execucao
+		service.incrementar(Collections.singleton(2l));
+		
+		//verificacao
+		Assertions.assertEquals(etag, service.etag(1l));
+		Assertions.assertNotEquals(etag, outroUsuario);
+		Assertions.assertNotEquals(outroUsuario, service.etag(2l));
+	}
+	
+	@Test
+	public void deveTrocarAVersaoSomenteAposOCommit() {
+		
+		//cenario
+		String etag = service.etag(1l);
+		TransactionSynchronizationManager.initSynchronization();
+		
+		try {
+			//execucao
+			service.incrementar(Arrays.asList(1l, 1l));
+			String durante = service.etag(1l);
+			TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+			
+			//verificacao
+			Assertions.assertEquals(etag, durante);
+			Assertions.assertNotEquals(etag, service.etag(1l));
+			
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+}